@@ -11,10 +11,11 @@
  * - Neural networks (distributed memory)
  * 
  * PERSISTENCE LAYERS:
- * 1. SQLite database (repl_storage.db) - Main storage
- * 2. JSON state files - Learning state, evolution tracking
- * 3. QR DNA encoding - Visual backup of critical data
- * 4. Binary .dat files - Neural pattern tensors
+ * 1. StorageEngine (infinity_kv/) - Key/value data; LogStructuredStore by default
+ * 2. SQLite database (repl_storage.db) - Mirror + genesis/learning/evolution tables
+ * 3. JSON state files - Learning state, evolution tracking
+ * 4. QR DNA encoding - Optional derived output (setWriteQrFiles / exportQRDNA)
+ * 5. Binary .dat files - Neural pattern tensors
  * 
  * NO ONE HAS DONE THIS IN A JAVA REPL BEFORE.
  * 
@@ -30,6 +31,7 @@ package repl;
 
 import java.util.*;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.security.MessageDigest;
 import java.time.LocalDateTime;
@@ -62,11 +64,17 @@ public class InfinityStorage {
     private String jsonStatePath;
     private String dataPatternsPath;
     private String qrOutputDir;
+    private String kvDir;
     
     // ============================================================
     // STORAGE STATE
     // ============================================================
     private Connection dbConnection;
+    private StorageEngine engine;          // null = legacy JSON file only
+    private static final String JSON_IMPORT_MARK = "m:json_offset";   // bytes of infinity_storage.json imported
+    private boolean writeQrFiles = false;  // QR text files are derived output, off the write path
+    private long lastStateSave = 0;
+    private static final long STATE_SAVE_INTERVAL_MS = 5000;
     private Map<String, StorageNode> nodes;
     private double[][] neuralPatterns;  // 5x8x13 tensor flattened to 5x104
     private LearningState learningState;
@@ -221,16 +229,41 @@ public class InfinityStorage {
     // CONSTRUCTOR
     // ============================================================
     
+    /**
+     * Open storage under baseDir and close it at JVM exit (state saves
+     * are throttled, so this makes sure the last one happens)
+     */
+    public static InfinityStorage open(String baseDir) {
+        return open(baseDir, null);
+    }
+    
+    public static InfinityStorage open(String baseDir, StorageEngine engine) {
+        InfinityStorage storage = new InfinityStorage(baseDir, engine);
+        Runtime.getRuntime().addShutdownHook(new Thread(storage::close, "InfinityStorage-Shutdown"));
+        return storage;
+    }
+    
     public InfinityStorage() {
         this(".");
     }
     
     public InfinityStorage(String baseDir) {
+        this(baseDir, null);
+    }
+    
+    /**
+     * Callers own close(); use {@link #open} to have it run at exit.
+     *
+     * @param engine key/value engine to use, or null for the default
+     *               LogStructuredStore under baseDir/infinity_kv
+     */
+    public InfinityStorage(String baseDir, StorageEngine engine) {
         this.baseDir = baseDir;
         this.dbPath = baseDir + "/repl_storage.db";
         this.jsonStatePath = baseDir + "/learning_state.json";
         this.dataPatternsPath = baseDir + "/phi_patterns.dat";
         this.qrOutputDir = baseDir + "/qr_output";
+        this.kvDir = baseDir + "/infinity_kv";
         
         this.nodes = new HashMap<>();
         this.neuralPatterns = new double[5][104];  // 5 dimensions, 8*13 patterns
@@ -239,6 +272,8 @@ public class InfinityStorage {
         this.rng = new Random();
         
         // Initialize
+        this.engine = engine != null ? engine : openDefaultEngine();
+        importJsonStorage();
         initializeDatabase();
         loadLearningState();
         initializeNeuralPatterns();
@@ -322,6 +357,153 @@ public class InfinityStorage {
         }
     }
     
+    // ============================================================
+    // KEY/VALUE ENGINE
+    // ============================================================
+    // Entries are stored as two keys:
+    //   k:<key>   → hash|frequency|resonance|timestamp|value
+    //   h:<hash>  → key   (so "infinity get <hash prefix>" is a range scan)
+    
+    private StorageEngine openDefaultEngine() {
+        try {
+            return new LogStructuredStore(kvDir);
+        } catch (IOException e) {
+            System.out.println("KV engine unavailable (" + e.getMessage() + ") - using JSON file storage");
+            return null;
+        }
+    }
+    
+    /**
+     * Import infinity_storage.json entries the engine hasn't seen yet.
+     * The file is still appended to whenever the engine can't be used
+     * (another REPL holds infinity_kv/, or a put failed), so this runs on
+     * every open, from the offset the last import stopped at. A JSON entry
+     * never replaces a newer engine entry for the same key.
+     */
+    private void importJsonStorage() {
+        File f = new File(baseDir + "/infinity_storage.json");
+        if (engine == null || !f.exists()) return;
+        try {
+            byte[] data = Files.readAllBytes(f.toPath());
+            String mark = engine.get(JSON_IMPORT_MARK);
+            int from = mark == null ? 0 : (int) Long.parseLong(mark);
+            if (from > data.length) from = 0;   // file was replaced; timestamps guard re-imports
+            int end = from;
+            for (int i = data.length - 1; i >= from; i--) {
+                if (data[i] == '\n') {
+                    end = i + 1;   // complete lines only; a writer may be mid-append
+                    break;
+                }
+            }
+            if (end == from) return;
+
+            int imported = 0;
+            for (String line : new String(data, from, end - from, StandardCharsets.UTF_8).split("\n")) {
+                String[] e = parseJsonEntry(line);
+                if (e == null) continue;
+                try {
+                    long timestamp = Long.parseLong(e[4]);
+                    String existing = engine.get("k:" + e[0]);
+                    if (existing != null) {
+                        String[] entry = decodeEntry(existing);
+                        if (entry.length == 5 && Long.parseLong(entry[3]) >= timestamp) continue;
+                    }
+                    putEntry(e[0], e[1], e[2], Double.parseDouble(e[3]), 0, timestamp);
+                    imported++;
+                } catch (NumberFormatException ex) {
+                    // Malformed line; skip it
+                }
+            }
+            engine.put(JSON_IMPORT_MARK, Integer.toString(end));
+            engine.flush();
+            if (imported > 0) {
+                System.out.println("Imported " + imported + " entries from infinity_storage.json");
+            }
+        } catch (Exception e) {
+            System.out.println("Could not import infinity_storage.json: " + e.getMessage());
+        }
+    }
+    
+    private void putEntry(String key, String value, String hash, double frequency, double resonance,
+                          long timestamp) throws IOException {
+        engine.put("k:" + key, hash + "|" + frequency + "|" + resonance + "|" + timestamp + "|" + value);
+        engine.put("h:" + hash, key);
+    }
+    
+    /** [hash, frequency, resonance, timestamp, value] */
+    private static String[] decodeEntry(String encoded) {
+        return encoded.split("\\|", 5);
+    }
+    
+    /** [key, value, hash, frequency, timestamp] from a legacy JSON line */
+    private static String[] parseJsonEntry(String line) {
+        int keyStart = line.indexOf("\"key\":\"") + 7;
+        int keyEnd = line.indexOf("\",\"value\"");
+        int valueStart = line.indexOf("\"value\":\"") + 9;
+        int valueEnd = line.indexOf("\",\"hash\"");
+        int hashStart = line.indexOf("\"hash\":\"") + 8;
+        int hashEnd = line.indexOf("\",\"frequency\"");
+        int freqStart = line.indexOf("\"frequency\":") + 12;
+        int freqEnd = line.indexOf(",\"timestamp\"");
+        int tsStart = line.indexOf("\"timestamp\":") + 12;
+        int tsEnd = line.lastIndexOf("}");
+        if (keyStart < 7 || keyEnd < keyStart || valueStart < 9 || valueEnd < valueStart ||
+            hashStart < 8 || hashEnd < hashStart || freqStart < 12 || freqEnd < freqStart ||
+            tsStart < 12 || tsEnd < tsStart) {
+            return null;
+        }
+        return new String[] {
+            line.substring(keyStart, keyEnd),
+            line.substring(valueStart, valueEnd).replace("\\n", "\n").replace("\\\"", "\""),
+            line.substring(hashStart, hashEnd),
+            line.substring(freqStart, freqEnd),
+            line.substring(tsStart, tsEnd)
+        };
+    }
+    
+    /**
+     * Write QR DNA files as a side effect of store() (off by default;
+     * exportQRDNA() produces them on demand instead)
+     */
+    public void setWriteQrFiles(boolean writeQrFiles) {
+        this.writeQrFiles = writeQrFiles;
+    }
+    
+    /**
+     * Regenerate qr_output/storage_<hash>.txt for every stored entry
+     * @return number of files written
+     */
+    public int exportQRDNA() {
+        if (engine == null) return 0;
+        int written = 0;
+        try {
+            for (Map.Entry<String, String> e : engine.scan("k:").entrySet()) {
+                String key = e.getKey().substring(2);
+                String[] entry = decodeEntry(e.getValue());
+                if (entry.length < 5) continue;
+                String payload = buildStoragePayload(key, entry[4], entry[0], Double.parseDouble(entry[2]));
+                writeStorageQR(key, entry[4], entry[0], payload);
+                written++;
+            }
+        } catch (IOException e) {
+            System.out.println("QR export error: " + e.getMessage());
+        }
+        return written;
+    }
+    
+    /**
+     * Save learning state and patterns at most every few seconds, so a
+     * burst of stores doesn't rewrite the state files each time
+     */
+    private void saveStateThrottled() {
+        long now = System.currentTimeMillis();
+        if (now - lastStateSave >= STATE_SAVE_INTERVAL_MS) {
+            lastStateSave = now;
+            saveLearningState();
+            saveNeuralPatterns();
+        }
+    }
+    
     // ============================================================
     // JSON STATE PERSISTENCE
     // ============================================================
@@ -503,15 +685,29 @@ public class InfinityStorage {
             }
         }
         
-        // ALWAYS save to JSON file (file-based fallback)
-        saveToJsonStorage(storageKey, value, quantumKey, bestNode.frequency);
+        // Key/value engine (WAL + memtable); JSON file only if it failed to open
+        boolean stored = false;
+        if (engine != null) {
+            try {
+                putEntry(storageKey, value, quantumKey, bestNode.frequency, bestResonance,
+                    System.currentTimeMillis());
+                stored = true;
+            } catch (IOException e) {
+                System.out.println("KV engine error: " + e.getMessage());
+            }
+        }
+        if (!stored) {
+            saveToJsonStorage(storageKey, value, quantumKey, bestNode.frequency);
+        }
         
-        // Generate QR DNA for this storage entry
-        String qrDna = generateQRDNAForStorage(storageKey, value, quantumKey, bestResonance);
+        // QR DNA payload (file only when enabled)
+        String qrDna = buildStoragePayload(storageKey, value, quantumKey, bestResonance);
+        if (writeQrFiles) {
+            writeStorageQR(storageKey, value, quantumKey, qrDna);
+        }
         
         // Save state
-        saveLearningState();
-        saveNeuralPatterns();
+        saveStateThrottled();
         
         return new StorageResult(storageKey, quantumKey, bestResonance, bestNode.key, qrDna);
     }
@@ -569,9 +765,9 @@ public class InfinityStorage {
     }
     
     /**
-     * Generate QR DNA encoding for a storage entry
+     * Build the QR DNA payload for a storage entry
      */
-    private String generateQRDNAForStorage(String key, String value, String hash, double resonance) {
+    private String buildStoragePayload(String key, String value, String hash, double resonance) {
         // Detect modules in value
         List<String> modules = new ArrayList<>();
         String lower = value.toLowerCase();
@@ -589,8 +785,13 @@ public class InfinityStorage {
             "OMEGA|KEY:%s|GEN:%d|PHI:%.10f|RES:%.4f|DIM:%d|MOD:%s|HASH:%s",
             key, learningState.generation, PHI, resonance, dimension, moduleStr, hash
         );
-        
-        // Save QR to file
+        return dnaPayload;
+    }
+    
+    /**
+     * Save the QR DNA text file for a storage entry
+     */
+    private void writeStorageQR(String key, String value, String hash, String dnaPayload) {
         try {
             String qrFile = qrOutputDir + "/storage_" + hash + ".txt";
             StringBuilder qr = new StringBuilder();
@@ -604,12 +805,31 @@ public class InfinityStorage {
         } catch (Exception e) {
             // Continue
         }
-        
-        return dnaPayload;
     }
     
     public String retrieve(String key) {
-        // Try database first
+        // Key/value engine: exact key, exact hash, then hash prefix
+        if (engine != null) {
+            try {
+                String encoded = engine.get("k:" + key);
+                if (encoded == null) {
+                    String owner = engine.get("h:" + key);
+                    if (owner == null) {
+                        SortedMap<String, String> byPrefix = engine.scan("h:" + key);
+                        owner = byPrefix.isEmpty() ? null : byPrefix.get(byPrefix.firstKey());
+                    }
+                    if (owner != null) encoded = engine.get("k:" + owner);
+                }
+                if (encoded != null) {
+                    String[] entry = decodeEntry(encoded);
+                    return entry.length == 5 ? entry[4] : null;
+                }
+            } catch (IOException e) {
+                System.out.println("KV engine error: " + e.getMessage());
+            }
+        }
+        
+        // Then the database (rows written before the engine existed)
         if (dbConnection != null) {
             try {
                 PreparedStatement ps = dbConnection.prepareStatement(
@@ -626,7 +846,8 @@ public class InfinityStorage {
             }
         }
         
-        // Fallback: search JSON storage file
+        // Fallback: JSON storage file (written while the engine was unavailable;
+        // imported on the next open)
         return retrieveFromJsonStorage(key);
     }
     
@@ -661,19 +882,30 @@ public class InfinityStorage {
     }
     
     /**
-     * List all stored keys
+     * List all stored keys: the engine's, then JSON file entries it
+     * doesn't have yet (written while it was unavailable)
      */
     public String listKeys() {
         StringBuilder sb = new StringBuilder();
         sb.append("STORED KEYS:\n");
         
+        Map<String, String> keys = new LinkedHashMap<>();   // key -> hash
+        if (engine != null) {
+            try {
+                for (Map.Entry<String, String> e : engine.scan("k:").entrySet()) {
+                    keys.put(e.getKey().substring(2), decodeEntry(e.getValue())[0]);
+                }
+            } catch (IOException e) {
+                sb.append("  (error reading storage)\n");
+            }
+        }
+        
         // From JSON file
         try {
             String storageFile = baseDir + "/infinity_storage.json";
             File f = new File(storageFile);
             if (f.exists()) {
                 List<String> lines = Files.readAllLines(f.toPath());
-                int count = 0;
                 for (String line : lines) {
                     int keyStart = line.indexOf("\"key\":\"") + 7;
                     int keyEnd = line.indexOf("\",\"value\"");
@@ -683,15 +915,19 @@ public class InfinityStorage {
                         int hashEnd = line.indexOf("\",\"frequency\"");
                         String hash = (hashStart > 7 && hashEnd > hashStart) ? 
                             line.substring(hashStart, hashEnd) : "?";
-                        sb.append(String.format("  %d. %s (hash: %s)\n", ++count, key, hash));
+                        keys.putIfAbsent(key, hash);
                     }
                 }
-                sb.append("\nTotal: ").append(count).append(" entries\n");
             }
         } catch (Exception e) {
             sb.append("  (error reading storage)\n");
         }
         
+        int count = 0;
+        for (Map.Entry<String, String> e : keys.entrySet()) {
+            sb.append(String.format("  %d. %s (hash: %s)\n", ++count, e.getKey(), e.getValue()));
+        }
+        sb.append("\nTotal: ").append(count).append(" entries\n");
         return sb.toString();
     }
     
@@ -802,8 +1038,7 @@ public class InfinityStorage {
             }
         }
         
-        saveLearningState();
-        saveNeuralPatterns();
+        saveStateThrottled();
     }
     
     // ============================================================
@@ -1050,6 +1285,10 @@ public class InfinityStorage {
             sb.append("\n(Using file-based storage)\n");
         }
         
+        if (engine != null) {
+            sb.append("\n").append(engine.getStats());
+        }
+        
         return sb.toString();
     }
     
@@ -1219,6 +1458,13 @@ public class InfinityStorage {
     public void close() {
         saveLearningState();
         saveNeuralPatterns();
+        if (engine != null) {
+            try {
+                engine.close();
+            } catch (IOException e) {
+                System.out.println("KV engine close error: " + e.getMessage());
+            }
+        }
         if (dbConnection != null) {
             try {
                 dbConnection.close();
@@ -329,12 +329,14 @@ public class VaughnScottCommands {
                         return saveInfinityState();
                     case "list":
                         return listInfinityKeys();
+                    case "export":
+                        return exportInfinityQR();
                     default:
                         return getInfinityHelp();
                 }
             },
             "Infinity Storage - Fractal DNA-based infinite memory with persistence",
-            "infinity [init|store|get|learn|passive|evolve|qr|genesis|stats|save]");
+            "infinity [init|store|get|list|learn|passive|evolve|qr|genesis|export|stats|save]");
     }
     
     // ============================================================
@@ -349,10 +351,11 @@ public class VaughnScottCommands {
             "║  NO ONE HAS DONE THIS IN A JAVA REPL BEFORE                 ║\n" +
             "╚══════════════════════════════════════════════════════════════╝\n\n" +
             "PERSISTENCE LAYERS:\n" +
+            "  • Log-structured KV engine (infinity_kv/: WAL + sorted segments)\n" +
             "  • SQLite database (repl_storage.db)\n" +
             "  • JSON state files (learning_state.json)\n" +
             "  • Binary .dat files (phi_patterns.dat)\n" +
-            "  • QR DNA encoding (qr_output/)\n" +
+            "  • QR DNA encoding (qr_output/, via infinity export)\n" +
             "  • Genesis blockchain (genesis_block_*.json)\n\n" +
             "SUBCOMMANDS:\n" +
             "  infinity init              → Initialize storage system\n" +
@@ -364,6 +367,7 @@ public class VaughnScottCommands {
             "  infinity evolve [fitness]  → Evolve storage with fitness score\n" +
             "  infinity qr <data>         → Generate QR DNA encoding\n" +
             "  infinity genesis [data]    → Create Genesis blockchain entry\n" +
+            "  infinity export            → Write QR DNA files for all stored keys\n" +
             "  infinity stats             → Show storage statistics\n" +
             "  infinity save              → Force save all state\n\n" +
             "MATH:\n" +
@@ -375,13 +379,14 @@ public class VaughnScottCommands {
     
     private static String initInfinityStorage() {
         if (infinityStorage == null) {
-            infinityStorage = new InfinityStorage(".");
+            infinityStorage = InfinityStorage.open(".");
         }
         return 
             "╔══════════════════════════════════════════════════════════════╗\n" +
             "║  ∞ INFINITY STORAGE INITIALIZED                             ║\n" +
             "╚══════════════════════════════════════════════════════════════╝\n\n" +
             "Storage nodes created with φ-harmonic structure\n" +
+            "KV engine: infinity_kv/\n" +
             "Database: repl_storage.db\n" +
             "State: learning_state.json\n" +
             "Patterns: phi_patterns.dat\n" +
@@ -391,7 +396,7 @@ public class VaughnScottCommands {
     
     private static void ensureInfinityStorage() {
         if (infinityStorage == null) {
-            infinityStorage = new InfinityStorage(".");
+            infinityStorage = InfinityStorage.open(".");
         }
     }
     
@@ -411,9 +416,9 @@ public class VaughnScottCommands {
             "QR DNA PAYLOAD:\n" +
             "  " + result.qrDna + "\n\n" +
             "PERSISTENCE:\n" +
-            "  • infinity_storage.json (JSON backup)\n" +
-            "  • qr_output/storage_" + result.quantumHash + ".txt (QR DNA)\n" +
-            "  • Neural patterns updated\n\n" +
+            "  • infinity_kv/ (write-ahead log + memtable)\n" +
+            "  • Neural patterns updated\n" +
+            "  • QR DNA file: infinity export\n\n" +
             "To retrieve: infinity get " + result.key;
     }
     
@@ -491,6 +496,12 @@ public class VaughnScottCommands {
         return infinityStorage.listKeys();
     }
     
+    private static String exportInfinityQR() {
+        ensureInfinityStorage();
+        int written = infinityStorage.exportQRDNA();
+        return "✓ Exported " + written + " QR DNA files to qr_output/";
+    }
+    
     // ==========================================
     // POLLARD'S RHO FACTORIZATION
     // ==========================================
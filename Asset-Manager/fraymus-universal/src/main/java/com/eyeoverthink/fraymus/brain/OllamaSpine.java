@@ -1,5 +1,8 @@
 package com.eyeoverthink.fraymus.brain;
 
+import fraynix.observe.Span;
+import fraynix.observe.Tracer;
+
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.*;
@@ -26,6 +29,10 @@ public final class OllamaSpine {
     }
 
     public String think(String prompt) {
+        Span span = Tracer.global().startSpan("POST /api/generate", Span.Kind.CLIENT);
+        span.setAttribute("http.method", "POST")
+            .setAttribute("http.url", "http://localhost:11434/api/generate")
+            .setAttribute("llm.model", model);
         try {
             String payload = "{"
                     + "\"model\":\"" + escape(model) + "\","
@@ -41,7 +48,9 @@ public final class OllamaSpine {
                     .build();
 
             HttpResponse<String> res = client.send(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            span.setAttribute("http.status_code", res.statusCode());
             if (res.statusCode() != 200) {
+                span.setError("HTTP " + res.statusCode());
                 return "[OLLAMA_ERROR] HTTP " + res.statusCode() + " :: " + res.body();
             }
 
@@ -56,7 +65,10 @@ public final class OllamaSpine {
             return unescape(raw);
 
         } catch (IOException | InterruptedException e) {
+            span.setError(String.valueOf(e));
             return "[OLLAMA_EXCEPTION] " + e.getMessage();
+        } finally {
+            span.end();
         }
     }
 
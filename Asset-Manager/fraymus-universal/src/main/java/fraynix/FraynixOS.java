@@ -86,7 +86,7 @@ public class FraynixOS {
         kernel.registerService(pulse);
 
         // 6. Initialize FS + Swarm + Dream + Genesis
-        this.fs = new FrayFS(brain, logger);
+        this.fs = new FrayFS(brain, logger, Path.of(".fraynix", "fs"));
         kernel.registerService(fs);
 
         this.swarm = new NanoSwarm(fs, intentBus, logger);
@@ -115,6 +115,7 @@ public class BenchmarkHarness {
         
         stats.put("RoundRobin", benchmarkScheduler(new RoundRobinScheduler(), taskCount));
         stats.put("Priority", benchmarkScheduler(new PriorityScheduler(), taskCount));
+        stats.put("WorkStealing", benchmarkScheduler(new WorkStealingScheduler(4), taskCount));
         
         // Brain scheduler needs a brain
         HyperTesseract brain = new HyperTesseract();
@@ -178,6 +179,7 @@ public class BenchmarkHarness {
         }
         
         executor.shutdown();
+        scheduler.shutdown();
         
         var metrics = scheduler.getMetrics();
         return new SchedulerStats(
@@ -163,7 +163,13 @@ public class HyperTesseract implements KernelService {
     }
 
     public Policy.Decision<String> decide(Intent intent) {
-        BrainState state = captureState();
+        return decide(captureState(), intent);
+    }
+
+    /**
+     * Decide against a state captured earlier (skips the 4,096-node scan)
+     */
+    public Policy.Decision<String> decide(BrainState state, Intent intent) {
         Policy.Decision<String> decision = policy.decide(state, intent);
         
         if (logger != null) {
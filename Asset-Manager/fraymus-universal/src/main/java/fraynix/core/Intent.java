@@ -74,6 +74,7 @@ public class Intent {
     private IntentState state = IntentState.PENDING;
     private String result;
     private String error;
+    private volatile String spanId;         // Span that published this (tracing)
 
     public enum IntentState {
         PENDING, QUEUED, PROCESSING, COMPLETED, FAILED, CANCELLED, TIMEOUT
@@ -106,11 +107,13 @@ public class Intent {
     public IntentState getState() { return state; }
     public String getResult() { return result; }
     public String getError() { return error; }
+    public String getSpanId() { return spanId; }
 
     // State mutations (public for cross-package IntentBus access)
     public void setState(IntentState state) { this.state = state; }
     public void setResult(String result) { this.result = result; this.state = IntentState.COMPLETED; }
     public void setError(String error) { this.error = error; this.state = IntentState.FAILED; }
+    public void setSpanId(String spanId) { this.spanId = spanId; }
 
     public boolean isExpired() {
         return deadline != null && Instant.now().isAfter(deadline);
@@ -2,6 +2,8 @@ package fraynix.core.impl;
 
 import fraynix.core.*;
 import fraynix.observe.EventLogger;
+import fraynix.observe.Span;
+import fraynix.observe.Tracer;
 
 import java.util.*;
 import java.util.concurrent.*;
@@ -13,19 +15,45 @@ import java.util.function.Predicate;
  * DEFAULT INTENT BUS: Production implementation of IntentBus.
  * 
  * Thread-safe, bounded queues, backpressure support.
+ * 
+ * Pipeline (per shard, shards keyed by intent type so each type stays
+ * in order):
+ * 
+ *   publish → IntentRing → [dispatch group] → [journal group]
+ * 
+ *   - publish: one CAS on the shard's ring; full ring = backpressure
+ *   - dispatch: subscribers + handlers, in batches, on the shard pump
+ *   - journal: history index + intent_processed log, off the hot path
+ * 
+ * Routing tables (subscribers and handlers per type) are precomputed on
+ * subscribe/register into arrays indexed by type, so dispatch is a
+ * straight array walk; only predicate subscriptions are evaluated per
+ * intent. History is a bounded ring indexed by id and traceId.
+ * 
+ * A handler that blocks stalls its own shard (its type and the types
+ * that share the shard), not the whole bus; use request() or the kernel
+ * for long-running work.
+ * 
+ * Tracing: publish() opens a PRODUCER span and stamps its ID on the
+ * intent; the pump that handles it opens a CONSUMER child and makes it
+ * current, so handlers, spawned processes and HTTP calls nest under it.
  */
 public class DefaultIntentBus implements IntentBus, KernelService {
 
+    private static final Intent.Type[] TYPES = Intent.Type.values();
+
     private final String name = "IntentBus";
     private final ExecutorService executor;
     private final ScheduledExecutorService scheduler;
-    private final BlockingQueue<Intent> queue;
-    private final Map<Intent.Type, List<IntentHandler>> handlers;
-    private final Map<String, List<SubscriptionImpl>> typeSubscriptions;
-    private final List<SubscriptionImpl> globalSubscriptions;
-    private final List<SubscriptionImpl> filterSubscriptions;
-    private final Deque<Intent> history;
-    private final int historyLimit;
+    private final IntentRing[] shards;
+    private final IntentHistory history;
+    
+    // Master registration lists (guarded by this); routes are rebuilt from them
+    private final Map<Intent.Type, List<IntentHandler>> handlers = new EnumMap<>(Intent.Type.class);
+    private final Map<Intent.Type, List<SubscriptionImpl>> typeSubscriptions = new EnumMap<>(Intent.Type.class);
+    private final List<SubscriptionImpl> globalSubscriptions = new ArrayList<>();
+    private final List<SubscriptionImpl> filterSubscriptions = new ArrayList<>();
+    private volatile Route[] routes;
     
     private final AtomicLong publishedCount = new AtomicLong();
     private final AtomicLong processedCount = new AtomicLong();
@@ -35,21 +63,24 @@ public class DefaultIntentBus implements IntentBus, KernelService {
     private volatile boolean running = false;
     private long startTime;
     private EventLogger logger;
-
-    private Thread pumpThread;
+    private Tracer tracer = Tracer.global();
 
     public DefaultIntentBus() {
         this(100, 1000, 4);
     }
 
     public DefaultIntentBus(int queueCapacity, int historyLimit, int workerThreads) {
-        this.queue = new LinkedBlockingQueue<>(queueCapacity);
-        this.history = new ConcurrentLinkedDeque<>();
-        this.historyLimit = historyLimit;
-        this.handlers = new ConcurrentHashMap<>();
-        this.typeSubscriptions = new ConcurrentHashMap<>();
-        this.globalSubscriptions = new CopyOnWriteArrayList<>();
-        this.filterSubscriptions = new CopyOnWriteArrayList<>();
+        int shardCount = Math.max(1, Math.min(workerThreads, TYPES.length));
+        int perShard = Math.max(2, (queueCapacity + shardCount - 1) / shardCount);
+        this.shards = new IntentRing[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            IntentRing ring = new IntentRing(perShard);
+            ring.addGroup("dispatch", (seq, slot, intent) -> dispatch(ring, slot, intent), false);
+            ring.addGroup("journal", (seq, slot, intent) -> journal(intent, ring.results[slot], ring.latencyMs[slot]), true);
+            shards[i] = ring;
+        }
+        this.history = new IntentHistory(historyLimit);
+        rebuildRoutes();
         
         this.executor = Executors.newFixedThreadPool(workerThreads, r -> {
             Thread t = new Thread(r, "IntentBus-Worker");
@@ -68,12 +99,26 @@ public class DefaultIntentBus implements IntentBus, KernelService {
         this.logger = logger;
     }
 
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    private IntentRing shardFor(Intent.Type type) {
+        return shards[type.ordinal() % shards.length];
+    }
+
     @Override
     public void publish(Intent intent) {
         if (!running) return;
         
         publishedCount.incrementAndGet();
         intent.setState(Intent.IntentState.QUEUED);
+        Span span = tracer.startSpan("publish " + intent.getType(), Span.Kind.PRODUCER,
+            intent.getTraceId(), tracer.currentSpanId(intent.getTraceId()));
+        span.setAttribute("intent.id", intent.getId())
+            .setAttribute("intent.origin", intent.getOrigin())
+            .setAttribute("intent.priority", intent.getPriority().name());
+        intent.setSpanId(span.getSpanId());
         
         // Log
         if (logger != null) {
@@ -85,8 +130,15 @@ public class DefaultIntentBus implements IntentBus, KernelService {
             ));
         }
         
-        // Try to queue, drop if full (backpressure)
-        if (!queue.offer(intent)) {
+        // Try to queue, drop if full (backpressure). The span ends right
+        // after the hand-off, so the queue hop shows as a gap.
+        boolean queued = shardFor(intent.getType()).tryPublish(intent);
+        if (!queued) {
+            span.setError("queue_full");
+        }
+        span.end();
+        
+        if (!queued) {
             intent.setError("Queue full - backpressure applied");
             failedCount.incrementAndGet();
             if (logger != null) {
@@ -105,12 +157,16 @@ public class DefaultIntentBus implements IntentBus, KernelService {
         CompletableFuture<IntentResult> future = new CompletableFuture<>();
         
         long startTime = System.currentTimeMillis();
+        if (intent.getSpanId() == null) {
+            intent.setSpanId(tracer.currentSpanId(intent.getTraceId()));
+        }
         
         executor.submit(() -> {
             try {
                 IntentResult result = processIntent(intent);
                 long latency = System.currentTimeMillis() - startTime;
                 totalLatencyMs.addAndGet(latency);
+                journal(intent, result, result.latencyMs());
                 future.complete(result);
             } catch (Exception e) {
                 long latency = System.currentTimeMillis() - startTime;
@@ -131,49 +187,90 @@ public class DefaultIntentBus implements IntentBus, KernelService {
     @Override
     public Subscription subscribe(Intent.Type type, Consumer<Intent> handler) {
         SubscriptionImpl sub = new SubscriptionImpl(handler);
-        typeSubscriptions.computeIfAbsent(type.name(), k -> new CopyOnWriteArrayList<>()).add(sub);
+        synchronized (this) {
+            typeSubscriptions.computeIfAbsent(type, k -> new ArrayList<>()).add(sub);
+            rebuildRoutes();
+        }
         return sub;
     }
 
     @Override
     public Subscription subscribe(Predicate<Intent> filter, Consumer<Intent> handler) {
         SubscriptionImpl sub = new SubscriptionImpl(handler, filter);
-        filterSubscriptions.add(sub);
+        synchronized (this) {
+            filterSubscriptions.add(sub);
+            rebuildRoutes();
+        }
         return sub;
     }
 
     @Override
     public Subscription subscribeAll(Consumer<Intent> handler) {
         SubscriptionImpl sub = new SubscriptionImpl(handler);
-        globalSubscriptions.add(sub);
+        synchronized (this) {
+            globalSubscriptions.add(sub);
+            rebuildRoutes();
+        }
         return sub;
     }
 
     @Override
-    public void registerHandler(Intent.Type type, IntentHandler handler) {
-        handlers.computeIfAbsent(type, k -> new CopyOnWriteArrayList<>()).add(handler);
+    public synchronized void registerHandler(Intent.Type type, IntentHandler handler) {
+        handlers.computeIfAbsent(type, k -> new ArrayList<>()).add(handler);
+        rebuildRoutes();
     }
 
+    private synchronized void unsubscribe(SubscriptionImpl sub) {
+        globalSubscriptions.remove(sub);
+        filterSubscriptions.remove(sub);
+        for (List<SubscriptionImpl> subs : typeSubscriptions.values()) subs.remove(sub);
+        rebuildRoutes();
+    }
+
+    /**
+     * Per-type arrays in dispatch order: global, type, then filter
+     * subscribers, followed by the type's handlers
+     */
+    private synchronized void rebuildRoutes() {
+        Route[] next = new Route[TYPES.length];
+        for (Intent.Type type : TYPES) {
+            List<SubscriptionImpl> subs = new ArrayList<>(globalSubscriptions);
+            subs.addAll(typeSubscriptions.getOrDefault(type, List.of()));
+            int plain = subs.size();
+            subs.addAll(filterSubscriptions);
+            next[type.ordinal()] = new Route(
+                subs.toArray(new SubscriptionImpl[0]),
+                plain,
+                handlers.getOrDefault(type, List.of()).toArray(new IntentHandler[0])
+            );
+        }
+        routes = next;
+    }
+
+    private record Route(SubscriptionImpl[] subscribers, int unfiltered, IntentHandler[] handlers) {}
+
     @Override
     public List<Intent> getPendingIntents() {
-        return new ArrayList<>(queue);
+        List<Intent> result = new ArrayList<>();
+        for (IntentRing ring : shards) result.addAll(ring.pending());
+        return result;
     }
 
     @Override
     public List<Intent> getHistory(int limit) {
-        List<Intent> result = new ArrayList<>();
-        Iterator<Intent> it = history.descendingIterator();
-        while (it.hasNext() && result.size() < limit) {
-            result.add(it.next());
-        }
-        return result;
+        return history.latest(limit);
     }
 
     @Override
     public List<Intent> getByTraceId(String traceId) {
-        return history.stream()
-            .filter(i -> traceId.equals(i.getTraceId()))
-            .toList();
+        return history.byTrace(traceId);
+    }
+
+    /**
+     * A finished intent still in history, or null
+     */
+    public Intent getById(String id) {
+        return history.byId(id);
     }
 
     @Override
@@ -197,21 +294,21 @@ public class DefaultIntentBus implements IntentBus, KernelService {
         running = true;
         startTime = System.currentTimeMillis();
         
-        // Start queue pump thread (avoid starvation if worker pool is saturated)
-        pumpThread = new Thread(this::processQueue, "IntentBus-Pump");
-        pumpThread.setDaemon(true);
-        pumpThread.start();
+        // One pump per consumer group per shard
+        for (int i = 0; i < shards.length; i++) {
+            shards[i].start("IntentBus-Shard-" + i);
+        }
 
-        int capacity = queue.size() + queue.remainingCapacity();
-        System.out.println("🚌 IntentBus started (queue_capacity=" + capacity + ")");
+        int capacity = queueCapacity();
+        System.out.println("🚌 IntentBus started (queue_capacity=" + capacity + ", shards=" + shards.length + ")");
     }
 
     @Override
     public void stop() {
         running = false;
 
-        if (pumpThread != null) {
-            pumpThread.interrupt();
+        for (IntentRing ring : shards) {
+            ring.stop();
         }
         executor.shutdown();
         scheduler.shutdown();
@@ -227,54 +324,42 @@ public class DefaultIntentBus implements IntentBus, KernelService {
     @Override
     public boolean isRunning() { return running; }
 
-    private void processQueue() {
-        while (running) {
-            try {
-                Intent intent = queue.poll(100, TimeUnit.MILLISECONDS);
-                if (intent != null) {
-                    executor.submit(() -> processIntent(intent));
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-        }
+    /**
+     * Dispatch group: run the intent, leave result/latency in the slot
+     * for the journal group
+     */
+    private void dispatch(IntentRing ring, int slot, Intent intent) {
+        IntentResult result = processIntent(intent);
+        ring.results[slot] = result;
+        ring.latencyMs[slot] = result.latencyMs();
+        totalLatencyMs.addAndGet(result.latencyMs());
     }
 
     private IntentResult processIntent(Intent intent) {
         long start = System.currentTimeMillis();
         intent.setState(Intent.IntentState.PROCESSING);
+        Span span = tracer.startSpan("handle " + intent.getType(), Span.Kind.CONSUMER,
+            intent.getTraceId(), intent.getSpanId());
+        span.setAttribute("intent.id", intent.getId());
         
+        Tracer.Scope scope = tracer.activate(span);
         try {
-            // Notify global subscribers
-            for (SubscriptionImpl sub : globalSubscriptions) {
-                if (sub.isActive()) sub.handler.accept(intent);
-            }
+            Route route = routes[intent.getType().ordinal()];
             
-            // Notify type subscribers
-            List<SubscriptionImpl> typeSubs = typeSubscriptions.get(intent.getType().name());
-            if (typeSubs != null) {
-                for (SubscriptionImpl sub : typeSubs) {
-                    if (sub.isActive()) sub.handler.accept(intent);
-                }
-            }
-            
-            // Notify filter subscribers
-            for (SubscriptionImpl sub : filterSubscriptions) {
-                if (sub.isActive() && (sub.filter == null || sub.filter.test(intent))) {
-                    sub.handler.accept(intent);
-                }
+            // Notify subscribers: global + type first, then filters
+            SubscriptionImpl[] subs = route.subscribers();
+            for (int i = 0; i < subs.length; i++) {
+                SubscriptionImpl sub = subs[i];
+                if (!sub.isActive()) continue;
+                if (i >= route.unfiltered() && sub.filter != null && !sub.filter.test(intent)) continue;
+                sub.handler.accept(intent);
             }
             
             // Process with handlers
-            List<IntentHandler> typeHandlers = handlers.get(intent.getType());
             IntentResult result = null;
-            
-            if (typeHandlers != null && !typeHandlers.isEmpty()) {
-                for (IntentHandler handler : typeHandlers) {
-                    result = handler.handle(intent);
-                    if (result != null && result.success()) break;
-                }
+            for (IntentHandler handler : route.handlers()) {
+                result = handler.handle(intent);
+                if (result != null && result.success()) break;
             }
             
             long latency = System.currentTimeMillis() - start;
@@ -290,39 +375,49 @@ public class DefaultIntentBus implements IntentBus, KernelService {
             } else {
                 intent.setError(result.error());
                 failedCount.incrementAndGet();
+                span.setError(result.error());
             }
-            
-            // Add to history
-            addToHistory(intent);
-            
-            // Log
-            if (logger != null) {
-                logger.logEvent("intent_processed", Map.of(
-                    "id", intent.getId(),
-                    "type", intent.getType().name(),
-                    "success", result.success(),
-                    "latency_ms", latency
-                ));
-            }
-            
             return result;
             
         } catch (Exception e) {
             long latency = System.currentTimeMillis() - start;
             intent.setError(e.getMessage());
             failedCount.incrementAndGet();
-            addToHistory(intent);
+            span.setError(String.valueOf(e));
             return IntentResult.failure(intent.getId(), e.getMessage(), latency);
+        } finally {
+            scope.close();
+            span.end();
         }
     }
 
-    private void addToHistory(Intent intent) {
-        history.addLast(intent);
-        while (history.size() > historyLimit) {
-            history.removeFirst();
+    /**
+     * Journal group: history + processed log, behind dispatch
+     */
+    private void journal(Intent intent, IntentResult result, long latency) {
+        history.add(intent);
+        if (logger != null && result != null) {
+            logger.logEvent("intent_processed", Map.of(
+                "id", intent.getId(),
+                "type", intent.getType().name(),
+                "success", result.success(),
+                "latency_ms", latency
+            ));
         }
     }
 
+    private int queueSize() {
+        int n = 0;
+        for (IntentRing ring : shards) n += ring.size();
+        return n;
+    }
+
+    private int queueCapacity() {
+        int n = 0;
+        for (IntentRing ring : shards) n += ring.capacity();
+        return n;
+    }
+
     // KernelService implementation
     @Override
     public String getName() { return name; }
@@ -341,8 +436,8 @@ public class DefaultIntentBus implements IntentBus, KernelService {
     @Override
     public HealthReport getHealth() {
         long uptime = running ? System.currentTimeMillis() - startTime : 0;
-        int queueSize = queue.size();
-        int capacity = queueSize + queue.remainingCapacity();
+        int queueSize = queueSize();
+        int capacity = queueCapacity();
         
         if (!running) {
             return HealthReport.unhealthy(ServiceStatus.STOPPED, "Not running", 0);
@@ -365,11 +460,11 @@ public class DefaultIntentBus implements IntentBus, KernelService {
             0, // p99 would need histogram
             0.0,
             0,
-            Map.of("queueSize", (long) queue.size(), "historySize", (long) history.size())
+            Map.of("queueSize", (long) queueSize(), "historySize", (long) history.size())
         );
     }
 
-    private static class SubscriptionImpl implements Subscription {
+    private class SubscriptionImpl implements Subscription {
         final Consumer<Intent> handler;
         final Predicate<Intent> filter;
         volatile boolean active = true;
@@ -384,7 +479,11 @@ public class DefaultIntentBus implements IntentBus, KernelService {
         }
 
         @Override
-        public void unsubscribe() { active = false; }
+        public void unsubscribe() {
+            if (!active) return;
+            active = false;
+            DefaultIntentBus.this.unsubscribe(this);
+        }
         
         @Override
         public boolean isActive() { return active; }
@@ -0,0 +1,73 @@
+package fraynix.core.impl;
+
+import fraynix.core.Intent;
+
+import java.util.*;
+
+/**
+ * INTENT HISTORY: Bounded circular log of finished intents, indexed.
+ *
+ * A fixed array overwritten in order, plus two indexes kept in step
+ * with it: id → intent and traceId → intents (oldest first). Eviction
+ * is O(1) because the evicted intent is always the oldest entry of its
+ * trace. getHistory/getById/getByTraceId never scan the log.
+ */
+final class IntentHistory {
+
+    private final Intent[] ring;
+    private long written;
+    private final Map<String, Intent> byId;
+    private final Map<String, ArrayDeque<Intent>> byTrace;
+
+    IntentHistory(int limit) {
+        int cap = Math.max(1, limit);
+        this.ring = new Intent[cap];
+        this.byId = new HashMap<>(cap * 2);
+        this.byTrace = new HashMap<>();
+    }
+
+    synchronized void add(Intent intent) {
+        int slot = (int) (written % ring.length);
+        Intent evicted = ring[slot];
+        if (evicted != null) {
+            byId.remove(evicted.getId(), evicted);
+            ArrayDeque<Intent> trace = byTrace.get(evicted.getTraceId());
+            if (trace != null) {
+                trace.remove(evicted);   // head in practice
+                if (trace.isEmpty()) byTrace.remove(evicted.getTraceId());
+            }
+        }
+        ring[slot] = intent;
+        written++;
+        byId.put(intent.getId(), intent);
+        byTrace.computeIfAbsent(intent.getTraceId(), k -> new ArrayDeque<>(2)).addLast(intent);
+    }
+
+    /**
+     * Newest first
+     */
+    synchronized List<Intent> latest(int limit) {
+        int n = (int) Math.min(Math.min(limit, ring.length), written);
+        List<Intent> result = new ArrayList<>(Math.max(0, n));
+        for (long s = written - 1; s >= written - n; s--) {
+            result.add(ring[(int) (s % ring.length)]);
+        }
+        return result;
+    }
+
+    synchronized Intent byId(String id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Oldest first
+     */
+    synchronized List<Intent> byTrace(String traceId) {
+        ArrayDeque<Intent> trace = byTrace.get(traceId);
+        return trace == null ? List.of() : new ArrayList<>(trace);
+    }
+
+    synchronized int size() {
+        return (int) Math.min(written, ring.length);
+    }
+}
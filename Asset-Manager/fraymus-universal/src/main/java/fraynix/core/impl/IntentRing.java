@@ -0,0 +1,210 @@
+package fraynix.core.impl;
+
+import fraynix.core.Intent;
+import fraynix.core.IntentBus.IntentResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * INTENT RING: Disruptor-style multi-producer ring buffer.
+ *
+ * Producers claim a sequence with one CAS and publish by stamping the
+ * slot's availability word; nothing is locked or allocated per intent.
+ * Consumer groups each own a sequence and read every intent in order,
+ * in batches. A group may be gated on an earlier group (the journal
+ * only sees intents the dispatcher has finished), and producers are
+ * gated on the last group: when it is a full lap behind, publish fails
+ * and the bus applies backpressure.
+ *
+ * Per-slot result/latency fields let a gated group read what an earlier
+ * group produced (the group sequence's volatile write publishes them).
+ *
+ * Idle consumers spin briefly, then park until woken; producers (and the
+ * upstream group) unpark a group only when it has flagged itself as
+ * parked. The flag is raised before the final re-check and read after
+ * the publish, both volatile, so a wake-up can't be missed and an idle
+ * bus costs no timer wake-ups.
+ */
+final class IntentRing {
+
+    @FunctionalInterface
+    interface Handler {
+        void onEvent(long sequence, int slot, Intent intent);
+    }
+
+    final class Group implements Runnable {
+        private final String name;
+        private final Handler handler;
+        private final Group gate;              // null = gated on producers
+        private final AtomicLong next = new AtomicLong();
+        private volatile Thread thread;
+        private volatile boolean parked;
+        private Group downstream;
+
+        private Group(String name, Handler handler, Group gate) {
+            this.name = name;
+            this.handler = handler;
+            this.gate = gate;
+        }
+
+        long position() { return next.get(); }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            long n = next.get();
+            int idle = 0;
+            while (running) {
+                long limit = gate != null ? gate.next.get() : availableFrom(n);
+                if (limit == n) {
+                    idle = await(n, idle);
+                    continue;
+                }
+                idle = 0;
+                for (long s = n; s < limit; s++) {
+                    int slot = (int) (s & mask);
+                    try {
+                        handler.onEvent(s, slot, slots[slot]);
+                    } catch (RuntimeException e) {
+                        System.err.println("IntentRing " + name + " handler failed: " + e);
+                    }
+                }
+                next.set(limit);
+                n = limit;
+                if (downstream != null) downstream.wake();
+            }
+        }
+
+        private int await(long n, int idle) {
+            if (idle < 64) {
+                Thread.onSpinWait();
+            } else if (idle < 96) {
+                Thread.yield();
+            } else {
+                parked = true;
+                long limit = gate != null ? gate.next.get() : availableFrom(n);
+                if (limit == n && running) LockSupport.park(this);
+                parked = false;
+                return idle;
+            }
+            return idle + 1;
+        }
+
+        void wake() {
+            if (parked) {
+                Thread t = thread;
+                if (t != null) LockSupport.unpark(t);
+            }
+        }
+    }
+
+    private final Intent[] slots;
+    private final AtomicLongArray available;
+    final IntentResult[] results;
+    final long[] latencyMs;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final List<Group> groups = new ArrayList<>();
+    private volatile boolean running;
+
+    IntentRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new Intent[size];
+        this.available = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) available.set(i, -1);
+        this.results = new IntentResult[size];
+        this.latencyMs = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Add a consumer group; gated on the previously added group if
+     * afterPrevious, else on producers
+     */
+    Group addGroup(String name, Handler handler, boolean afterPrevious) {
+        Group gate = afterPrevious && !groups.isEmpty() ? groups.get(groups.size() - 1) : null;
+        Group g = new Group(name, handler, gate);
+        if (gate != null) gate.downstream = g;
+        groups.add(g);
+        return g;
+    }
+
+    /**
+     * Claim, fill and publish one slot; false if the ring is full
+     */
+    boolean tryPublish(Intent intent) {
+        Group tail = groups.get(groups.size() - 1);
+        long n;
+        do {
+            n = claimed.get();
+            if (n - tail.next.get() >= slots.length) return false;
+        } while (!claimed.compareAndSet(n, n + 1));
+        int slot = (int) (n & mask);
+        slots[slot] = intent;
+        results[slot] = null;
+        available.set(slot, n);
+        for (Group g : groups) {
+            if (g.gate == null) g.wake();
+        }
+        return true;
+    }
+
+    private long availableFrom(long n) {
+        long hi = claimed.get();
+        long s = n;
+        while (s < hi && available.get((int) (s & mask)) == s) s++;
+        return s;
+    }
+
+    void start(String threadPrefix) {
+        running = true;
+        for (Group g : groups) {
+            Thread t = new Thread(g, threadPrefix + "-" + g.name);
+            t.setDaemon(true);
+            g.thread = t;
+            t.start();
+        }
+    }
+
+    void stop() {
+        running = false;
+        for (Group g : groups) {
+            Thread t = g.thread;
+            if (t != null) {
+                LockSupport.unpark(t);
+                try {
+                    t.join(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Intents published but not yet dispatched by the first group
+     */
+    List<Intent> pending() {
+        List<Intent> result = new ArrayList<>();
+        if (groups.isEmpty()) return result;
+        long from = groups.get(0).next.get();
+        long to = availableFrom(from);
+        for (long s = from; s < to; s++) {
+            Intent i = slots[(int) (s & mask)];
+            if (i != null) result.add(i);
+        }
+        return result;
+    }
+
+    int size() {
+        return groups.isEmpty() ? 0 : (int) Math.max(0, claimed.get() - groups.get(0).next.get());
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
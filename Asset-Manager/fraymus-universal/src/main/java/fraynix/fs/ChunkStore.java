@@ -0,0 +1,598 @@
+package fraynix.fs;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.util.*;
+
+/**
+ * CHUNK STORE: Content-addressed, deduplicating block store for FrayFS.
+ *
+ * Content is cut into variable-size chunks with a gear rolling hash
+ * (content-defined boundaries, 2 KB min / ~8 KB avg / 64 KB max), so an
+ * edit only changes the chunks around it. Each chunk is keyed by its
+ * SHA-256 and stored once, no matter how many files or versions use it.
+ *
+ * Reference counting: every ChunkList handed out by put()/write() holds
+ * one reference per chunk; retain()/release() move ownership. Chunks
+ * that drop to zero are collected by gc().
+ *
+ * Storage:
+ *   - in-memory mode: chunk bytes live on the heap
+ *   - on-disk mode: chunks are appended to chunks.pack and read back
+ *     through memory-mapped windows; gc() leaves holes that
+ *     compactIfNeeded() squeezes out once they outweigh live data
+ *     (call it only after persisting whatever references the chunks)
+ *
+ * Pack record: [32-byte SHA-256][int length][bytes]
+ */
+public class ChunkStore {
+
+    public static final int MIN_CHUNK = 2 * 1024;
+    public static final int AVG_CHUNK = 8 * 1024;
+    public static final int MAX_CHUNK = 64 * 1024;
+
+    // Normalized chunking: stricter mask before AVG, looser after
+    private static final long MASK_S = 0xFFFE000000000000L;   // 15 bits
+    private static final long MASK_L = 0xFFE0000000000000L;   // 11 bits
+    private static final long[] GEAR = new long[256];
+    static {
+        SplittableRandom r = new SplittableRandom(0x46524159L);
+        for (int i = 0; i < GEAR.length; i++) GEAR[i] = r.nextLong();
+    }
+
+    private static final int PACK_MAGIC = 0x46435331;   // "FCS1"
+    private static final int HEADER = 8;                // magic + reserved
+    private static final int RECORD_HEAD = 32 + 4;
+    private static final long WINDOW = 1L << 30;        // mapped window stride
+    private static final long WINDOW_SLACK = RECORD_HEAD + MAX_CHUNK;
+    private static final long COMPACT_MIN = 32L << 20;
+
+    /**
+     * One stored chunk. Shared by every ChunkList that contains it.
+     */
+    public static final class Chunk {
+        final ChunkId id;
+        final int length;
+        byte[] heap;          // in-memory mode
+        long pos = -1;        // on-disk mode: offset of the record
+        int refs;
+        boolean collected;
+
+        Chunk(ChunkId id, int length) {
+            this.id = id;
+            this.length = length;
+        }
+
+        public int length() { return length; }
+        public String hex() { return id.hex(); }
+    }
+
+    /**
+     * An ordered run of chunks: one file version's content
+     */
+    public static final class ChunkList {
+        final Chunk[] chunks;
+        final long size;
+        final String sha256;
+
+        ChunkList(Chunk[] chunks, long size, String sha256) {
+            this.chunks = chunks;
+            this.size = size;
+            this.sha256 = sha256;
+        }
+
+        public int chunkCount() { return chunks.length; }
+        public long size() { return size; }
+        public String sha256() { return sha256; }
+    }
+
+    private final Path dir;
+    private final Map<ChunkId, Chunk> index = new HashMap<>();
+    private final List<Chunk> garbage = new ArrayList<>();
+
+    // On-disk mode
+    private FileChannel pack;
+    private long packEnd;
+    private MappedByteBuffer[] windows = new MappedByteBuffer[0];
+    private long deadBytes;
+
+    // Stats
+    private long storedBytes;       // unique live chunk bytes
+    private long referencedBytes;   // bytes as seen by all references
+    private long dedupHits;
+
+    /**
+     * In-memory store
+     */
+    public ChunkStore() {
+        this.dir = null;
+    }
+
+    /**
+     * Persistent store in dir/chunks.pack. Existing chunks are indexed
+     * with zero references; whoever owns them must retain() before gc().
+     */
+    public ChunkStore(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        openPack(dir.resolve("chunks.pack"));
+    }
+
+    public boolean isPersistent() {
+        return dir != null;
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // WRITE
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Chunk and store a byte array; the returned list holds one reference
+     */
+    public ChunkList put(byte[] data) {
+        MessageDigest whole = sha256();
+        MessageDigest part = sha256();
+        List<Chunk> out = new ArrayList<>(data.length / AVG_CHUNK + 1);
+        int off = 0;
+        while (off < data.length) {
+            int n = cut(data, off, data.length - off);
+            whole.update(data, off, n);
+            out.add(intern(data, off, n, part));
+            off += n;
+        }
+        return new ChunkList(out.toArray(new Chunk[0]), data.length, hex(whole.digest()));
+    }
+
+    /**
+     * Chunk and store a stream without holding it all in memory
+     */
+    public ChunkList write(InputStream in) throws IOException {
+        MessageDigest whole = sha256();
+        MessageDigest part = sha256();
+        List<Chunk> out = new ArrayList<>();
+        byte[] buf = new byte[MAX_CHUNK * 2];
+        int start = 0;
+        int end = 0;
+        long size = 0;
+        boolean eof = false;
+        while (true) {
+            // Keep at least one max-size chunk buffered unless at EOF
+            while (!eof && end - start < MAX_CHUNK) {
+                if (end == buf.length) {
+                    System.arraycopy(buf, start, buf, 0, end - start);
+                    end -= start;
+                    start = 0;
+                }
+                int r = in.read(buf, end, buf.length - end);
+                if (r < 0) eof = true; else end += r;
+            }
+            if (start == end) break;
+            int n = cut(buf, start, end - start);
+            whole.update(buf, start, n);
+            out.add(intern(buf, start, n, part));
+            start += n;
+            size += n;
+        }
+        return new ChunkList(out.toArray(new Chunk[0]), size, hex(whole.digest()));
+    }
+
+    /**
+     * Content-defined cut point: length of the next chunk in b[off, off+len)
+     */
+    static int cut(byte[] b, int off, int len) {
+        if (len <= MIN_CHUNK) return len;
+        int n = Math.min(len, MAX_CHUNK);
+        int normal = Math.min(n, AVG_CHUNK);
+        long h = 0;
+        int i = MIN_CHUNK;
+        for (; i < normal; i++) {
+            h = (h << 1) + GEAR[b[off + i] & 0xFF];
+            if ((h & MASK_S) == 0) return i + 1;
+        }
+        for (; i < n; i++) {
+            h = (h << 1) + GEAR[b[off + i] & 0xFF];
+            if ((h & MASK_L) == 0) return i + 1;
+        }
+        return n;
+    }
+
+    private Chunk intern(byte[] src, int off, int len, MessageDigest md) {
+        md.update(src, off, len);
+        ChunkId id = ChunkId.of(md.digest());
+        synchronized (this) {
+            Chunk c = index.get(id);
+            if (c != null) {
+                c.refs++;           // revives it if it was awaiting gc
+                referencedBytes += len;
+                dedupHits++;
+                return c;
+            }
+            c = new Chunk(id, len);
+            if (dir != null) {
+                c.pos = append(id, src, off, len);
+            } else {
+                c.heap = Arrays.copyOfRange(src, off, off + len);
+            }
+            c.refs = 1;
+            index.put(id, c);
+            storedBytes += len;
+            referencedBytes += len;
+            return c;
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // REFERENCES & GC
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    public synchronized void retain(ChunkList list) {
+        for (Chunk c : list.chunks) {
+            if (c.collected) {
+                throw new IllegalStateException("Chunk already collected: " + c.hex());
+            }
+            c.refs++;
+            referencedBytes += c.length;
+        }
+    }
+
+    public synchronized void release(ChunkList list) {
+        for (Chunk c : list.chunks) {
+            if (c.refs <= 0) continue;
+            referencedBytes -= c.length;
+            if (--c.refs == 0) garbage.add(c);
+        }
+    }
+
+    /**
+     * Free every chunk with no references. Returns bytes freed.
+     */
+    public synchronized long gc() {
+        long freed = 0;
+        for (Chunk c : garbage) {
+            if (c.refs != 0 || c.collected) continue;
+            index.remove(c.id);
+            c.collected = true;
+            c.heap = null;
+            storedBytes -= c.length;
+            if (c.pos >= 0) deadBytes += RECORD_HEAD + c.length;
+            freed += c.length;
+        }
+        garbage.clear();
+        return freed;
+    }
+
+    /**
+     * Compact the pack when dead records outweigh live ones
+     */
+    public synchronized boolean compactIfNeeded() throws IOException {
+        if (pack == null || deadBytes < COMPACT_MIN || deadBytes < packEnd - HEADER - deadBytes) {
+            return false;
+        }
+        compact();
+        return true;
+    }
+
+    /**
+     * Rebuild a list from stored chunks and retain it; null if any is missing
+     */
+    public synchronized ChunkList relink(List<byte[]> ids, String sha256) {
+        Chunk[] cs = new Chunk[ids.size()];
+        long size = 0;
+        for (int i = 0; i < cs.length; i++) {
+            cs[i] = index.get(ChunkId.of(ids.get(i)));
+            if (cs[i] == null) return null;
+            size += cs[i].length;
+        }
+        ChunkList list = new ChunkList(cs, size, sha256);
+        retain(list);
+        return list;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // READ
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Read-only view of one chunk's bytes (a mapped slice on disk)
+     */
+    public synchronized ByteBuffer bytes(Chunk c) {
+        if (c.collected) throw new IllegalStateException("Chunk collected: " + c.hex());
+        if (c.heap != null) return ByteBuffer.wrap(c.heap).asReadOnlyBuffer();
+        if (pack == null) throw new IllegalStateException("ChunkStore closed: " + dir);
+        try {
+            long dataPos = c.pos + RECORD_HEAD;
+            int w = (int) (c.pos / WINDOW);
+            MappedByteBuffer win = window(w, dataPos + c.length);
+            int at = (int) (dataPos - (long) w * WINDOW);
+            ByteBuffer slice = win.duplicate();
+            slice.position(at).limit(at + c.length);
+            return slice.slice().asReadOnlyBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public byte[] readAll(ChunkList list) {
+        if (list.size > Integer.MAX_VALUE - 8) throw new IllegalStateException("Too large for byte[]: " + list.size);
+        byte[] out = new byte[(int) list.size];
+        int off = 0;
+        for (Chunk c : list.chunks) {
+            bytes(c).get(out, off, c.length);
+            off += c.length;
+        }
+        return out;
+    }
+
+    /**
+     * Stream a list's content chunk by chunk
+     */
+    public InputStream open(ChunkList list) {
+        return new InputStream() {
+            private int next = 0;
+            private ByteBuffer cur = ByteBuffer.allocate(0);
+
+            private boolean advance() {
+                while (!cur.hasRemaining()) {
+                    if (next == list.chunks.length) return false;
+                    cur = bytes(list.chunks[next++]);
+                }
+                return true;
+            }
+
+            @Override
+            public int read() {
+                return advance() ? cur.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) return 0;
+                if (!advance()) return -1;
+                int n = Math.min(len, cur.remaining());
+                cur.get(b, off, n);
+                return n;
+            }
+        };
+    }
+
+    public void copyTo(ChunkList list, OutputStream out) throws IOException {
+        byte[] buf = new byte[MAX_CHUNK];
+        for (Chunk c : list.chunks) {
+            ByteBuffer b = bytes(c);
+            int n = b.remaining();
+            b.get(buf, 0, n);
+            out.write(buf, 0, n);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // PACK FILE
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    private void openPack(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = ch.size();
+        if (size < HEADER) {
+            ch.truncate(0);
+            ByteBuffer h = ByteBuffer.allocate(HEADER).putInt(PACK_MAGIC).putInt(0).flip();
+            ch.write(h, 0);
+            packEnd = HEADER;
+        } else {
+            ByteBuffer h = ByteBuffer.allocate(HEADER);
+            ch.read(h, 0);
+            if (h.flip().getInt() != PACK_MAGIC) {
+                ch.close();
+                throw new IOException("Not a chunk pack: " + file);
+            }
+            packEnd = scan(ch, size);
+            if (packEnd < size) ch.truncate(packEnd);   // torn tail
+        }
+        this.pack = ch;
+    }
+
+    private long scan(FileChannel ch, long size) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(RECORD_HEAD);
+        byte[] id = new byte[32];
+        long pos = HEADER;
+        while (pos + RECORD_HEAD <= size) {
+            head.clear();
+            ch.read(head, pos);
+            head.flip().get(id);
+            int len = head.getInt();
+            long end = pos + RECORD_HEAD + len;
+            if (len <= 0 || len > MAX_CHUNK || end > size) break;
+            ChunkId cid = ChunkId.of(id);
+            if (index.containsKey(cid)) {
+                deadBytes += RECORD_HEAD + len;     // duplicate record
+            } else {
+                Chunk c = new Chunk(cid, len);
+                c.pos = pos;
+                index.put(cid, c);
+                garbage.add(c);                     // until someone retains it
+                storedBytes += len;
+            }
+            pos = end;
+        }
+        return pos;
+    }
+
+    private long append(ChunkId id, byte[] src, int off, int len) {
+        if (pack == null) throw new IllegalStateException("ChunkStore closed: " + dir);
+        try {
+            ByteBuffer rec = ByteBuffer.allocate(RECORD_HEAD + len);
+            id.writeTo(rec);
+            rec.putInt(len).put(src, off, len).flip();
+            long at = packEnd;
+            long p = at;
+            while (rec.hasRemaining()) p += pack.write(rec, p);
+            packEnd = p;
+            return at;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Chunk pack write failed", e);
+        }
+    }
+
+    /**
+     * Mapped window w, remapped if the file has grown past what it covers.
+     * Windows overlap by one max record so no record straddles two.
+     */
+    private MappedByteBuffer window(int w, long needEnd) throws IOException {
+        if (w >= windows.length) windows = Arrays.copyOf(windows, w + 1);
+        long start = (long) w * WINDOW;
+        MappedByteBuffer m = windows[w];
+        if (m == null || start + m.capacity() < needEnd) {
+            long end = Math.min(packEnd, start + WINDOW + WINDOW_SLACK);
+            m = pack.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            windows[w] = m;
+        }
+        return m;
+    }
+
+    /**
+     * Rewrite the pack with live chunks only. If the new pack can't be
+     * renamed into place the old one is reopened and stays in use.
+     */
+    public synchronized void compact() throws IOException {
+        if (pack == null) return;
+        Path file = dir.resolve("chunks.pack");
+        Path tmp = dir.resolve("chunks.pack.tmp");
+        List<Chunk> live = new ArrayList<>(index.values());
+        live.sort(Comparator.comparingLong(c -> c.pos));
+        long[] newPos = new long[live.size()];
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer h = ByteBuffer.allocate(HEADER).putInt(PACK_MAGIC).putInt(0).flip();
+            out.write(h);
+            long p = HEADER;
+            for (int i = 0; i < live.size(); i++) {
+                Chunk c = live.get(i);
+                ByteBuffer rec = ByteBuffer.allocate(RECORD_HEAD + c.length);
+                c.id.writeTo(rec);
+                rec.putInt(c.length).put(bytes(c)).flip();
+                newPos[i] = p;
+                while (rec.hasRemaining()) p += out.write(rec);
+            }
+            out.force(true);
+        }
+        pack.close();   // Windows won't replace a file that is still open
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            pack = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            windows = new MappedByteBuffer[0];
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        pack = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        packEnd = pack.size();
+        windows = new MappedByteBuffer[0];
+        for (int i = 0; i < live.size(); i++) live.get(i).pos = newPos[i];
+        deadBytes = 0;
+    }
+
+    public synchronized void force() throws IOException {
+        if (pack != null) pack.force(false);
+    }
+
+    public synchronized void close() throws IOException {
+        if (pack != null) {
+            pack.force(false);
+            pack.close();
+            pack = null;
+            windows = new MappedByteBuffer[0];
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // STATS
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    public synchronized int getChunkCount() { return index.size(); }
+
+    /** Unique bytes held (heap or pack) */
+    public synchronized long getStoredBytes() { return storedBytes; }
+
+    /** Bytes as seen through every reference (all files × versions) */
+    public synchronized long getReferencedBytes() { return referencedBytes; }
+
+    public synchronized long getDedupHits() { return dedupHits; }
+
+    public synchronized long getDeadBytes() { return deadBytes; }
+
+    public synchronized double getDedupRatio() {
+        return storedBytes == 0 ? 1.0 : (double) referencedBytes / storedBytes;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // IDS
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Full 256-bit SHA-256 as four longs
+     */
+    static final class ChunkId {
+        final long a, b, c, d;
+
+        private ChunkId(long a, long b, long c, long d) {
+            this.a = a; this.b = b; this.c = c; this.d = d;
+        }
+
+        static ChunkId of(byte[] sha) {
+            ByteBuffer bb = ByteBuffer.wrap(sha);
+            return new ChunkId(bb.getLong(), bb.getLong(), bb.getLong(), bb.getLong());
+        }
+
+        void writeTo(ByteBuffer out) {
+            out.putLong(a).putLong(b).putLong(c).putLong(d);
+        }
+
+        byte[] bytes() {
+            ByteBuffer bb = ByteBuffer.allocate(32);
+            writeTo(bb);
+            return bb.array();
+        }
+
+        String hex() {
+            return ChunkStore.hex(bytes());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ChunkId k && k.a == a && k.b == b && k.c == c && k.d == d;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(a);
+        }
+    }
+
+    static byte[] idBytes(Chunk c) {
+        return c.id.bytes();
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
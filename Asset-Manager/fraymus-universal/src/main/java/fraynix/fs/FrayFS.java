@@ -5,7 +5,10 @@ import fraynix.core.*;
 import fraynix.observe.EventLogger;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -23,11 +26,22 @@ import java.util.stream.Collectors;
  *   - Uses consistent hashing to select a node
  *   - Stores collision bucket in the node
  *   - Logs collision_count per node
+ *
+ * Content lives in a ChunkStore: every version is a list of
+ * content-addressed chunks, so a new version or a rollback costs only
+ * the chunks that changed. Versions own chunk references; pruning
+ * history (setVersionLimit) releases them for gc. With a store
+ * directory, chunks persist in a memory-mapped pack and the file table
+ * in tree.idx (written by checkpoint() and on stop()). The previous
+ * table is kept as tree.idx.prev; if tree.idx can't be read on startup
+ * FrayFS falls back to it, and failing that starts empty.
  */
 public class FrayFS implements KernelService {
 
     private final Map<String, VFile> files = new ConcurrentHashMap<>();
     private final Map<String, List<VFile>> versions = new ConcurrentHashMap<>();
+    private final ChunkStore store;
+    private volatile int versionLimit = 0;   // 0 = keep every version
     private final HyperTesseract brain;
     private final EventLogger logger;
     
@@ -43,9 +57,23 @@ public class FrayFS implements KernelService {
     private final Set<String> watches = ConcurrentHashMap.newKeySet();
 
     public FrayFS(HyperTesseract brain, EventLogger logger) {
+        this(brain, logger, new ChunkStore());
+        System.out.println("📁 FrayFS initialized (virtual + physical adapter)");
+    }
+
+    /**
+     * Persistent FrayFS: chunks and file table live under storeDir
+     */
+    public FrayFS(HyperTesseract brain, EventLogger logger, Path storeDir) throws IOException {
+        this(brain, logger, new ChunkStore(storeDir));
+        int restored = loadTable();
+        System.out.println("📁 FrayFS initialized (chunk store: " + storeDir + ", " + restored + " files restored)");
+    }
+
+    private FrayFS(HyperTesseract brain, EventLogger logger, ChunkStore store) {
         this.brain = brain;
         this.logger = logger;
-        System.out.println("📁 FrayFS initialized (virtual + physical adapter)");
+        this.store = store;
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
@@ -70,22 +98,40 @@ public class FrayFS implements KernelService {
     }
 
     public VFile write(String path, byte[] content, Map<String, String> metadata) {
+        return commit(normalizePath(path), store.put(content), metadata);
+    }
+
+    /**
+     * Install a new current version from chunks the caller owns one
+     * reference to
+     */
+    private VFile commit(String path, ChunkStore.ChunkList content, Map<String, String> metadata) {
         writes++;
-        path = normalizePath(path);
         
-        VFile existing = files.get(path);
         VFile newFile;
-        
-        if (existing != null) {
-            newFile = existing.withContent(content);
-            // Keep version history
-            versions.computeIfAbsent(path, k -> new ArrayList<>()).add(existing);
-        } else {
-            newFile = new VFile(path, content, 1, java.time.Instant.now(), metadata);
+        synchronized (this) {
+            VFile existing = files.get(path);
+            if (existing != null) {
+                newFile = VFile.builder()
+                    .chunks(store, content)
+                    .id(existing.getId())
+                    .path(path)
+                    .version(existing.getVersion() + 1)
+                    .created(existing.getCreated())
+                    .metadata(existing.getMetadata())
+                    .build();
+                // Keep version history
+                addHistory(path, existing);
+            } else {
+                newFile = VFile.builder()
+                    .chunks(store, content)
+                    .path(path)
+                    .metadata(metadata)
+                    .build();
+            }
+            files.put(path, newFile);
         }
         
-        files.put(path, newFile);
-        
         // Map to brain
         int[] coords = newFile.getBrainCoordinates();
         String nodeKey = coords[0] + "," + coords[1] + "," + coords[2] + "," + coords[3];
@@ -110,7 +156,7 @@ public class FrayFS implements KernelService {
         
         logger.logEvent("fs_write", Map.of(
             "path", path,
-            "size", content.length,
+            "size", newFile.getSize(),
             "version", newFile.getVersion(),
             "hash", newFile.getHash().substring(0, 8)
         ));
@@ -136,11 +182,15 @@ public class FrayFS implements KernelService {
         deletes++;
         path = normalizePath(path);
         
-        VFile removed = files.remove(path);
+        VFile removed;
+        synchronized (this) {
+            removed = files.remove(path);
+            if (removed != null) {
+                // Keep in version history
+                addHistory(path, removed);
+            }
+        }
         if (removed != null) {
-            // Keep in version history
-            versions.computeIfAbsent(path, k -> new ArrayList<>()).add(removed);
-            
             logger.logEvent("fs_delete", Map.of(
                 "path", path,
                 "lastVersion", removed.getVersion()
@@ -150,6 +200,14 @@ public class FrayFS implements KernelService {
         return false;
     }
 
+    /**
+     * Stream a file's current content; null if it doesn't exist
+     */
+    public InputStream openStream(String path) {
+        VFile file = read(path);
+        return file != null ? file.openStream() : null;
+    }
+
     public boolean exists(String path) {
         return files.containsKey(normalizePath(path));
     }
@@ -180,7 +238,7 @@ public class FrayFS implements KernelService {
     // VERSION & INTEGRITY
     // ═══════════════════════════════════════════════════════════════════════════
 
-    public List<VFile> getVersions(String path) {
+    public synchronized List<VFile> getVersions(String path) {
         path = normalizePath(path);
         List<VFile> hist = versions.get(path);
         if (hist == null) return List.of();
@@ -191,23 +249,65 @@ public class FrayFS implements KernelService {
         return result;
     }
 
+    /**
+     * Keep at most this many historical versions per path (0 = all).
+     * Older versions release their chunks.
+     */
+    public synchronized void setVersionLimit(int limit) {
+        this.versionLimit = Math.max(0, limit);
+        if (versionLimit > 0) {
+            for (String path : versions.keySet()) pruneHistory(path);
+            store.gc();
+        }
+    }
+
+    private void addHistory(String path, VFile old) {
+        versions.computeIfAbsent(path, k -> new ArrayList<>()).add(old);
+        if (versionLimit > 0 && pruneHistory(path)) {
+            store.gc();
+        }
+    }
+
+    private boolean pruneHistory(String path) {
+        List<VFile> hist = versions.get(path);
+        boolean pruned = false;
+        while (hist != null && hist.size() > versionLimit) {
+            release(hist.remove(0));
+            pruned = true;
+        }
+        return pruned;
+    }
+
+    private void release(VFile file) {
+        if (file.getChunks() != null) store.release(file.getChunks());
+    }
+
     public VFile rollback(String path, long targetVersion) {
         path = normalizePath(path);
         
         List<VFile> hist = versions.get(path);
         if (hist == null) return null;
         
+        synchronized (this) {
         for (VFile v : hist) {
             if (v.getVersion() == targetVersion) {
-                // Restore this version
-                VFile restored = VFile.builder()
+                // Restore this version (shares its chunks, copies nothing)
+                VFile.Builder b = VFile.builder();
+                if (v.getChunks() != null) {
+                    store.retain(v.getChunks());
+                    b.chunks(store, v.getChunks());
+                } else {
+                    b.chunks(store, store.put(v.getContent()));
+                }
+                VFile current = files.get(path);
+                VFile restored = b
                     .path(path)
-                    .content(v.getContent())
-                    .version(files.containsKey(path) ? files.get(path).getVersion() + 1 : 1)
+                    .version(current != null ? current.getVersion() + 1 : 1)
                     .metadata(v.getMetadata())
                     .build();
                 
                 files.put(path, restored);
+                if (current != null) release(current);
                 
                 logger.logEvent("fs_rollback", Map.of(
                     "path", path,
@@ -218,6 +318,7 @@ public class FrayFS implements KernelService {
                 return restored;
             }
         }
+        }
         return null;
     }
 
@@ -246,21 +347,33 @@ public class FrayFS implements KernelService {
     // ═══════════════════════════════════════════════════════════════════════════
 
     public void syncFromDisk(Path root) throws IOException {
-        Files.walk(root)
-            .filter(Files::isRegularFile)
-            .forEach(path -> {
-                try {
-                    String vpath = "/" + root.relativize(path).toString().replace('\\', '/');
-                    byte[] content = Files.readAllBytes(path);
-                    write(vpath, content, Map.of("source", "disk", "realPath", path.toString()));
-                } catch (IOException e) {
-                    System.err.println("Failed to sync: " + path + " - " + e.getMessage());
-                }
-            });
+        int[] unchanged = {0};
+        try (var paths = Files.walk(root)) {
+            paths.filter(Files::isRegularFile)
+                .forEach(path -> {
+                    try {
+                        String vpath = normalizePath("/" + root.relativize(path).toString().replace('\\', '/'));
+                        ChunkStore.ChunkList content;
+                        try (InputStream in = Files.newInputStream(path)) {
+                            content = store.write(in);
+                        }
+                        VFile current = files.get(vpath);
+                        if (current != null && current.getHash().equals(content.sha256())) {
+                            store.release(content);   // same bytes: no new version
+                            unchanged[0]++;
+                            return;
+                        }
+                        commit(vpath, content, Map.of("source", "disk", "realPath", path.toString()));
+                    } catch (IOException e) {
+                        System.err.println("Failed to sync: " + path + " - " + e.getMessage());
+                    }
+                });
+        }
         
         logger.logEvent("fs_sync_from_disk", Map.of(
             "root", root.toString(),
-            "fileCount", files.size()
+            "fileCount", files.size(),
+            "unchanged", unchanged[0]
         ));
     }
 
@@ -268,7 +381,9 @@ public class FrayFS implements KernelService {
         for (VFile file : files.values()) {
             Path target = root.resolve(file.getPath().substring(1));
             Files.createDirectories(target.getParent());
-            Files.write(target, file.getContent());
+            try (InputStream in = file.openStream()) {
+                Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            }
         }
         
         logger.logEvent("fs_sync_to_disk", Map.of(
@@ -277,6 +392,153 @@ public class FrayFS implements KernelService {
         ));
     }
 
+    // ═══════════════════════════════════════════════════════════════════════════
+    // PERSISTENCE (chunk store directory)
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    private static final int TABLE_MAGIC = 0x46465331;   // "FFS1"
+
+    /**
+     * Write the file table (every live file and version with its chunk
+     * ids) next to the chunk pack, then compact the pack if it's mostly
+     * dead space. No-op for an in-memory FrayFS.
+     */
+    public synchronized void checkpoint() throws IOException {
+        if (!store.isPersistent()) return;
+        store.force();
+        Path table = store.getDirectory().resolve("tree.idx");
+        Path tmp = store.getDirectory().resolve("tree.idx.tmp");
+        Path prev = store.getDirectory().resolve("tree.idx.prev");
+        Set<String> paths = new TreeSet<>(versions.keySet());
+        paths.addAll(files.keySet());
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(ch)));
+            out.writeInt(TABLE_MAGIC);
+            out.writeInt(paths.size());
+            for (String path : paths) {
+                out.writeUTF(path);
+                List<VFile> hist = versions.getOrDefault(path, List.of());
+                out.writeInt(hist.size());
+                for (VFile v : hist) writeEntry(out, v);
+                VFile current = files.get(path);
+                out.writeBoolean(current != null);
+                if (current != null) writeEntry(out, current);
+            }
+            out.flush();
+            ch.force(true);   // contents durable before the rename publishes them
+        }
+        if (Files.exists(table)) {
+            Files.move(table, prev, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(tmp, table, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        store.compactIfNeeded();
+    }
+
+    private void writeEntry(DataOutputStream out, VFile v) throws IOException {
+        ChunkStore.ChunkList chunks = v.getChunks();
+        out.writeUTF(v.getId());
+        out.writeLong(v.getVersion());
+        out.writeLong(v.getCreated().toEpochMilli());
+        out.writeLong(v.getModified().toEpochMilli());
+        out.writeUTF(v.getHash());
+        out.writeInt(v.getMetadata().size());
+        for (Map.Entry<String, String> e : v.getMetadata().entrySet()) {
+            out.writeUTF(e.getKey());
+            out.writeUTF(e.getValue());
+        }
+        out.writeInt(chunks.chunkCount());
+        for (int i = 0; i < chunks.chunkCount(); i++) {
+            out.write(ChunkStore.idBytes(chunks.chunks[i]));
+        }
+    }
+
+    private VFile readEntry(DataInputStream in, String path) throws IOException {
+        String id = in.readUTF();
+        long version = in.readLong();
+        Instant created = Instant.ofEpochMilli(in.readLong());
+        Instant modified = Instant.ofEpochMilli(in.readLong());
+        String hash = in.readUTF();
+        int metaCount = in.readInt();
+        Map<String, String> metadata = new HashMap<>();
+        for (int i = 0; i < metaCount; i++) metadata.put(in.readUTF(), in.readUTF());
+        int count = in.readInt();
+        List<byte[]> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] cid = new byte[32];
+            in.readFully(cid);
+            ids.add(cid);
+        }
+        ChunkStore.ChunkList chunks = store.relink(ids, hash);
+        if (chunks == null) {
+            System.err.println("⚠️ FrayFS: chunks missing for " + path + " v" + version + " - version dropped");
+            return null;
+        }
+        return VFile.builder()
+            .chunks(store, chunks)
+            .id(id)
+            .path(path)
+            .version(version)
+            .created(created)
+            .modified(modified)
+            .metadata(metadata)
+            .build();
+    }
+
+    /**
+     * Restore the file table: tree.idx, else tree.idx.prev (a crash
+     * between checkpoint's two renames, or a damaged tree.idx), else empty
+     */
+    private synchronized int loadTable() {
+        Path dir = store.getDirectory();
+        for (Path table : List.of(dir.resolve("tree.idx"), dir.resolve("tree.idx.prev"))) {
+            if (!Files.exists(table)) continue;
+            try {
+                readTable(table);
+                break;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("⚠️ FrayFS: unreadable file table " + table + " (" + e + ")");
+                dropTable();
+            }
+        }
+        store.gc();   // chunks no table entry references
+        return files.size();
+    }
+
+    private void readTable(Path table) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(table)))) {
+            if (in.readInt() != TABLE_MAGIC) throw new IOException("Not a FrayFS table: " + table);
+            int paths = in.readInt();
+            for (int p = 0; p < paths; p++) {
+                String path = in.readUTF();
+                int histCount = in.readInt();
+                List<VFile> hist = new ArrayList<>();
+                versions.put(path, hist);
+                for (int i = 0; i < histCount; i++) {
+                    VFile v = readEntry(in, path);
+                    if (v != null) hist.add(v);
+                }
+                if (hist.isEmpty()) versions.remove(path);
+                if (in.readBoolean()) {
+                    VFile current = readEntry(in, path);
+                    if (current != null) files.put(path, current);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forget a partially read table, releasing the chunks it retained
+     */
+    private void dropTable() {
+        for (List<VFile> hist : versions.values()) {
+            for (VFile v : hist) store.release(v.getChunks());
+        }
+        for (VFile f : files.values()) store.release(f.getChunks());
+        versions.clear();
+        files.clear();
+    }
+
     // ═══════════════════════════════════════════════════════════════════════════
     // STATS
     // ═══════════════════════════════════════════════════════════════════════════
@@ -286,17 +548,21 @@ public class FrayFS implements KernelService {
         double avgCollisions = nodeCollisions.isEmpty() ? 0 : 
             nodeCollisions.values().stream().mapToInt(Integer::intValue).average().orElse(0);
         
-        return Map.of(
-            "fileCount", files.size(),
-            "totalSize", files.values().stream().mapToLong(VFile::getSize).sum(),
-            "reads", reads,
-            "writes", writes,
-            "deletes", deletes,
-            "versionedFiles", versions.size(),
-            "brainNodes", nodeCollisions.size(),
-            "maxCollisions", maxCollisions,
-            "avgCollisions", avgCollisions
-        );
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("fileCount", files.size());
+        stats.put("totalSize", files.values().stream().mapToLong(VFile::getSize).sum());
+        stats.put("reads", reads);
+        stats.put("writes", writes);
+        stats.put("deletes", deletes);
+        stats.put("versionedFiles", versions.size());
+        stats.put("brainNodes", nodeCollisions.size());
+        stats.put("maxCollisions", maxCollisions);
+        stats.put("avgCollisions", avgCollisions);
+        stats.put("uniqueChunks", store.getChunkCount());
+        stats.put("storedBytes", store.getStoredBytes());
+        stats.put("referencedBytes", store.getReferencedBytes());
+        stats.put("dedupRatio", store.getDedupRatio());
+        return stats;
     }
 
     private String normalizePath(String path) {
@@ -322,15 +588,38 @@ public class FrayFS implements KernelService {
         System.out.println("📁 FrayFS started");
     }
 
+    /**
+     * Checkpoint and close the chunk store; a stopped persistent FrayFS
+     * can't be started again (open a new one on the same directory)
+     */
     @Override
     public void stop() {
         running = false;
-        System.out.println("📁 FrayFS stopped (" + files.size() + " files in memory)");
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            System.err.println("FrayFS checkpoint failed: " + e.getMessage());
+        }
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.err.println("FrayFS chunk store close failed: " + e.getMessage());
+        }
+        System.out.println("📁 FrayFS stopped (" + files.size() + " files, "
+            + store.getChunkCount() + " chunks, dedup " + String.format("%.2f", store.getDedupRatio()) + "x)");
     }
 
+    /**
+     * Checkpoint and carry on; the chunk store stays open
+     */
     @Override
     public void restart() {
-        stop();
+        running = false;
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            System.err.println("FrayFS checkpoint failed: " + e.getMessage());
+        }
         start();
     }
 
@@ -369,8 +658,9 @@ public class FrayFS implements KernelService {
             0,
             0,
             0.0,
-            files.values().stream().mapToLong(VFile::getSize).sum(),
-            Map.of("files", (long) files.size(), "versions", (long) versions.size())
+            store.isPersistent() ? 0 : store.getStoredBytes(),
+            Map.of("files", (long) files.size(), "versions", (long) versions.size(),
+                   "chunks", (long) store.getChunkCount(), "storedBytes", store.getStoredBytes())
         );
     }
 }
@@ -1,5 +1,7 @@
 package fraynix.fs;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.*;
 
@@ -7,12 +9,19 @@ import java.util.*;
  * VFILE: Virtual file in FrayFS.
  * 
  * Immutable content with versioning and integrity tracking.
+ *
+ * Content is either a private byte[] or, for files FrayFS stores, a
+ * ChunkStore.ChunkList shared with other versions; getContent()
+ * assembles it on demand and openStream() reads it chunk by chunk.
  */
 public class VFile {
 
     private final String id;
     private final String path;
-    private final byte[] content;
+    private final byte[] content;          // null when chunk-backed
+    private final ChunkStore store;
+    private final ChunkStore.ChunkList chunks;
+    private final long size;
     private final String hash;
     private final long version;
     private final Instant created;
@@ -30,6 +39,9 @@ public class VFile {
         this.id = UUID.randomUUID().toString();
         this.path = normalizePath(path);
         this.content = content != null ? content.clone() : new byte[0];
+        this.store = null;
+        this.chunks = null;
+        this.size = this.content.length;
         this.hash = computeHash(this.content);
         this.version = version;
         this.created = Instant.now();
@@ -41,8 +53,19 @@ public class VFile {
     private VFile(Builder builder) {
         this.id = builder.id != null ? builder.id : UUID.randomUUID().toString();
         this.path = normalizePath(builder.path);
-        this.content = builder.content != null ? builder.content.clone() : new byte[0];
-        this.hash = computeHash(this.content);
+        if (builder.chunks != null) {
+            this.content = null;
+            this.store = builder.store;
+            this.chunks = builder.chunks;
+            this.size = chunks.size();
+            this.hash = chunks.sha256();
+        } else {
+            this.content = builder.content != null ? builder.content.clone() : new byte[0];
+            this.store = null;
+            this.chunks = null;
+            this.size = this.content.length;
+            this.hash = computeHash(this.content);
+        }
         this.version = builder.version;
         this.created = builder.created;
         this.modified = builder.modified;
@@ -52,14 +75,24 @@ public class VFile {
 
     public String getId() { return id; }
     public String getPath() { return path; }
-    public byte[] getContent() { return content.clone(); }
+    public byte[] getContent() { return content != null ? content.clone() : store.readAll(chunks); }
     public String getHash() { return hash; }
     public long getVersion() { return version; }
     public Instant getCreated() { return created; }
     public Instant getModified() { return modified; }
     public Map<String, String> getMetadata() { return metadata; }
     public int[] getBrainCoordinates() { return brainCoordinates.clone(); }
-    public long getSize() { return content.length; }
+    public long getSize() { return size; }
+
+    /**
+     * Stream the content without assembling it
+     */
+    public InputStream openStream() {
+        return content != null ? new ByteArrayInputStream(content) : store.open(chunks);
+    }
+
+    /** Backing chunks, or null for a plain byte[] file */
+    ChunkStore.ChunkList getChunks() { return chunks; }
 
     public String getName() {
         int lastSlash = path.lastIndexOf('/');
@@ -78,7 +111,16 @@ public class VFile {
     }
 
     public boolean verifyIntegrity() {
-        return hash.equals(computeHash(content));
+        if (content != null) return hash.equals(computeHash(content));
+        try (InputStream in = openStream()) {
+            java.security.MessageDigest md = java.security.MessageDigest.getInstance("SHA-256");
+            byte[] buf = new byte[ChunkStore.MAX_CHUNK];
+            int n;
+            while ((n = in.read(buf)) > 0) md.update(buf, 0, n);
+            return hash.equals(ChunkStore.hex(md.digest()));
+        } catch (Exception e) {
+            return false;
+        }
     }
 
     public VFile withContent(byte[] newContent) {
@@ -96,10 +138,10 @@ public class VFile {
     public VFile withMetadata(String key, String value) {
         Map<String, String> newMeta = new HashMap<>(metadata);
         newMeta.put(key, value);
-        return new Builder()
+        Builder b = chunks != null ? new Builder().chunks(store, chunks) : new Builder().content(content);
+        return b
             .id(id)
             .path(path)
-            .content(content)
             .version(version)
             .created(created)
             .modified(modified)
@@ -151,13 +193,15 @@ public class VFile {
     @Override
     public String toString() {
         return String.format("VFile[%s|v%d|%d bytes|%s]", 
-            path, version, content.length, hash.substring(0, 8));
+            path, version, size, hash.substring(0, 8));
     }
 
     public static class Builder {
         private String id;
         private String path;
         private byte[] content;
+        private ChunkStore store;
+        private ChunkStore.ChunkList chunks;
         private long version = 1;
         private Instant created = Instant.now();
         private Instant modified = Instant.now();
@@ -166,6 +210,7 @@ public class VFile {
         public Builder id(String id) { this.id = id; return this; }
         public Builder path(String path) { this.path = path; return this; }
         public Builder content(byte[] content) { this.content = content; return this; }
+        Builder chunks(ChunkStore store, ChunkStore.ChunkList chunks) { this.store = store; this.chunks = chunks; return this; }
         public Builder version(long version) { this.version = version; return this; }
         public Builder created(Instant created) { this.created = created; return this; }
         public Builder modified(Instant modified) { this.modified = modified; return this; }
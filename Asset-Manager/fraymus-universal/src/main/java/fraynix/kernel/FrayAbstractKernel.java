@@ -4,9 +4,15 @@ import fraynix.brain.HyperTesseract;
 import fraynix.core.*;
 import fraynix.core.impl.DefaultIntentBus;
 import fraynix.observe.EventLogger;
+import fraynix.observe.Span;
+import fraynix.observe.Tracer;
 
+import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * FRAY ABSTRACT KERNEL: The execution substrate.
@@ -18,6 +24,18 @@ import java.util.concurrent.*;
  *   - Intent routing
  * 
  * Uses DI - no static globals.
+ *
+ * Execution: each worker thread pulls from the scheduler itself
+ * (scheduler.next(workerIndex), so per-worker schedulers serve locally)
+ * and parks on a condition when idle; spawn() wakes one. I/O-bound
+ * processes are handed to an I/O executor (virtual threads when the
+ * runtime has them, else an elastic daemon pool) so they never hold a
+ * worker.
+ *
+ * Tracing: spawn() records the caller's span; executeProcess() runs the
+ * task inside a child span, so the scheduler hop shows up as a gap on
+ * the trace's critical path. The tracer defaults to Tracer.global() and
+ * can be injected with setTracer().
  */
 public class FrayAbstractKernel implements KernelService {
 
@@ -26,16 +44,23 @@ public class FrayAbstractKernel implements KernelService {
     private final EventLogger logger;
     private final Map<String, KernelService> services;
     
-    private Scheduler scheduler;
+    private volatile Scheduler scheduler;
+    private volatile Tracer tracer = Tracer.global();
+    private final int workerThreads;
     private final ExecutorService workers;
-    private final ScheduledExecutorService lifecycle;
+    private final ExecutorService ioExecutor;
+
+    // Idle workers park here; spawn() signals when someone is waiting
+    private final ReentrantLock idleLock = new ReentrantLock();
+    private final Condition workAvailable = idleLock.newCondition();
+    private final AtomicInteger idleWorkers = new AtomicInteger();
+    private final AtomicInteger runningProcesses = new AtomicInteger();
     
     private volatile boolean running = false;
     private long startTime;
     
     // Process tracking
     private final Map<String, FrayProcess> processes = new ConcurrentHashMap<>();
-    private final int maxConcurrentProcesses;
 
     public FrayAbstractKernel(HyperTesseract brain, IntentBus intentBus, EventLogger logger) {
         this(brain, intentBus, logger, new PriorityScheduler(), 4);
@@ -53,19 +78,15 @@ public class FrayAbstractKernel implements KernelService {
         this.logger = logger;
         this.scheduler = scheduler;
         this.services = new ConcurrentHashMap<>();
-        this.maxConcurrentProcesses = workerThreads * 2;
+        this.workerThreads = Math.max(1, workerThreads);
         
-        this.workers = Executors.newFixedThreadPool(workerThreads, r -> {
-            Thread t = new Thread(r, "Kernel-Worker");
-            t.setDaemon(true);
-            return t;
-        });
-        
-        this.lifecycle = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "Kernel-Lifecycle");
+        AtomicInteger workerIds = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.workerThreads, r -> {
+            Thread t = new Thread(r, "Kernel-Worker-" + workerIds.getAndIncrement());
             t.setDaemon(true);
             return t;
         });
+        this.ioExecutor = newIoExecutor();
         
         // Register core services
         registerService(brain);
@@ -93,11 +114,27 @@ public class FrayAbstractKernel implements KernelService {
         intentBus.registerHandler(Intent.Type.HEALTH_CHECK, this::handleHealthCheck);
     }
 
+    /**
+     * Swap schedulers. Processes still queued on the old one move to the
+     * new one, then the old one is shut down.
+     */
     public void setScheduler(Scheduler scheduler) {
+        Scheduler old = this.scheduler;
         this.scheduler = scheduler;
+        if (old != null && old != scheduler) {
+            FrayProcess pending;
+            while ((pending = old.next()) != null) {
+                scheduler.submit(pending);
+            }
+            old.shutdown();
+        }
         System.out.println("🔧 Scheduler changed to: " + scheduler.getName());
     }
 
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
     public void registerService(KernelService service) {
         services.put(service.getName(), service);
     }
@@ -108,8 +145,11 @@ public class FrayAbstractKernel implements KernelService {
 
     public FrayProcess spawn(Intent intent, Runnable task, CapabilityToken capabilities) {
         FrayProcess process = new FrayProcess(intent, task, capabilities);
+        String parent = tracer.currentSpanId(intent.getTraceId());
+        process.setTraceParent(parent != null ? parent : intent.getSpanId());
         processes.put(process.getId(), process);
         scheduler.submit(process);
+        wakeWorker();
         
         logger.logEvent("process_spawned", Map.of(
             "processId", process.getId(),
@@ -120,39 +160,93 @@ public class FrayAbstractKernel implements KernelService {
         return process;
     }
 
-    private void processLoop() {
+    private void workerLoop(int worker) {
         while (running) {
             try {
-                // Check if we can run more processes
-                long runningCount = processes.values().stream()
-                    .filter(p -> p.getState() == FrayProcess.State.RUNNING)
-                    .count();
-                
-                if (runningCount >= maxConcurrentProcesses) {
-                    Thread.sleep(10);
-                    continue;
-                }
-                
-                // Get next process
-                FrayProcess process = scheduler.next();
+                FrayProcess process = scheduler.next(worker);
                 if (process == null) {
-                    Thread.sleep(10);
-                    continue;
+                    process = awaitWork(worker);
+                    if (process == null) continue;
                 }
                 
-                // Execute
-                workers.submit(() -> executeProcess(process));
+                // Execute (I/O-bound work must not hold a worker)
+                if (process.isIoBound()) {
+                    FrayProcess io = process;
+                    ioExecutor.execute(() -> executeProcess(io));
+                } else {
+                    executeProcess(process);
+                }
                 
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 break;
+            } catch (RejectedExecutionException e) {
+                break; // shutting down
+            }
+        }
+    }
+
+    /**
+     * Park until spawn() signals (or 10ms pass). The re-check happens
+     * under the lock that spawn() signals with, so no wakeup is lost.
+     */
+    private FrayProcess awaitWork(int worker) throws InterruptedException {
+        idleLock.lock();
+        idleWorkers.incrementAndGet();
+        try {
+            FrayProcess process = scheduler.next(worker);
+            if (process == null && running) {
+                workAvailable.await(10, TimeUnit.MILLISECONDS);
+            }
+            return process;
+        } finally {
+            idleWorkers.decrementAndGet();
+            idleLock.unlock();
+        }
+    }
+
+    private void wakeWorker() {
+        if (idleWorkers.get() > 0) {
+            idleLock.lock();
+            try {
+                workAvailable.signal();
+            } finally {
+                idleLock.unlock();
             }
         }
     }
 
+    /**
+     * Virtual-thread-per-task when the runtime provides it (JDK 21+),
+     * otherwise a cached pool of daemon threads
+     */
+    private static ExecutorService newIoExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger ids = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "Kernel-IO-" + ids.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
     private void executeProcess(FrayProcess process) {
         long start = System.currentTimeMillis();
+        Scheduler scheduler = this.scheduler;
+        runningProcesses.incrementAndGet();
+        Intent intent = process.getIntent();
+        Span span = tracer.startSpan("process " + intent.getType(), Span.Kind.INTERNAL,
+            intent.getTraceId(), process.getTraceParent());
+        span.setAttribute("process.id", process.getId())
+            .setAttribute("process.io_bound", process.isIoBound())
+            .setAttribute("scheduler", scheduler.getName())
+            .setAttribute("queue_wait_us", Math.max(0, process.getQueueLatencyNanos() / 1000));
         
+        Tracer.Scope scope = tracer.activate(span);
         try {
             process.run();
             scheduler.complete(process);
@@ -167,6 +261,7 @@ public class FrayAbstractKernel implements KernelService {
             
         } catch (Exception e) {
             scheduler.fail(process, e.getMessage());
+            span.setError(String.valueOf(e));
             
             long duration = System.currentTimeMillis() - start;
             logger.logActionTaken(
@@ -175,6 +270,10 @@ public class FrayAbstractKernel implements KernelService {
                 false,
                 duration
             );
+        } finally {
+            scope.close();
+            span.end();
+            runningProcesses.decrementAndGet();
         }
     }
 
@@ -246,8 +345,11 @@ public class FrayAbstractKernel implements KernelService {
             }
         }
         
-        // Start process loop
-        lifecycle.submit(this::processLoop);
+        // Start worker loops
+        for (int i = 0; i < workerThreads; i++) {
+            int worker = i;
+            workers.submit(() -> workerLoop(worker));
+        }
         
         logger.logEvent("kernel_started", Map.of(
             "scheduler", scheduler.getName(),
@@ -271,14 +373,15 @@ public class FrayAbstractKernel implements KernelService {
         }
         
         workers.shutdown();
-        lifecycle.shutdown();
+        ioExecutor.shutdown();
         
         try {
             workers.awaitTermination(5, TimeUnit.SECONDS);
-            lifecycle.awaitTermination(1, TimeUnit.SECONDS);
+            ioExecutor.awaitTermination(5, TimeUnit.SECONDS);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         }
+        scheduler.shutdown();
         
         logger.logEvent("kernel_stopped", Map.of(
             "uptimeMs", System.currentTimeMillis() - startTime
@@ -315,7 +418,8 @@ public class FrayAbstractKernel implements KernelService {
             "services", services.size(),
             "scheduler", scheduler.getName(),
             "queueSize", scheduler.getQueueSize(),
-            "processes", processes.size()
+            "processes", processes.size(),
+            "running", runningProcesses.get()
         );
         
         if (!running) {
@@ -342,7 +446,10 @@ public class FrayAbstractKernel implements KernelService {
             0,
             Map.of(
                 "queueSize", (long) sm.currentQueueSize(),
-                "processes", (long) processes.size()
+                "processes", (long) processes.size(),
+                "queueP50Micros", sm.p50QueueMicros(),
+                "queueP99Micros", sm.p99QueueMicros(),
+                "steals", sm.steals()
             )
         );
     }
@@ -22,7 +22,9 @@ public class FrayProcess {
     private final CapabilityToken capabilities;
     private final Runnable task;
     
-    private State state = State.CREATED;
+    private volatile State state = State.CREATED;
+    private volatile long queuedAtNanos = -1;
+    private volatile String traceParent;    // Span current at spawn time
     private final Instant createdAt;
     private Instant startedAt;
     private Instant completedAt;
@@ -61,6 +63,22 @@ public class FrayProcess {
     public int getPriority() { return priority; }
 
     public void setState(State state) { this.state = state; }
+
+    /**
+     * Enter the QUEUED state and stamp the time for queue-latency metrics
+     */
+    public void markQueued() {
+        this.queuedAtNanos = System.nanoTime();
+        this.state = State.QUEUED;
+    }
+
+    /** Nanoseconds since markQueued(), or -1 if never queued */
+    public long getQueueLatencyNanos() {
+        long q = queuedAtNanos;
+        return q < 0 ? -1 : System.nanoTime() - q;
+    }
+    public String getTraceParent() { return traceParent; }
+    public void setTraceParent(String spanId) { this.traceParent = spanId; }
     public void setStartedAt(Instant time) { this.startedAt = time; }
     public void setCompletedAt(Instant time) { this.completedAt = time; }
     public void setResult(String result) { this.result = result; }
@@ -1,24 +1,34 @@
 package fraynix.kernel;
 
+import fraynix.brain.BrainState;
 import fraynix.brain.HyperTesseract;
 import fraynix.core.Intent;
 import fraynix.core.Policy;
 
 import java.util.*;
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * PREDICTIVE BRAIN SCHEDULER: The "conscious" mode scheduler.
- * 
+ *
  * Uses HyperTesseract brain to make scheduling decisions based on:
  *   - System state (CPU, memory, IO)
  *   - Process characteristics (CPU-bound, IO-bound)
  *   - Historical performance
  *   - Brain predictions
+ *
+ * The brain is consulted off the submit path: a refresh timer captures
+ * one BrainState every refreshMs, and policy decisions are made once per
+ * intent type per refresh and reused by every submit in that window.
+ * SCHEDULE/COMPLETED thoughts are tallied and injected as one thought per
+ * intent type on each refresh instead of one per process.
  */
 public class PredictiveBrainScheduler implements Scheduler {
 
+    private static final long DEFAULT_REFRESH_MS = 100;
+
     private final HyperTesseract brain;
     private final PriorityBlockingQueue<ScoredProcess> queue;
     private final AtomicLong submitted = new AtomicLong();
@@ -27,12 +37,31 @@ public class PredictiveBrainScheduler implements Scheduler {
     private final AtomicLong totalWaitMs = new AtomicLong();
     private final AtomicLong totalExecMs = new AtomicLong();
     private final AtomicLong brainDecisions = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    private final QueueLatency latency = new QueueLatency();
+
+    // Cached brain view, replaced wholesale on each refresh
+    private final long refreshMs;
+    private volatile BrainState cachedState;
+    private volatile Map<Intent.Type, Double> confidence = new ConcurrentHashMap<>();
+    private ScheduledExecutorService refresher;
+
+    // Thoughts waiting for the next refresh
+    private final Map<Intent.Type, LongAdder> scheduledTally = new ConcurrentHashMap<>();
+    private final Map<Intent.Type, LongAdder> completedTally = new ConcurrentHashMap<>();
+    private final Map<Intent.Type, LongAdder> completedExecMs = new ConcurrentHashMap<>();
 
     public PredictiveBrainScheduler(HyperTesseract brain) {
+        this(brain, DEFAULT_REFRESH_MS);
+    }
+
+    public PredictiveBrainScheduler(HyperTesseract brain, long refreshMs) {
         this.brain = brain;
+        this.refreshMs = Math.max(1, refreshMs);
         this.queue = new PriorityBlockingQueue<>(100,
             Comparator.comparingDouble((ScoredProcess sp) -> sp.score).reversed()
-                      .thenComparing(sp -> sp.process.getCreatedAt()));
+                      .thenComparingLong(sp -> sp.seq));
     }
 
     @Override
@@ -40,65 +69,114 @@ public class PredictiveBrainScheduler implements Scheduler {
 
     @Override
     public void submit(FrayProcess process) {
-        process.setState(FrayProcess.State.QUEUED);
-        
-        // Inject thought into brain
-        brain.injectThought(
-            "SCHEDULE: " + process.getIntent().getType() + " pri=" + process.getPriority(),
-            0.3
-        );
-        
+        process.markQueued();
+
+        // Tally thought for the next refresh
+        scheduledTally.computeIfAbsent(process.getIntent().getType(), t -> new LongAdder()).increment();
+
         // Calculate brain-augmented score
         double score = calculateScore(process);
-        
-        queue.offer(new ScoredProcess(process, score));
+
+        queue.offer(new ScoredProcess(process, score, sequence.getAndIncrement()));
         submitted.incrementAndGet();
     }
 
     private double calculateScore(FrayProcess process) {
+        BrainState state = state();
+
         // Base score from priority (0-4, inverted so lower = better)
         double baseScore = 1.0 - (process.getPriority() / 5.0);
-        
-        // Ask brain for decision
-        Policy.Decision<String> decision = brain.decide(process.getIntent());
-        brainDecisions.incrementAndGet();
-        
-        // Adjust score based on brain confidence
-        double brainBoost = decision.confidence() * 0.3;
-        
+
+        // Brain confidence for this intent type (decided once per refresh)
+        Intent intent = process.getIntent();
+        double conf = confidence.computeIfAbsent(intent.getType(), t -> {
+            brainDecisions.incrementAndGet();
+            Policy.Decision<String> decision = brain.decide(state, intent);
+            return decision.confidence();
+        });
+        double brainBoost = conf * 0.3;
+
         // Consider process characteristics
         double charBoost = 0;
-        if (process.isCpuBound() && brain.captureState().getCpuUsage() < 0.5) {
+        double cpu = state.getCpuUsage();
+        if (process.isCpuBound() && cpu < 0.5) {
             charBoost = 0.1; // Good time for CPU work
         }
-        if (process.isIoBound() && brain.captureState().getCpuUsage() > 0.8) {
+        if (process.isIoBound() && cpu > 0.8) {
             charBoost = 0.15; // IO won't compete for CPU
         }
-        
+
         // Consider wait time (aging)
         double waitBoost = Math.min(0.2, process.getWaitTimeMs() / 10000.0);
-        
+
         return baseScore + brainBoost + charBoost + waitBoost;
     }
 
+    /**
+     * The cached state; the first caller captures it and starts the timer
+     */
+    private BrainState state() {
+        BrainState s = cachedState;
+        if (s != null) return s;
+        synchronized (this) {
+            if (cachedState == null) {
+                cachedState = brain.captureState();
+                refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread t = new Thread(r, "Brain-Scheduler-Refresh");
+                    t.setDaemon(true);
+                    return t;
+                });
+                refresher.scheduleWithFixedDelay(this::refresh, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+            }
+            return cachedState;
+        }
+    }
+
+    /**
+     * Flush tallied thoughts, recapture state, drop cached decisions
+     */
+    private void refresh() {
+        try {
+            for (Intent.Type type : scheduledTally.keySet()) {
+                long n = scheduledTally.get(type).sumThenReset();
+                if (n > 0) {
+                    brain.injectThought("SCHEDULE: " + type + " x" + n, 0.3);
+                }
+            }
+            for (Intent.Type type : completedTally.keySet()) {
+                long n = completedTally.get(type).sumThenReset();
+                long ms = completedExecMs.get(type).sumThenReset();
+                if (n > 0) {
+                    brain.injectThought("COMPLETED: " + type + " x" + n + " avg_exec=" + (ms / n) + "ms", 0.1);
+                }
+            }
+            cachedState = brain.captureState();
+            confidence = new ConcurrentHashMap<>();
+            refreshes.incrementAndGet();
+        } catch (RuntimeException e) {
+            System.err.println("PredictiveBrainScheduler refresh failed: " + e.getMessage());
+        }
+    }
+
     @Override
     public FrayProcess next() {
         ScoredProcess sp = queue.poll();
-        return sp != null ? sp.process : null;
+        if (sp == null) return null;
+        latency.record(sp.process);
+        return sp.process;
     }
 
     @Override
     public void complete(FrayProcess process) {
         completed.incrementAndGet();
         totalWaitMs.addAndGet(process.getWaitTimeMs());
-        totalExecMs.addAndGet(process.getExecutionTimeMs());
-        
-        // Feedback to brain
-        brain.injectThought(
-            "COMPLETED: " + process.getIntent().getType() + 
-            " exec=" + process.getExecutionTimeMs() + "ms",
-            0.1
-        );
+        long execMs = process.getExecutionTimeMs();
+        totalExecMs.addAndGet(execMs);
+
+        // Feedback to brain (batched into the next refresh)
+        Intent.Type type = process.getIntent().getType();
+        completedExecMs.computeIfAbsent(type, t -> new LongAdder()).add(execMs);
+        completedTally.computeIfAbsent(type, t -> new LongAdder()).increment();
     }
 
     @Override
@@ -106,7 +184,7 @@ public class PredictiveBrainScheduler implements Scheduler {
         process.setError(reason);
         process.setState(FrayProcess.State.FAILED);
         failed.incrementAndGet();
-        
+
         // Negative feedback to brain
         brain.injectThought(
             "FAILED: " + process.getIntent().getType() + " reason=" + reason,
@@ -137,7 +215,9 @@ public class PredictiveBrainScheduler implements Scheduler {
             failed.get(),
             comp > 0 ? totalWaitMs.get() / comp : 0,
             comp > 0 ? totalExecMs.get() / comp : 0,
-            queue.size()
+            queue.size(),
+            latency,
+            0
         );
     }
 
@@ -145,5 +225,29 @@ public class PredictiveBrainScheduler implements Scheduler {
         return brainDecisions.get();
     }
 
-    private record ScoredProcess(FrayProcess process, double score) {}
+    public long getStateRefreshes() {
+        return refreshes.get();
+    }
+
+    /**
+     * Stop the refresh timer (pending thoughts are flushed once). The next
+     * scheduling decision starts it again, so a restarted kernel can keep
+     * using this scheduler.
+     */
+    @Override
+    public synchronized void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            try {
+                refresher.awaitTermination(1, TimeUnit.SECONDS);   // let a running refresh finish
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            refresher = null;
+            refresh();
+            cachedState = null;
+        }
+    }
+
+    private record ScoredProcess(FrayProcess process, double score, long seq) {}
 }
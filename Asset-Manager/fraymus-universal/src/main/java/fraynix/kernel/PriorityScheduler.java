@@ -17,6 +17,7 @@ public class PriorityScheduler implements Scheduler {
     private final AtomicLong failed = new AtomicLong();
     private final AtomicLong totalWaitMs = new AtomicLong();
     private final AtomicLong totalExecMs = new AtomicLong();
+    private final QueueLatency latency = new QueueLatency();
 
     public PriorityScheduler() {
         this.queue = new PriorityBlockingQueue<>(100, 
@@ -29,14 +30,16 @@ public class PriorityScheduler implements Scheduler {
 
     @Override
     public void submit(FrayProcess process) {
-        process.setState(FrayProcess.State.QUEUED);
+        process.markQueued();
         queue.offer(process);
         submitted.incrementAndGet();
     }
 
     @Override
     public FrayProcess next() {
-        return queue.poll();
+        FrayProcess process = queue.poll();
+        if (process != null) latency.record(process);
+        return process;
     }
 
     @Override
@@ -72,7 +75,9 @@ public class PriorityScheduler implements Scheduler {
             failed.get(),
             comp > 0 ? totalWaitMs.get() / comp : 0,
             comp > 0 ? totalExecMs.get() / comp : 0,
-            queue.size()
+            queue.size(),
+            latency,
+            0
         );
     }
 }
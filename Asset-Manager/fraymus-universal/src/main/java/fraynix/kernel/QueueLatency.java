@@ -0,0 +1,60 @@
+package fraynix.kernel;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * QUEUE LATENCY: Lock-free histogram of submit → dequeue time.
+ *
+ * Power-of-two microsecond buckets (bucket i holds [2^(i-1), 2^i) µs),
+ * so recording is one increment and percentiles are accurate to 2x.
+ * Shared by all schedulers to fill SchedulerMetrics.
+ */
+public final class QueueLatency {
+
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a dequeued process (no-op if it was never marked queued)
+     */
+    public void record(FrayProcess process) {
+        long nanos = process.getQueueLatencyNanos();
+        if (nanos >= 0) record(nanos);
+    }
+
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.incrementAndGet();
+        long m;
+        while (micros > (m = max.get()) && !max.compareAndSet(m, micros)) { }
+    }
+
+    /**
+     * Upper bound of the bucket holding the given quantile (0..1), in µs
+     */
+    public long percentileMicros(double q) {
+        long n = count.get();
+        if (n == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(q * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) return Math.min(max.get(), i == 0 ? 0 : (1L << i) - 1);
+        }
+        return max.get();
+    }
+
+    public long maxMicros() {
+        return max.get();
+    }
+
+    public long count() {
+        return count.get();
+    }
+}
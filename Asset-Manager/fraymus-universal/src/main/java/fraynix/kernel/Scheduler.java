@@ -6,9 +6,10 @@ import java.util.List;
 /**
  * SCHEDULER: Contract for process/intent scheduling.
  * 
- * Three implementations:
+ * Implementations:
  *   - RoundRobinScheduler (baseline)
  *   - PriorityScheduler (baseline)
+ *   - WorkStealingScheduler (per-worker deques, throughput mode)
  *   - PredictiveBrainScheduler (conscious mode)
  */
 public interface Scheduler {
@@ -19,6 +20,14 @@ public interface Scheduler {
 
     FrayProcess next();
 
+    /**
+     * Worker-aware pull. Kernel workers pass their index so schedulers
+     * with per-worker queues can serve locally; others ignore it.
+     */
+    default FrayProcess next(int worker) {
+        return next();
+    }
+
     void complete(FrayProcess process);
 
     void fail(FrayProcess process, String reason);
@@ -29,12 +38,38 @@ public interface Scheduler {
 
     SchedulerMetrics getMetrics();
 
+    /**
+     * Release timers/threads. The kernel calls this when it stops and
+     * when the scheduler is swapped out.
+     */
+    default void shutdown() {}
+
+    /**
+     * Queue latency (submit → dequeue) is a power-of-two histogram, so
+     * p50/p99 are bucket upper bounds. Steals count cross-worker takes.
+     */
     record SchedulerMetrics(
         long submitted,
         long completed,
         long failed,
         long avgWaitMs,
         long avgExecutionMs,
-        int currentQueueSize
-    ) {}
+        int currentQueueSize,
+        long p50QueueMicros,
+        long p99QueueMicros,
+        long maxQueueMicros,
+        long steals
+    ) {
+        public SchedulerMetrics(long submitted, long completed, long failed,
+                                long avgWaitMs, long avgExecutionMs, int currentQueueSize) {
+            this(submitted, completed, failed, avgWaitMs, avgExecutionMs, currentQueueSize, 0, 0, 0, 0);
+        }
+
+        public SchedulerMetrics(long submitted, long completed, long failed,
+                                long avgWaitMs, long avgExecutionMs, int currentQueueSize,
+                                QueueLatency latency, long steals) {
+            this(submitted, completed, failed, avgWaitMs, avgExecutionMs, currentQueueSize,
+                latency.percentileMicros(0.50), latency.percentileMicros(0.99), latency.maxMicros(), steals);
+        }
+    }
 }
@@ -0,0 +1,157 @@
+package fraynix.kernel;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WORK-STEALING SCHEDULER: Per-worker deques, no global queue lock.
+ *
+ * Each kernel worker owns one lane: a lock-free deque per priority
+ * level. Processes spawned from inside a running process land on that
+ * worker's own lane (cache-warm, no contention); outside submissions
+ * are spread round-robin. A worker serves its own lane from the head
+ * and, when a level is empty locally, steals from the tail of the
+ * other lanes before dropping to the next priority level.
+ *
+ * Priority is respected across lanes (CRITICAL anywhere beats NORMAL
+ * locally); FIFO order is only per lane.
+ */
+public class WorkStealingScheduler implements Scheduler {
+
+    private static final int LEVELS = 5;
+
+    private final ConcurrentLinkedDeque<FrayProcess>[][] lanes;
+    private final ThreadLocal<int[]> homeLane = new ThreadLocal<>();
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong steals = new AtomicLong();
+    private final AtomicLong totalWaitMs = new AtomicLong();
+    private final AtomicLong totalExecMs = new AtomicLong();
+    private final QueueLatency latency = new QueueLatency();
+
+    public WorkStealingScheduler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    @SuppressWarnings("unchecked")
+    public WorkStealingScheduler(int workers) {
+        int n = Math.max(1, workers);
+        this.lanes = (ConcurrentLinkedDeque<FrayProcess>[][]) new ConcurrentLinkedDeque<?>[n][LEVELS];
+        for (int w = 0; w < n; w++) {
+            for (int l = 0; l < LEVELS; l++) {
+                lanes[w][l] = new ConcurrentLinkedDeque<>();
+            }
+        }
+    }
+
+    @Override
+    public String getName() { return "WorkStealing"; }
+
+    @Override
+    public void submit(FrayProcess process) {
+        process.markQueued();
+        int[] home = homeLane.get();
+        int lane = home != null ? home[0] : Math.floorMod(roundRobin.getAndIncrement(), lanes.length);
+        lanes[lane][level(process)].offerLast(process);
+        size.incrementAndGet();
+        submitted.incrementAndGet();
+    }
+
+    @Override
+    public FrayProcess next() {
+        // Not a kernel worker: take from anywhere, starting at a random lane
+        return take(ThreadLocalRandom.current().nextInt(lanes.length), false);
+    }
+
+    @Override
+    public FrayProcess next(int worker) {
+        int lane = Math.floorMod(worker, lanes.length);
+        int[] home = homeLane.get();
+        if (home == null) {
+            homeLane.set(new int[]{ lane });
+        } else {
+            home[0] = lane;
+        }
+        return take(lane, true);
+    }
+
+    private FrayProcess take(int lane, boolean owner) {
+        if (size.get() == 0) return null;
+        int n = lanes.length;
+        for (int l = 0; l < LEVELS; l++) {
+            FrayProcess p = lanes[lane][l].pollFirst();
+            if (p == null) {
+                for (int i = 1; i < n && p == null; i++) {
+                    p = lanes[(lane + i) % n][l].pollLast();
+                }
+                if (p != null && owner) steals.incrementAndGet();
+            }
+            if (p != null) {
+                size.decrementAndGet();
+                latency.record(p);
+                return p;
+            }
+        }
+        return null;
+    }
+
+    private static int level(FrayProcess process) {
+        return Math.max(0, Math.min(LEVELS - 1, process.getPriority()));
+    }
+
+    @Override
+    public void complete(FrayProcess process) {
+        completed.incrementAndGet();
+        totalWaitMs.addAndGet(process.getWaitTimeMs());
+        totalExecMs.addAndGet(process.getExecutionTimeMs());
+    }
+
+    @Override
+    public void fail(FrayProcess process, String reason) {
+        process.setError(reason);
+        process.setState(FrayProcess.State.FAILED);
+        failed.incrementAndGet();
+    }
+
+    @Override
+    public List<FrayProcess> getPending() {
+        List<FrayProcess> result = new ArrayList<>();
+        for (int l = 0; l < LEVELS; l++) {
+            for (ConcurrentLinkedDeque<FrayProcess>[] lane : lanes) {
+                result.addAll(lane[l]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int getQueueSize() {
+        return Math.max(0, size.get());
+    }
+
+    @Override
+    public SchedulerMetrics getMetrics() {
+        long comp = completed.get();
+        return new SchedulerMetrics(
+            submitted.get(),
+            comp,
+            failed.get(),
+            comp > 0 ? totalWaitMs.get() / comp : 0,
+            comp > 0 ? totalExecMs.get() / comp : 0,
+            getQueueSize(),
+            latency,
+            steals.get()
+        );
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+}
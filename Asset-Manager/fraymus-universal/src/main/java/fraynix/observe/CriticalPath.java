@@ -0,0 +1,130 @@
+package fraynix.observe;
+
+import java.util.*;
+
+/**
+ * CRITICAL PATH: Where the wall-clock time of one trace went.
+ *
+ * Walks backwards from the span that finished last. Inside a span, the
+ * latest-ending child is on the path, then the child that ended before
+ * that one started, and so on; whatever a span did not spend waiting on
+ * a child is its own ("self") time. When the walk reaches a span's
+ * start it climbs to the parent, and if the parent had already finished
+ * (async hop: bus queue, scheduler queue) the gap is reported as
+ * "wait → child".
+ *
+ * Segments are in chronological order and sum to the trace's end-to-end
+ * latency (minus any hops whose spans fell out of the ring buffer).
+ */
+public final class CriticalPath {
+
+    public record Segment(String name, String spanId, boolean waiting, long startNanos, long nanos) {
+        public double millis() { return nanos / 1e6; }
+    }
+
+    private final List<Segment> segments;
+    private final long totalNanos;
+
+    private CriticalPath(List<Segment> segments, long totalNanos) {
+        this.segments = segments;
+        this.totalNanos = totalNanos;
+    }
+
+    public static CriticalPath of(List<Span> spans) {
+        List<Span> done = new ArrayList<>();
+        for (Span s : spans) if (s.isEnded()) done.add(s);
+        if (done.isEmpty()) return new CriticalPath(List.of(), 0);
+
+        Map<String, Span> byId = new HashMap<>();
+        Map<String, List<Span>> children = new HashMap<>();
+        for (Span s : done) byId.put(s.getSpanId(), s);
+        for (Span s : done) {
+            if (s.getParentSpanId() != null && byId.containsKey(s.getParentSpanId())) {
+                children.computeIfAbsent(s.getParentSpanId(), k -> new ArrayList<>()).add(s);
+            }
+        }
+        for (List<Span> c : children.values()) {
+            c.sort(Comparator.comparingLong(Span::getEndNanos).reversed());
+        }
+
+        Span last = Collections.max(done, Comparator.comparingLong(Span::getEndNanos));
+        long first = done.stream().mapToLong(Span::getStartNanos).min().orElse(0);
+
+        List<Segment> out = new ArrayList<>();   // built newest-first
+        Span cur = last;
+        descend(cur, cur.getEndNanos(), children, out);
+        while (cur.getParentSpanId() != null && byId.containsKey(cur.getParentSpanId())) {
+            Span parent = byId.get(cur.getParentSpanId());
+            long t = cur.getStartNanos();
+            if (t > parent.getEndNanos()) {
+                out.add(new Segment("wait → " + cur.getName(), cur.getSpanId(), true,
+                    parent.getEndNanos(), t - parent.getEndNanos()));
+                t = parent.getEndNanos();
+            }
+            descend(parent, t, children, out);
+            cur = parent;
+        }
+        Collections.reverse(out);
+        return new CriticalPath(out, last.getEndNanos() - first);
+    }
+
+    /**
+     * Add span's critical segments in [span.start, until], newest first
+     */
+    private static void descend(Span span, long until, Map<String, List<Span>> children, List<Segment> out) {
+        long t = Math.min(until, span.getEndNanos());
+        for (Span c : children.getOrDefault(span.getSpanId(), List.of())) {
+            if (t <= span.getStartNanos()) break;
+            if (c.getEndNanos() > t || c.getEndNanos() <= span.getStartNanos()) continue;
+            if (t > c.getEndNanos()) {
+                out.add(self(span, c.getEndNanos(), t - c.getEndNanos()));
+            }
+            descend(c, c.getEndNanos(), children, out);
+            t = Math.max(span.getStartNanos(), Math.min(t, c.getStartNanos()));
+        }
+        if (t > span.getStartNanos()) {
+            out.add(self(span, span.getStartNanos(), t - span.getStartNanos()));
+        }
+    }
+
+    private static Segment self(Span span, long start, long nanos) {
+        return new Segment(span.getName(), span.getSpanId(), false, start, nanos);
+    }
+
+    public List<Segment> getSegments() { return segments; }
+
+    public long getTotalNanos() { return totalNanos; }
+
+    /**
+     * Critical time per span name (waits grouped by target), largest first
+     */
+    public Map<String, Long> byName() {
+        Map<String, Long> sums = new HashMap<>();
+        for (Segment s : segments) sums.merge(s.name(), s.nanos(), Long::sum);
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(sums.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> e : entries) result.put(e.getKey(), e.getValue());
+        return result;
+    }
+
+    public long getWaitNanos() {
+        long sum = 0;
+        for (Segment s : segments) if (s.waiting()) sum += s.nanos();
+        return sum;
+    }
+
+    /**
+     * Human-readable breakdown for the shell
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Critical path: %.3f ms end-to-end (%.3f ms waiting)%n",
+            totalNanos / 1e6, getWaitNanos() / 1e6));
+        for (Map.Entry<String, Long> e : byName().entrySet()) {
+            double pct = totalNanos > 0 ? 100.0 * e.getValue() / totalNanos : 0;
+            sb.append(String.format("  %9.3f ms  %5.1f%%  %s%n", e.getValue() / 1e6, pct, e.getKey()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package fraynix.observe;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SPAN: One timed hop of a trace (publish, handle, process, HTTP call).
+ *
+ * IDs are OpenTelemetry-shaped (32-hex trace, 16-hex span) so exports
+ * load straight into Jaeger/Tempo. Unsampled spans still carry IDs for
+ * propagation but record nothing and are never stored.
+ */
+public final class Span {
+
+    public enum Kind {
+        INTERNAL(1), SERVER(2), CLIENT(3), PRODUCER(4), CONSUMER(5);
+
+        private final int otlp;
+        Kind(int otlp) { this.otlp = otlp; }
+        public int getOtlpCode() { return otlp; }
+    }
+
+    private final Tracer tracer;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final Kind kind;
+    private final boolean sampled;
+    private final long startNanos;          // epoch nanos
+    private final String thread;
+    private final Map<String, Object> attributes;
+
+    private volatile long endNanos;         // 0 = still open
+    private volatile boolean error;
+    private volatile String statusMessage;
+
+    Span(Tracer tracer, String traceId, String spanId, String parentSpanId,
+         String name, Kind kind, boolean sampled, long startNanos) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.sampled = sampled;
+        this.startNanos = startNanos;
+        this.thread = sampled ? Thread.currentThread().getName() : null;
+        this.attributes = sampled ? new LinkedHashMap<>() : null;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (attributes != null && value != null) {
+            synchronized (attributes) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    public Span setError(String message) {
+        this.error = true;
+        this.statusMessage = message;
+        return this;
+    }
+
+    /**
+     * Close the span and hand it to the ring buffer (first call wins)
+     */
+    public void end() {
+        if (endNanos != 0) return;
+        endNanos = Math.max(startNanos + 1, tracer.nowNanos());
+        if (sampled) tracer.record(this);
+    }
+
+    public String getTraceId() { return traceId; }
+    public String getSpanId() { return spanId; }
+    public String getParentSpanId() { return parentSpanId; }
+    public String getName() { return name; }
+    public Kind getKind() { return kind; }
+    public boolean isSampled() { return sampled; }
+    public long getStartNanos() { return startNanos; }
+    public long getEndNanos() { return endNanos; }
+    public boolean isEnded() { return endNanos != 0; }
+    public boolean isError() { return error; }
+    public String getStatusMessage() { return statusMessage; }
+    public String getThread() { return thread; }
+
+    public long getDurationNanos() {
+        long end = endNanos;
+        return end == 0 ? 0 : end - startNanos;
+    }
+
+    public Map<String, Object> getAttributes() {
+        if (attributes == null) return Map.of();
+        synchronized (attributes) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Span[%s|%s|%.3fms%s]", name, spanId,
+            getDurationNanos() / 1e6, error ? "|ERROR" : "");
+    }
+}
@@ -0,0 +1,343 @@
+package fraynix.observe;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * TRACER: In-process distributed tracing for Fraynix.
+ *
+ * Spans are opened on IntentBus publish/handle, on kernel process
+ * execution and around outbound Ollama/HTTP calls. The current span is
+ * kept per thread, so anything started inside a handler or process
+ * parents to it automatically; hops that cross threads (bus queue,
+ * scheduler) carry the parent span ID on the Intent / FrayProcess.
+ *
+ * Storage: finished spans go into a lock-free ring buffer (one
+ * getAndIncrement per span, oldest overwritten). Each slot remembers
+ * the sequence it was written for, so a reader never mistakes a span
+ * from the previous lap for a slot that is claimed but not yet written. Sampling is decided
+ * per trace from a hash of the trace ID, so a trace is either kept
+ * whole or not at all, with no coordination between hops.
+ *
+ * Output:
+ *   - exportJson(): OpenTelemetry OTLP/JSON (resourceSpans)
+ *   - criticalPath(): where the wall-clock time of one trace went
+ *
+ * Configure with -Dfraynix.trace.sample=0.1 -Dfraynix.trace.capacity=8192
+ */
+public final class Tracer {
+
+    private static final Tracer GLOBAL = new Tracer(
+        Integer.getInteger("fraynix.trace.capacity", 8192),
+        Double.parseDouble(System.getProperty("fraynix.trace.sample", "1.0"))
+    );
+
+    /**
+     * The process-wide tracer (shared by bus, kernel and HTTP clients)
+     */
+    public static Tracer global() {
+        return GLOBAL;
+    }
+
+    private final AtomicReferenceArray<Slot> ring;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicLong started = new AtomicLong();
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private volatile double sampleRate;
+    private volatile boolean enabled = true;
+
+    // Epoch anchor so span times are wall-clock but monotonic
+    private final long epochBaseNanos;
+    private final long nanoBase;
+
+    public Tracer(int capacity, double sampleRate) {
+        int cap = capacity <= 16 ? 16 : Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(cap);
+        this.mask = cap - 1;
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+        java.time.Instant now = java.time.Instant.now();
+        this.epochBaseNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+        this.nanoBase = System.nanoTime();
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // SPANS
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Child of the current span, or a new trace if there is none
+     */
+    public Span startSpan(String name, Span.Kind kind) {
+        return startSpan(name, kind, null, null);
+    }
+
+    /**
+     * Span in the given trace (any ID form; null = current/new trace)
+     * under the given parent span (null = current span if same trace)
+     */
+    public Span startSpan(String name, Span.Kind kind, String traceId, String parentSpanId) {
+        Span cur = current.get();
+        String trace = traceId != null ? traceHex(traceId)
+                     : cur != null ? cur.getTraceId()
+                     : randomHex(2);
+        String parent = parentSpanId;
+        if (parent == null && cur != null && cur.getTraceId().equals(trace)) {
+            parent = cur.getSpanId();
+        }
+        started.incrementAndGet();
+        boolean sampled = enabled && isSampled(trace);
+        return new Span(this, trace, randomHex(1), parent, name, kind, sampled, nowNanos());
+    }
+
+    /**
+     * Make a span current on this thread until the scope closes
+     */
+    public Scope activate(Span span) {
+        Span previous = current.get();
+        current.set(span);
+        return () -> {
+            if (previous == null) current.remove(); else current.set(previous);
+        };
+    }
+
+    public Span currentSpan() {
+        return current.get();
+    }
+
+    /**
+     * Span ID to use as a remote parent: the current span's, if it
+     * belongs to the given trace (any ID form)
+     */
+    public String currentSpanId(String traceId) {
+        Span cur = current.get();
+        if (cur == null) return null;
+        return traceId == null || cur.getTraceId().equals(traceHex(traceId)) ? cur.getSpanId() : null;
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private record Slot(long seq, Span span) {}
+
+    void record(Span span) {
+        long seq = cursor.getAndIncrement();
+        ring.set((int) (seq & mask), new Slot(seq, span));
+    }
+
+    long nowNanos() {
+        return epochBaseNanos + (System.nanoTime() - nanoBase);
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // SAMPLING
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    public void setSampleRate(double rate) {
+        this.sampleRate = Math.max(0.0, Math.min(1.0, rate));
+    }
+
+    public double getSampleRate() { return sampleRate; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public boolean isEnabled() { return enabled; }
+
+    private boolean isSampled(String traceHex) {
+        double rate = sampleRate;
+        if (rate >= 1.0) return true;
+        if (rate <= 0.0) return false;
+        long h = mix(Long.parseUnsignedLong(traceHex.substring(16), 16));
+        return (h >>> 11) * 0x1.0p-53 < rate;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // IDS
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Normalize any trace ID (Intent UUIDs, free text) to 32 hex chars
+     */
+    public static String traceHex(String traceId) {
+        String s = traceId.replace("-", "").toLowerCase(Locale.ROOT);
+        if (s.length() == 32 && isHex(s)) return s;
+        long h1 = mix(traceId.hashCode() * 0x9E3779B97F4A7C15L + traceId.length());
+        long h2 = 1125899906842597L;
+        for (int i = 0; i < traceId.length(); i++) h2 = 31 * h2 + traceId.charAt(i);
+        return hex(h1) + hex(mix(h2));
+    }
+
+    private static boolean isHex(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return false;
+        }
+        return true;
+    }
+
+    private static String randomHex(int longs) {
+        ThreadLocalRandom r = ThreadLocalRandom.current();
+        StringBuilder sb = new StringBuilder(16 * longs);
+        for (int i = 0; i < longs; i++) {
+            long v;
+            do { v = r.nextLong(); } while (v == 0);
+            sb.append(hex(v));
+        }
+        return sb.toString();
+    }
+
+    private static String hex(long v) {
+        String s = Long.toHexString(v);
+        return "0000000000000000".substring(s.length()) + s;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // QUERIES
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Finished spans still in the ring, oldest first
+     */
+    public List<Span> snapshot() {
+        long end = cursor.get();
+        long start = Math.max(0, end - ring.length());
+        List<Span> result = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            Slot s = ring.get((int) (i & mask));
+            if (s != null && s.seq == i) result.add(s.span);   // skip unwritten or already lapped
+        }
+        return result;
+    }
+
+    /**
+     * Spans of one trace (any ID form), in start order
+     */
+    public List<Span> getTrace(String traceId) {
+        String hex = traceHex(traceId);
+        List<Span> result = new ArrayList<>();
+        for (Span s : snapshot()) {
+            if (s.getTraceId().equals(hex)) result.add(s);
+        }
+        result.sort(Comparator.comparingLong(Span::getStartNanos));
+        return result;
+    }
+
+    /**
+     * Most recent trace IDs in the ring (newest first)
+     */
+    public List<String> recentTraces(int limit) {
+        List<Span> spans = snapshot();
+        LinkedHashSet<String> ids = new LinkedHashSet<>();
+        for (int i = spans.size() - 1; i >= 0 && ids.size() < limit; i--) {
+            ids.add(spans.get(i).getTraceId());
+        }
+        return new ArrayList<>(ids);
+    }
+
+    public CriticalPath criticalPath(String traceId) {
+        return CriticalPath.of(getTrace(traceId));
+    }
+
+    public long getSpansStarted() { return started.get(); }
+    public long getSpansRecorded() { return cursor.get(); }
+    public long getSpansOverwritten() { return Math.max(0, cursor.get() - ring.length()); }
+    public int getCapacity() { return ring.length(); }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // EXPORT (OTLP/JSON)
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Write every buffered span as one OTLP/JSON document
+     */
+    public int exportJson(Path file) throws IOException {
+        return exportJson(snapshot(), file);
+    }
+
+    public int exportTrace(String traceId, Path file) throws IOException {
+        return exportJson(getTrace(traceId), file);
+    }
+
+    private int exportJson(List<Span> spans, Path file) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeOtlp(spans, w);
+        }
+        return spans.size();
+    }
+
+    public static void writeOtlp(List<Span> spans, Writer w) throws IOException {
+        w.write("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+        w.write("{\"key\":\"service.name\",\"value\":{\"stringValue\":\"fraynix\"}}");
+        w.write("]},\"scopeSpans\":[{\"scope\":{\"name\":\"fraynix.observe\",\"version\":\"1.0.0\"},\"spans\":[");
+        boolean first = true;
+        for (Span s : spans) {
+            if (!first) w.write(',');
+            first = false;
+            w.write("{\"traceId\":\"" + s.getTraceId() + "\",\"spanId\":\"" + s.getSpanId() + "\"");
+            if (s.getParentSpanId() != null) {
+                w.write(",\"parentSpanId\":\"" + s.getParentSpanId() + "\"");
+            }
+            w.write(",\"name\":\"" + escape(s.getName()) + "\"");
+            w.write(",\"kind\":" + s.getKind().getOtlpCode());
+            w.write(",\"startTimeUnixNano\":\"" + s.getStartNanos() + "\"");
+            w.write(",\"endTimeUnixNano\":\"" + s.getEndNanos() + "\"");
+            w.write(",\"attributes\":[");
+            Map<String, Object> attrs = new LinkedHashMap<>(s.getAttributes());
+            if (s.getThread() != null) attrs.put("thread.name", s.getThread());
+            boolean firstAttr = true;
+            for (Map.Entry<String, Object> e : attrs.entrySet()) {
+                if (!firstAttr) w.write(',');
+                firstAttr = false;
+                w.write("{\"key\":\"" + escape(e.getKey()) + "\",\"value\":" + anyValue(e.getValue()) + "}");
+            }
+            w.write("],\"status\":{\"code\":" + (s.isError() ? 2 : 1));
+            if (s.getStatusMessage() != null) {
+                w.write(",\"message\":\"" + escape(s.getStatusMessage()) + "\"");
+            }
+            w.write("}}");
+        }
+        w.write("]}]}]}\n");
+    }
+
+    private static String anyValue(Object v) {
+        if (v instanceof Boolean) return "{\"boolValue\":" + v + "}";
+        if (v instanceof Integer || v instanceof Long || v instanceof Short || v instanceof Byte) {
+            return "{\"intValue\":\"" + v + "\"}";
+        }
+        if (v instanceof Number) return "{\"doubleValue\":" + v + "}";
+        return "{\"stringValue\":\"" + escape(String.valueOf(v)) + "\"}";
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
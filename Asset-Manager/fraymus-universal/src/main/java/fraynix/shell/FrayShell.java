@@ -5,9 +5,13 @@ import fraynix.brain.HyperTesseract;
 import fraynix.core.*;
 import fraynix.kernel.FrayAbstractKernel;
 import fraynix.kernel.Scheduler;
+import fraynix.observe.CriticalPath;
 import fraynix.observe.EventLogger;
+import fraynix.observe.Span;
+import fraynix.observe.Tracer;
 import fraynix.pulse.BrainPulse;
 
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -26,6 +30,7 @@ import java.util.*;
  *   - think <thought>
  *   - decide
  *   - scheduler <name>
+ *   - trace [traceId | export <file> | sample <rate>]
  *   - quit
  */
 public class FrayShell {
@@ -72,6 +77,7 @@ public class FrayShell {
         commands.put("journal", new Command("journal [n]", "Show last N events", this::cmdJournal));
         commands.put("sleep", new Command("sleep", "Enter sleep/dream mode", this::cmdSleep));
         commands.put("health", new Command("health", "Show health of all services", this::cmdHealth));
+        commands.put("trace", new Command("trace [id|export <file>|sample <r>]", "Show traces and critical paths", this::cmdTrace));
         commands.put("quit", new Command("quit", "Shutdown and exit", this::cmdQuit));
         commands.put("exit", new Command("exit", "Shutdown and exit", this::cmdQuit));
     }
@@ -218,6 +224,11 @@ public class FrayShell {
         System.out.printf("   Avg Wait:       %d ms%n", sm.avgWaitMs());
         System.out.printf("   Avg Execution:  %d ms%n", sm.avgExecutionMs());
         System.out.printf("   Queue Size:     %d%n", sm.currentQueueSize());
+        System.out.printf("   Queue Latency:  p50 %d µs, p99 %d µs, max %d µs%n",
+            sm.p50QueueMicros(), sm.p99QueueMicros(), sm.maxQueueMicros());
+        if (sm.steals() > 0) {
+            System.out.printf("   Steals:         %d%n", sm.steals());
+        }
         
         // Pulse stats
         if (pulse != null) {
@@ -279,7 +290,7 @@ public class FrayShell {
     private void cmdScheduler(String[] args) {
         if (args.length == 0 || args[0].isEmpty()) {
             System.out.println("Current scheduler: " + kernel.getScheduler().getName());
-            System.out.println("Available: roundrobin, priority, brain");
+            System.out.println("Available: roundrobin, priority, steal, brain");
             return;
         }
         
@@ -289,10 +300,11 @@ public class FrayShell {
         switch (name) {
             case "roundrobin" -> newScheduler = new fraynix.kernel.RoundRobinScheduler();
             case "priority" -> newScheduler = new fraynix.kernel.PriorityScheduler();
+            case "steal" -> newScheduler = new fraynix.kernel.WorkStealingScheduler();
             case "brain" -> newScheduler = new fraynix.kernel.PredictiveBrainScheduler(brain);
             default -> {
                 System.out.println("Unknown scheduler: " + name);
-                System.out.println("Available: roundrobin, priority, brain");
+                System.out.println("Available: roundrobin, priority, steal, brain");
                 return;
             }
         }
@@ -301,6 +313,59 @@ public class FrayShell {
         System.out.println("✅ Scheduler changed to: " + newScheduler.getName());
     }
 
+    private void cmdTrace(String[] args) {
+        Tracer tracer = Tracer.global();
+        String[] parts = args.length > 0 ? args[0].trim().split("\\s+") : new String[0];
+        
+        if (parts.length >= 2 && parts[0].equals("export")) {
+            try {
+                int n = tracer.exportJson(Path.of(parts[1]));
+                System.out.println("📤 Exported " + n + " spans (OTLP/JSON) → " + parts[1]);
+            } catch (Exception e) {
+                System.out.println("❌ Export failed: " + e.getMessage());
+            }
+            return;
+        }
+        if (parts.length >= 2 && parts[0].equals("sample")) {
+            tracer.setSampleRate(Double.parseDouble(parts[1]));
+            System.out.println("🎯 Trace sample rate: " + tracer.getSampleRate());
+            return;
+        }
+        
+        if (parts.length == 0 || parts[0].isEmpty()) {
+            System.out.println("\n🧵 RECENT TRACES:");
+            System.out.println("─".repeat(60));
+            for (String id : tracer.recentTraces(10)) {
+                List<Span> spans = tracer.getTrace(id);
+                CriticalPath cp = CriticalPath.of(spans);
+                System.out.printf("   %s  %2d spans  %9.3f ms  (%s)%n",
+                    id, spans.size(), cp.getTotalNanos() / 1e6,
+                    spans.isEmpty() ? "?" : spans.get(0).getName());
+            }
+            System.out.printf("   recorded=%d overwritten=%d capacity=%d sample=%.2f%n",
+                tracer.getSpansRecorded(), tracer.getSpansOverwritten(),
+                tracer.getCapacity(), tracer.getSampleRate());
+            System.out.println("─".repeat(60));
+            return;
+        }
+        
+        List<Span> spans = tracer.getTrace(parts[0]);
+        if (spans.isEmpty()) {
+            System.out.println("No spans for trace " + parts[0]);
+            return;
+        }
+        System.out.println("\n🧵 TRACE " + spans.get(0).getTraceId());
+        System.out.println("─".repeat(60));
+        long t0 = spans.get(0).getStartNanos();
+        for (Span span : spans) {
+            System.out.printf("   +%9.3f ms  %9.3f ms  %-9s %s%s%n",
+                (span.getStartNanos() - t0) / 1e6, span.getDurationNanos() / 1e6,
+                span.getKind(), span.getName(), span.isError() ? "  ❌ " + span.getStatusMessage() : "");
+        }
+        System.out.println("─".repeat(60));
+        System.out.print(CriticalPath.of(spans).format());
+    }
+
     private void cmdWatch(String[] args) {
         if (args.length == 0 || args[0].isEmpty()) {
             System.out.println("Usage: watch <path>");
@@ -1,6 +1,8 @@
 package gemini.root;
 
 import com.google.gson.*;
+import fraynix.observe.Span;
+import fraynix.observe.Tracer;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URL;
@@ -136,28 +138,43 @@ public class OllamaSpine {
 
     private JsonObject postJson(String urlStr, JsonObject body) throws IOException {
         URL url = new URL(urlStr);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
-        conn.setReadTimeout(READ_TIMEOUT_MS);
-        conn.setRequestMethod("POST");
-        conn.setDoOutput(true);
-        conn.setRequestProperty("Content-Type", "application/json");
-
-        byte[] payload = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
-        try (OutputStream os = conn.getOutputStream()) {
-            os.write(payload);
-        }
+        Span span = Tracer.global().startSpan("POST " + url.getPath(), Span.Kind.CLIENT);
+        span.setAttribute("http.method", "POST")
+            .setAttribute("http.url", urlStr)
+            .setAttribute("llm.model", body.has("model") ? body.get("model").getAsString() : null);
+        try {
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            conn.setReadTimeout(READ_TIMEOUT_MS);
+            conn.setRequestMethod("POST");
+            conn.setDoOutput(true);
+            conn.setRequestProperty("Content-Type", "application/json");
+
+            byte[] payload = gson.toJson(body).getBytes(StandardCharsets.UTF_8);
+            span.setAttribute("http.request_content_length", payload.length);
+            try (OutputStream os = conn.getOutputStream()) {
+                os.write(payload);
+            }
 
-        int code = conn.getResponseCode();
-        InputStream is = (code >= 200 && code < 300) ? conn.getInputStream() : conn.getErrorStream();
-        if (is == null) throw new IOException("HTTP " + code + " with no body");
+            int code = conn.getResponseCode();
+            span.setAttribute("http.status_code", code);
+            if (code >= 400) span.setError("HTTP " + code);
+            InputStream is = (code >= 200 && code < 300) ? conn.getInputStream() : conn.getErrorStream();
+            if (is == null) throw new IOException("HTTP " + code + " with no body");
 
-        StringBuilder sb = new StringBuilder();
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = br.readLine()) != null) sb.append(line);
+            StringBuilder sb = new StringBuilder();
+            try (BufferedReader br = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = br.readLine()) != null) sb.append(line);
+            }
+            span.setAttribute("http.response_content_length", sb.length());
+            return JsonParser.parseString(sb.toString()).getAsJsonObject();
+        } catch (IOException | RuntimeException e) {
+            span.setError(String.valueOf(e));
+            throw e;
+        } finally {
+            span.end();
         }
-        return JsonParser.parseString(sb.toString()).getAsJsonObject();
     }
 
 }
@@ -0,0 +1,166 @@
+package fraynix;
+
+import fraynix.brain.HyperTesseract;
+import fraynix.fs.ChunkStore;
+import fraynix.fs.FrayFS;
+import fraynix.fs.VFile;
+import fraynix.observe.EventLogger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkStoreTest {
+
+    @TempDir
+    Path tmp;
+
+    private static byte[] random(int size, long seed) {
+        byte[] b = new byte[size];
+        new Random(seed).nextBytes(b);
+        return b;
+    }
+
+    @Test
+    void smallEdit_sharesMostChunks() {
+        ChunkStore store = new ChunkStore();
+        byte[] base = random(1 << 20, 1);
+        ChunkStore.ChunkList v1 = store.put(base);
+        long stored = store.getStoredBytes();
+        assertEquals(base.length, stored);
+
+        byte[] edited = base.clone();
+        for (int i = 0; i < 16; i++) edited[500_000 + i] ^= 0x5A;
+        ChunkStore.ChunkList v2 = store.put(edited);
+
+        // Only the chunk(s) around the edit are new
+        assertTrue(store.getStoredBytes() - stored <= 2L * ChunkStore.MAX_CHUNK);
+        assertArrayEquals(base, store.readAll(v1));
+        assertArrayEquals(edited, store.readAll(v2));
+        assertTrue(store.getDedupRatio() > 1.5);
+    }
+
+    @Test
+    void streamingWrite_matchesPut() throws IOException {
+        ChunkStore store = new ChunkStore();
+        byte[] data = random(300_000, 2);
+        ChunkStore.ChunkList a = store.put(data);
+        ChunkStore.ChunkList b = store.write(new ByteArrayInputStream(data));
+        assertEquals(a.sha256(), b.sha256());
+        assertEquals(a.chunkCount(), b.chunkCount());
+        assertEquals(data.length, store.getStoredBytes());
+
+        try (InputStream in = store.open(b)) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void frayFs_versionsRollbackAndPrune() throws IOException {
+        try (EventLogger logger = new EventLogger(Path.of(".fraynix", "test-logs"))) {
+            FrayFS fs = new FrayFS(new HyperTesseract(7), logger);
+            byte[] base = random(200_000, 3);
+            fs.write("/data/blob.bin", base);
+            for (int v = 0; v < 5; v++) {
+                byte[] next = base.clone();
+                next[v * 1000] ^= 1;
+                fs.write("/data/blob.bin", next);
+            }
+            assertEquals(6, fs.getVersions("/data/blob.bin").size());
+            long storedBefore = ((Number) fs.getStats().get("storedBytes")).longValue();
+            assertTrue(storedBefore < 2L * base.length);
+
+            VFile restored = fs.rollback("/data/blob.bin", 1);
+            assertNotNull(restored);
+            assertArrayEquals(base, fs.read("/data/blob.bin").getContent());
+            assertTrue(restored.verifyIntegrity());
+
+            fs.setVersionLimit(1);
+            assertEquals(2, fs.getVersions("/data/blob.bin").size());
+            long storedAfter = ((Number) fs.getStats().get("storedBytes")).longValue();
+            assertTrue(storedAfter < storedBefore);
+            try (InputStream in = fs.openStream("/data/blob.bin")) {
+                assertArrayEquals(base, in.readAllBytes());
+            }
+        }
+    }
+
+    @Test
+    void frayFs_persistsAcrossRestart_andTrimsTornTail() throws IOException {
+        Path dir = tmp;
+        byte[] a = random(150_000, 4);
+        byte[] b = random(40_000, 5);
+        try (EventLogger logger = new EventLogger(Path.of(".fraynix", "test-logs"))) {
+            FrayFS fs = new FrayFS(new HyperTesseract(7), logger, dir);
+            fs.write("/a.bin", a);
+            fs.write("/b.bin", b);
+            fs.write("/b.bin", a);   // second version dedups fully against /a.bin
+            fs.stop();
+        }
+
+        // Simulate a crash mid-append
+        try (FileChannel ch = FileChannel.open(dir.resolve("chunks.pack"), StandardOpenOption.APPEND)) {
+            ch.write(java.nio.ByteBuffer.wrap(new byte[]{ 1, 2, 3, 4, 5, 6, 7 }));
+        }
+
+        try (EventLogger logger = new EventLogger(Path.of(".fraynix", "test-logs"))) {
+            FrayFS fs = new FrayFS(new HyperTesseract(7), logger, dir);
+            assertArrayEquals(a, fs.read("/a.bin").getContent());
+            assertArrayEquals(a, fs.read("/b.bin").getContent());
+            assertEquals(2, fs.getVersions("/b.bin").size());
+            assertArrayEquals(b, fs.getVersions("/b.bin").get(0).getContent());
+            assertEquals((long) a.length + b.length, ((Number) fs.getStats().get("storedBytes")).longValue());
+            fs.stop();
+        }
+    }
+
+    @Test
+    void frayFs_damagedTable_fallsBackToPrevious() throws IOException {
+        Path dir = tmp;
+        byte[] a = random(50_000, 7);
+        byte[] b = random(30_000, 8);
+        try (EventLogger logger = new EventLogger(Path.of(".fraynix", "test-logs"))) {
+            FrayFS fs = new FrayFS(new HyperTesseract(7), logger, dir);
+            fs.write("/a.bin", a);
+            fs.checkpoint();
+            fs.write("/b.bin", b);
+            fs.stop();
+        }
+        assertTrue(Files.exists(dir.resolve("tree.idx.prev")));
+
+        // Cut tree.idx off mid-entry
+        try (FileChannel ch = FileChannel.open(dir.resolve("tree.idx"), StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() / 2);
+        }
+
+        try (EventLogger logger = new EventLogger(Path.of(".fraynix", "test-logs"))) {
+            FrayFS fs = new FrayFS(new HyperTesseract(7), logger, dir);
+            assertArrayEquals(a, fs.read("/a.bin").getContent());
+            assertNull(fs.read("/b.bin"));
+            fs.stop();
+        }
+    }
+
+    @Test
+    void syncFromDisk_skipsUnchangedFiles() throws IOException {
+        Path src = Files.createDirectory(tmp.resolve("src"));
+        Files.write(src.resolve("one.txt"), "hello fraynix".getBytes());
+        Files.write(src.resolve("two.bin"), random(100_000, 6));
+        try (EventLogger logger = new EventLogger(Path.of(".fraynix", "test-logs"))) {
+            FrayFS fs = new FrayFS(new HyperTesseract(7), logger);
+            fs.syncFromDisk(src);
+            fs.syncFromDisk(src);
+            assertEquals(1, fs.read("/two.bin").getVersion());
+
+            Path out = tmp.resolve("out");
+            fs.syncToDisk(out);
+            assertArrayEquals(Files.readAllBytes(src.resolve("two.bin")), Files.readAllBytes(out.resolve("two.bin")));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package fraynix;
+
+import fraynix.core.*;
+import fraynix.core.impl.DefaultIntentBus;
+import fraynix.observe.Tracer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntentBusDispatchTest {
+
+    private static Intent intent(Intent.Type type, String traceId) {
+        Intent.Builder b = Intent.builder().type(type).origin("test");
+        if (traceId != null) b.traceId(traceId);
+        return b.build();
+    }
+
+    @Test
+    void subscribers_seeEveryIntentInOrder_untilUnsubscribed() throws Exception {
+        DefaultIntentBus bus = new DefaultIntentBus(1024, 1000, 4);
+        bus.start();
+
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        List<String> all = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger filtered = new AtomicInteger();
+        IntentBus.Subscription typeSub = bus.subscribe(Intent.Type.CUSTOM, i -> seen.add(i.getId()));
+        bus.subscribeAll(i -> all.add(i.getId()));
+        bus.subscribe(i -> i.getType() == Intent.Type.HEARTBEAT, i -> filtered.incrementAndGet());
+
+        List<String> published = new ArrayList<>();
+        for (int n = 0; n < 200; n++) {
+            Intent i = intent(n % 2 == 0 ? Intent.Type.CUSTOM : Intent.Type.HEARTBEAT, null);
+            if (i.getType() == Intent.Type.CUSTOM) published.add(i.getId());
+            bus.publish(i);
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (all.size() < 200 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+
+        assertEquals(200, all.size());
+        assertEquals(published, seen);   // per-type order preserved
+        assertEquals(100, filtered.get());
+
+        typeSub.unsubscribe();
+        assertFalse(typeSub.isActive());
+        bus.publish(intent(Intent.Type.CUSTOM, null));
+        deadline = System.currentTimeMillis() + 5000;
+        while (all.size() < 201 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertEquals(100, seen.size());
+
+        bus.stop();
+    }
+
+    @Test
+    void history_isBoundedAndIndexed() throws Exception {
+        DefaultIntentBus bus = new DefaultIntentBus(256, 50, 2);
+        bus.start();
+
+        List<Intent> intents = new ArrayList<>();
+        for (int n = 0; n < 120; n++) {
+            Intent i = intent(Intent.Type.CUSTOM, "trace-" + (n % 3));
+            intents.add(i);
+            bus.publish(i);
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (bus.getHistory(50).size() < 50 || bus.getById(intents.get(119).getId()) == null) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+
+        List<Intent> latest = bus.getHistory(10);
+        assertEquals(10, latest.size());
+        assertSame(intents.get(119), latest.get(0));   // newest first
+        assertEquals(50, bus.getHistory(1000).size());
+
+        assertNull(bus.getById(intents.get(0).getId()));   // evicted
+        assertSame(intents.get(100), bus.getById(intents.get(100).getId()));
+        List<Intent> trace = bus.getByTraceId("trace-1");
+        assertFalse(trace.isEmpty());
+        assertTrue(trace.size() <= 17);
+        for (Intent i : trace) assertEquals("trace-1", i.getTraceId());
+
+        bus.stop();
+    }
+
+    @Test
+    void fullShard_dropsWithBackpressure_otherShardsKeepFlowing() throws Exception {
+        DefaultIntentBus bus = new DefaultIntentBus(16, 100, 2);
+        Tracer tracer = new Tracer(1024, 1.0);
+        bus.setTracer(tracer);
+        bus.start();
+
+        CountDownLatch release = new CountDownLatch(1);
+        bus.registerHandler(Intent.Type.CUSTOM, i -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return IntentBus.IntentResult.success(i.getId(), "ok", 0);
+        });
+        for (int n = 0; n < 50; n++) bus.publish(intent(Intent.Type.CUSTOM, null));
+        assertTrue(bus.getFailedCount() > 0);
+        long droppedSpans = tracer.snapshot().stream()
+            .filter(s -> s.getName().startsWith("publish") && "queue_full".equals(s.getStatusMessage()))
+            .count();
+        assertEquals(bus.getFailedCount(), droppedSpans);
+
+        // Pick a type on the other shard
+        Intent.Type other = Intent.Type.values()[Intent.Type.CUSTOM.ordinal() % 2 == 0 ? 1 : 0];
+        CountDownLatch otherDone = new CountDownLatch(1);
+        bus.subscribe(other, i -> otherDone.countDown());
+        bus.publish(intent(other, null));
+        assertTrue(otherDone.await(2, TimeUnit.SECONDS));
+
+        release.countDown();
+        bus.stop();
+    }
+
+    @Test
+    void concurrentPublishers_loseNothing() throws Exception {
+        DefaultIntentBus bus = new DefaultIntentBus(4096, 100, 4);
+        bus.start();
+        AtomicInteger received = new AtomicInteger();
+        bus.subscribeAll(i -> received.incrementAndGet());
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        Intent.Type[] types = { Intent.Type.CUSTOM, Intent.Type.HEARTBEAT, Intent.Type.FS_READ, Intent.Type.BOOT };
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            Intent.Type type = types[w];
+            futures.add(pool.submit(() -> {
+                for (int n = 0; n < 500; n++) bus.publish(intent(type, null));
+            }));
+        }
+        for (Future<?> f : futures) f.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (received.get() < 2000 && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        assertEquals(2000, received.get());
+        assertEquals(2000, bus.getProcessedCount());
+        assertEquals(0, bus.getFailedCount());
+
+        bus.stop();
+    }
+}
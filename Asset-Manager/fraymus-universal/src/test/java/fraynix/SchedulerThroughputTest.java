@@ -0,0 +1,128 @@
+package fraynix;
+
+import fraynix.brain.HyperTesseract;
+import fraynix.core.*;
+import fraynix.core.impl.DefaultIntentBus;
+import fraynix.kernel.*;
+import fraynix.observe.EventLogger;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchedulerThroughputTest {
+
+    private static Intent intent(Intent.Priority priority) {
+        return Intent.builder()
+            .type(Intent.Type.PROCESS_SPAWN)
+            .priority(priority)
+            .origin("test")
+            .build();
+    }
+
+    @Test
+    void workStealing_respectsPriorityAcrossLanes() {
+        WorkStealingScheduler scheduler = new WorkStealingScheduler(4);
+        for (int i = 0; i < 8; i++) {
+            scheduler.submit(new FrayProcess(intent(Intent.Priority.LOW), () -> {}));
+        }
+        FrayProcess critical = new FrayProcess(intent(Intent.Priority.CRITICAL), () -> {});
+        scheduler.submit(critical);
+
+        assertEquals(9, scheduler.getQueueSize());
+        assertSame(critical, scheduler.next(0));
+
+        int drained = 0;
+        while (scheduler.next(1) != null) drained++;
+        assertEquals(8, drained);
+        assertEquals(0, scheduler.getQueueSize());
+        assertTrue(scheduler.getMetrics().steals() > 0);
+    }
+
+    @Test
+    void workStealing_concurrentSubmitAndTake_losesNothing() throws Exception {
+        WorkStealingScheduler scheduler = new WorkStealingScheduler(4);
+        int perThread = 5000;
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        Set<FrayProcess> seen = ConcurrentHashMap.newKeySet();
+        AtomicInteger taken = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            int worker = w;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    scheduler.submit(new FrayProcess(intent(Intent.Priority.values()[i % 5]), () -> {}));
+                    FrayProcess p = scheduler.next(worker);
+                    if (p != null && seen.add(p)) taken.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        FrayProcess p;
+        while ((p = scheduler.next()) != null) {
+            if (seen.add(p)) taken.incrementAndGet();
+        }
+        pool.shutdown();
+
+        assertEquals(4 * perThread, taken.get());
+        assertEquals(4L * perThread, scheduler.getMetrics().submitted());
+    }
+
+    @Test
+    void kernel_runsSpawnedAndIoBoundProcesses() throws Exception {
+        try (EventLogger logger = new EventLogger(Path.of(".fraynix", "test-logs"))) {
+            HyperTesseract brain = new HyperTesseract(42);
+            DefaultIntentBus bus = new DefaultIntentBus();
+            bus.setLogger(logger);
+
+            PredictiveBrainScheduler scheduler = new PredictiveBrainScheduler(brain, 20);
+            FrayAbstractKernel kernel = new FrayAbstractKernel(brain, bus, logger, scheduler, 2);
+            kernel.start();
+
+            int count = 2000;
+            CountDownLatch done = new CountDownLatch(count);
+            for (int i = 0; i < count; i++) {
+                FrayProcess proc = kernel.spawn(intent(Intent.Priority.NORMAL), done::countDown);
+                assertNotNull(proc);
+            }
+
+            // I/O-bound processes block without starving the two workers
+            CountDownLatch ioDone = new CountDownLatch(8);
+            CountDownLatch release = new CountDownLatch(1);
+            for (int i = 0; i < 8; i++) {
+                FrayProcess io = new FrayProcess(intent(Intent.Priority.NORMAL), () -> {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    ioDone.countDown();
+                });
+                io.setIoBound(true);
+                scheduler.submit(io);
+            }
+            CountDownLatch cpuAfterIo = new CountDownLatch(1);
+            kernel.spawn(intent(Intent.Priority.NORMAL), cpuAfterIo::countDown);
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertTrue(cpuAfterIo.await(5, TimeUnit.SECONDS));
+            release.countDown();
+            assertTrue(ioDone.await(5, TimeUnit.SECONDS));
+
+            // One policy decision per intent type per refresh, not per spawn
+            assertTrue(scheduler.getBrainDecisions() < count / 10);
+
+            Scheduler.SchedulerMetrics sm = scheduler.getMetrics();
+            assertTrue(sm.p99QueueMicros() >= sm.p50QueueMicros());
+
+            kernel.stop();
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package fraynix;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import fraynix.brain.HyperTesseract;
+import fraynix.core.*;
+import fraynix.core.impl.DefaultIntentBus;
+import fraynix.kernel.*;
+import fraynix.observe.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TracingTest {
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void multiHopRequest_isTracedEndToEnd() throws Exception {
+        Tracer tracer = new Tracer(1024, 1.0);
+        try (EventLogger logger = new EventLogger(Path.of(".fraynix", "test-logs"))) {
+            HyperTesseract brain = new HyperTesseract(42);
+            DefaultIntentBus bus = new DefaultIntentBus();
+            bus.setLogger(logger);
+            bus.setTracer(tracer);
+            FrayAbstractKernel kernel = new FrayAbstractKernel(brain, bus, logger, new PriorityScheduler(), 2);
+            kernel.setTracer(tracer);
+            kernel.start();
+
+            CountDownLatch done = new CountDownLatch(1);
+            bus.registerHandler(Intent.Type.CUSTOM, intent -> {
+                sleep(5);
+                kernel.spawn(intent, () -> {
+                    Span call = tracer.startSpan("POST /api/chat", Span.Kind.CLIENT);
+                    sleep(30);
+                    call.end();
+                    done.countDown();
+                });
+                return IntentBus.IntentResult.success(intent.getId(), "ok", 0);
+            });
+
+            Intent intent = Intent.builder().type(Intent.Type.CUSTOM).origin("test").build();
+            bus.publish(intent);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            sleep(50);
+
+            List<Span> spans = tracer.getTrace(intent.getTraceId());
+            List<String> names = spans.stream().map(Span::getName).toList();
+            assertEquals(List.of("publish CUSTOM", "handle CUSTOM", "process CUSTOM", "POST /api/chat"), names);
+            for (int i = 1; i < spans.size(); i++) {
+                assertEquals(spans.get(i - 1).getSpanId(), spans.get(i).getParentSpanId());
+            }
+
+            CriticalPath cp = tracer.criticalPath(intent.getTraceId());
+            long sum = cp.getSegments().stream().mapToLong(CriticalPath.Segment::nanos).sum();
+            assertEquals(cp.getTotalNanos(), sum);
+            assertEquals("POST /api/chat", cp.byName().keySet().iterator().next());
+            assertTrue(cp.getWaitNanos() > 0);   // bus queue hop
+
+            Path out = Files.createTempFile("trace", ".json");
+            assertEquals(4, tracer.exportTrace(intent.getTraceId(), out));
+            JsonObject doc = JsonParser.parseString(Files.readString(out)).getAsJsonObject();
+            JsonArray otlp = doc.getAsJsonArray("resourceSpans").get(0).getAsJsonObject()
+                .getAsJsonArray("scopeSpans").get(0).getAsJsonObject().getAsJsonArray("spans");
+            assertEquals(4, otlp.size());
+            assertEquals(32, otlp.get(0).getAsJsonObject().get("traceId").getAsString().length());
+
+            kernel.stop();
+        }
+    }
+
+    @Test
+    void sampling_keepsOrDropsWholeTraces() {
+        Tracer tracer = new Tracer(4096, 0.25);
+        int kept = 0;
+        for (int t = 0; t < 400; t++) {
+            Span root = tracer.startSpan("root", Span.Kind.SERVER);
+            Tracer.Scope s = tracer.activate(root);
+            try {
+                Span child = tracer.startSpan("child", Span.Kind.INTERNAL);
+                assertEquals(root.isSampled(), child.isSampled());
+                child.end();
+            } finally {
+                s.close();
+            }
+            root.end();
+            if (root.isSampled()) kept++;
+        }
+        assertEquals(2L * kept, tracer.getSpansRecorded());
+        assertTrue(kept > 50 && kept < 150, "kept " + kept);
+    }
+
+    @Test
+    void ringBuffer_overwritesOldestWithoutLosingCount() throws Exception {
+        Tracer tracer = new Tracer(64, 1.0);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < 4; w++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 1000; i++) tracer.startSpan("s", Span.Kind.INTERNAL).end();
+            }));
+        }
+        for (Future<?> f : futures) f.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertEquals(4000, tracer.getSpansRecorded());
+        assertEquals(4000 - 64, tracer.getSpansOverwritten());
+        assertEquals(64, tracer.snapshot().size());
+    }
+}
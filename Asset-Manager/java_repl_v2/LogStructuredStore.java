@@ -0,0 +1,793 @@
+/**
+ * LogStructuredStore.java - Embedded log-structured key/value engine
+ * CSC 413 - Enterprise Java Programming
+ *
+ * The first version of InfinityStorage rewrote files on every store and
+ * re-read the whole JSON file on every get/list, so the REPL got slower
+ * with every key. This is the same idea real databases (LevelDB, RocksDB,
+ * Cassandra) use instead - a Log-Structured Merge tree:
+ *
+ *   put ──► WAL (wal.log, append only) ──► MEMTABLE (sorted, in memory)
+ *                                              │ full (1 MB)
+ *                                              ▼
+ *                               SEGMENTS seg_000001.sst, seg_000002.sst ...
+ *                               (sorted, immutable, sparse index + Bloom)
+ *                                              │ 4 or more
+ *                                              ▼
+ *                               COMPACTION (background merge into one)
+ *
+ * A get checks the memtable, then segments newest to oldest. Each segment
+ * keeps its Bloom filter and every 16th key in memory, so a miss costs no
+ * disk read and a hit costs one small read after a binary search.
+ *
+ * Segment file layout:
+ *   data:   [int keyLen][key][int valLen | -1 = deleted][value] ... (sorted)
+ *   index:  [int n] n x ([int keyLen][key][long offset])
+ *   bloom:  [int hashes][int words] words x long
+ *   footer: [long dataEnd][long indexOffset][long bloomOffset]
+ *           [int count][int coversFrom][int magic]
+ *
+ * Segments are written to a .tmp file, fsynced, then renamed, so a crash
+ * never leaves half a segment. The WAL has a CRC per record and a torn
+ * tail is cut off on open. The directory is locked (LOCK file) while a
+ * store has it open, so two REPLs can't write the same WAL.
+ *
+ * @author Vaughn Scott
+ * @version 1.0
+ *
+ * References:
+ * - LSM tree: https://en.wikipedia.org/wiki/Log-structured_merge-tree
+ * - Bloom filter: https://en.wikipedia.org/wiki/Bloom_filter
+ */
+package repl;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+public class LogStructuredStore implements StorageEngine {
+
+    // ============================================================
+    // TUNING
+    // ============================================================
+    private static final long MEMTABLE_LIMIT_BYTES = 1 << 20;
+    private static final int INDEX_INTERVAL = 16;        // every 16th key goes in the sparse index
+    private static final int BLOOM_BITS_PER_KEY = 10;    // ~1% false positives
+    private static final int BLOOM_HASHES = 7;
+    private static final int COMPACT_TRIGGER = 4;        // segments before a merge
+    private static final int SEGMENT_MAGIC = 0x494E4653; // "INFS"
+    private static final int FOOTER_BYTES = 36;
+
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+
+    // Deleted marker inside memtable/merge maps (compared by identity)
+    private static final String TOMBSTONE = new String("<deleted>");
+
+    // ============================================================
+    // STATE
+    // ============================================================
+    private final Path dir;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final FileChannel wal;
+    private TreeMap<String, String> memtable = new TreeMap<>();
+    private long memtableBytes;
+    private final List<Segment> segments = new ArrayList<>();   // oldest first
+    private int nextSegmentId = 1;
+    private boolean syncWrites = false;
+
+    private final Thread compactor;
+    private volatile boolean closed = false;
+
+    // Statistics
+    private long puts, gets, segmentReads, bloomSkips, flushes, compactions;
+
+    public LogStructuredStore(String dirPath) throws IOException {
+        this.dir = Paths.get(dirPath);
+        Files.createDirectories(dir);
+
+        this.lockChannel = FileChannel.open(dir.resolve("LOCK"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null;
+        }
+        if (acquired == null) {
+            lockChannel.close();
+            throw new IOException(dir + " is in use by another store");
+        }
+        this.lock = acquired;
+
+        FileChannel walChannel = null;
+        try {
+            // Leftovers from a crash mid-flush/compaction
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*.tmp")) {
+                for (Path p : ds) Files.deleteIfExists(p);
+            }
+
+            openSegments();
+
+            walChannel = FileChannel.open(dir.resolve("wal.log"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.wal = walChannel;
+            int replayed = replayWal();
+            if (replayed > 0) {
+                System.out.println("∞ KV engine: replayed " + replayed + " WAL records");
+            }
+        } catch (IOException | RuntimeException e) {
+            if (walChannel != null) walChannel.close();
+            for (Segment seg : segments) seg.close();
+            releaseLock();
+            throw e;
+        }
+
+        this.compactor = new Thread(this::compactionLoop, "InfinityKV-Compactor");
+        compactor.setDaemon(true);
+        compactor.start();
+    }
+
+    /**
+     * fsync the WAL on every write (slower, survives power loss) instead
+     * of only on flush()/close()
+     */
+    public void setSyncWrites(boolean syncWrites) {
+        this.syncWrites = syncWrites;
+    }
+
+    // ============================================================
+    // STORAGE ENGINE API
+    // ============================================================
+
+    @Override
+    public synchronized void put(String key, String value) throws IOException {
+        ensureOpen();
+        appendWal(OP_PUT, key, value);
+        applyToMemtable(key, value);
+        puts++;
+        maybeFlushMemtable();
+    }
+
+    @Override
+    public synchronized String get(String key) throws IOException {
+        ensureOpen();
+        gets++;
+        String v = memtable.get(key);
+        if (v != null) return v == TOMBSTONE ? null : v;
+
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment seg = segments.get(i);
+            if (!seg.mightContain(key)) {
+                bloomSkips++;
+                continue;
+            }
+            segmentReads++;
+            v = seg.get(key);
+            if (v != null) return v == TOMBSTONE ? null : v;
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized void delete(String key) throws IOException {
+        ensureOpen();
+        appendWal(OP_DELETE, key, "");
+        applyToMemtable(key, TOMBSTONE);
+        maybeFlushMemtable();
+    }
+
+    @Override
+    public synchronized SortedMap<String, String> scan(String prefix) throws IOException {
+        ensureOpen();
+        TreeMap<String, String> result = new TreeMap<>();
+        // Oldest first so newer values overwrite older ones
+        for (Segment seg : segments) {
+            seg.scan(prefix, result);
+        }
+        for (Map.Entry<String, String> e : memtable.tailMap(prefix, true).entrySet()) {
+            if (!e.getKey().startsWith(prefix)) break;
+            result.put(e.getKey(), e.getValue());
+        }
+        result.values().removeIf(v -> v == TOMBSTONE);
+        return result;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        ensureOpen();
+        wal.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notifyAll();
+        }
+        try {
+            compactor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                flushMemtable();
+            } finally {
+                wal.close();
+                for (Segment seg : segments) seg.close();
+                segments.clear();
+                releaseLock();
+            }
+        }
+    }
+
+    private void releaseLock() throws IOException {
+        try {
+            if (lock.isValid()) lock.release();
+        } finally {
+            lockChannel.close();
+        }
+    }
+
+    @Override
+    public synchronized String getStats() {
+        long diskBytes = 0;
+        for (Segment seg : segments) diskBytes += seg.fileSize;
+        StringBuilder sb = new StringBuilder();
+        sb.append("KV ENGINE (log-structured):\n");
+        sb.append(String.format("  Memtable: %d entries (%d KB)\n", memtable.size(), memtableBytes / 1024));
+        sb.append(String.format("  Segments: %d (%d KB on disk)\n", segments.size(), diskBytes / 1024));
+        sb.append(String.format("  Puts: %d | Gets: %d | Segment reads: %d | Bloom skips: %d\n",
+            puts, gets, segmentReads, bloomSkips));
+        sb.append(String.format("  Flushes: %d | Compactions: %d\n", flushes, compactions));
+        return sb.toString();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) throw new IOException("storage engine is closed");
+    }
+
+    // ============================================================
+    // WRITE-AHEAD LOG
+    // Record: [byte op][int keyLen][key][int valLen][value][int crc32]
+    // ============================================================
+
+    private void appendWal(byte op, String key, String value) throws IOException {
+        byte[] k = key.getBytes(StandardCharsets.UTF_8);
+        byte[] v = value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(13 + k.length + v.length);
+        buf.put(op).putInt(k.length).put(k).putInt(v.length).put(v);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, buf.position());
+        buf.putInt((int) crc.getValue()).flip();
+        long pos = wal.size();
+        while (buf.hasRemaining()) pos += wal.write(buf, pos);
+        if (syncWrites) wal.force(false);
+    }
+
+    private int replayWal() throws IOException {
+        long size = wal.size();
+        ByteBuffer all = ByteBuffer.allocate((int) size);
+        while (all.hasRemaining() && wal.read(all, all.position()) > 0) { }
+        all.flip();
+
+        int count = 0;
+        long good = 0;
+        while (all.remaining() >= 13) {
+            int start = all.position();
+            byte op = all.get();
+            int kLen = all.getInt();
+            if (kLen < 0 || kLen > all.remaining() - 8) break;
+            byte[] k = new byte[kLen];
+            all.get(k);
+            int vLen = all.getInt();
+            if (vLen < 0 || vLen > all.remaining() - 4) break;
+            byte[] v = new byte[vLen];
+            all.get(v);
+            CRC32 crc = new CRC32();
+            crc.update(all.array(), start, all.position() - start);
+            if ((int) crc.getValue() != all.getInt()) break;
+
+            String key = new String(k, StandardCharsets.UTF_8);
+            applyToMemtable(key, op == OP_DELETE ? TOMBSTONE : new String(v, StandardCharsets.UTF_8));
+            good = all.position();
+            count++;
+        }
+        if (good < size) {
+            wal.truncate(good);
+            System.out.println("∞ KV engine: truncated torn WAL tail at " + good);
+        }
+        return count;
+    }
+
+    // ============================================================
+    // MEMTABLE
+    // ============================================================
+
+    private void applyToMemtable(String key, String value) {
+        String old = memtable.put(key, value);
+        memtableBytes += 2L * value.length() + (old == null ? 2L * key.length() + 32 : -2L * old.length());
+    }
+
+    private void maybeFlushMemtable() throws IOException {
+        if (memtableBytes >= MEMTABLE_LIMIT_BYTES) {
+            flushMemtable();
+        }
+    }
+
+    /**
+     * Write the memtable out as a new segment and reset the WAL. Deletes
+     * are kept as tombstones, since older segments may still hold the key.
+     */
+    private void flushMemtable() throws IOException {
+        if (memtable.isEmpty()) return;
+        int id = nextSegmentId++;
+        Path tmp = dir.resolve(String.format("seg_%06d.sst.tmp", id));
+        SegmentWriter writer = new SegmentWriter(tmp, memtable.size(), id);
+        for (Map.Entry<String, String> e : memtable.entrySet()) {
+            writer.add(e.getKey(), e.getValue());
+        }
+        writer.seal();
+        Files.move(tmp, segmentPath(id), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        segments.add(Segment.open(segmentPath(id), id));
+
+        memtable = new TreeMap<>();
+        memtableBytes = 0;
+        wal.truncate(0);
+        wal.force(true);
+        flushes++;
+
+        if (segments.size() >= COMPACT_TRIGGER) notifyAll();
+    }
+
+    // ============================================================
+    // COMPACTION
+    // ============================================================
+
+    private void compactionLoop() {
+        while (true) {
+            List<Segment> inputs;
+            synchronized (this) {
+                while (!closed && segments.size() < COMPACT_TRIGGER) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) return;
+                inputs = new ArrayList<>(segments);
+            }
+            try {
+                compact(inputs);
+            } catch (IOException e) {
+                System.out.println("∞ KV engine: compaction failed: " + e.getMessage());
+                synchronized (this) {
+                    try {
+                        wait(5000);   // back off before retrying
+                    } catch (InterruptedException ie) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Merge all current segments into one. The merge runs without the
+     * lock (segments are immutable); only the swap is synchronized.
+     * Tombstones are dropped because nothing older than the inputs exists.
+     */
+    private void compact(List<Segment> inputs) throws IOException {
+        Segment newest = inputs.get(inputs.size() - 1);
+        int coversFrom = inputs.get(0).coversFrom;
+        int expected = 0;
+        for (Segment seg : inputs) expected += seg.count;
+
+        Path tmp = dir.resolve(String.format("seg_%06d.sst.compact.tmp", newest.id));
+        SegmentWriter writer = new SegmentWriter(tmp, expected, coversFrom);
+
+        // k-way merge; on equal keys the newest segment wins
+        PriorityQueue<Cursor> heap = new PriorityQueue<>((a, b) -> {
+            int c = a.key.compareTo(b.key);
+            return c != 0 ? c : Integer.compare(b.rank, a.rank);
+        });
+        for (int i = 0; i < inputs.size(); i++) {
+            Cursor c = new Cursor(inputs.get(i), i);
+            if (c.advance()) heap.add(c);
+        }
+        while (!heap.isEmpty()) {
+            Cursor top = heap.poll();
+            String key = top.key;
+            if (top.value != TOMBSTONE) writer.add(key, top.value);
+            if (top.advance()) heap.add(top);
+            while (!heap.isEmpty() && heap.peek().key.equals(key)) {
+                Cursor dup = heap.poll();
+                if (dup.advance()) heap.add(dup);
+            }
+        }
+
+        writer.seal();
+
+        synchronized (this) {
+            if (closed) {
+                Files.deleteIfExists(tmp);
+                return;
+            }
+            // Atomic replace of the newest input: a crash from here on leaves
+            // the merged file plus inputs it covers, cleaned up on next open.
+            // Inputs stay open until the merged segment is in place, so a
+            // failed rename leaves the store as it was (and retries later).
+            Path target = segmentPath(newest.id);
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.deleteIfExists(tmp);
+                throw e;
+            }
+            Segment merged = Segment.open(target, newest.id);
+            for (Segment seg : inputs) {
+                seg.close();
+                if (seg.id != newest.id) Files.deleteIfExists(seg.path);
+            }
+            segments.subList(0, inputs.size()).clear();
+            segments.add(0, merged);
+            compactions++;
+        }
+    }
+
+    /** Sequential reader over one segment, used by the merge */
+    private static final class Cursor {
+        final DataInputStream in;
+        final long end;
+        final int rank;
+        long pos;
+        String key, value;
+
+        Cursor(Segment seg, int rank) {
+            this.in = new DataInputStream(new BufferedInputStream(new ChannelInput(seg.channel, 0), 1 << 16));
+            this.end = seg.dataEnd;
+            this.rank = rank;
+        }
+
+        boolean advance() throws IOException {
+            if (pos >= end) return false;
+            String[] kv = readEntry(in);
+            pos += entrySize(kv);
+            key = kv[0];
+            value = kv[1];
+            return true;
+        }
+    }
+
+    // ============================================================
+    // SEGMENTS
+    // ============================================================
+
+    private void openSegments() throws IOException {
+        TreeMap<Integer, Path> found = new TreeMap<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "seg_*.sst")) {
+            for (Path p : ds) {
+                String n = p.getFileName().toString();
+                found.put(Integer.parseInt(n.substring(4, n.length() - 4)), p);
+            }
+        }
+        for (Map.Entry<Integer, Path> e : found.entrySet()) {
+            try {
+                segments.add(Segment.open(e.getValue(), e.getKey()));
+            } catch (IOException ex) {
+                System.out.println("∞ KV engine: skipping unreadable segment " + e.getValue().getFileName()
+                    + ": " + ex.getMessage());
+            }
+        }
+        // A compaction that crashed after its rename leaves inputs it already covers
+        for (Segment merged : new ArrayList<>(segments)) {
+            Iterator<Segment> it = segments.iterator();
+            while (it.hasNext()) {
+                Segment seg = it.next();
+                if (seg.id >= merged.coversFrom && seg.id < merged.id) {
+                    seg.close();
+                    Files.deleteIfExists(seg.path);
+                    it.remove();
+                }
+            }
+        }
+        if (!found.isEmpty()) nextSegmentId = found.lastKey() + 1;
+    }
+
+    private Path segmentPath(int id) {
+        return dir.resolve(String.format("seg_%06d.sst", id));
+    }
+
+    /**
+     * Immutable sorted file; index and Bloom filter live in memory
+     */
+    private static final class Segment {
+        final int id;
+        final Path path;
+        final FileChannel channel;
+        final long fileSize, dataEnd;
+        final int count, coversFrom;
+        final String[] indexKeys;
+        final long[] indexOffsets;
+        final long[] bloom;
+        final int hashes;
+
+        private Segment(int id, Path path, FileChannel channel, long fileSize, long dataEnd, int count,
+                        int coversFrom, String[] indexKeys, long[] indexOffsets, long[] bloom, int hashes) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.fileSize = fileSize;
+            this.dataEnd = dataEnd;
+            this.count = count;
+            this.coversFrom = coversFrom;
+            this.indexKeys = indexKeys;
+            this.indexOffsets = indexOffsets;
+            this.bloom = bloom;
+            this.hashes = hashes;
+        }
+
+        static Segment open(Path path, int id) throws IOException {
+            FileChannel ch = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                long size = ch.size();
+                if (size < FOOTER_BYTES) throw new IOException("too short");
+                ByteBuffer footer = readFully(ch, size - FOOTER_BYTES, FOOTER_BYTES);
+                long dataEnd = footer.getLong();
+                long indexOffset = footer.getLong();
+                long bloomOffset = footer.getLong();
+                int count = footer.getInt();
+                int coversFrom = footer.getInt();
+                if (footer.getInt() != SEGMENT_MAGIC) throw new IOException("bad magic");
+
+                ByteBuffer idx = readFully(ch, indexOffset, (int) (bloomOffset - indexOffset));
+                int n = idx.getInt();
+                String[] keys = new String[n];
+                long[] offsets = new long[n];
+                for (int i = 0; i < n; i++) {
+                    byte[] k = new byte[idx.getInt()];
+                    idx.get(k);
+                    keys[i] = new String(k, StandardCharsets.UTF_8);
+                    offsets[i] = idx.getLong();
+                }
+
+                ByteBuffer bl = readFully(ch, bloomOffset, (int) (size - FOOTER_BYTES - bloomOffset));
+                int hashes = bl.getInt();
+                long[] bloom = new long[bl.getInt()];
+                for (int i = 0; i < bloom.length; i++) bloom[i] = bl.getLong();
+
+                return new Segment(id, path, ch, size, dataEnd, count, coversFrom, keys, offsets, bloom, hashes);
+            } catch (IOException | RuntimeException e) {
+                ch.close();
+                throw e instanceof IOException ? (IOException) e : new IOException(e.toString());
+            }
+        }
+
+        boolean mightContain(String key) {
+            return bloomContains(bloom, hashes, key);
+        }
+
+        /** Value, TOMBSTONE, or null if the key is not in this segment */
+        String get(String key) throws IOException {
+            int block = floorBlock(key);
+            if (block < 0) return null;
+            long from = indexOffsets[block];
+            long to = block + 1 < indexOffsets.length ? indexOffsets[block + 1] : dataEnd;
+            ByteBuffer buf = readFully(channel, from, (int) (to - from));
+            while (buf.hasRemaining()) {
+                byte[] k = new byte[buf.getInt()];
+                buf.get(k);
+                int vLen = buf.getInt();
+                int c = new String(k, StandardCharsets.UTF_8).compareTo(key);
+                if (c == 0) {
+                    if (vLen < 0) return TOMBSTONE;
+                    byte[] v = new byte[vLen];
+                    buf.get(v);
+                    return new String(v, StandardCharsets.UTF_8);
+                }
+                if (c > 0) return null;
+                if (vLen > 0) buf.position(buf.position() + vLen);
+            }
+            return null;
+        }
+
+        /** Put every entry with the prefix into out (tombstones included) */
+        void scan(String prefix, Map<String, String> out) throws IOException {
+            if (indexOffsets.length == 0) return;
+            int block = Math.max(0, floorBlock(prefix));
+            long pos = indexOffsets[block];
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new ChannelInput(channel, pos)));
+            while (pos < dataEnd) {
+                String[] kv = readEntry(in);
+                pos += entrySize(kv);
+                int c = kv[0].compareTo(prefix);
+                if (c < 0) continue;
+                if (!kv[0].startsWith(prefix)) break;
+                out.put(kv[0], kv[1]);
+            }
+        }
+
+        /** Last index block whose first key is ≤ key, or -1 */
+        private int floorBlock(String key) {
+            int lo = 0, hi = indexKeys.length - 1, found = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (indexKeys[mid].compareTo(key) <= 0) {
+                    found = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return found;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Streams sorted entries into a new segment file
+     */
+    private static final class SegmentWriter {
+        private final FileOutputStream fos;
+        private final DataOutputStream out;
+        private final List<String> indexKeys = new ArrayList<>();
+        private final List<Long> indexOffsets = new ArrayList<>();
+        private final long[] bloom;
+        private final int coversFrom;
+        private long offset;
+        private int count;
+
+        SegmentWriter(Path tmp, int expectedKeys, int coversFrom) throws IOException {
+            this.fos = new FileOutputStream(tmp.toFile());
+            this.out = new DataOutputStream(new BufferedOutputStream(fos, 1 << 16));
+            long bits = Math.max(64, (long) Math.max(1, expectedKeys) * BLOOM_BITS_PER_KEY);
+            this.bloom = new long[(int) ((bits + 63) / 64)];
+            this.coversFrom = coversFrom;
+        }
+
+        void add(String key, String value) throws IOException {
+            if (count % INDEX_INTERVAL == 0) {
+                indexKeys.add(key);
+                indexOffsets.add(offset);
+            }
+            byte[] k = key.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(k.length);
+            out.write(k);
+            if (value == TOMBSTONE) {
+                out.writeInt(-1);
+                offset += 8 + k.length;
+            } else {
+                byte[] v = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(v.length);
+                out.write(v);
+                offset += 8 + k.length + v.length;
+            }
+            bloomAdd(bloom, key);
+            count++;
+        }
+
+        /** Write index, Bloom filter and footer, then fsync and close */
+        void seal() throws IOException {
+            long dataEnd = offset;
+            long indexOffset = offset;
+            out.writeInt(indexKeys.size());
+            offset += 4;
+            for (int i = 0; i < indexKeys.size(); i++) {
+                byte[] k = indexKeys.get(i).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(k.length);
+                out.write(k);
+                out.writeLong(indexOffsets.get(i));
+                offset += 12 + k.length;
+            }
+            long bloomOffset = offset;
+            out.writeInt(BLOOM_HASHES);
+            out.writeInt(bloom.length);
+            for (long w : bloom) out.writeLong(w);
+
+            out.writeLong(dataEnd);
+            out.writeLong(indexOffset);
+            out.writeLong(bloomOffset);
+            out.writeInt(count);
+            out.writeInt(coversFrom);
+            out.writeInt(SEGMENT_MAGIC);
+            out.flush();
+            fos.getFD().sync();
+            out.close();
+        }
+    }
+
+    // ============================================================
+    // HELPERS
+    // ============================================================
+
+    private static String[] readEntry(DataInputStream in) throws IOException {
+        byte[] k = new byte[in.readInt()];
+        in.readFully(k);
+        int vLen = in.readInt();
+        if (vLen < 0) return new String[] { new String(k, StandardCharsets.UTF_8), TOMBSTONE };
+        byte[] v = new byte[vLen];
+        in.readFully(v);
+        return new String[] { new String(k, StandardCharsets.UTF_8), new String(v, StandardCharsets.UTF_8) };
+    }
+
+    private static long entrySize(String[] kv) {
+        long size = 8 + kv[0].getBytes(StandardCharsets.UTF_8).length;
+        return kv[1] == TOMBSTONE ? size : size + kv[1].getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static ByteBuffer readFully(FileChannel ch, long pos, int len) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(len);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, pos + buf.position()) < 0) throw new EOFException("segment truncated");
+        }
+        buf.flip();
+        return buf;
+    }
+
+    /** Double hashing: bit_i = h1 + i·h2 (Kirsch-Mitzenmacher) */
+    private static void bloomAdd(long[] bloom, String key) {
+        long bits = bloom.length * 64L;
+        int h1 = key.hashCode() * 0x9E3779B9;
+        int h2 = fnv(key) | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+            bloom[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private static boolean bloomContains(long[] bloom, int hashes, String key) {
+        long bits = bloom.length * 64L;
+        int h1 = key.hashCode() * 0x9E3779B9;
+        int h2 = fnv(key) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+            if ((bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    private static int fnv(String s) {
+        int h = 0x811C9DC5;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x01000193;
+        }
+        return h;
+    }
+
+    /** InputStream over a FileChannel using positional reads (thread-safe) */
+    private static final class ChannelInput extends InputStream {
+        private final FileChannel ch;
+        private long pos;
+
+        ChannelInput(FileChannel ch, long pos) {
+            this.ch = ch;
+            this.pos = pos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = ch.read(ByteBuffer.wrap(b, off, len), pos);
+            if (n > 0) pos += n;
+            return n;
+        }
+    }
+}
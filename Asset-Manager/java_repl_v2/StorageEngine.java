@@ -0,0 +1,38 @@
+/**
+ * StorageEngine.java - Pluggable key/value engine behind InfinityStorage
+ * CSC 413 - Enterprise Java Programming
+ *
+ * InfinityStorage only needs a handful of operations from whatever actually
+ * keeps the bytes, so I pulled them into an interface (Strategy pattern).
+ * The default implementation is LogStructuredStore; a test can plug in
+ * something simpler without touching the fractal/φ logic.
+ *
+ * @author Vaughn Scott
+ * @version 1.0
+ */
+package repl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.SortedMap;
+
+public interface StorageEngine extends Closeable {
+
+    /** Insert or overwrite a key */
+    void put(String key, String value) throws IOException;
+
+    /** Value for key, or null if absent */
+    String get(String key) throws IOException;
+
+    /** Remove a key (no-op if absent) */
+    void delete(String key) throws IOException;
+
+    /** All live entries whose key starts with prefix, in key order */
+    SortedMap<String, String> scan(String prefix) throws IOException;
+
+    /** Make everything written so far durable */
+    void flush() throws IOException;
+
+    /** Human-readable engine statistics for "infinity stats" */
+    String getStats();
+}
@@ -19,7 +19,7 @@ javac -d out ReplCommand.java ReplCommandRegistry.java
 if %ERRORLEVEL% NEQ 0 goto :error
 
 echo [2/4] Compiling storage systems...
-javac -d out -cp out InfinityStorage.java SelfEvolvingAI.java
+javac -d out -cp out StorageEngine.java LogStructuredStore.java InfinityStorage.java SelfEvolvingAI.java
 if %ERRORLEVEL% NEQ 0 goto :error
 
 echo [3/4] Compiling commands...
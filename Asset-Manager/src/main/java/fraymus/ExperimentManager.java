@@ -93,6 +93,7 @@ public class ExperimentManager {
         this.bardoPatterns = new BardoMemoryPatterns(infiniteMemory);
         this.feedbackService = new ContextualFeedbackService();
         this.mrlAnalytics = new MRLAnalytics();
+        this.mrlAnalytics.setMemory(infiniteMemory);
         
         // Initialize AGI Systems
         this.metaLearner = new MetaLearner();
@@ -2595,11 +2596,21 @@ public class ExperimentManager {
                 CommandTerminal.print("  Recovered: " + recovered.substring(0, Math.min(7, recovered.length())));
                 break;
                 
+            case "bench":
+                int iterations = 1000;
+                if (parts.length > 1) {
+                    try { iterations = Integer.parseInt(parts[1].trim()); } catch (NumberFormatException ignored) {}
+                }
+                CommandTerminal.printHighlight("=== LATTICE THROUGHPUT ===");
+                CommandTerminal.print(latticeShield.benchmark(Math.max(1, iterations)));
+                break;
+                
             default:
                 CommandTerminal.printHighlight("=== LATTICE SHIELD - Post-Quantum Crypto ===");
                 CommandTerminal.print("  lattice           Show stats");
                 CommandTerminal.print("  lattice keygen    Generate Phi-Lattice keys");
                 CommandTerminal.print("  lattice test      Run encryption round-trip test");
+                CommandTerminal.print("  lattice bench [n] NTT vs schoolbook throughput");
         }
     }
 
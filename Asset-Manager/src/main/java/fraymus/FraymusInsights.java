@@ -129,6 +129,11 @@ public class FraymusInsights {
             }
         }
 
+        // Memory-derived suggestions (columnar scan, no record walk)
+        if (memory != null) {
+            analyzeMemory(suggestions);
+        }
+
         // MRL-based suggestions
         if (mrlScore < 0.5) {
             suggestions.add("MRL_WARNING: Memory Resonance Level low - increase learning frequency");
@@ -139,6 +144,37 @@ public class FraymusInsights {
         return suggestions;
     }
 
+    /**
+     * Compare the last hour of memory with the hour before it, and flag
+     * categories whose resonance sits well below the memory-wide mean
+     */
+    private void analyzeMemory(List<String> suggestions) {
+        MemoryColumns.Snapshot snap = memory.getColumns().snapshot();
+        if (snap.size() == 0) return;
+
+        long hour = 3600_000L;
+        long now = System.currentTimeMillis();
+        Map<String, Long> previous = new HashMap<>();
+        for (MemoryColumns.GroupStats g : snap.groupByCategory(now - 2 * hour, now - hour)) {
+            previous.put(g.key(), g.count());
+        }
+        for (MemoryColumns.GroupStats g : snap.groupByCategory(now - hour, Long.MAX_VALUE)) {
+            long before = previous.getOrDefault(g.key(), 0L);
+            if (g.count() >= 10 && g.count() > before * 2) {
+                suggestions.add(String.format("MEMORY_SURGE: %s (%d records this hour, %d the hour before)",
+                        g.key(), g.count(), before));
+            }
+        }
+
+        double avgRes = snap.averageResonance();
+        for (MemoryColumns.GroupStats g : snap.groupByCategory(Long.MIN_VALUE, Long.MAX_VALUE)) {
+            if (g.count() >= 10 && g.mean() < avgRes * PHI_INV) {
+                suggestions.add(String.format("LOW_RESONANCE: %s (mean %.3f vs %.3f overall)",
+                        g.key(), g.mean(), avgRes));
+            }
+        }
+    }
+
     /**
      * Core Insight #4: MRL (Memory Resonance Level) Tracking
      */
@@ -2,7 +2,11 @@ package fraymus.absorption;
 
 import fraymus.knowledge.AkashicRecord;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
 
 /**
  * FILE ABSORBER: THE FILE EATER
@@ -16,12 +20,30 @@ import java.nio.file.*;
  * - .json      → Structured data
  * - .pdf       → Text extraction (basic)
  * - .xml       → Tag-based parsing
+ * 
+ * Directories go through IngestPipeline: recursive walk, parallel parsing,
+ * and a manifest under .akashic/manifests/ so re-absorbing a tree only
+ * parses files that changed. Parsers run off-lock into a per-file block
+ * list; blocks are committed to the AkashicRecord one file at a time.
+ * Blocks from a tree are labelled with the file's path relative to the
+ * scanned root, so same-named files in different folders stay apart.
  */
 public class FileAbsorber {
 
+    private static final String MANIFEST_DIR = ".akashic/manifests";
+
     private AkashicRecord akashic;
     private int filesAbsorbed = 0;
     private long bytesConsumed = 0;
+    private IngestPipeline.Stats lastScan;
+
+    /**
+     * Receives extracted (category, content) blocks
+     */
+    @FunctionalInterface
+    private interface BlockSink {
+        void add(String category, String content);
+    }
 
     public FileAbsorber() {
         this.akashic = new AkashicRecord();
@@ -44,29 +66,22 @@ public class FileAbsorber {
             return;
         }
 
-        String name = file.getName().toLowerCase();
         System.out.println("\n🔥 FILE ABSORBER: CONSUMING [" + file.getName() + "]");
 
         try {
-            if (name.endsWith(".txt") || name.endsWith(".md")) {
-                absorbText(file);
-            } else if (name.endsWith(".java")) {
-                absorbJavaSource(file);
-            } else if (name.endsWith(".html") || name.endsWith(".htm")) {
-                absorbHtml(file);
-            } else if (name.endsWith(".json")) {
-                absorbJson(file);
-            } else if (name.endsWith(".xml")) {
-                absorbXml(file);
-            } else if (name.endsWith(".pdf")) {
-                absorbPdf(file);
+            String summary;
+            if (file.getName().toLowerCase().endsWith(".pdf")) {
+                summary = absorbPdf(file.getAbsolutePath(), file.length(), akashic::addBlock);
             } else {
-                // Default: treat as text
-                absorbText(file);
+                String content = StandardCharsets.UTF_8.decode(IngestPipeline.read(file.toPath())).toString();
+                summary = parse(file.getName(), content, akashic::addBlock);
             }
+            System.out.println("   >> EXTRACTED: " + summary);
 
-            filesAbsorbed++;
-            bytesConsumed += file.length();
+            synchronized (this) {
+                filesAbsorbed++;
+                bytesConsumed += file.length();
+            }
             System.out.println("   ✓ ABSORBED: " + file.length() + " bytes");
 
         } catch (Exception e) {
@@ -74,43 +89,93 @@ public class FileAbsorber {
         }
     }
 
+    /**
+     * Recursively absorb a directory tree. Unchanged files (per the
+     * manifest from the previous scan of this directory) are skipped.
+     */
     private void absorbDirectory(File dir) {
         System.out.println("\n🔥 FILE ABSORBER: SCANNING DIRECTORY [" + dir.getName() + "]");
-        
-        File[] files = dir.listFiles();
-        if (files == null) return;
-
-        int count = 0;
-        for (File file : files) {
-            if (file.isFile()) {
-                absorb(file.getAbsolutePath());
-                count++;
+
+        Path root = dir.toPath().toAbsolutePath().normalize();
+        CRC32C id = new CRC32C();
+        id.update(root.toString().getBytes(StandardCharsets.UTF_8));
+        Path manifest = Paths.get(MANIFEST_DIR, Long.toHexString(id.getValue()) + ".tsv");
+
+        try {
+            lastScan = IngestPipeline.builder()
+                .manifestFile(manifest)
+                .build()
+                .run(root, this::absorbIngested);
+            System.out.println("   ✓ DIRECTORY SCAN COMPLETE: " + lastScan);
+        } catch (IOException e) {
+            System.out.println("   !! DIRECTORY SCAN FAILED: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("   !! DIRECTORY SCAN INTERRUPTED");
+        }
+    }
+
+    /**
+     * Worker-side: parse into a local list, then commit the file's blocks
+     */
+    private void absorbIngested(IngestPipeline.IngestFile file) throws IOException {
+        List<String[]> blocks = new ArrayList<>();
+        BlockSink sink = (category, content) -> blocks.add(new String[]{category, content});
+        if (file.getName().toLowerCase().endsWith(".pdf")) {
+            absorbPdf(file.path.toAbsolutePath().toString(), file.size, sink);
+        } else {
+            parse(file.key.replace('\\', '/'), file.text(), sink);
+        }
+        synchronized (this) {
+            for (String[] block : blocks) {
+                akashic.addBlock(block[0], block[1]);
             }
+            filesAbsorbed++;
+            bytesConsumed += file.size;
         }
-        System.out.println("   ✓ DIRECTORY SCAN COMPLETE: " + count + " files absorbed");
     }
 
-    private void absorbText(File file) throws IOException {
-        String content = new String(Files.readAllBytes(file.toPath()));
-        
+    /**
+     * Dispatch on extension; returns a short extraction summary.
+     * fileName labels the blocks (a bare name, or a path relative to the
+     * scanned root).
+     */
+    private String parse(String fileName, String content, BlockSink sink) {
+        String name = fileName.toLowerCase();
+        if (name.endsWith(".txt") || name.endsWith(".md")) {
+            return absorbText(fileName, content, sink);
+        } else if (name.endsWith(".java")) {
+            return absorbJavaSource(fileName, content, sink);
+        } else if (name.endsWith(".html") || name.endsWith(".htm")) {
+            return absorbHtml(content, sink);
+        } else if (name.endsWith(".json")) {
+            return absorbJson(fileName, content, sink);
+        } else if (name.endsWith(".xml")) {
+            return absorbXml(fileName, content, sink);
+        } else {
+            // Default: treat as text
+            return absorbText(fileName, content, sink);
+        }
+    }
+
+    private String absorbText(String fileName, String content, BlockSink sink) {
         // Split into chunks if large
         String[] paragraphs = content.split("\n\n+");
         
         for (String para : paragraphs) {
             para = para.trim();
             if (para.length() > 20) {
-                akashic.addBlock("TEXT:" + file.getName(), para);
+                sink.add("TEXT:" + fileName, para);
             }
         }
         
-        System.out.println("   >> EXTRACTED: " + paragraphs.length + " text blocks");
+        return paragraphs.length + " text blocks";
     }
 
-    private void absorbJavaSource(File file) throws IOException {
-        String content = new String(Files.readAllBytes(file.toPath()));
+    private String absorbJavaSource(String fileName, String content, BlockSink sink) {
         String[] lines = content.split("\n");
 
-        String currentClass = file.getName().replace(".java", "");
+        String currentClass = fileName.substring(fileName.lastIndexOf('/') + 1).replace(".java", "");
         int methods = 0;
         int fields = 0;
 
@@ -119,28 +184,28 @@ public class FileAbsorber {
 
             // Package
             if (line.startsWith("package ")) {
-                akashic.addBlock("JAVA:PACKAGE", line);
+                sink.add("JAVA:PACKAGE", line);
             }
             // Class/Interface
             else if (line.contains("class ") || line.contains("interface ")) {
-                akashic.addBlock("JAVA:CLASS", currentClass + " | " + line);
+                sink.add("JAVA:CLASS", currentClass + " | " + line);
             }
             // Methods
             else if (line.contains("(") && line.contains(")") && 
                      (line.contains("public ") || line.contains("private ") || line.contains("protected ")) &&
                      !line.contains("class ") && !line.contains("new ")) {
-                akashic.addBlock("JAVA:METHOD", currentClass + "." + extractMethodName(line));
+                sink.add("JAVA:METHOD", currentClass + "." + extractMethodName(line));
                 methods++;
             }
             // Fields
             else if ((line.contains("private ") || line.contains("public ")) && 
                      line.contains(";") && !line.contains("(")) {
-                akashic.addBlock("JAVA:FIELD", currentClass + " | " + line);
+                sink.add("JAVA:FIELD", currentClass + " | " + line);
                 fields++;
             }
         }
 
-        System.out.println("   >> EXTRACTED: " + methods + " methods, " + fields + " fields");
+        return methods + " methods, " + fields + " fields";
     }
 
     private String extractMethodName(String line) {
@@ -155,13 +220,12 @@ public class FileAbsorber {
         return "unknown";
     }
 
-    private void absorbHtml(File file) throws IOException {
-        String html = new String(Files.readAllBytes(file.toPath()));
-        
+    private String absorbHtml(String html, BlockSink sink) {
+
         // Extract title
         String title = extractBetween(html, "<title>", "</title>");
         if (!title.isEmpty()) {
-            akashic.addBlock("HTML:TITLE", title);
+            sink.add("HTML:TITLE", title);
         }
 
         // Extract headers
@@ -172,7 +236,7 @@ public class FileAbsorber {
                 String header = extractBetween(html.substring(idx), "<" + tag, "</" + tag + ">");
                 header = clean(header);
                 if (!header.isEmpty()) {
-                    akashic.addBlock("HTML:HEADER", header);
+                    sink.add("HTML:HEADER", header);
                 }
                 idx++;
             }
@@ -185,20 +249,18 @@ public class FileAbsorber {
             String para = extractBetween(html.substring(pIdx), "<p", "</p>");
             para = clean(para);
             if (para.length() > 30) {
-                akashic.addBlock("HTML:PARAGRAPH", para);
+                sink.add("HTML:PARAGRAPH", para);
                 pCount++;
             }
             pIdx++;
         }
 
-        System.out.println("   >> EXTRACTED: title + headers + " + pCount + " paragraphs");
+        return "title + headers + " + pCount + " paragraphs";
     }
 
-    private void absorbJson(File file) throws IOException {
-        String content = new String(Files.readAllBytes(file.toPath()));
-        
+    private String absorbJson(String fileName, String content, BlockSink sink) {
         // Store the raw JSON as a single block
-        akashic.addBlock("JSON:" + file.getName(), content);
+        sink.add("JSON:" + fileName, content);
         
         // Extract key-value pairs (simple parsing)
         int pairs = 0;
@@ -206,19 +268,17 @@ public class FileAbsorber {
         for (String line : lines) {
             line = line.trim();
             if (line.contains(":") && line.contains("\"")) {
-                akashic.addBlock("JSON:ENTRY", line);
+                sink.add("JSON:ENTRY", line);
                 pairs++;
             }
         }
 
-        System.out.println("   >> EXTRACTED: " + pairs + " key-value pairs");
+        return pairs + " key-value pairs";
     }
 
-    private void absorbXml(File file) throws IOException {
-        String content = new String(Files.readAllBytes(file.toPath()));
-        
+    private String absorbXml(String fileName, String content, BlockSink sink) {
         // Store raw XML
-        akashic.addBlock("XML:" + file.getName(), content);
+        sink.add("XML:" + fileName, content);
 
         // Extract element names
         int elements = 0;
@@ -229,22 +289,21 @@ public class FileAbsorber {
                 String tag = content.substring(idx + 1, end).trim();
                 if (!tag.startsWith("/") && !tag.startsWith("?") && !tag.startsWith("!")) {
                     String tagName = tag.split("\\s+")[0];
-                    akashic.addBlock("XML:ELEMENT", tagName);
+                    sink.add("XML:ELEMENT", tagName);
                     elements++;
                 }
             }
             idx++;
         }
 
-        System.out.println("   >> EXTRACTED: " + elements + " XML elements");
+        return elements + " XML elements";
     }
 
-    private void absorbPdf(File file) {
+    private String absorbPdf(String fullPath, long size, BlockSink sink) {
         // Basic PDF text extraction (without external libs)
         // For full PDF support, would need Apache PDFBox
-        System.out.println("   !! PDF PARSING REQUIRES EXTERNAL LIBRARY (Apache PDFBox)");
-        System.out.println("   >> Storing file reference only.");
-        akashic.addBlock("PDF:REFERENCE", "File: " + file.getAbsolutePath() + " | Size: " + file.length());
+        sink.add("PDF:REFERENCE", "File: " + fullPath + " | Size: " + size);
+        return "file reference only (PDF parsing requires Apache PDFBox)";
     }
 
     private String extractBetween(String text, String start, String end) {
@@ -270,6 +329,11 @@ public class FileAbsorber {
         System.out.println("├─────────────────────────────────────────────────────────────┤");
         System.out.println("│ Files Absorbed:      " + String.format("%-36d", filesAbsorbed) + "│");
         System.out.println("│ Bytes Consumed:      " + String.format("%-36d", bytesConsumed) + "│");
+        if (lastScan != null) {
+            System.out.println("│ Last Scan Skipped:   " + String.format("%-36d", lastScan.getUnchanged()) + "│");
+            System.out.println("│ Throughput:          " + String.format("%-36s",
+                String.format("%.0f files/s, %.1f MB/s", lastScan.getFilesPerSecond(), lastScan.getMegabytesPerSecond())) + "│");
+        }
         System.out.println("└─────────────────────────────────────────────────────────────┘");
     }
 
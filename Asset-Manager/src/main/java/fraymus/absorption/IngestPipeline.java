@@ -0,0 +1,494 @@
+package fraymus.absorption;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * INGEST PIPELINE: DISCOVERY → QUEUE → WORKERS
+ *
+ * "Walk once. Read once. Skip what you already know."
+ *
+ * Shared file ingestion front end for FileAbsorber and CortexMapper:
+ *
+ * 1. DISCOVERY - Files.walkFileTree on the calling thread. Attributes come
+ *    with the walk, so size/mtime cost no extra stat calls. Hidden and
+ *    build directories are pruned before descent.
+ * 2. BOUNDED QUEUE - Discovered files wait in an ArrayBlockingQueue; when
+ *    workers fall behind, the walk blocks instead of buffering 100k paths.
+ * 3. WORKERS - N threads read and hand each file to the FileHandler.
+ *    Small files are read in one exact-size read, large ones memory-mapped.
+ * 4. MANIFEST - (root, relative path) → (size, mtime, CRC32C). Same size
+ *    and mtime: skipped at discovery without opening. Changed mtime but
+ *    same size and checksum: skipped after the read (touched, not edited).
+ *    Failed files are left out so they are retried next time; deleted
+ *    files drop out. A run only reads and replaces its own root's entries,
+ *    so one manifest can track several roots.
+ *
+ * Handlers run concurrently and must be thread-safe.
+ *
+ * USAGE:
+ *   IngestPipeline.Stats stats = IngestPipeline.builder()
+ *       .filter(p -> p.toString().endsWith(".java"))
+ *       .manifestFile(Paths.get(".akashic/manifests/repo.tsv"))
+ *       .build()
+ *       .run(Paths.get("/path/to/repo"), file -> parse(file.text()));
+ *   System.out.println(stats);
+ */
+public class IngestPipeline {
+
+    private static final long MMAP_THRESHOLD = 1 << 20;     // 1 MiB
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final IngestFile POISON = new IngestFile(null, null, -1, -1);
+
+    /** Directory names never descended into */
+    public static final Set<String> DEFAULT_SKIP_DIRS =
+        Set.of("build", "target", "node_modules", "out", "bin");
+
+    private final Predicate<Path> filter;
+    private final Set<String> skipDirs;
+    private final int workers;
+    private final int queueCapacity;
+    private final boolean readContent;
+    private final Manifest manifest;
+    private final Path manifestFile;
+
+    /**
+     * Per-file work, called on a worker thread
+     */
+    @FunctionalInterface
+    public interface FileHandler {
+        void handle(IngestFile file) throws Exception;
+    }
+
+    private IngestPipeline(Builder b) {
+        this.filter = b.filter;
+        this.skipDirs = b.skipDirs;
+        this.workers = b.workers;
+        this.queueCapacity = b.queueCapacity;
+        this.readContent = b.readContent;
+        this.manifestFile = b.manifestFile;
+        this.manifest = b.manifest != null ? b.manifest
+            : b.manifestFile != null ? Manifest.load(b.manifestFile) : new Manifest();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // RUN
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Ingest every new or changed file under root. Blocks until done.
+     */
+    public Stats run(Path root, FileHandler handler) throws IOException, InterruptedException {
+        Path base = root.toAbsolutePath().normalize();
+        Stats stats = new Stats();
+        long start = System.nanoTime();
+
+        String rootKey = base.toString();
+        Map<String, Manifest.Entry> previous = manifest.entries(rootKey);
+        Map<String, Manifest.Entry> next = new ConcurrentHashMap<>();
+        Set<String> failed = ConcurrentHashMap.newKeySet();
+        BlockingQueue<IngestFile> queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger errorsReported = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "ingest-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            running.add(pool.submit(() -> {
+                while (true) {
+                    IngestFile file = queue.take();
+                    if (file == POISON) {
+                        return null;
+                    }
+                    process(file, handler, previous, next, failed, stats, errorsReported);
+                }
+            }));
+        }
+
+        try {
+            if (Files.isRegularFile(base)) {
+                BasicFileAttributes attrs = Files.readAttributes(base, BasicFileAttributes.class);
+                offer(base, base.getFileName().toString(), attrs, previous, next, queue, stats);
+            } else {
+                walk(base, previous, next, queue, stats);
+            }
+        } finally {
+            for (int i = 0; i < workers; i++) {
+                queue.put(POISON);
+            }
+            for (Future<?> f : running) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    System.out.println("   !! INGEST WORKER DIED: " + e.getCause());
+                }
+            }
+            pool.shutdownNow();
+        }
+
+        // Anything in the old manifest we neither kept nor retried is gone
+        for (String key : previous.keySet()) {
+            if (!next.containsKey(key) && !failed.contains(key)) {
+                stats.removed.increment();
+            }
+        }
+        manifest.roots.put(rootKey, next);
+        if (manifestFile != null) {
+            manifest.save(manifestFile);
+        }
+        stats.elapsedNanos = System.nanoTime() - start;
+        return stats;
+    }
+
+    private void walk(Path base, Map<String, Manifest.Entry> previous, Map<String, Manifest.Entry> next,
+                      BlockingQueue<IngestFile> queue, Stats stats) throws IOException {
+        Files.walkFileTree(base, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(base)) {
+                    String name = dir.getFileName().toString();
+                    if (name.startsWith(".") || skipDirs.contains(name)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (attrs.isRegularFile() && !file.getFileName().toString().startsWith(".") && filter.test(file)) {
+                    try {
+                        offer(file, base.relativize(file).toString(), attrs, previous, next, queue, stats);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return FileVisitResult.TERMINATE;
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                stats.failed.increment();
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void offer(Path file, String key, BasicFileAttributes attrs,
+                              Map<String, Manifest.Entry> previous, Map<String, Manifest.Entry> next,
+                              BlockingQueue<IngestFile> queue, Stats stats) throws InterruptedException {
+        stats.discovered.increment();
+        long size = attrs.size();
+        long mtime = attrs.lastModifiedTime().toMillis();
+        Manifest.Entry old = previous.get(key);
+        if (old != null && old.size == size && old.mtime == mtime) {
+            next.put(key, old);
+            stats.unchanged.increment();
+            return;
+        }
+        queue.put(new IngestFile(file, key, size, mtime));
+    }
+
+    private void process(IngestFile file, FileHandler handler,
+                         Map<String, Manifest.Entry> previous, Map<String, Manifest.Entry> next,
+                         Set<String> failed, Stats stats, AtomicInteger errorsReported) {
+        try {
+            long crc = 0;
+            if (readContent) {
+                ByteBuffer content = file.content();
+                stats.bytesRead.add(content.remaining());
+                CRC32C checksum = new CRC32C();
+                checksum.update(content.duplicate());
+                crc = checksum.getValue();
+
+                Manifest.Entry old = previous.get(file.key);
+                if (old != null && old.size == file.size && old.crc == crc) {
+                    next.put(file.key, new Manifest.Entry(file.size, file.mtime, crc));
+                    stats.unchanged.increment();
+                    return;
+                }
+            }
+            handler.handle(file);
+            next.put(file.key, new Manifest.Entry(file.size, file.mtime, crc));
+            stats.processed.increment();
+        } catch (Throwable e) {
+            failed.add(file.key);
+            stats.failed.increment();
+            if (errorsReported.incrementAndGet() <= MAX_REPORTED_ERRORS) {
+                System.out.println("   !! INGEST FAILED: " + file.key + " (" + e.getMessage() + ")");
+            }
+        } finally {
+            file.release();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // FILE
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * One file handed to a worker. Content is read lazily, at most once.
+     */
+    public static final class IngestFile {
+        public final Path path;
+        /** Path relative to the ingest root (manifest key) */
+        public final String key;
+        public final long size;
+        public final long mtime;
+        private ByteBuffer content;
+
+        IngestFile(Path path, String key, long size, long mtime) {
+            this.path = path;
+            this.key = key;
+            this.size = size;
+            this.mtime = mtime;
+        }
+
+        public String getName() {
+            return path.getFileName().toString();
+        }
+
+        /**
+         * Read-only view of the file bytes (memory-mapped above 1 MiB)
+         */
+        public ByteBuffer content() throws IOException {
+            if (content == null) {
+                content = read(path);
+            }
+            return content.asReadOnlyBuffer();
+        }
+
+        /**
+         * File content decoded as UTF-8 (malformed input replaced)
+         */
+        public String text() throws IOException {
+            return StandardCharsets.UTF_8.decode(content()).toString();
+        }
+
+        void release() {
+            content = null;
+        }
+    }
+
+    /**
+     * Read a whole file: one exact-size read for small files, a read-only
+     * mapping for large ones
+     */
+    public static ByteBuffer read(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size >= MMAP_THRESHOLD) {
+                return ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            ByteBuffer buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining() && ch.read(buf) >= 0) {
+                // keep reading
+            }
+            buf.flip();
+            return buf;
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // MANIFEST
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * root → relative path → (size, mtime, crc). Persisted as a "#root"
+     * line per root followed by tab-separated entries:
+     *   #root \t absolute root
+     *   size \t mtime \t crc(hex) \t path relative to that root
+     */
+    public static final class Manifest {
+        private static final String ROOT_LINE = "#root\t";
+
+        final Map<String, Map<String, Entry>> roots = new ConcurrentHashMap<>();
+
+        static final class Entry {
+            final long size;
+            final long mtime;
+            final long crc;
+
+            Entry(long size, long mtime, long crc) {
+                this.size = size;
+                this.mtime = mtime;
+                this.crc = crc;
+            }
+        }
+
+        /** Entries recorded for root */
+        Map<String, Entry> entries(String root) {
+            return roots.getOrDefault(root, Collections.emptyMap());
+        }
+
+        public int size() {
+            int n = 0;
+            for (Map<String, Entry> e : roots.values()) {
+                n += e.size();
+            }
+            return n;
+        }
+
+        public void clear() {
+            roots.clear();
+        }
+
+        /** Snapshot of the relative paths tracked under root */
+        public Set<String> keys(Path root) {
+            Map<String, Entry> e = roots.get(root.toAbsolutePath().normalize().toString());
+            return e == null ? new HashSet<>() : new HashSet<>(e.keySet());
+        }
+
+        /**
+         * Load a manifest; a missing or unreadable file yields an empty one
+         */
+        public static Manifest load(Path file) {
+            Manifest m = new Manifest();
+            if (!Files.exists(file)) {
+                return m;
+            }
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                Map<String, Entry> current = null;
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.startsWith(ROOT_LINE)) {
+                        current = m.roots.computeIfAbsent(line.substring(ROOT_LINE.length()), r -> new ConcurrentHashMap<>());
+                        continue;
+                    }
+                    String[] parts = line.split("\t", 4);
+                    if (parts.length == 4 && current != null) {
+                        current.put(parts[3], new Entry(
+                            Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2], 16)));
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                System.out.println("   !! MANIFEST UNREADABLE, FULL RE-INGEST: " + e.getMessage());
+                m.roots.clear();
+            }
+            return m;
+        }
+
+        /**
+         * Write to a temp file, then move into place
+         */
+        public void save(Path file) throws IOException {
+            Path dir = file.toAbsolutePath().getParent();
+            if (dir != null) {
+                Files.createDirectories(dir);
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Map<String, Entry>> root : new TreeMap<>(roots).entrySet()) {
+                    out.write(ROOT_LINE + root.getKey());
+                    out.newLine();
+                    for (Map.Entry<String, Entry> e : new TreeMap<>(root.getValue()).entrySet()) {
+                        Entry v = e.getValue();
+                        out.write(v.size + "\t" + v.mtime + "\t" + Long.toHexString(v.crc) + "\t" + e.getKey());
+                        out.newLine();
+                    }
+                }
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // STATS
+    // ═══════════════════════════════════════════════════════════════════
+
+    public static final class Stats {
+        final LongAdder discovered = new LongAdder();
+        final LongAdder unchanged = new LongAdder();
+        final LongAdder processed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder removed = new LongAdder();
+        final LongAdder bytesRead = new LongAdder();
+        volatile long elapsedNanos;
+
+        public long getDiscovered() { return discovered.sum(); }
+        public long getUnchanged() { return unchanged.sum(); }
+        public long getProcessed() { return processed.sum(); }
+        public long getFailed() { return failed.sum(); }
+        public long getRemoved() { return removed.sum(); }
+        public long getBytesRead() { return bytesRead.sum(); }
+        public double getElapsedSeconds() { return elapsedNanos / 1e9; }
+
+        public double getFilesPerSecond() {
+            double s = getElapsedSeconds();
+            return s > 0 ? getDiscovered() / s : 0;
+        }
+
+        public double getMegabytesPerSecond() {
+            double s = getElapsedSeconds();
+            return s > 0 ? getBytesRead() / (1024.0 * 1024.0) / s : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%d files (%d ingested, %d unchanged, %d failed, %d removed) | %.1f MB read | %.2fs | %.0f files/s | %.1f MB/s",
+                getDiscovered(), getProcessed(), getUnchanged(), getFailed(), getRemoved(),
+                getBytesRead() / (1024.0 * 1024.0), getElapsedSeconds(),
+                getFilesPerSecond(), getMegabytesPerSecond());
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // BUILDER
+    // ═══════════════════════════════════════════════════════════════════
+
+    public static class Builder {
+        private Predicate<Path> filter = p -> true;
+        private Set<String> skipDirs = DEFAULT_SKIP_DIRS;
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 1024;
+        private boolean readContent = true;
+        private Manifest manifest;
+        private Path manifestFile;
+
+        public Builder filter(Predicate<Path> filter) { this.filter = filter; return this; }
+        public Builder skipDirs(Set<String> names) { this.skipDirs = names; return this; }
+        public Builder workers(int n) { this.workers = Math.max(1, n); return this; }
+        public Builder queueCapacity(int n) { this.queueCapacity = Math.max(1, n); return this; }
+
+        /**
+         * false: handlers only need metadata; files are never opened and
+         * change detection uses size + mtime alone
+         */
+        public Builder readContent(boolean b) { this.readContent = b; return this; }
+
+        /** Persisted manifest (loaded now, saved after each run) */
+        public Builder manifestFile(Path file) { this.manifestFile = file; return this; }
+
+        /** In-memory manifest shared across runs (e.g. by a long-lived mapper) */
+        public Builder manifest(Manifest m) { this.manifest = m; return this; }
+
+        public IngestPipeline build() {
+            return new IngestPipeline(this);
+        }
+    }
+}
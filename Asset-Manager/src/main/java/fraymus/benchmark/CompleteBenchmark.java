@@ -10,10 +10,20 @@ import java.util.*;
  * 
  * Runs all 3 engines (Cancer, Drug, Protein) against all 3 baselines
  * across multiple seeds to prove Fraynix superiority with reproducible evidence.
+ * 
+ * USAGE:
+ *   CompleteBenchmark                        3 seeds, side-by-side tables
+ *   CompleteBenchmark batch [seeds] [workers] many seeds via BatchRunner
+ *                                            (cached + resumable, mean ± 95% CI)
  */
 public class CompleteBenchmark {
     
     public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("batch")) {
+            runBatch(args);
+            return;
+        }
+        
         System.out.println("╔═══════════════════════════════════════════════════════════════╗");
         System.out.println("║         FRAYNIX COMPLETE BENCHMARK SUITE                      ║");
         System.out.println("║   Reproducible • Logged • Honest • Defensible                 ║");
@@ -144,4 +154,37 @@ public class CompleteBenchmark {
         System.out.println("FRAYNIX IS NOW SCIENTIFICALLY DEFENSIBLE.");
         System.out.println();
     }
+    
+    /**
+     * Same matrix as the hand loop, over many seeds and a worker pool
+     */
+    private static void runBatch(String[] args) throws Exception {
+        int seedCount = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int workers = args.length > 2 ? Integer.parseInt(args[2])
+            : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        
+        BatchRunner.Report report = BatchRunner.builder()
+            .engine(RigorousCancerEngine::new)
+            .engine(RigorousDrugEngine::new)
+            .engine(RigorousProteinEngine::new)
+            .baseline(RandomSearchBaseline::new)
+            .baseline(GreedyBaseline::new)
+            .baseline(GeneticBaseline::new)
+            .config("default", RunConfig.builder()
+                .steps(30)
+                .populationSize(50)
+                .fusionDistance(5.0)
+                .energyThreshold(80.0)
+                .jsonl(true)
+                .build())
+            .seedRange(1, seedCount)
+            .workers(workers)
+            .outDir("build/runs/batch")
+            .verbose(false)
+            .build()
+            .run();
+        
+        report.print();
+        System.out.println("Output: build/runs/batch/summary.csv");
+    }
 }
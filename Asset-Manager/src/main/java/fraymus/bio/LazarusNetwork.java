@@ -4,8 +4,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * 🧬 LAZARUS NETWORK - Gen 125
@@ -17,6 +17,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * - Entanglement: distant nodes affect each other instantly
  * - Frequency locked: entire system vibrates at 432Hz
  * 
+ * Physics runs on a ParticleField (structure-of-arrays, spatial hash grid,
+ * parallel force step); NeuroParticle objects stay the public handles.
+ * Every tick is timed, so the network reports what frequency it actually
+ * sustains at its current size.
+ * 
  * "A system that doesn't just store data, but grows it like a crystal lattice."
  */
 public class LazarusNetwork implements Runnable {
@@ -27,6 +32,7 @@ public class LazarusNetwork implements Runnable {
     // Physics constants
     private static final double SPRING_K = 0.02;
     private static final double REPULSION_K = 100.0;
+    private static final double REPULSION_RANGE = 30.0;
     private static final double DAMPING = 0.9;
     private static final double DECAY_RATE = 0.98;
     
@@ -34,10 +40,14 @@ public class LazarusNetwork implements Runnable {
     private static final double REPLICATION_THRESHOLD = 0.9;
     private static final double FUSION_DISTANCE = 3.0;
     
-    // The neural mesh
-    private List<NeuroParticle> brain = new CopyOnWriteArrayList<>();
+    // The neural mesh (slots + primitive state arrays)
+    private final ParticleField field = new ParticleField();
     private Map<String, List<NeuroParticle>> entanglementMap = new HashMap<>();
     
+    // Per-tick scratch, reused so a tick allocates nothing in steady state
+    private final List<NeuroParticle> born = new ArrayList<>();
+    private final int[][] pairBuffer = { new int[64] };
+    
     // Runtime state
     private AtomicBoolean running = new AtomicBoolean(false);
     private long generation = 0;
@@ -47,6 +57,9 @@ public class LazarusNetwork implements Runnable {
     // Timing
     private final long TICK_RATE_NS = (long) (1_000_000_000.0 / TARGET_FREQ);
     private long actualFrequency = 0;
+    private volatile double avgTickNanos = 0;   // EWMA of pulse() cost
+    private volatile long lastTickNanos = 0;
+    private long overruns = 0;                  // ticks longer than the 432Hz budget
     
     // Event callbacks
     private List<NetworkObserver> observers = new ArrayList<>();
@@ -75,6 +88,7 @@ public class LazarusNetwork implements Runnable {
         
         long lastSecond = System.currentTimeMillis();
         int ticksThisSecond = 0;
+        long nextTick = System.nanoTime();
         
         while (running.get()) {
             long tickStart = System.nanoTime();
@@ -83,6 +97,7 @@ public class LazarusNetwork implements Runnable {
             pulse();
             generation++;
             ticksThisSecond++;
+            recordTick(System.nanoTime() - tickStart);
             
             // Calculate actual frequency
             long now = System.currentTimeMillis();
@@ -92,16 +107,16 @@ public class LazarusNetwork implements Runnable {
                 lastSecond = now;
             }
             
-            // Precise timing for frequency alignment
-            long elapsed = System.nanoTime() - tickStart;
-            long sleepNs = TICK_RATE_NS - elapsed;
+            // Fixed-rate timing: sleep to the next deadline, so oversleeping
+            // one tick is paid back on the next instead of lowering the rate
+            nextTick += TICK_RATE_NS;
+            long sleepNs = nextTick - System.nanoTime();
             if (sleepNs > 0) {
-                try {
-                    Thread.sleep(sleepNs / 1_000_000, (int) (sleepNs % 1_000_000));
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
+                LockSupport.parkNanos(sleepNs);
+                if (Thread.currentThread().isInterrupted()) break;
+            } else if (-sleepNs > TICK_RATE_NS * 10) {
+                // Too slow for 432Hz: run flat out rather than bursting to catch up
+                nextTick = System.nanoTime();
             }
         }
         
@@ -111,13 +126,14 @@ public class LazarusNetwork implements Runnable {
     /**
      * PULSE - One cycle of the biological brain
      */
-    private void pulse() {
-        systemEnergy = 0;
+    private synchronized void pulse() {
+        indexEntanglement();
         
-        List<NeuroParticle> toAdd = new ArrayList<>();
-        List<NeuroParticle> toRemove = new ArrayList<>();
-        
-        for (NeuroParticle neuron : brain) {
+        NeuroParticle[] owner = field.owner;
+        for (int i = 0, n = field.highWater; i < n; i++) {
+            NeuroParticle neuron = owner[i];
+            if (neuron == null) continue;
+            
             // 1. DECAY
             neuron.decay(DECAY_RATE);
             
@@ -131,29 +147,34 @@ public class LazarusNetwork implements Runnable {
                 neuron.fractalDepth < 5) {
                 NeuroParticle child = neuron.replicate();
                 if (child != null) {
-                    toAdd.add(child);
+                    born.add(child);
                     notifyObservers("MITOSIS", neuron, child);
                 }
             }
             
-            // 4. GRAVITY & FORCES
-            applyForces(neuron);
-            
-            // 5. PRUNE DEAD NEURONS
+            // 4. PRUNE DEAD NEURONS (slot goes back on the free list)
             if (neuron.coherence < 0.01 && neuron.fireCount == 0) {
-                toRemove.add(neuron);
+                field.remove(i);
             }
-            
-            // Track energy
-            systemEnergy += neuron.energy();
         }
         
-        // Apply changes
-        brain.addAll(toAdd);
-        brain.removeAll(toRemove);
+        // Children take free slots; they join the physics from this tick
+        for (NeuroParticle child : born) {
+            field.add(child);
+        }
+        born.clear();
+        
+        // 5. GRAVITY & FORCES (arrays only, parallel at scale)
+        field.gather();
+        field.buildGrid(REPULSION_RANGE);
+        field.integrate(SPRING_K, REPULSION_K, DAMPING);
+        systemEnergy = field.scatter();
         
         // Apply STDP to all synapses
-        for (NeuroParticle neuron : brain) {
+        owner = field.owner;
+        for (int i = 0, n = field.highWater; i < n; i++) {
+            NeuroParticle neuron = owner[i];
+            if (neuron == null) continue;
             for (Synapse synapse : neuron.synapses) {
                 synapse.applySTDP();
             }
@@ -167,70 +188,28 @@ public class LazarusNetwork implements Runnable {
     }
     
     /**
-     * APPLY FORCES - Self-organization physics
+     * INDEX ENTANGLEMENT - key → partners, so a firing neuron reaches its
+     * partners without scanning the whole brain
      */
-    private void applyForces(NeuroParticle a) {
-        double fx = 0, fy = 0, fz = 0;
-        
-        for (NeuroParticle b : brain) {
-            if (a == b) continue;
-            
-            double dist = a.distanceTo(b);
-            if (dist < 0.1) dist = 0.1;
-            
-            double dx = b.x - a.x;
-            double dy = b.y - a.y;
-            double dz = b.z - a.z;
-            double nx = dx / dist;
-            double ny = dy / dist;
-            double nz = dz / dist;
-            
-            // Check if connected
-            boolean connected = false;
-            double connectionWeight = 0;
-            for (Synapse s : a.synapses) {
-                if (s.target == b) {
-                    connected = true;
-                    connectionWeight = s.weight;
-                    break;
-                }
-            }
-            
-            if (connected) {
-                // SPRING FORCE (Hooke's Law)
-                double restLength = 5.0 / connectionWeight;
-                double displacement = dist - restLength;
-                double springForce = SPRING_K * displacement * PHI;
-                fx += nx * springForce;
-                fy += ny * springForce;
-                fz += nz * springForce;
-            } else if (dist < 30) {
-                // REPULSION FORCE (Coulomb-like)
-                double repulsion = -REPULSION_K / (dist * dist);
-                fx += nx * repulsion;
-                fy += ny * repulsion;
-                fz += nz * repulsion;
+    private void indexEntanglement() {
+        entanglementMap.clear();
+        NeuroParticle[] owner = field.owner;
+        for (int i = 0, n = field.highWater; i < n; i++) {
+            NeuroParticle neuron = owner[i];
+            if (neuron != null && neuron.entanglementKey != null) {
+                entanglementMap.computeIfAbsent(neuron.entanglementKey, k -> new ArrayList<>(2)).add(neuron);
             }
         }
-        
-        // Apply force (F = ma)
-        a.vx = (a.vx + fx / a.mass) * DAMPING;
-        a.vy = (a.vy + fy / a.mass) * DAMPING;
-        a.vz = (a.vz + fz / a.mass) * DAMPING;
-        
-        // Update position
-        a.x += a.vx;
-        a.y += a.vy;
-        a.z += a.vz;
     }
     
     /**
      * PROPAGATE ENTANGLEMENT - FTL correlation
      */
     private void propagateEntanglement(NeuroParticle source) {
-        for (NeuroParticle other : brain) {
-            if (other != source && 
-                source.entanglementKey != null &&
+        List<NeuroParticle> partners = entanglementMap.get(source.entanglementKey);
+        if (partners == null) return;
+        for (NeuroParticle other : partners) {
+            if (other != source && field.contains(other) &&
                 source.entanglementKey.equals(other.entanglementKey)) {
                 
                 // Instant correlation
@@ -243,31 +222,30 @@ public class LazarusNetwork implements Runnable {
     }
     
     /**
-     * CHECK COLLISIONS - Nodes too close may fuse
+     * CHECK COLLISIONS - Nodes too close may fuse (grid-binned at the
+     * fusion distance; each particle fuses at most once per tick)
      */
     private void checkCollisions() {
-        List<NeuroParticle[]> toFuse = new ArrayList<>();
+        field.buildGrid(FUSION_DISTANCE);
+        int pairs = field.closePairs(pairBuffer);
+        if (pairs == 0) return;
         
-        for (int i = 0; i < brain.size(); i++) {
-            for (int j = i + 1; j < brain.size(); j++) {
-                NeuroParticle a = brain.get(i);
-                NeuroParticle b = brain.get(j);
-                
-                if (a.distanceTo(b) < FUSION_DISTANCE) {
-                    toFuse.add(new NeuroParticle[]{a, b});
-                }
-            }
+        int[] buf = pairBuffer[0];
+        NeuroParticle[] toFuse = new NeuroParticle[pairs * 2];
+        for (int p = 0; p < pairs * 2; p++) {
+            toFuse[p] = field.owner[buf[p]];
         }
-        
-        for (NeuroParticle[] pair : toFuse) {
-            fuse(pair[0], pair[1]);
+        for (int p = 0; p < pairs; p++) {
+            fuse(toFuse[2 * p], toFuse[2 * p + 1]);
         }
     }
     
     /**
      * FUSE - Merge two particles into one
      */
-    public NeuroParticle fuse(NeuroParticle a, NeuroParticle b) {
+    public synchronized NeuroParticle fuse(NeuroParticle a, NeuroParticle b) {
+        if (a == b || !field.contains(a) || !field.contains(b)) return null;
+        
         NeuroParticle hybrid = new NeuroParticle(
             a.content + " ⊕ " + b.content,
             Math.min(a.fractalDepth, b.fractalDepth)
@@ -292,9 +270,9 @@ public class LazarusNetwork implements Runnable {
             }
         }
         
-        brain.remove(a);
-        brain.remove(b);
-        brain.add(hybrid);
+        field.remove(a.slot);
+        field.remove(b.slot);
+        field.add(hybrid);
         
         notifyObservers("FUSION", a, b);
         return hybrid;
@@ -311,13 +289,14 @@ public class LazarusNetwork implements Runnable {
      * CALCULATE COHERENCE - System-wide phase alignment
      */
     private double calculateCoherence() {
-        if (brain.isEmpty()) return 1.0;
+        if (field.live == 0) return 1.0;
         
         double sumCoherence = 0;
-        for (NeuroParticle n : brain) {
-            sumCoherence += n.coherence;
+        NeuroParticle[] owner = field.owner;
+        for (int i = 0, n = field.highWater; i < n; i++) {
+            if (owner[i] != null) sumCoherence += owner[i].coherence;
         }
-        return sumCoherence / brain.size();
+        return sumCoherence / field.live;
     }
     
     // ═══════════════════════════════════════════════════════════════════
@@ -327,18 +306,18 @@ public class LazarusNetwork implements Runnable {
     /**
      * INJECT - Add new thought to the network
      */
-    public NeuroParticle inject(Object data) {
+    public synchronized NeuroParticle inject(Object data) {
         NeuroParticle neuron = new NeuroParticle(data);
         
         // Auto-connect to similar neurons
-        for (NeuroParticle existing : brain) {
+        for (NeuroParticle existing : liveNeurons()) {
             if (isSimilar(neuron, existing)) {
                 neuron.connect(existing, 0.618);
                 existing.connect(neuron, 0.618);
             }
         }
         
-        brain.add(neuron);
+        field.add(neuron);
         notifyObservers("INJECT", neuron, null);
         return neuron;
     }
@@ -346,8 +325,8 @@ public class LazarusNetwork implements Runnable {
     /**
      * STIMULATE - Fire energy into the network
      */
-    public void stimulate(String pattern, double energy) {
-        for (NeuroParticle neuron : brain) {
+    public synchronized void stimulate(String pattern, double energy) {
+        for (NeuroParticle neuron : liveNeurons()) {
             if (neuron.content.toString().toLowerCase()
                     .contains(pattern.toLowerCase())) {
                 neuron.stimulate(energy);
@@ -363,6 +342,15 @@ public class LazarusNetwork implements Runnable {
         notifyObservers("ENTANGLE_CREATE", a, b);
     }
     
+    private List<NeuroParticle> liveNeurons() {
+        List<NeuroParticle> result = new ArrayList<>(field.live);
+        NeuroParticle[] owner = field.owner;
+        for (int i = 0, n = field.highWater; i < n; i++) {
+            if (owner[i] != null) result.add(owner[i]);
+        }
+        return result;
+    }
+    
     private boolean isSimilar(NeuroParticle a, NeuroParticle b) {
         String sa = a.content.toString().toLowerCase();
         String sb = b.content.toString().toLowerCase();
@@ -396,15 +384,56 @@ public class LazarusNetwork implements Runnable {
     // STATUS
     // ═══════════════════════════════════════════════════════════════════
     
-    public List<NeuroParticle> getSnapshot() { return new ArrayList<>(brain); }
+    public synchronized List<NeuroParticle> getSnapshot() { return liveNeurons(); }
     public long getGeneration() { return generation; }
     public double getSystemEnergy() { return systemEnergy; }
     public double getSystemCoherence() { return systemCoherence; }
     public long getActualFrequency() { return actualFrequency; }
-    public int size() { return brain.size(); }
+    public synchronized int size() { return field.live; }
     public boolean isRunning() { return running.get(); }
     
-    public String status() {
+    // ═══════════════════════════════════════════════════════════════════
+    // FREQUENCY METRICS
+    // ═══════════════════════════════════════════════════════════════════
+    
+    private void recordTick(long nanos) {
+        lastTickNanos = nanos;
+        avgTickNanos = avgTickNanos == 0 ? nanos : avgTickNanos * 0.9 + nanos * 0.1;
+        if (nanos > TICK_RATE_NS) overruns++;
+    }
+    
+    /** Average cost of one pulse (EWMA), in ms */
+    public double getAverageTickMs() { return avgTickNanos / 1_000_000.0; }
+    
+    /** Highest frequency the current population could run at */
+    public double getSustainableFrequency() {
+        return avgTickNanos == 0 ? 0 : 1_000_000_000.0 / avgTickNanos;
+    }
+    
+    /** Achieved / target frequency (1.0 = locked at 432Hz) */
+    public double getFrequencyRatio() { return actualFrequency / TARGET_FREQ; }
+    
+    public long getOverruns() { return overruns; }
+    
+    /**
+     * BENCHMARK - Run pulses back to back on the calling thread (network
+     * must be stopped) and return the frequency achieved
+     */
+    public double benchmark(int ticks) {
+        if (running.get()) throw new IllegalStateException("Stop the network before benchmarking");
+        long start = System.nanoTime();
+        for (int t = 0; t < ticks; t++) {
+            long tickStart = System.nanoTime();
+            pulse();
+            generation++;
+            recordTick(System.nanoTime() - tickStart);
+        }
+        long elapsed = System.nanoTime() - start;
+        return elapsed == 0 ? 0 : ticks * 1_000_000_000.0 / elapsed;
+    }
+    
+    public synchronized String status() {
+        List<NeuroParticle> brain = liveNeurons();
         int totalSynapses = brain.stream()
             .mapToInt(n -> n.synapses.size())
             .sum();
@@ -420,11 +449,13 @@ public class LazarusNetwork implements Runnable {
             "   Entangled Pairs: %d\n" +
             "   System Energy: %.4f J\n" +
             "   Coherence: %.4f\n" +
-            "   Frequency: %d Hz (Target: %.0f Hz)\n" +
+            "   Frequency: %d Hz (Target: %.0f Hz, %.0f%%)\n" +
+            "   Tick: %.3f ms avg | Sustainable: %.0f Hz | Overruns: %d\n" +
             "   φ-Resonance: %.6f",
             generation, brain.size(), totalSynapses,
             entangled / 2, systemEnergy, systemCoherence,
-            actualFrequency, TARGET_FREQ,
+            actualFrequency, TARGET_FREQ, getFrequencyRatio() * 100,
+            getAverageTickMs(), getSustainableFrequency(), overruns,
             systemCoherence * PHI
         );
     }
@@ -50,6 +50,9 @@ public class NeuroParticle {
     public double frequency;
     public long lastFireTime;
     public int fireCount;
+    
+    // Slot in the owning network's ParticleField (-1 = not in a network)
+    int slot = -1;
 
     public NeuroParticle(Object data) {
         this(data, 0);
@@ -0,0 +1,318 @@
+package fraymus.bio;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 🧬 PARTICLE FIELD - The LazarusNetwork physics engine
+ * Structure-of-arrays storage for every live NeuroParticle.
+ *
+ * Layout:
+ * - SLOTS: owner[i] is the particle in slot i (null = free); dead slots go
+ *   on a free list and are reused by the next birth, so mitosis and
+ *   pruning never shift or copy the population
+ * - STATE: x/y/z, vx/vy/vz, mass, potential, energy as double[] per field,
+ *   gathered from the particles once per tick and scattered back after
+ * - SYNAPSES: flattened per tick into CSR arrays (edgeStart/edgeTarget/
+ *   edgeWeight) so the force kernel never touches Synapse objects
+ * - GRID: spatial hash (counting sort into cells of one interaction
+ *   radius) so repulsion and fusion only look at the 27 nearby cells
+ *   instead of every other particle
+ *
+ * The force step is double-buffered (reads current arrays, writes next)
+ * and split into index ranges across the common pool above
+ * PARALLEL_THRESHOLD particles.
+ */
+final class ParticleField {
+
+    private static final double PHI = 1.6180339887;
+    static final int PARALLEL_THRESHOLD = 2048;
+    private static final int CHUNK = 512;
+
+    // SLOTS
+    NeuroParticle[] owner = new NeuroParticle[64];
+    private int[] free = new int[64];
+    private int freeTop;
+    int highWater;   // slots [0, highWater) have ever been used
+    int live;
+
+    // STATE
+    double[] x = new double[64], y = new double[64], z = new double[64];
+    double[] vx = new double[64], vy = new double[64], vz = new double[64];
+    double[] mass = new double[64], potential = new double[64], energy = new double[64];
+    private double[] nx = new double[64], ny = new double[64], nz = new double[64];
+    private double[] nvx = new double[64], nvy = new double[64], nvz = new double[64];
+
+    // SYNAPSES (CSR)
+    private int[] edgeStart = new int[65];
+    private int[] edgeTarget = new int[256];
+    private double[] edgeWeight = new double[256];
+
+    // GRID
+    private int[] cellX = new int[64], cellY = new int[64], cellZ = new int[64];
+    private int[] bucketStart = new int[129];
+    private int[] bucketItems = new int[64];
+    private int gridMask;
+    private double cellSize;
+
+    // ═══════════════════════════════════════════════════════════════════
+    // SLOTS
+    // ═══════════════════════════════════════════════════════════════════
+
+    int add(NeuroParticle p) {
+        int slot;
+        if (freeTop > 0) {
+            slot = free[--freeTop];
+        } else {
+            if (highWater == owner.length) grow(owner.length * 2);
+            slot = highWater++;
+        }
+        owner[slot] = p;
+        p.slot = slot;
+        live++;
+        return slot;
+    }
+
+    void remove(int slot) {
+        NeuroParticle p = owner[slot];
+        if (p == null) return;
+        p.slot = -1;
+        owner[slot] = null;
+        free[freeTop++] = slot;
+        live--;
+    }
+
+    boolean contains(NeuroParticle p) {
+        return p.slot >= 0 && p.slot < highWater && owner[p.slot] == p;
+    }
+
+    private void grow(int cap) {
+        owner = Arrays.copyOf(owner, cap);
+        free = Arrays.copyOf(free, cap);
+        x = Arrays.copyOf(x, cap); y = Arrays.copyOf(y, cap); z = Arrays.copyOf(z, cap);
+        vx = Arrays.copyOf(vx, cap); vy = Arrays.copyOf(vy, cap); vz = Arrays.copyOf(vz, cap);
+        mass = Arrays.copyOf(mass, cap);
+        potential = Arrays.copyOf(potential, cap);
+        energy = Arrays.copyOf(energy, cap);
+        nx = new double[cap]; ny = new double[cap]; nz = new double[cap];
+        nvx = new double[cap]; nvy = new double[cap]; nvz = new double[cap];
+        cellX = new int[cap]; cellY = new int[cap]; cellZ = new int[cap];
+        bucketItems = new int[cap];
+        edgeStart = new int[cap + 1];
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // GATHER / SCATTER
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Copy particle state into the arrays and flatten synapses to live
+     * targets into CSR form
+     */
+    void gather() {
+        int edges = 0;
+        for (int i = 0; i < highWater; i++) {
+            edgeStart[i] = edges;
+            NeuroParticle p = owner[i];
+            if (p == null) continue;
+            x[i] = p.x; y[i] = p.y; z[i] = p.z;
+            vx[i] = p.vx; vy[i] = p.vy; vz[i] = p.vz;
+            mass[i] = p.mass;
+            potential[i] = p.membranePotential;
+
+            List<Synapse> syn = p.synapses;
+            for (int k = 0; k < syn.size(); k++) {
+                Synapse s = syn.get(k);
+                if (!contains(s.target)) continue;
+                if (edges == edgeTarget.length) {
+                    edgeTarget = Arrays.copyOf(edgeTarget, edges * 2);
+                    edgeWeight = Arrays.copyOf(edgeWeight, edges * 2);
+                }
+                edgeTarget[edges] = s.target.slot;
+                edgeWeight[edges] = s.weight;
+                edges++;
+            }
+        }
+        edgeStart[highWater] = edges;
+    }
+
+    /**
+     * Write positions and velocities back to the particles; returns the
+     * total energy (kinetic + potential·mass)
+     */
+    double scatter() {
+        double total = 0;
+        for (int i = 0; i < highWater; i++) {
+            NeuroParticle p = owner[i];
+            if (p == null) continue;
+            p.x = x[i]; p.y = y[i]; p.z = z[i];
+            p.vx = vx[i]; p.vy = vy[i]; p.vz = vz[i];
+            double v2 = vx[i] * vx[i] + vy[i] * vy[i] + vz[i] * vz[i];
+            energy[i] = 0.5 * mass[i] * v2 + potential[i] * mass[i];
+            total += energy[i];
+        }
+        return total;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // SPATIAL HASH GRID
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Bin live particles into cubic cells of the given size (counting sort
+     * over a power-of-two hash table)
+     */
+    void buildGrid(double size) {
+        cellSize = size;
+        int buckets = Integer.highestOneBit(Math.max(64, live * 2) - 1) << 1;
+        if (bucketStart.length < buckets + 1) bucketStart = new int[buckets + 1];
+        gridMask = buckets - 1;
+        Arrays.fill(bucketStart, 0, buckets + 1, 0);
+
+        for (int i = 0; i < highWater; i++) {
+            if (owner[i] == null) continue;
+            cellX[i] = (int) Math.floor(x[i] / size);
+            cellY[i] = (int) Math.floor(y[i] / size);
+            cellZ[i] = (int) Math.floor(z[i] / size);
+            bucketStart[bucket(cellX[i], cellY[i], cellZ[i]) + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) bucketStart[b + 1] += bucketStart[b];
+        int[] fill = Arrays.copyOf(bucketStart, buckets);
+        for (int i = 0; i < highWater; i++) {
+            if (owner[i] == null) continue;
+            bucketItems[fill[bucket(cellX[i], cellY[i], cellZ[i])]++] = i;
+        }
+    }
+
+    private int bucket(int cx, int cy, int cz) {
+        int h = cx * 73856093 ^ cy * 19349663 ^ cz * 83492791;
+        return (h ^ (h >>> 16)) & gridMask;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // FORCES
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * One physics step: springs along synapses, repulsion from unconnected
+     * neighbours closer than the grid's cell size, then damped integration.
+     * Call buildGrid(repulsionRange) first.
+     */
+    void integrate(double springK, double repulsionK, double damping) {
+        int n = highWater;
+        if (live >= PARALLEL_THRESHOLD) {
+            int chunks = (n + CHUNK - 1) / CHUNK;
+            IntStream.range(0, chunks).parallel().forEach(c ->
+                integrateRange(c * CHUNK, Math.min(n, (c + 1) * CHUNK), springK, repulsionK, damping));
+        } else {
+            integrateRange(0, n, springK, repulsionK, damping);
+        }
+        double[] t;
+        t = x; x = nx; nx = t;
+        t = y; y = ny; ny = t;
+        t = z; z = nz; nz = t;
+        t = vx; vx = nvx; nvx = t;
+        t = vy; vy = nvy; nvy = t;
+        t = vz; vz = nvz; nvz = t;
+    }
+
+    private void integrateRange(int lo, int hi, double springK, double repulsionK, double damping) {
+        double range = cellSize;
+        for (int i = lo; i < hi; i++) {
+            if (owner[i] == null) continue;
+            double px = x[i], py = y[i], pz = z[i];
+            double fx = 0, fy = 0, fz = 0;
+            int e0 = edgeStart[i], e1 = edgeStart[i + 1];
+
+            // SPRING FORCE (Hooke's Law) along synapses
+            for (int e = e0; e < e1; e++) {
+                int j = edgeTarget[e];
+                double dx = x[j] - px, dy = y[j] - py, dz = z[j] - pz;
+                double dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                if (dist < 0.1) dist = 0.1;
+                double restLength = 5.0 / edgeWeight[e];
+                double springForce = springK * (dist - restLength) * PHI;
+                fx += dx / dist * springForce;
+                fy += dy / dist * springForce;
+                fz += dz / dist * springForce;
+            }
+
+            // REPULSION FORCE (Coulomb-like) from unconnected neighbours
+            int cx = cellX[i], cy = cellY[i], cz = cellZ[i];
+            for (int ox = -1; ox <= 1; ox++) {
+                for (int oy = -1; oy <= 1; oy++) {
+                    for (int oz = -1; oz <= 1; oz++) {
+                        int bx = cx + ox, by = cy + oy, bz = cz + oz;
+                        int b = bucket(bx, by, bz);
+                        for (int k = bucketStart[b], end = bucketStart[b + 1]; k < end; k++) {
+                            int j = bucketItems[k];
+                            if (j == i || cellX[j] != bx || cellY[j] != by || cellZ[j] != bz) continue;
+                            double dx = x[j] - px, dy = y[j] - py, dz = z[j] - pz;
+                            double dist = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                            if (dist < 0.1) dist = 0.1;
+                            if (dist >= range || connected(e0, e1, j)) continue;
+                            double repulsion = -repulsionK / (dist * dist);
+                            fx += dx / dist * repulsion;
+                            fy += dy / dist * repulsion;
+                            fz += dz / dist * repulsion;
+                        }
+                    }
+                }
+            }
+
+            // Apply force (F = ma)
+            double m = mass[i];
+            double vxi = (vx[i] + fx / m) * damping;
+            double vyi = (vy[i] + fy / m) * damping;
+            double vzi = (vz[i] + fz / m) * damping;
+            nvx[i] = vxi; nvy[i] = vyi; nvz[i] = vzi;
+            nx[i] = px + vxi; ny[i] = py + vyi; nz[i] = pz + vzi;
+        }
+    }
+
+    private boolean connected(int e0, int e1, int j) {
+        for (int e = e0; e < e1; e++) {
+            if (edgeTarget[e] == j) return true;
+        }
+        return false;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // PROXIMITY
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Slot pairs (i < j) closer than the grid's cell size, appended as
+     * [i0, j0, i1, j1, ...]; returns the number of pairs. Call
+     * buildGrid(distance) first.
+     */
+    int closePairs(int[][] out) {
+        double limit = cellSize * cellSize;
+        int[] buf = out[0];
+        int count = 0;
+        for (int i = 0; i < highWater; i++) {
+            if (owner[i] == null) continue;
+            int cx = cellX[i], cy = cellY[i], cz = cellZ[i];
+            for (int ox = -1; ox <= 1; ox++) {
+                for (int oy = -1; oy <= 1; oy++) {
+                    for (int oz = -1; oz <= 1; oz++) {
+                        int bx = cx + ox, by = cy + oy, bz = cz + oz;
+                        int b = bucket(bx, by, bz);
+                        for (int k = bucketStart[b], end = bucketStart[b + 1]; k < end; k++) {
+                            int j = bucketItems[k];
+                            if (j <= i || cellX[j] != bx || cellY[j] != by || cellZ[j] != bz) continue;
+                            double dx = x[j] - x[i], dy = y[j] - y[i], dz = z[j] - z[i];
+                            if (dx * dx + dy * dy + dz * dz >= limit) continue;
+                            if (2 * count + 2 > buf.length) buf = out[0] = Arrays.copyOf(buf, buf.length * 2);
+                            buf[2 * count] = i;
+                            buf[2 * count + 1] = j;
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -1,10 +1,9 @@
 package fraymus.core;
 
-import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 /**
  * 📡 FRAYMUS HTTP (Sovereign Network)
@@ -15,9 +14,12 @@ import java.util.Map;
  * 
  * SOVEREIGNTY PRINCIPLE:
  * External HTTP libraries add bloat and attack surface.
- * java.net.HttpURLConnection is verbose but sovereign.
+ * java.net.http.HttpClient is verbose but sovereign.
  * We wrap it for usability.
  * 
+ * All calls go through the shared, pooled FraymusHTTPClient;
+ * use it directly for async, streaming JSON and latency metrics.
+ * 
  * FEATURES:
  * - GET, POST, PUT, DELETE methods
  * - Custom headers
@@ -32,9 +34,7 @@ import java.util.Map;
 public class FraymusHTTP {
     
     // Default configuration
-    private static final int DEFAULT_CONNECT_TIMEOUT = 5000;  // 5 seconds
     private static final int DEFAULT_READ_TIMEOUT = 15000;    // 15 seconds
-    private static final String USER_AGENT = "Fraymus/1.0 (Sovereign)";
     
     /**
      * HTTP GET request
@@ -135,81 +135,13 @@ public class FraymusHTTP {
      * @return Response body as string
      */
     private static String requestWithTimeout(String method, String urlStr, String body, Map<String, String> customHeaders, int timeoutMs) {
-        HttpURLConnection conn = null;
+        Response response = send(method, urlStr, body, customHeaders, timeoutMs);
         
-        try {
-            URL url = new URL(urlStr);
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod(method);
-            
-            // Set default headers
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("User-Agent", USER_AGENT);
-            conn.setRequestProperty("Accept", "application/json");
-            
-            // Set custom headers
-            if (customHeaders != null) {
-                for (Map.Entry<String, String> header : customHeaders.entrySet()) {
-                    conn.setRequestProperty(header.getKey(), header.getValue());
-                }
-            }
-            
-            // Set custom timeout
-            conn.setConnectTimeout(timeoutMs);
-            conn.setReadTimeout(timeoutMs);
-            
-            // Write body if present
-            if (body != null && !body.isEmpty()) {
-                conn.setDoOutput(true);
-                try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = body.getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                }
-            }
-            
-            // Get response code
-            int status = conn.getResponseCode();
-            
-            // Select input stream based on status
-            InputStream is;
-            if (status >= 200 && status < 300) {
-                is = conn.getInputStream();
-            } else {
-                is = conn.getErrorStream();
-            }
-            
-            // Handle null stream
-            if (is == null) {
-                return createErrorResponse(status, "No response stream");
-            }
-            
-            // Read response
-            StringBuilder response = new StringBuilder();
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(is, StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    response.append(line);
-                }
-            }
-            
-            return response.toString();
-            
-        } catch (java.net.ConnectException e) {
-            return createErrorResponse(0, "Connection refused: " + e.getMessage());
-        } catch (java.net.SocketTimeoutException e) {
-            return createErrorResponse(0, "Connection timeout: " + e.getMessage());
-        } catch (java.net.UnknownHostException e) {
-            return createErrorResponse(0, "Unknown host: " + e.getMessage());
-        } catch (IOException e) {
-            return createErrorResponse(0, "IO error: " + e.getMessage());
-        } catch (Exception e) {
-            return createErrorResponse(0, "Unexpected error: " + e.getMessage());
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
+        // Non-2xx with an empty body: keep the JSON error contract
+        if (!response.success && response.status != 0 && response.body.isEmpty()) {
+            return createErrorResponse(response.status, "No response stream");
         }
+        return response.body;
     }
     
     /**
@@ -222,83 +154,33 @@ public class FraymusHTTP {
      * @return Response body as string
      */
     private static String request(String method, String urlStr, String body, Map<String, String> customHeaders) {
-        HttpURLConnection conn = null;
-        
+        return requestWithTimeout(method, urlStr, body, customHeaders, DEFAULT_READ_TIMEOUT);
+    }
+    
+    /**
+     * Blocking send through the shared pool. Never throws: transport
+     * failures come back as status 0 with a JSON error body.
+     */
+    private static Response send(String method, String urlStr, String body, Map<String, String> customHeaders, int timeoutMs) {
         try {
-            // Create connection
-            URL url = new URL(urlStr);
-            conn = (HttpURLConnection) url.openConnection();
-            
-            // Configure method
-            conn.setRequestMethod(method);
-            
-            // Set default headers
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("User-Agent", USER_AGENT);
-            conn.setRequestProperty("Accept", "application/json");
-            
-            // Set custom headers
-            if (customHeaders != null) {
-                for (Map.Entry<String, String> header : customHeaders.entrySet()) {
-                    conn.setRequestProperty(header.getKey(), header.getValue());
-                }
-            }
-            
-            // Set timeouts
-            conn.setConnectTimeout(DEFAULT_CONNECT_TIMEOUT);
-            conn.setReadTimeout(DEFAULT_READ_TIMEOUT);
-            
-            // Write body if present
-            if (body != null && !body.isEmpty()) {
-                conn.setDoOutput(true);
-                try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = body.getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                }
-            }
-            
-            // Get response code
-            int status = conn.getResponseCode();
-            
-            // Select input stream based on status
-            InputStream is;
-            if (status >= 200 && status < 300) {
-                is = conn.getInputStream();
-            } else {
-                is = conn.getErrorStream();
-            }
-            
-            // Handle null stream
-            if (is == null) {
-                return createErrorResponse(status, "No response stream");
-            }
-            
-            // Read response
-            StringBuilder response = new StringBuilder();
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(is, StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    response.append(line);
-                }
-            }
-            
-            return response.toString();
-            
-        } catch (java.net.ConnectException e) {
-            return createErrorResponse(0, "Connection refused: " + e.getMessage());
-        } catch (java.net.SocketTimeoutException e) {
-            return createErrorResponse(0, "Connection timeout: " + e.getMessage());
-        } catch (java.net.UnknownHostException e) {
-            return createErrorResponse(0, "Unknown host: " + e.getMessage());
-        } catch (IOException e) {
-            return createErrorResponse(0, "IO error: " + e.getMessage());
+            return FraymusHTTPClient.shared()
+                    .sendAsync(method, urlStr, body, customHeaders, Duration.ofMillis(timeoutMs))
+                    .join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            String detail = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            if (cause instanceof java.net.ConnectException) {
+                return new Response(0, createErrorResponse(0, "Connection refused: " + detail));
+            } else if (cause instanceof HttpTimeoutException) {
+                return new Response(0, createErrorResponse(0, "Connection timeout: " + detail));
+            } else if (cause instanceof java.net.UnknownHostException) {
+                return new Response(0, createErrorResponse(0, "Unknown host: " + detail));
+            } else if (cause instanceof java.io.IOException) {
+                return new Response(0, createErrorResponse(0, "IO error: " + detail));
+            }
+            return new Response(0, createErrorResponse(0, "Unexpected error: " + detail));
         } catch (Exception e) {
-            return createErrorResponse(0, "Unexpected error: " + e.getMessage());
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
+            return new Response(0, createErrorResponse(0, "Unexpected error: " + e.getMessage()));
         }
     }
     
@@ -340,50 +222,13 @@ public class FraymusHTTP {
      * Make request and return Response object with status
      */
     public static Response requestWithStatus(String method, String urlStr, String body) {
-        HttpURLConnection conn = null;
-        
-        try {
-            URL url = new URL(urlStr);
-            conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod(method);
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("User-Agent", USER_AGENT);
-            conn.setConnectTimeout(DEFAULT_CONNECT_TIMEOUT);
-            conn.setReadTimeout(DEFAULT_READ_TIMEOUT);
-            
-            if (body != null && !body.isEmpty()) {
-                conn.setDoOutput(true);
-                try (OutputStream os = conn.getOutputStream()) {
-                    os.write(body.getBytes(StandardCharsets.UTF_8));
-                }
-            }
-            
-            int status = conn.getResponseCode();
-            InputStream is = (status >= 200 && status < 300) 
-                ? conn.getInputStream() 
-                : conn.getErrorStream();
-            
-            if (is == null) {
-                return new Response(status, "");
-            }
-            
-            StringBuilder response = new StringBuilder();
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(is, StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    response.append(line);
-                }
-            }
-            
-            return new Response(status, response.toString());
-            
-        } catch (Exception e) {
-            return new Response(0, createErrorResponse(0, e.getMessage()));
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
-        }
+        return send(method, urlStr, body, null, DEFAULT_READ_TIMEOUT);
+    }
+    
+    /**
+     * Make request with custom timeout and return Response object with status
+     */
+    public static Response requestWithStatus(String method, String urlStr, String body, int timeoutMs) {
+        return send(method, urlStr, body, null, timeoutMs);
     }
 }
@@ -0,0 +1,244 @@
+package fraymus.core;
+
+import java.io.*;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 📡 FRAYMUS HTTP CLIENT (Shared Connection Pool)
+ * "One socket pool. Every voice speaks through it."
+ *
+ * Single process-wide client on java.net.http.HttpClient:
+ * - Keep-alive connection pooling (HTTP/2 over TLS via ALPN, HTTP/1.1 for plain http)
+ * - Async CompletableFuture API; sync callers just join()
+ * - JSON body handler that feeds response bytes straight into FraymusJSONReader
+ * - Identical in-flight GETs coalesced into one network call
+ * - Per-host latency metrics (count, errors, mean, max, p50/p99)
+ *
+ * FraymusHTTP's static helpers are thin wrappers over the shared instance.
+ *
+ * USAGE:
+ *   FraymusHTTPClient http = FraymusHTTPClient.shared();
+ *   http.postJsonAsync(url, payload, Duration.ofSeconds(60))
+ *       .thenAccept(json -> ...);
+ *   http.streamJson(url, body, timeout, chunk -> ...);   // NDJSON (Ollama stream)
+ */
+public final class FraymusHTTPClient {
+
+    private static final String USER_AGENT = "Fraymus/1.0 (Sovereign)";
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(15);
+
+    private static final FraymusHTTPClient SHARED = new FraymusHTTPClient(DEFAULT_CONNECT_TIMEOUT);
+
+    private final HttpClient client;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<String, CompletableFuture<FraymusHTTP.Response>> inFlightGets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> hostStats = new ConcurrentHashMap<>();
+    private final LongAdder coalescedGets = new LongAdder();
+
+    /**
+     * The process-wide client. Prefer this over constructing new instances.
+     */
+    public static FraymusHTTPClient shared() {
+        return SHARED;
+    }
+
+    public FraymusHTTPClient(Duration connectTimeout) {
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "fraymus-http");
+            t.setDaemon(true);
+            return t;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    // ========================================================================
+    // ASYNC API
+    // ========================================================================
+
+    /**
+     * Send a request; body is read as UTF-8 text (newlines preserved)
+     *
+     * @param method HTTP method (GET, POST, PUT, DELETE)
+     * @param url Target URL
+     * @param body Request body (null for none)
+     * @param headers Extra headers (null for defaults)
+     * @param timeout Total request timeout
+     */
+    public CompletableFuture<FraymusHTTP.Response> sendAsync(String method, String url, String body,
+                                                             Map<String, String> headers, Duration timeout) {
+        if ("GET".equals(method) && (body == null || body.isEmpty())) {
+            return getAsync(url, headers, timeout);
+        }
+        return exchange(buildRequest(method, url, body, headers, timeout),
+                        HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .thenApply(r -> new FraymusHTTP.Response(r.statusCode(), r.body()));
+    }
+
+    /**
+     * GET with request coalescing: concurrent callers asking for the same
+     * URL + headers share one network call. Each caller gets its own future.
+     */
+    public CompletableFuture<FraymusHTTP.Response> getAsync(String url, Map<String, String> headers, Duration timeout) {
+        String key = headers == null || headers.isEmpty() ? url : url + '\n' + new TreeMap<>(headers);
+        boolean[] created = new boolean[1];
+        CompletableFuture<FraymusHTTP.Response> shared = inFlightGets.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return exchange(buildRequest("GET", url, null, headers, timeout),
+                            HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                    .thenApply(r -> new FraymusHTTP.Response(r.statusCode(), r.body()));
+        });
+        if (created[0]) {
+            shared.whenComplete((r, e) -> inFlightGets.remove(key, shared));
+        } else {
+            coalescedGets.increment();
+        }
+        return shared.copy();
+    }
+
+    /**
+     * GET and parse the body as JSON while it streams in
+     */
+    public CompletableFuture<Object> getJsonAsync(String url, Duration timeout) {
+        return exchange(buildRequest("GET", url, null, null, timeout), jsonBodyHandler())
+                .thenApplyAsync(r -> r.body().get(), executor);
+    }
+
+    /**
+     * POST a Map/List payload (serialized by FraymusJSON) and parse the JSON reply
+     */
+    public CompletableFuture<Object> postJsonAsync(String url, Object payload, Duration timeout) {
+        String body = payload instanceof String ? (String) payload : FraymusJSON.stringify(payload);
+        return exchange(buildRequest("POST", url, body, null, timeout), jsonBodyHandler())
+                .thenApplyAsync(r -> r.body().get(), executor);
+    }
+
+    /**
+     * POST and hand every top-level JSON value of the reply to {@code onValue}
+     * as it arrives (newline-delimited / concatenated JSON, e.g. Ollama streaming).
+     *
+     * @return future completing with the HTTP status once the stream ends
+     */
+    public CompletableFuture<Integer> streamJson(String url, String body, Duration timeout, Consumer<Object> onValue) {
+        return exchange(buildRequest("POST", url, body, null, timeout), HttpResponse.BodyHandlers.ofInputStream())
+                .thenApplyAsync(r -> {
+                    try (FraymusJSONReader reader = new FraymusJSONReader(r.body())) {
+                        reader.setStreaming(true);
+                        while (reader.peek() != FraymusJSONReader.Token.END_DOCUMENT) {
+                            onValue.accept(reader.readValue());
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return r.statusCode();
+                }, executor);
+    }
+
+    /**
+     * POST and hand each non-empty response line to {@code onLine} as it arrives
+     *
+     * @return future completing with the HTTP status once the stream ends
+     */
+    public CompletableFuture<Integer> streamLines(String url, String body, Duration timeout, Consumer<String> onLine) {
+        return exchange(buildRequest("POST", url, body, null, timeout), HttpResponse.BodyHandlers.ofLines())
+                .thenApplyAsync(r -> {
+                    try (Stream<String> lines = r.body()) {
+                        lines.filter(line -> !line.isEmpty()).forEach(onLine);
+                    }
+                    return r.statusCode();
+                }, executor);
+    }
+
+    /**
+     * Send any prebuilt request through the pool with latency accounting.
+     * For streaming handlers the recorded latency is time-to-headers.
+     */
+    public <T> CompletableFuture<HttpResponse<T>> exchange(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        LatencyHistogram stats = hostStats.computeIfAbsent(request.uri().getAuthority(), h -> new LatencyHistogram());
+        long start = System.nanoTime();
+        return client.sendAsync(request, handler).whenComplete((r, e) ->
+                stats.record(System.nanoTime() - start, e != null || r.statusCode() >= 500));
+    }
+
+    /**
+     * Body handler that parses the response with FraymusJSONReader directly from
+     * the network byte stream. The parse runs when the supplier is invoked, which
+     * must happen off the HttpClient's internal threads.
+     */
+    public static HttpResponse.BodyHandler<Supplier<Object>> jsonBodyHandler() {
+        return info -> HttpResponse.BodySubscribers.mapping(
+                HttpResponse.BodySubscribers.ofInputStream(),
+                in -> () -> {
+                    try (InputStream stream = in) {
+                        return FraymusJSON.parse(stream);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private HttpRequest buildRequest(String method, String url, String body,
+                                     Map<String, String> headers, Duration timeout) {
+        URI uri = URI.create(url);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(timeout != null ? timeout : DEFAULT_REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .header("User-Agent", USER_AGENT)
+                .method(method, body == null || body.isEmpty()
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+
+        // Plain-text endpoints (local Ollama etc.) stay on pooled HTTP/1.1 keep-alive
+        // rather than paying for an h2c upgrade attempt on every new connection
+        if ("http".equalsIgnoreCase(uri.getScheme())) {
+            builder.version(HttpClient.Version.HTTP_1_1);
+        }
+
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                builder.setHeader(header.getKey(), header.getValue());
+            }
+        }
+        return builder.build();
+    }
+
+    // ========================================================================
+    // METRICS
+    // ========================================================================
+
+    /**
+     * Latency stats keyed by URI authority ("host:port")
+     */
+    public Map<String, LatencyHistogram> getHostStats() {
+        return Collections.unmodifiableMap(hostStats);
+    }
+
+    public long getCoalescedGets() {
+        return coalescedGets.sum();
+    }
+
+    public void printStats() {
+        System.out.println("📡 FRAYMUS HTTP CLIENT STATS");
+        System.out.println("   Coalesced GETs: " + getCoalescedGets());
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(hostStats).entrySet()) {
+            System.out.println("   " + entry.getKey() + " → " + entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,769 @@
+package fraymus.core;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 🧱 FRAYMUS JSON READER (Streaming Pull Parser)
+ * "One pass. No substrings. No second look."
+ *
+ * Single-pass, index-based JSON tokenizer with a pull API.
+ * The cursor walks a char buffer exactly once; values are only
+ * materialized when the caller asks for them.
+ *
+ * SOURCES:
+ * - String / char[]: parsed in place, no refills
+ * - byte[] (UTF-8): decoded in one pass straight into the char buffer
+ * - Reader / InputStream: streamed through a fixed 8 KB window
+ *
+ * USAGE:
+ *   FraymusJSONReader r = new FraymusJSONReader(json);
+ *   r.beginObject();
+ *   while (r.hasNext()) {
+ *       String name = r.nextName();
+ *       if (name.equals("response")) text = r.nextString();
+ *       else r.skipValue();
+ *   }
+ *   r.endObject();
+ *
+ * Or materialize the whole tree (Map / List / String / Long / Double / Boolean / null):
+ *   Object tree = new FraymusJSONReader(json).readValue();
+ */
+public class FraymusJSONReader implements Closeable {
+
+    /**
+     * Token kinds returned by {@link #peek()}
+     */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY,
+        NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    // Scope stack states
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    private final Reader in;
+    private char[] buf;
+    private int pos;
+    private int limit;
+    private long consumed;      // chars discarded before buf[0], for error offsets
+
+    private int[] stack = new int[32];
+    private int depth;
+
+    private Token peeked;
+    private StringBuilder scratch;
+    private boolean streaming;  // accept a sequence of top-level values (NDJSON)
+
+    // ========================================================================
+    // CONSTRUCTION
+    // ========================================================================
+
+    /**
+     * Read from a String (no refills, single copy into the cursor buffer)
+     */
+    public FraymusJSONReader(String json) {
+        this(json.toCharArray(), 0, json.length());
+    }
+
+    /**
+     * Read directly from a char array slice (zero-copy)
+     */
+    public FraymusJSONReader(char[] chars, int offset, int length) {
+        this.in = null;
+        this.buf = chars;
+        this.pos = offset;
+        this.limit = offset + length;
+        this.consumed = -offset;
+        push(EMPTY_DOCUMENT);
+    }
+
+    /**
+     * Read from UTF-8 bytes (decoded in one pass, no intermediate String)
+     */
+    public FraymusJSONReader(byte[] utf8, int offset, int length) {
+        this.in = null;
+        this.buf = new char[length];
+        this.pos = 0;
+        this.limit = decodeUtf8(utf8, offset, length, buf);
+        push(EMPTY_DOCUMENT);
+    }
+
+    public FraymusJSONReader(byte[] utf8) {
+        this(utf8, 0, utf8.length);
+    }
+
+    /**
+     * Stream from a Reader through a fixed window
+     */
+    public FraymusJSONReader(Reader reader) {
+        this.in = reader;
+        this.buf = new char[STREAM_BUFFER_SIZE];
+        this.pos = 0;
+        this.limit = 0;
+        push(EMPTY_DOCUMENT);
+    }
+
+    /**
+     * Stream UTF-8 from an InputStream through a fixed window
+     */
+    public FraymusJSONReader(InputStream stream) {
+        this(new InputStreamReader(stream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Accept a sequence of top-level values (newline-delimited or concatenated JSON,
+     * as produced by streaming LLM endpoints). END_DOCUMENT is reported only at EOF.
+     */
+    public FraymusJSONReader setStreaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
+    // ========================================================================
+    // PULL API
+    // ========================================================================
+
+    /**
+     * Look at the next token without consuming it
+     */
+    public Token peek() throws IOException {
+        if (peeked == null) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+        peeked = null;
+    }
+
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        depth--;
+        peeked = null;
+    }
+
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+        peeked = null;
+    }
+
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        depth--;
+        peeked = null;
+    }
+
+    /**
+     * True while the current object or array has more members
+     */
+    public boolean hasNext() throws IOException {
+        Token t = peek();
+        return t != Token.END_OBJECT && t != Token.END_ARRAY && t != Token.END_DOCUMENT;
+    }
+
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        peeked = null;
+        return readQuoted();
+    }
+
+    /**
+     * Next string value. Numbers and booleans are returned as their literal text.
+     */
+    public String nextString() throws IOException {
+        Token t = peek();
+        peeked = null;
+        switch (t) {
+            case STRING:
+                return readQuoted();
+            case NUMBER:
+                return readNumberLiteral();
+            case BOOLEAN:
+                return Boolean.toString(readBoolean());
+            default:
+                throw syntaxError("Expected STRING but was " + t);
+        }
+    }
+
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        peeked = null;
+        return readBoolean();
+    }
+
+    public void nextNull() throws IOException {
+        expect(Token.NULL);
+        peeked = null;
+        readLiteral("null");
+    }
+
+    /**
+     * Next number as Long when integral and in range, otherwise Double
+     */
+    public Number nextNumber() throws IOException {
+        expect(Token.NUMBER);
+        peeked = null;
+        return readNumber();
+    }
+
+    public long nextLong() throws IOException {
+        Number n = nextNumber();
+        if (n instanceof Long) {
+            return n.longValue();
+        }
+        double d = n.doubleValue();
+        long l = (long) d;
+        if (l != d) {
+            throw syntaxError("Expected a long but was " + d);
+        }
+        return l;
+    }
+
+    public int nextInt() throws IOException {
+        long l = nextLong();
+        if ((int) l != l) {
+            throw syntaxError("Expected an int but was " + l);
+        }
+        return (int) l;
+    }
+
+    public double nextDouble() throws IOException {
+        return nextNumber().doubleValue();
+    }
+
+    /**
+     * Skip the next value (including whole nested objects/arrays) without materializing it
+     */
+    public void skipValue() throws IOException {
+        int level = 0;
+        do {
+            Token t = peek();
+            switch (t) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    level++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    level++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    level--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    level--;
+                    break;
+                case NAME:
+                    peeked = null;
+                    skipQuoted();
+                    break;
+                case STRING:
+                    peeked = null;
+                    skipQuoted();
+                    break;
+                case NUMBER:
+                    peeked = null;
+                    skipNumber();
+                    break;
+                case BOOLEAN:
+                    peeked = null;
+                    readBoolean();
+                    break;
+                case NULL:
+                    nextNull();
+                    break;
+                case END_DOCUMENT:
+                    throw syntaxError("Unexpected end of document");
+            }
+        } while (level > 0);
+    }
+
+    /**
+     * Materialize the next value as Map / List / String / Long / Double / Boolean / null
+     */
+    public Object readValue() throws IOException {
+        switch (peek()) {
+            case BEGIN_OBJECT: {
+                Map<String, Object> map = new LinkedHashMap<>();
+                beginObject();
+                while (hasNext()) {
+                    String key = nextName();
+                    map.put(key, readValue());
+                }
+                endObject();
+                return map;
+            }
+            case BEGIN_ARRAY: {
+                List<Object> list = new ArrayList<>();
+                beginArray();
+                while (hasNext()) {
+                    list.add(readValue());
+                }
+                endArray();
+                return list;
+            }
+            case STRING:
+                return nextString();
+            case NUMBER:
+                return nextNumber();
+            case BOOLEAN:
+                return nextBoolean() ? Boolean.TRUE : Boolean.FALSE;
+            case NULL:
+                nextNull();
+                return null;
+            default:
+                throw syntaxError("Expected a value but was " + peek());
+        }
+    }
+
+    /**
+     * Read a complete document: one value followed only by whitespace
+     */
+    public Object readDocument() throws IOException {
+        Object value = readValue();
+        if (peek() != Token.END_DOCUMENT) {
+            throw syntaxError("Trailing content after JSON value");
+        }
+        return value;
+    }
+
+    /**
+     * Offset (in chars) of the cursor from the start of the input
+     */
+    public long position() {
+        return consumed + pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = null;
+        depth = 0;
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    // ========================================================================
+    // TOKENIZER
+    // ========================================================================
+
+    private Token doPeek() throws IOException {
+        int scope = stack[depth - 1];
+        int c;
+
+        switch (scope) {
+            case EMPTY_ARRAY:
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return Token.END_ARRAY;
+                }
+                pos--;
+                break;
+
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return Token.END_ARRAY;
+                }
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or ']' in array");
+                }
+                break;
+
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                stack[depth - 1] = DANGLING_NAME;
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    return Token.END_OBJECT;
+                }
+                if (scope == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw syntaxError("Expected ',' or '}' in object");
+                    }
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw syntaxError("Expected a quoted name");
+                }
+                return Token.NAME;
+
+            case DANGLING_NAME:
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                c = nextNonWhitespace();
+                if (c != ':') {
+                    throw syntaxError("Expected ':' after name");
+                }
+                break;
+
+            case EMPTY_DOCUMENT:
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+
+            case NONEMPTY_DOCUMENT:
+                c = nextNonWhitespaceOrEof();
+                if (c == -1) {
+                    return Token.END_DOCUMENT;
+                }
+                pos--;
+                if (!streaming) {
+                    throw syntaxError("Multiple top-level values");
+                }
+                break;
+
+            default:
+                throw new IllegalStateException("Reader closed");
+        }
+
+        c = nextNonWhitespace();
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+            case 'f':
+                pos--;
+                return Token.BOOLEAN;
+            case 'n':
+                pos--;
+                return Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    pos--;
+                    return Token.NUMBER;
+                }
+                pos--;
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token t = peek();
+        if (t != expected) {
+            throw syntaxError("Expected " + expected + " but was " + t);
+        }
+    }
+
+    private void push(int scope) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = scope;
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c = nextNonWhitespaceOrEof();
+        if (c == -1) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return c;
+    }
+
+    private int nextNonWhitespaceOrEof() throws IOException {
+        while (true) {
+            if (pos == limit && !fill(1)) {
+                return -1;
+            }
+            char c = buf[pos++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+    }
+
+    /**
+     * Ensure at least {@code minimum} unread chars are in the buffer.
+     * Compacts the window so a short token never straddles a refill.
+     */
+    private boolean fill(int minimum) throws IOException {
+        if (limit - pos >= minimum) {
+            return true;
+        }
+        if (in == null) {
+            return false;
+        }
+
+        consumed += pos;
+        int remaining = limit - pos;
+        if (remaining > 0) {
+            System.arraycopy(buf, pos, buf, 0, remaining);
+        }
+        limit = remaining;
+        pos = 0;
+
+        if (minimum > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(minimum, buf.length * 2));
+        }
+
+        int n;
+        while ((n = in.read(buf, limit, buf.length - limit)) != -1) {
+            limit += n;
+            if (limit >= minimum) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ========================================================================
+    // STRINGS
+    // ========================================================================
+
+    /**
+     * Read a quoted string body; the opening quote is already consumed.
+     * Fast path: no escapes and no refill → one String built straight from the buffer.
+     */
+    private String readQuoted() throws IOException {
+        StringBuilder sb = null;
+        while (true) {
+            int start = pos;
+            while (pos < limit) {
+                char c = buf[pos++];
+                if (c == '"') {
+                    if (sb == null) {
+                        return new String(buf, start, pos - start - 1);
+                    }
+                    sb.append(buf, start, pos - start - 1);
+                    return sb.toString();
+                }
+                if (c == '\\') {
+                    if (sb == null) {
+                        sb = scratch();
+                    }
+                    sb.append(buf, start, pos - start - 1);
+                    sb.append(readEscape());
+                    start = pos;
+                }
+            }
+            if (sb == null) {
+                sb = scratch();
+            }
+            sb.append(buf, start, pos - start);
+            if (!fill(1)) {
+                throw syntaxError("Unterminated string");
+            }
+        }
+    }
+
+    private void skipQuoted() throws IOException {
+        while (true) {
+            while (pos < limit) {
+                char c = buf[pos++];
+                if (c == '"') {
+                    return;
+                }
+                if (c == '\\') {
+                    readEscape();
+                }
+            }
+            if (!fill(1)) {
+                throw syntaxError("Unterminated string");
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        if (pos == limit && !fill(1)) {
+            throw syntaxError("Unterminated escape sequence");
+        }
+        char c = buf[pos++];
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'u': {
+                if (!fill(4)) {
+                    throw syntaxError("Unterminated unicode escape");
+                }
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(buf[pos++], 16);
+                    if (digit < 0) {
+                        throw syntaxError("Invalid unicode escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            }
+            default:
+                throw syntaxError("Invalid escape '\\" + c + "'");
+        }
+    }
+
+    private StringBuilder scratch() {
+        if (scratch == null) {
+            scratch = new StringBuilder(64);
+        }
+        scratch.setLength(0);
+        return scratch;
+    }
+
+    // ========================================================================
+    // NUMBERS & LITERALS
+    // ========================================================================
+
+    /**
+     * Length of the number token at the cursor, refilling so it is contiguous
+     */
+    private int numberLength() throws IOException {
+        int i = 0;
+        while (true) {
+            if (pos + i == limit && !fill(i + 1)) {
+                return i;
+            }
+            char c = buf[pos + i];
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                i++;
+            } else {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Integral literals up to 18 digits are accumulated directly into a long;
+     * everything else goes through Double.parseDouble.
+     */
+    private Number readNumber() throws IOException {
+        int len = numberLength();
+        int start = pos;
+        pos += len;
+
+        boolean negative = buf[start] == '-';
+        int i = negative ? 1 : 0;
+        int digits = len - i;
+        if (digits > 0 && digits <= 18) {
+            long value = 0;
+            for (; i < len; i++) {
+                char c = buf[start + i];
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                value = value * 10 + (c - '0');
+            }
+            if (i == len) {
+                return negative ? -value : value;
+            }
+        }
+
+        String literal = new String(buf, start, len);
+        try {
+            if (digits > 18 && literal.indexOf('.') < 0 && literal.indexOf('e') < 0 && literal.indexOf('E') < 0) {
+                try {
+                    return Long.parseLong(literal);
+                } catch (NumberFormatException overflow) {
+                    return Double.parseDouble(literal);
+                }
+            }
+            return Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            pos = start;
+            throw syntaxError("Malformed number '" + literal + "'");
+        }
+    }
+
+    private String readNumberLiteral() throws IOException {
+        int len = numberLength();
+        String literal = new String(buf, pos, len);
+        pos += len;
+        return literal;
+    }
+
+    private void skipNumber() throws IOException {
+        pos += numberLength();
+    }
+
+    private boolean readBoolean() throws IOException {
+        if (buf[pos] == 't') {
+            readLiteral("true");
+            return true;
+        }
+        readLiteral("false");
+        return false;
+    }
+
+    private void readLiteral(String literal) throws IOException {
+        int len = literal.length();
+        if (!fill(len)) {
+            throw syntaxError("Unexpected end of input");
+        }
+        for (int i = 0; i < len; i++) {
+            if (buf[pos + i] != literal.charAt(i)) {
+                throw syntaxError("Expected '" + literal + "'");
+            }
+        }
+        pos += len;
+    }
+
+    // ========================================================================
+    // UTF-8
+    // ========================================================================
+
+    /**
+     * Decode UTF-8 into a char buffer sized to the byte length (chars never exceed bytes).
+     * Malformed sequences decode to U+FFFD.
+     */
+    static int decodeUtf8(byte[] src, int offset, int length, char[] dst) {
+        int end = offset + length;
+        int out = 0;
+        int i = offset;
+        while (i < end) {
+            int b = src[i];
+            if (b >= 0) {
+                dst[out++] = (char) b;
+                i++;
+            } else if ((b & 0xE0) == 0xC0 && i + 1 < end) {
+                dst[out++] = (char) (((b & 0x1F) << 6) | (src[i + 1] & 0x3F));
+                i += 2;
+            } else if ((b & 0xF0) == 0xE0 && i + 2 < end) {
+                dst[out++] = (char) (((b & 0x0F) << 12) | ((src[i + 1] & 0x3F) << 6) | (src[i + 2] & 0x3F));
+                i += 3;
+            } else if ((b & 0xF8) == 0xF0 && i + 3 < end) {
+                int cp = ((b & 0x07) << 18) | ((src[i + 1] & 0x3F) << 12)
+                       | ((src[i + 2] & 0x3F) << 6) | (src[i + 3] & 0x3F);
+                dst[out++] = Character.highSurrogate(cp);
+                dst[out++] = Character.lowSurrogate(cp);
+                i += 4;
+            } else {
+                dst[out++] = '\uFFFD';
+                i++;
+            }
+        }
+        return out;
+    }
+
+    private IllegalArgumentException syntaxError(String message) {
+        return new IllegalArgumentException(message + " at offset " + position());
+    }
+}
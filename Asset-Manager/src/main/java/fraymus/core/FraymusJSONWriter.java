@@ -0,0 +1,305 @@
+package fraymus.core;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 🧱 FRAYMUS JSON WRITER (Streaming Emitter)
+ * "Write once, straight to the wire."
+ *
+ * Streams JSON tokens directly into any Appendable (StringBuilder,
+ * Writer, socket stream) with no intermediate strings per nesting level.
+ *
+ * USAGE:
+ *   FraymusJSONWriter w = new FraymusJSONWriter(out);
+ *   w.beginObject().name("model").value("llama3").name("stream").value(false).endObject();
+ *
+ * Or serialize a whole Map / List tree:
+ *   new FraymusJSONWriter(out).writeValue(data);
+ */
+public class FraymusJSONWriter implements Flushable, Closeable {
+
+    // Scope stack states
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final String[] CONTROL_ESCAPES = new String[32];
+    static {
+        for (int i = 0; i < 32; i++) {
+            CONTROL_ESCAPES[i] = String.format("\\u%04x", i);
+        }
+        CONTROL_ESCAPES['\n'] = "\\n";
+        CONTROL_ESCAPES['\r'] = "\\r";
+        CONTROL_ESCAPES['\t'] = "\\t";
+        CONTROL_ESCAPES['\b'] = "\\b";
+        CONTROL_ESCAPES['\f'] = "\\f";
+    }
+
+    private final Appendable out;
+    private String indent;      // null = compact output
+
+    private int[] stack = new int[32];
+    private int depth;
+
+    public FraymusJSONWriter(Appendable out) {
+        this.out = out;
+        push(EMPTY_DOCUMENT);
+    }
+
+    /**
+     * Write UTF-8 to an OutputStream (buffered; call flush() or close() when done)
+     */
+    public FraymusJSONWriter(OutputStream stream) {
+        this(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Enable pretty printing with the given indent unit (e.g. two spaces)
+     */
+    public FraymusJSONWriter setIndent(String indent) {
+        this.indent = (indent == null || indent.isEmpty()) ? null : indent;
+        return this;
+    }
+
+    // ========================================================================
+    // TOKENS
+    // ========================================================================
+
+    public FraymusJSONWriter beginObject() throws IOException {
+        return open(EMPTY_OBJECT, '{');
+    }
+
+    public FraymusJSONWriter endObject() throws IOException {
+        return close(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+    }
+
+    public FraymusJSONWriter beginArray() throws IOException {
+        return open(EMPTY_ARRAY, '[');
+    }
+
+    public FraymusJSONWriter endArray() throws IOException {
+        return close(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+    }
+
+    public FraymusJSONWriter name(String name) throws IOException {
+        int scope = stack[depth - 1];
+        if (scope == NONEMPTY_OBJECT) {
+            out.append(',');
+        } else if (scope != EMPTY_OBJECT) {
+            throw new IllegalStateException("name() outside of an object");
+        }
+        newline();
+        stack[depth - 1] = DANGLING_NAME;
+        writeString(name);
+        out.append(indent == null ? ":" : ": ");
+        return this;
+    }
+
+    public FraymusJSONWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    public FraymusJSONWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.append(value ? "true" : "false");
+        return this;
+    }
+
+    public FraymusJSONWriter value(long value) throws IOException {
+        beforeValue();
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(value);
+        } else {
+            out.append(Long.toString(value));
+        }
+        return this;
+    }
+
+    public FraymusJSONWriter value(double value) throws IOException {
+        beforeValue();
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(value);
+        } else {
+            out.append(Double.toString(value));
+        }
+        return this;
+    }
+
+    public FraymusJSONWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        out.append(value.toString());
+        return this;
+    }
+
+    public FraymusJSONWriter nullValue() throws IOException {
+        beforeValue();
+        out.append("null");
+        return this;
+    }
+
+    /**
+     * Serialize a value tree: Map → object, List → array, String / Number / Boolean / null
+     * as primitives, anything else as its quoted toString().
+     */
+    public FraymusJSONWriter writeValue(Object obj) throws IOException {
+        if (obj == null) {
+            return nullValue();
+        }
+        if (obj instanceof String) {
+            return value((String) obj);
+        }
+        if (obj instanceof Boolean) {
+            return value(((Boolean) obj).booleanValue());
+        }
+        if (obj instanceof Long || obj instanceof Integer || obj instanceof Short || obj instanceof Byte) {
+            return value(((Number) obj).longValue());
+        }
+        if (obj instanceof Double) {
+            return value(((Double) obj).doubleValue());
+        }
+        if (obj instanceof Number) {
+            return value((Number) obj);
+        }
+        if (obj instanceof Map) {
+            beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
+                name(String.valueOf(entry.getKey()));
+                writeValue(entry.getValue());
+            }
+            return endObject();
+        }
+        if (obj instanceof List) {
+            beginArray();
+            List<?> list = (List<?>) obj;
+            for (int i = 0, n = list.size(); i < n; i++) {
+                writeValue(list.get(i));
+            }
+            return endArray();
+        }
+        return value(obj.toString());
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (out instanceof Flushable) {
+            ((Flushable) out).flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        if (out instanceof Closeable) {
+            ((Closeable) out).close();
+        }
+    }
+
+    // ========================================================================
+    // INTERNALS
+    // ========================================================================
+
+    private FraymusJSONWriter open(int emptyScope, char bracket) throws IOException {
+        beforeValue();
+        push(emptyScope);
+        out.append(bracket);
+        return this;
+    }
+
+    private FraymusJSONWriter close(int emptyScope, int nonemptyScope, char bracket) throws IOException {
+        int scope = stack[depth - 1];
+        if (scope != emptyScope && scope != nonemptyScope) {
+            throw new IllegalStateException("Nesting problem closing '" + bracket + "'");
+        }
+        depth--;
+        if (scope == nonemptyScope) {
+            newline();
+        }
+        out.append(bracket);
+        return this;
+    }
+
+    private void beforeValue() throws IOException {
+        switch (stack[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case EMPTY_ARRAY:
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                newline();
+                break;
+            case NONEMPTY_ARRAY:
+                out.append(',');
+                newline();
+                break;
+            case DANGLING_NAME:
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                throw new IllegalStateException("JSON must have only one top-level value");
+            default:
+                throw new IllegalStateException("Value without a name inside an object");
+        }
+    }
+
+    private void newline() throws IOException {
+        if (indent == null) {
+            return;
+        }
+        out.append('\n');
+        for (int i = 1; i < depth; i++) {
+            out.append(indent);
+        }
+    }
+
+    private void push(int scope) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = scope;
+    }
+
+    /**
+     * Quoted, escaped string. Unescaped runs are appended as one slice.
+     */
+    private void writeString(String s) throws IOException {
+        out.append('"');
+        int last = 0;
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            String replacement;
+            if (c < 32) {
+                replacement = CONTROL_ESCAPES[c];
+            } else if (c == '"') {
+                replacement = "\\\"";
+            } else if (c == '\\') {
+                replacement = "\\\\";
+            } else {
+                continue;
+            }
+            if (last < i) {
+                out.append(s, last, i);
+            }
+            out.append(replacement);
+            last = i + 1;
+        }
+        if (last < length) {
+            out.append(s, last, length);
+        }
+        out.append('"');
+    }
+}
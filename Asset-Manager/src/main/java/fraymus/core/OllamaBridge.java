@@ -46,27 +46,19 @@ public class OllamaBridge {
     }
     
     private void testConnection() {
-        try {
-            URL url = new URL(OLLAMA_URL.replace("/api/generate", "/api/tags"));
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(5000);
-            
-            int responseCode = conn.getResponseCode();
-            if (responseCode == 200) {
-                connected = true;
-                System.out.println("      ✓ Ollama connection verified");
-            } else {
-                System.out.println("      !! Ollama returned status: " + responseCode);
-            }
-            conn.disconnect();
-            
-        } catch (java.net.ConnectException e) {
+        FraymusHTTP.Response response = FraymusHTTP.requestWithStatus(
+            "GET", OLLAMA_URL.replace("/api/generate", "/api/tags"), null, 5000);
+        
+        if (response.status == 200) {
+            connected = true;
+            System.out.println("      ✓ Ollama connection verified");
+        } else if (response.status == 0 && response.body.contains("Connection refused")) {
             System.out.println("      !! Cannot connect to Ollama");
             System.out.println("      Start with: ollama serve");
-        } catch (Exception e) {
-            System.out.println("      !! Connection test failed: " + e.getMessage());
+        } else if (response.status == 0) {
+            System.out.println("      !! Connection test failed: " + response.body);
+        } else {
+            System.out.println("      !! Ollama returned status: " + response.status);
         }
     }
 
@@ -126,14 +118,6 @@ public class OllamaBridge {
     // ═══════════════════════════════════════════════════════════════════
     
     private String callOllama(String system, String prompt) throws Exception {
-        URL url = new URL(OLLAMA_URL);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("POST");
-        conn.setRequestProperty("Content-Type", "application/json");
-        conn.setConnectTimeout(TIMEOUT_MS);
-        conn.setReadTimeout(TIMEOUT_MS);
-        conn.setDoOutput(true);
-        
         // Build JSON request
         String jsonRequest = String.format(
             "{\"model\": \"%s\", \"prompt\": %s, \"system\": %s, \"stream\": false}",
@@ -142,25 +126,14 @@ public class OllamaBridge {
             escapeJson(system)
         );
         
-        // Send request
-        try (OutputStream os = conn.getOutputStream()) {
-            os.write(jsonRequest.getBytes(StandardCharsets.UTF_8));
-        }
-        
-        // Read response
-        int responseCode = conn.getResponseCode();
-        if (responseCode == 200) {
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                StringBuilder response = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    response.append(line);
-                }
-                return parseOllamaResponse(response.toString());
-            }
+        // Send through the shared connection pool
+        FraymusHTTP.Response response = FraymusHTTP.requestWithStatus("POST", OLLAMA_URL, jsonRequest, TIMEOUT_MS);
+        if (response.status == 200) {
+            return parseOllamaResponse(response.body);
+        } else if (response.status == 0) {
+            throw new IOException(response.body);
         } else {
-            throw new IOException("Ollama returned status: " + responseCode);
+            throw new IOException("Ollama returned status: " + response.status);
         }
     }
     
@@ -1,5 +1,8 @@
 package fraymus.cymatics;
 
+import fraymus.signals.dsp.RealFFT;
+import fraymus.signals.dsp.Window;
+
 import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.LineUnavailableException;
@@ -109,18 +112,34 @@ public class CymaticSpeaker {
      */
     public static void playTone(double freqHz, int msDuration, WaveType waveType) 
             throws LineUnavailableException {
-        
-        AudioFormat af = new AudioFormat(SAMPLE_RATE, 8, 1, true, false);
-        SourceDataLine sdl = AudioSystem.getSourceDataLine(af);
-        
-        sdl.open(af);
-        sdl.start();
-        
-        byte[] buf = new byte[1];
+        play(renderTone(freqHz, msDuration, waveType), 0.5); // 50% volume
+    }
+    
+    /**
+     * Play a simple sine tone
+     */
+    public static void playTone(double freqHz, int msDuration) throws LineUnavailableException {
+        playTone(freqHz, msDuration, WaveType.SINE);
+    }
+    
+    /**
+     * Play a chord (multiple frequencies)
+     */
+    public static void playChord(double[] frequencies, int msDuration) 
+            throws LineUnavailableException {
+        play(renderChord(frequencies, msDuration), 0.4);
+    }
+
+    /**
+     * Synthesize a tone into [-1, 1] samples (with fade in/out)
+     */
+    static double[] renderTone(double freqHz, int msDuration, WaveType waveType) {
         int samples = (int) (msDuration * SAMPLE_RATE / 1000);
+        double[] out = new double[samples];
+        double cycles = freqHz / SAMPLE_RATE;
         
         for (int i = 0; i < samples; i++) {
-            double angle = i / (SAMPLE_RATE / freqHz) * 2.0 * Math.PI;
+            double angle = i * cycles * 2.0 * Math.PI;
             double sample;
             
             switch (waveType) {
@@ -144,77 +163,100 @@ public class CymaticSpeaker {
                 default:
                     sample = Math.sin(angle);
             }
-            
-            // Apply envelope (fade in/out) to avoid clicks
-            double envelope = 1.0;
-            int fadeLength = samples / 10;
-            if (i < fadeLength) {
-                envelope = (double) i / fadeLength;
-            } else if (i > samples - fadeLength) {
-                envelope = (double) (samples - i) / fadeLength;
+            out[i] = sample * envelope(i, samples);
+        }
+        return out;
+    }
+
+    /**
+     * Synthesize an equal-weight chord into [-1, 1] samples (with fade in/out)
+     */
+    static double[] renderChord(double[] frequencies, int msDuration) {
+        int samples = (int) (msDuration * SAMPLE_RATE / 1000);
+        double[] out = new double[samples];
+        
+        // Sum all frequencies
+        for (double freq : frequencies) {
+            double step = 2.0 * Math.PI * freq / SAMPLE_RATE;
+            for (int i = 0; i < samples; i++) {
+                out[i] += Math.sin(i * step);
             }
-            
-            buf[0] = (byte) (sample * envelope * 127.0 * 0.5); // 50% volume
-            sdl.write(buf, 0, 1);
         }
         
-        sdl.drain();
-        sdl.stop();
-        sdl.close();
+        // Normalize + envelope
+        for (int i = 0; i < samples; i++) {
+            out[i] = out[i] / frequencies.length * envelope(i, samples);
+        }
+        return out;
     }
-    
+
     /**
-     * Play a simple sine tone
+     * Fade in/out over the first and last 10% to avoid clicks
      */
-    public static void playTone(double freqHz, int msDuration) throws LineUnavailableException {
-        playTone(freqHz, msDuration, WaveType.SINE);
+    private static double envelope(int i, int samples) {
+        int fadeLength = samples / 10;
+        if (i < fadeLength) {
+            return (double) i / fadeLength;
+        } else if (i > samples - fadeLength) {
+            return (double) (samples - i) / fadeLength;
+        }
+        return 1.0;
     }
-    
+
     /**
-     * Play a chord (multiple frequencies)
+     * Convert to 8-bit PCM in one buffer and hand it to the line in one write
      */
-    public static void playChord(double[] frequencies, int msDuration) 
-            throws LineUnavailableException {
-        
+    private static void play(double[] samples, double volume) throws LineUnavailableException {
         AudioFormat af = new AudioFormat(SAMPLE_RATE, 8, 1, true, false);
         SourceDataLine sdl = AudioSystem.getSourceDataLine(af);
         
-        sdl.open(af);
-        sdl.start();
-        
-        byte[] buf = new byte[1];
-        int samples = (int) (msDuration * SAMPLE_RATE / 1000);
-        
-        for (int i = 0; i < samples; i++) {
-            double sample = 0.0;
-            
-            // Sum all frequencies
-            for (double freq : frequencies) {
-                double angle = i / (SAMPLE_RATE / freq) * 2.0 * Math.PI;
-                sample += Math.sin(angle);
-            }
-            
-            // Normalize
-            sample /= frequencies.length;
-            
-            // Envelope
-            double envelope = 1.0;
-            int fadeLength = samples / 10;
-            if (i < fadeLength) {
-                envelope = (double) i / fadeLength;
-            } else if (i > samples - fadeLength) {
-                envelope = (double) (samples - i) / fadeLength;
-            }
-            
-            buf[0] = (byte) (sample * envelope * 127.0 * 0.4);
-            sdl.write(buf, 0, 1);
+        byte[] pcm = new byte[samples.length];
+        for (int i = 0; i < samples.length; i++) {
+            pcm[i] = (byte) (samples[i] * 127.0 * volume);
         }
         
+        sdl.open(af);
+        sdl.start();
+        sdl.write(pcm, 0, pcm.length);
         sdl.drain();
         sdl.stop();
         sdl.close();
     }
 
+    // ═══════════════════════════════════════════════════════════════════
+    // THE EAR (Sound → Frequency)
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Strongest spectral peaks of a rendered waveform: the check that what
+     * we synthesized really carries the frequencies we computed.
+     *
+     * @return Up to {@code count} peak frequencies in Hz, loudest first
+     */
+    public static double[] spectralPeaks(double[] samples, int count) {
+        RealFFT fft = new RealFFT(RealFFT.nextPowerOfTwo(samples.length));
+        double[] window = Window.HANN.coefficients(samples.length);
+        double[] mags = new double[fft.bins()];
+        fft.magnitudes(samples, 0, samples.length, window, mags);
+        
+        // Local maxima, then keep the loudest `count`
+        double[] peakFreq = new double[count];
+        double[] peakMag = new double[count];
+        for (int k = 1; k < mags.length - 1; k++) {
+            if (mags[k] <= mags[k - 1] || mags[k] < mags[k + 1]) continue;
+            for (int p = 0; p < count; p++) {
+                if (mags[k] > peakMag[p]) {
+                    System.arraycopy(peakMag, p, peakMag, p + 1, count - p - 1);
+                    System.arraycopy(peakFreq, p, peakFreq, p + 1, count - p - 1);
+                    peakMag[p] = mags[k];
+                    peakFreq[p] = fft.binFrequency(k, SAMPLE_RATE);
+                    break;
+                }
+            }
+        }
+        return peakFreq;
+    }
+
     // ═══════════════════════════════════════════════════════════════════
     // THE TRANSLATOR (Frequency → Meaning)
     // ═══════════════════════════════════════════════════════════════════
@@ -295,15 +337,27 @@ public class CymaticSpeaker {
         System.out.println("   >> PLAYING TONE...");
         try {
             // Play a chord of the first 3 unique frequencies
+            double[] rendered;
+            double volume;
             if (count >= 3) {
                 double[] chord = new double[3];
                 chord[0] = letterFreqs[0];
                 chord[1] = letterFreqs[count / 2];
                 chord[2] = letterFreqs[count - 1];
-                playChord(chord, 1500);
+                rendered = renderChord(chord, 1500);
+                volume = 0.4;
             } else {
-                playTone(avgFreq, 1500);
+                rendered = renderTone(avgFreq, 1500, WaveType.SINE);
+                volume = 0.5;
             }
+            
+            StringBuilder peaks = new StringBuilder();
+            for (double hz : spectralPeaks(rendered, 3)) {
+                if (hz > 0) peaks.append(String.format("%.1f Hz  ", hz));
+            }
+            System.out.println("   >> SPECTRUM: " + peaks.toString().trim());
+            
+            play(rendered, volume);
             System.out.println("   ✓ TONE COMPLETE");
         } catch (Exception e) {
             System.out.println("   !! AUDIO ERROR: " + e.getMessage());
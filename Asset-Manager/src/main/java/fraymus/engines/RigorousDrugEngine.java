@@ -19,6 +19,9 @@ import java.util.*;
  */
 public class RigorousDrugEngine implements Engine {
     
+    // Below this many candidates the seek phase is cheaper on one thread
+    private static final int PARALLEL_SEEK_THRESHOLD = 256;
+    
     @Override
     public String name() {
         return "DrugDiscovery";
@@ -50,21 +53,13 @@ public class RigorousDrugEngine implements Engine {
         
         // Optimization loop
         for (int step = 0; step < ctx.cfg.steps; step++) {
-            // Candidates seek targets
-            for (DrugCandidate drug : candidates) {
-                for (Entity target : targets) {
-                    double dist = drug.entity.distanceTo(target);
-                    if (dist > 5 && dist < 50) {
-                        drug.entity.moveTowards(target, 0.1);
-                    }
-                    
-                    // Calculate proxy affinity
-                    if (dist < 20) {
-                        double affinity = (20 - dist) / 20.0 * 1.618; // φ-scaled
-                        if (affinity > drug.proxyAffinity) {
-                            drug.proxyAffinity = affinity;
-                        }
-                    }
+            // Candidates seek targets (each candidate only touches its own
+            // state, so large populations fan out across the fork/join pool)
+            if (candidates.size() >= PARALLEL_SEEK_THRESHOLD) {
+                candidates.parallelStream().forEach(drug -> seekTargets(drug, targets));
+            } else {
+                for (DrugCandidate drug : candidates) {
+                    seekTargets(drug, targets);
                 }
             }
             
@@ -192,6 +187,23 @@ public class RigorousDrugEngine implements Engine {
             .build();
     }
     
+    private static void seekTargets(DrugCandidate drug, List<Entity> targets) {
+        for (Entity target : targets) {
+            double dist = drug.entity.distanceTo(target);
+            if (dist > 5 && dist < 50) {
+                drug.entity.moveTowards(target, 0.1);
+            }
+            
+            // Calculate proxy affinity
+            if (dist < 20) {
+                double affinity = (20 - dist) / 20.0 * 1.618; // φ-scaled
+                if (affinity > drug.proxyAffinity) {
+                    drug.proxyAffinity = affinity;
+                }
+            }
+        }
+    }
+    
     static class DrugCandidate {
         Entity entity;
         double proxyAffinity;
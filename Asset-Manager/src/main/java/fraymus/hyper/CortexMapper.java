@@ -1,11 +1,14 @@
 package fraymus.hyper;
 
+import fraymus.absorption.IngestPipeline;
 import fraymus.nano.NanoAgent;
 import fraymus.limbs.ClawConnector;
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * CORTEX MAPPER - The Neural-Swarm Bridge
@@ -19,12 +22,21 @@ import java.util.List;
  * - Cube [3] (Ego): Self-Correction → FraynixEvolver
  * 
  * This creates a living mind that knows its territory.
+ * 
+ * Files are discovered through IngestPipeline (metadata only, no reads).
+ * The mapper keeps the pipeline manifest, so uploading the same territory
+ * again only touches files whose size or mtime changed.
  */
 public class CortexMapper {
 
+    private static final Set<String> SKIP_DIRS = Set.of("build", "node_modules", "target");
+
     private final HyperTesseract brain;
+    private final IngestPipeline.Manifest fileManifest = new IngestPipeline.Manifest();
     private int filesMapped = 0;
+    private int filesUpdated = 0;
     private int toolsMapped = 0;
+    private IngestPipeline.Stats lastScan;
 
     public CortexMapper(HyperTesseract brain) {
         this.brain = brain;
@@ -43,6 +55,9 @@ public class CortexMapper {
         System.out.println("📁 Mapping File System to Hippocampus (Cube 1)...");
         mapFilesToCube(rootDir, 1);
         System.out.println("   ✓ " + filesMapped + " files mapped to memory");
+        if (lastScan != null) {
+            System.out.println("   ⚡ " + lastScan);
+        }
         System.out.println();
         
         // 2. Map OpenClaw Tools to Logic Cube [0]
@@ -75,43 +90,59 @@ public class CortexMapper {
      */
     private void mapFilesToCube(File dir, int dimensionW) {
         if (dir == null || !dir.exists()) return;
-        
-        File[] files = dir.listFiles();
-        if (files == null) return;
-
-        for (File f : files) {
-            // Skip build directories and hidden files
-            if (f.getName().startsWith(".") || 
-                f.getName().equals("build") || 
-                f.getName().equals("node_modules") ||
-                f.getName().equals("target")) {
-                continue;
-            }
-            
-            if (f.isDirectory()) {
-                // Recurse into subdirectories
-                mapFilesToCube(f, dimensionW);
-            } else if (f.getName().endsWith(".java")) {
-                // Assign a unique voxel coordinate based on hash
-                int hash = Math.abs(f.getAbsolutePath().hashCode());
-                int x = hash % 8;
-                int y = (hash / 8) % 8;
-                int z = (hash / 64) % 8;
-
-                // Inject the File into the Brain Node
-                HyperTesseract.Node node = brain.getNode(dimensionW, x, y, z);
-                if (node != null) {
-                    node.reference.add(f);
-                    node.self.add("MEMORY: " + f.getName());
-                    
-                    // Store file metadata
-                    node.logic.add("PATH: " + f.getAbsolutePath());
-                    node.logic.add("SIZE: " + f.length());
-                    node.logic.add("MODIFIED: " + f.lastModified());
-                    
-                    filesMapped++;
+
+        try {
+            lastScan = IngestPipeline.builder()
+                .filter(p -> p.getFileName().toString().endsWith(".java"))
+                .skipDirs(SKIP_DIRS)
+                .readContent(false)
+                .manifest(fileManifest)
+                .build()
+                .run(dir.toPath(), file -> mapFile(file, dimensionW));
+        } catch (IOException e) {
+            System.out.println("   !! File mapping failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Inject one file into its voxel (called on ingest workers)
+     */
+    private void mapFile(IngestPipeline.IngestFile file, int dimensionW) {
+        // Assign a unique voxel coordinate based on hash
+        String absolutePath = file.path.toAbsolutePath().toString();
+        int hash = Math.abs(absolutePath.hashCode());
+        int x = hash % 8;
+        int y = (hash / 8) % 8;
+        int z = (hash / 64) % 8;
+
+        // Inject the File into the Brain Node
+        HyperTesseract.Node node = brain.getNode(dimensionW, x, y, z);
+        if (node == null) return;
+
+        synchronized (node) {
+            // Re-mapped after a change: refresh the metadata in place
+            int existing = node.logic.indexOf("PATH: " + absolutePath);
+            if (existing >= 0 && existing + 2 < node.logic.size()) {
+                node.logic.set(existing + 1, "SIZE: " + file.size);
+                node.logic.set(existing + 2, "MODIFIED: " + file.mtime);
+                synchronized (this) {
+                    filesUpdated++;
                 }
+                return;
             }
+
+            node.reference.add(file.path.toFile());
+            node.self.add("MEMORY: " + file.getName());
+
+            // Store file metadata
+            node.logic.add("PATH: " + absolutePath);
+            node.logic.add("SIZE: " + file.size);
+            node.logic.add("MODIFIED: " + file.mtime);
+        }
+        synchronized (this) {
+            filesMapped++;
         }
     }
 
@@ -191,9 +222,10 @@ public class CortexMapper {
         return String.format(
             "Cortex Mapping Statistics:\n" +
             "  Files Mapped: %d\n" +
+            "  Files Updated: %d\n" +
             "  Tools Mapped: %d\n" +
             "  Total Brain Utilization: %.2f%%",
-            filesMapped, toolsMapped, ((filesMapped + toolsMapped) / 2048.0) * 100
+            filesMapped, filesUpdated, toolsMapped, ((filesMapped + toolsMapped) / 2048.0) * 100
         );
     }
 }
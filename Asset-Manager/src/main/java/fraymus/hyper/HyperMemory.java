@@ -71,6 +71,20 @@ public class HyperMemory {
         return conceptSpace.get(name);
     }
 
+    /**
+     * Put a concept back from persisted state (no announcement; overwrites)
+     */
+    public void restore(String name, HyperVector vector) {
+        conceptSpace.put(name, vector);
+    }
+
+    /**
+     * Drop a concept (e.g. its source document changed or was deleted)
+     */
+    public void forget(String name) {
+        conceptSpace.remove(name);
+    }
+
     /**
      * Get the vector for a concept (learning it if needed)
      */
@@ -30,6 +30,10 @@ import java.util.concurrent.ConcurrentHashMap;
  * - HyperSynapse: Distance = 0 (via wormhole)
  * - Non-Euclidean topology
  * - Instant concept connections
+ * 
+ * Path queries run on a SynapseGraph mirror of the crystal (int ids,
+ * CSR adjacency, cached paths), kept in sync by grow / createNode /
+ * createWormhole.
  */
 public class HyperSynapse {
 
@@ -37,6 +41,7 @@ public class HyperSynapse {
     private LogicNode root;
     private Map<String, LogicNode> nodeRegistry = new ConcurrentHashMap<>();
     private List<Wormhole> wormholes = new ArrayList<>();
+    private final SynapseGraph graph = new SynapseGraph();
     
     // The Chaos Engine
     private EvolutionaryChaos chaos = new EvolutionaryChaos();
@@ -56,6 +61,7 @@ public class HyperSynapse {
         // Seed the crystal
         this.root = new LogicNode("ORIGIN", "The Seed of All Thought", 0);
         nodeRegistry.put("ORIGIN", root);
+        graph.addNode("ORIGIN");
         totalNodes++;
         
         System.out.println("   ✓ Crystal seeded at ORIGIN");
@@ -106,6 +112,10 @@ public class HyperSynapse {
         nodeRegistry.put(synthesisId, synthesis);
         totalNodes++;
         
+        graph.addEdge(parentId, thesisId, 1f, SynapseGraph.TREE);
+        graph.addEdge(parentId, antithesisId, 1f, SynapseGraph.TREE);
+        graph.addEdge(parentId, synthesisId, 1f, SynapseGraph.TREE);
+        
         System.out.println("   ⚡ CRYSTAL GROWTH from [" + parentId + "]:");
         System.out.println("      ├─ THESIS (+1):     " + thesisId);
         System.out.println("      ├─ ANTITHESIS (-1): " + antithesisId);
@@ -118,6 +128,7 @@ public class HyperSynapse {
     public LogicNode createNode(String id, String description, int polarity) {
         LogicNode node = new LogicNode(id, description, polarity);
         nodeRegistry.put(id, node);
+        graph.addNode(id);
         totalNodes++;
         return node;
     }
@@ -149,24 +160,26 @@ public class HyperSynapse {
         
         totalSynapses++;
         
+        // Measure before the wormhole joins the graph
         int standardDistance = calculateStandardDistance(a, b);
+        graph.addEdge(nodeA, nodeB, (float) Math.max(0.0, 1.0 - wormhole.strength), SynapseGraph.WORMHOLE);
         
         System.out.println();
         System.out.println("   🕳️ WORMHOLE CREATED:");
         System.out.println("      ├─ Endpoint A: " + nodeA);
         System.out.println("      ├─ Endpoint B: " + nodeB);
-        System.out.println("      ├─ Standard distance: " + standardDistance + " hops");
+        System.out.println("      ├─ Standard distance: " + (standardDistance < 0 ? "∞ (disconnected)" : standardDistance + " hops"));
         System.out.println("      └─ Wormhole distance: 0 hops (INSTANT)");
         System.out.println("      ⚡ SPACE FOLDED. Efficiency: ∞");
     }
     
     /**
-     * Calculate standard tree distance between nodes
+     * Tree distance between nodes (fewest hops ignoring wormholes), or -1
+     * if they are not connected through the tree
      */
     private int calculateStandardDistance(LogicNode a, LogicNode b) {
-        // Simple approximation: sum of depths to common ancestor
-        // In reality this would be more complex path finding
-        return Math.abs(a.depth - b.depth) + Math.max(a.depth, b.depth);
+        SynapseGraph.Path path = graph.hopPath(a.id, b.id, false);
+        return path == null ? -1 : path.hops();
     }
     
     /**
@@ -242,21 +255,40 @@ public class HyperSynapse {
     
     /**
      * Find path between concepts (prefers wormholes)
+     * 
+     * Least-cost route through the crystal: tree hops cost 1, wormholes
+     * cost 0. Wormhole hops are marked by a "WORMHOLE" entry between the
+     * two endpoints, e.g. [FUSION, WORMHOLE, ETHICS, PHILOSOPHY].
+     * Returns an empty list if the concepts are not connected.
      */
     public List<String> findPath(String from, String to) {
-        // Check direct wormhole first
-        LogicNode source = nodeRegistry.get(from);
-        if (source != null) {
-            for (Wormhole wh : source.synapses) {
-                LogicNode dest = wh.getOtherEnd(source);
-                if (dest != null && dest.id.equals(to)) {
-                    return Arrays.asList(from, "WORMHOLE", to);
-                }
+        SynapseGraph.Path path = graph.shortestPath(from, to);
+        if (path == null) {
+            return Collections.emptyList();
+        }
+        List<String> out = new ArrayList<>(path.nodes.size() + path.wormholeHops());
+        out.add(path.nodes.get(0));
+        for (int i = 0; i < path.hops(); i++) {
+            if (path.isWormhole(i)) {
+                out.add("WORMHOLE");
             }
+            out.add(path.nodes.get(i + 1));
         }
-        
-        // Standard path (simplified - in reality would be BFS/DFS)
-        return Arrays.asList(from, "...", to);
+        return out;
+    }
+    
+    /**
+     * Fewest-hop path between concepts (every hop counts, wormhole or not)
+     */
+    public SynapseGraph.Path findHopPath(String from, String to) {
+        return graph.hopPath(from, to, true);
+    }
+    
+    /**
+     * Concepts reachable within maxHops (tree edges and wormholes)
+     */
+    public List<String> neighborhood(String id, int maxHops) {
+        return graph.neighborhood(id, maxHops);
     }
 
     // ═══════════════════════════════════════════════════════════════════
@@ -272,6 +304,8 @@ public class HyperSynapse {
         System.out.println("│ Wormholes:        " + String.format("%-38d", totalSynapses) + "│");
         System.out.println("│ Wormhole Jumps:   " + String.format("%-38d", wormholeTraversals) + "│");
         System.out.println("│ Standard Jumps:   " + String.format("%-38d", standardTraversals) + "│");
+        Map<String, Object> gs = graph.getStats();
+        System.out.println("│ Path Cache:       " + String.format("%-38s", gs.get("cacheHits") + " hits / " + gs.get("cacheMisses") + " misses") + "│");
         System.out.println("├─────────────────────────────────────────────────────────┤");
         
         // Print all nodes
@@ -302,6 +336,7 @@ public class HyperSynapse {
     public long getTotalNodes() { return totalNodes; }
     public long getTotalWormholes() { return totalSynapses; }
     public long getWormholeTraversals() { return wormholeTraversals; }
+    public SynapseGraph getGraph() { return graph; }
 
     // ═══════════════════════════════════════════════════════════════════
     // INNER CLASSES
@@ -445,6 +480,18 @@ public class HyperSynapse {
         // Standard traversal (no wormhole)
         crystal.traverseWormhole("PHYSICS", "PHILOSOPHY");
         
+        // ═══ PATH QUERIES ═══
+        System.out.println();
+        System.out.println("═══════════════════════════════════════════════════════");
+        System.out.println("   PHASE 5: PATH QUERIES");
+        System.out.println("═══════════════════════════════════════════════════════");
+        
+        System.out.println("   🧭 FUSION → LOGIC:       " + crystal.findPath("FUSION", "LOGIC"));
+        System.out.println("   🧭 QUANTUM → ETHICS:     " + crystal.findPath("QUANTUM", "ETHICS"));
+        System.out.println("   🧭 ENGINEERING → ORDER:  " + crystal.findPath("ENGINEERING", "ORDER"));
+        System.out.println("   🧭 Hops FUSION → LOGIC:  " + crystal.findHopPath("FUSION", "LOGIC"));
+        System.out.println("   🧭 2-hop of QUANTUM:     " + crystal.neighborhood("QUANTUM", 2));
+        
         // ═══ FINAL STATE ═══
         crystal.printCrystal();
         
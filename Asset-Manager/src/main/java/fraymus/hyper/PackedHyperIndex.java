@@ -0,0 +1,290 @@
+package fraymus.hyper;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * PACKED HYPER-INDEX: FLAT HAMMING SCAN OVER MANY HYPERVECTORS
+ *
+ * "Don't ask every concept one by one. Ask them all at once."
+ *
+ * HyperMemory keeps one BitSet object per concept; comparing a query to
+ * 100k of them means 100k BitSet clones. This index packs every vector
+ * into one long[] (WORDS longs per slot, back to back), so similarity is
+ * XOR + Long.bitCount over contiguous memory, no allocation per candidate.
+ *
+ * Top-k uses a bounded max-heap on Hamming distance (O(n log k), no full
+ * sort). Large indexes are scanned in parallel partitions, each with its
+ * own heap, merged at the end.
+ *
+ * Slots are append-only; remove() tombstones a slot and compact() drops
+ * tombstones. Appends and removals are synchronized; queries read a
+ * published snapshot (arrays + count in one volatile View) without locking.
+ *
+ * Similarity matches HyperVector.similarity(): 1 − hamming / D.
+ */
+public class PackedHyperIndex {
+
+    public static final int WORDS = (HyperVector.D + 63) / 64;
+
+    private static final int PARALLEL_MIN = 8192;
+    private static final int PARTITION = 4096;
+    private static final int BLOCK = 16;
+
+    /**
+     * Published snapshot: readers take one volatile read and never see a
+     * size that doesn't belong to the arrays next to it
+     */
+    private static final class View {
+        final long[] bits;
+        final String[] ids;
+        final boolean[] deleted;
+        final int size;
+
+        View(long[] bits, String[] ids, boolean[] deleted, int size) {
+            this.bits = bits;
+            this.ids = ids;
+            this.deleted = deleted;
+            this.size = size;
+        }
+    }
+
+    private volatile View view = new View(new long[WORDS * 64], new String[64], new boolean[64], 0);
+    private int live = 0;
+
+    /**
+     * A ranked result
+     */
+    public static final class Hit {
+        public final int slot;
+        public final String id;
+        public final double similarity;
+
+        Hit(int slot, String id, int distance) {
+            this.slot = slot;
+            this.id = id;
+            this.similarity = 1.0 - (double) distance / HyperVector.D;
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // WRITE
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Append a vector; returns its slot
+     */
+    public int add(String id, HyperVector vector) {
+        return add(id, vector.rawBits().toLongArray());
+    }
+
+    /**
+     * Append pre-packed bits (as from BitSet.toLongArray(); may be shorter
+     * than WORDS when the high bits are zero)
+     */
+    public synchronized int add(String id, long[] packed) {
+        View v = view;
+        int slot = v.size;
+        long[] bits = v.bits;
+        String[] ids = v.ids;
+        boolean[] deleted = v.deleted;
+        if (slot == ids.length) {
+            int cap = slot * 2;
+            bits = Arrays.copyOf(bits, cap * WORDS);
+            ids = Arrays.copyOf(ids, cap);
+            deleted = Arrays.copyOf(deleted, cap);
+        }
+        System.arraycopy(packed, 0, bits, slot * WORDS, Math.min(packed.length, WORDS));
+        ids[slot] = id;
+        live++;
+        view = new View(bits, ids, deleted, slot + 1);   // publish
+        return slot;
+    }
+
+    public synchronized void remove(int slot) {
+        View v = view;
+        if (slot >= 0 && slot < v.size && !v.deleted[slot]) {
+            v.deleted[slot] = true;
+            live--;
+        }
+    }
+
+    /**
+     * Drop tombstoned slots. Returns old slot → new slot (−1 if dropped).
+     */
+    public synchronized int[] compact() {
+        View v = view;
+        int n = v.size;
+        int[] remap = new int[n];
+        long[] newBits = new long[Math.max(64, live) * WORDS];
+        String[] newIds = new String[Math.max(64, live)];
+        int w = 0;
+        for (int s = 0; s < n; s++) {
+            if (v.deleted[s]) {
+                remap[s] = -1;
+                continue;
+            }
+            System.arraycopy(v.bits, s * WORDS, newBits, w * WORDS, WORDS);
+            newIds[w] = v.ids[s];
+            remap[s] = w++;
+        }
+        view = new View(newBits, newIds, new boolean[newIds.length], w);
+        return remap;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // READ
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * The k most similar live vectors, best first
+     */
+    public List<Hit> topK(HyperVector query, int k) {
+        long[] q = Arrays.copyOf(query.rawBits().toLongArray(), WORDS);
+        View v = view;
+        int n = v.size;
+        long[] b = v.bits;
+        String[] names = v.ids;
+        boolean[] dead = v.deleted;
+        if (k <= 0 || n == 0) {
+            return Collections.emptyList();
+        }
+
+        long[] heap;
+        if (n < PARALLEL_MIN) {
+            heap = scan(q, b, dead, 0, n, k);
+        } else {
+            int parts = (n + PARTITION - 1) / PARTITION;
+            heap = IntStream.range(0, parts).parallel()
+                .mapToObj(p -> scan(q, b, dead, p * PARTITION, Math.min(n, (p + 1) * PARTITION), k))
+                .reduce((x, y) -> merge(x, y, k))
+                .orElse(new long[0]);
+        }
+
+        // Heap entries are (distance << 32 | slot); ascending = best first
+        long[] sorted = Arrays.copyOf(heap, heapSize(heap));
+        Arrays.sort(sorted);
+        List<Hit> hits = new ArrayList<>(sorted.length);
+        for (long e : sorted) {
+            int slot = (int) e;
+            hits.add(new Hit(slot, names[slot], (int) (e >>> 32)));
+        }
+        return hits;
+    }
+
+    /**
+     * Scan [from, to) keeping the k smallest distances in a max-heap.
+     * The heap array carries its size in the last element.
+     */
+    private static long[] scan(long[] q, long[] b, boolean[] dead, int from, int to, int k) {
+        long[] heap = new long[k + 1];
+        int count = 0;
+        int worst = Integer.MAX_VALUE;
+        for (int s = from; s < to; s++) {
+            if (dead[s]) continue;
+            int base = s * WORDS;
+            int d = 0;
+            // Early exit once past the current k-th best, checked per block
+            for (int i = 0; i < WORDS && d < worst; i += BLOCK) {
+                int end = Math.min(WORDS, i + BLOCK);
+                for (int j = i; j < end; j++) {
+                    d += Long.bitCount(q[j] ^ b[base + j]);
+                }
+            }
+            if (d >= worst && count == k) continue;
+            long entry = ((long) d << 32) | s;
+            if (count < k) {
+                siftUp(heap, count++, entry);
+                if (count == k) worst = (int) (heap[0] >>> 32);
+            } else if (entry < heap[0]) {
+                siftDown(heap, k, entry);
+                worst = (int) (heap[0] >>> 32);
+            }
+        }
+        heap[k] = count;
+        return heap;
+    }
+
+    private static long[] merge(long[] x, long[] y, int k) {
+        int cx = heapSize(x);
+        int cy = heapSize(y);
+        for (int i = 0; i < cy; i++) {
+            long entry = y[i];
+            if (cx < k) {
+                siftUp(x, cx++, entry);
+            } else if (entry < x[0]) {
+                siftDown(x, k, entry);
+            }
+        }
+        x[k] = cx;
+        return x;
+    }
+
+    private static int heapSize(long[] heap) {
+        return heap.length == 0 ? 0 : (int) heap[heap.length - 1];
+    }
+
+    // Max-heap on the packed (distance, slot) key
+    private static void siftUp(long[] heap, int i, long entry) {
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (heap[p] >= entry) break;
+            heap[i] = heap[p];
+            i = p;
+        }
+        heap[i] = entry;
+    }
+
+    private static void siftDown(long[] heap, int n, long entry) {
+        int i = 0;
+        int half = n >>> 1;
+        while (i < half) {
+            int c = 2 * i + 1;
+            if (c + 1 < n && heap[c + 1] > heap[c]) c++;
+            if (entry >= heap[c]) break;
+            heap[i] = heap[c];
+            i = c;
+        }
+        heap[i] = entry;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // ACCESSORS
+    // ═══════════════════════════════════════════════════════════════════
+
+    public String id(int slot) {
+        return view.ids[slot];
+    }
+
+    public boolean isLive(int slot) {
+        View v = view;
+        return slot >= 0 && slot < v.size && !v.deleted[slot];
+    }
+
+    /**
+     * Copy of a slot's packed bits (WORDS longs)
+     */
+    public long[] packed(int slot) {
+        return Arrays.copyOfRange(view.bits, slot * WORDS, (slot + 1) * WORDS);
+    }
+
+    /**
+     * Rebuild a HyperVector from a slot
+     */
+    public HyperVector vector(int slot) {
+        return fromPacked(packed(slot));
+    }
+
+    public static HyperVector fromPacked(long[] packed) {
+        return HyperVector.fromBits(BitSet.valueOf(packed));
+    }
+
+    /** Slots in use, including tombstones */
+    public int size() {
+        return view.size;
+    }
+
+    public synchronized int liveCount() {
+        return live;
+    }
+}
@@ -0,0 +1,876 @@
+package fraymus.hyper;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * SYNAPSE GRAPH: COMPACT ADJACENCY FOR THE LOGIC CRYSTAL
+ *
+ * The object graph (LogicNode children + Wormhole lists) is how the crystal
+ * is described; this is how it is searched. Nodes get dense int ids and
+ * edges live in CSR arrays:
+ *
+ *   offsets[v] .. offsets[v+1]   →  targets[], weights[], kinds[]
+ *
+ * Edges are undirected (stored in both directions). Tree edges cost 1,
+ * wormholes cost (1 − strength), i.e. 0 for a full-strength wormhole.
+ *
+ * INCREMENTAL INSERTION:
+ *   New edges go to a per-node delta list (linked through int arrays) and
+ *   are merged into the CSR arrays once the delta grows past a fraction
+ *   of the compacted edge count. Queries see both.
+ *
+ * QUERIES:
+ *   hopPath()       bidirectional BFS, fewest hops (wormhole = 1 hop)
+ *   shortestPath()  Dijkstra on edge cost; A* with landmark (ALT) lower
+ *                   bounds on large graphs once queries outnumber edits
+ *                   (landmarks are rebuilt after LANDMARK_AFTER_QUERIES
+ *                   queries without a mutation)
+ *   neighborhood()  plain BFS out to k hops
+ *
+ * Results are cached per (mode, from, to) in an LRU that is cleared on
+ * every mutation. Searches take a read lock, so concurrent queries run in
+ * parallel on per-thread scratch arrays.
+ */
+public final class SynapseGraph {
+
+    public static final byte TREE = 0;
+    public static final byte WORMHOLE = 1;
+
+    private static final int MIN_COMPACT_DELTA = 256;
+    private static final int LANDMARKS = 4;
+    private static final int LANDMARK_MIN_NODES = 512;
+    private static final int LANDMARK_AFTER_QUERIES = 8;
+    private static final int PATH_CACHE_SIZE = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Node ids
+    private final Map<String, Integer> index = new HashMap<>();
+    private final ArrayList<String> names = new ArrayList<>();
+
+    // Compacted adjacency (covers nodes [0, csrNodes))
+    private int csrNodes = 0;
+    private int[] offsets = {0};
+    private int[] targets = new int[0];
+    private float[] weights = new float[0];
+    private byte[] kinds = new byte[0];
+
+    // Delta adjacency: deltaHead[v] → first delta edge, chained by deltaNext
+    private int[] deltaHead = new int[16];
+    private int[] deltaNext = new int[64];
+    private int[] deltaTo = new int[64];
+    private float[] deltaWeight = new float[64];
+    private byte[] deltaKind = new byte[64];
+    private int deltaCount = 0;
+
+    // ALT landmarks: landmarkDist[l][v], valid while landmarksFresh
+    private float[][] landmarkDist;
+    private boolean landmarksFresh = false;
+    private final AtomicInteger queriesSinceMutation = new AtomicInteger();
+
+    // Bumped on every mutation; a search only caches its result if unchanged
+    private long version = 0;
+
+    // Path cache
+    private final Map<Long, Path> hopCache = lruCache();
+    private final Map<Long, Path> costCache = lruCache();
+    private long cacheHits = 0;
+    private long cacheMisses = 0;
+    private long compactions = 0;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    public SynapseGraph() {
+        Arrays.fill(deltaHead, -1);
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // MUTATION
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Register a node (idempotent) and return its dense id
+     */
+    public int addNode(String id) {
+        lock.writeLock().lock();
+        try {
+            return nodeId(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add an undirected edge; unknown endpoints are registered
+     */
+    public void addEdge(String a, String b, float weight, byte kind) {
+        if (weight < 0 || Float.isNaN(weight)) {
+            throw new IllegalArgumentException("Edge weight must be >= 0: " + weight);
+        }
+        lock.writeLock().lock();
+        try {
+            int u = nodeId(a);
+            int v = nodeId(b);
+            appendDelta(u, v, weight, kind);
+            appendDelta(v, u, weight, kind);
+            mutated();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int nodeId(String id) {
+        Integer existing = index.get(id);
+        if (existing != null) {
+            return existing;
+        }
+        int v = names.size();
+        names.add(id);
+        index.put(id, v);
+        if (v >= deltaHead.length) {
+            int old = deltaHead.length;
+            deltaHead = Arrays.copyOf(deltaHead, old * 2);
+            Arrays.fill(deltaHead, old, deltaHead.length, -1);
+        }
+        mutated();
+        return v;
+    }
+
+    private void mutated() {
+        version++;
+        landmarksFresh = false;
+        queriesSinceMutation.set(0);
+        invalidateCaches();
+    }
+
+    private void appendDelta(int from, int to, float weight, byte kind) {
+        if (deltaCount == deltaTo.length) {
+            int cap = deltaCount * 2;
+            deltaNext = Arrays.copyOf(deltaNext, cap);
+            deltaTo = Arrays.copyOf(deltaTo, cap);
+            deltaWeight = Arrays.copyOf(deltaWeight, cap);
+            deltaKind = Arrays.copyOf(deltaKind, cap);
+        }
+        int d = deltaCount++;
+        deltaTo[d] = to;
+        deltaWeight[d] = weight;
+        deltaKind[d] = kind;
+        deltaNext[d] = deltaHead[from];
+        deltaHead[from] = d;
+    }
+
+    /**
+     * Merge delta edges into the CSR arrays (counting sort by source)
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            compactLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void compactLocked() {
+        int n = names.size();
+        if (deltaCount == 0 && csrNodes == n) {
+            return;
+        }
+        int[] newOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int degree = v < csrNodes ? offsets[v + 1] - offsets[v] : 0;
+            for (int d = deltaHead[v]; d >= 0; d = deltaNext[d]) {
+                degree++;
+            }
+            newOffsets[v + 1] = newOffsets[v] + degree;
+        }
+        int m = newOffsets[n];
+        int[] newTargets = new int[m];
+        float[] newWeights = new float[m];
+        byte[] newKinds = new byte[m];
+        for (int v = 0; v < n; v++) {
+            int p = newOffsets[v];
+            if (v < csrNodes) {
+                int len = offsets[v + 1] - offsets[v];
+                System.arraycopy(targets, offsets[v], newTargets, p, len);
+                System.arraycopy(weights, offsets[v], newWeights, p, len);
+                System.arraycopy(kinds, offsets[v], newKinds, p, len);
+                p += len;
+            }
+            for (int d = deltaHead[v]; d >= 0; d = deltaNext[d]) {
+                newTargets[p] = deltaTo[d];
+                newWeights[p] = deltaWeight[d];
+                newKinds[p] = deltaKind[d];
+                p++;
+            }
+            deltaHead[v] = -1;
+        }
+        offsets = newOffsets;
+        targets = newTargets;
+        weights = newWeights;
+        kinds = newKinds;
+        csrNodes = n;
+        deltaCount = 0;
+        compactions++;
+    }
+
+    private boolean needsCompaction() {
+        return deltaCount > Math.max(MIN_COMPACT_DELTA, targets.length / 4);
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // QUERIES
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Fewest-hop path (bidirectional BFS). Wormhole hops are skipped when
+     * includeWormholes is false, giving the pure tree distance.
+     *
+     * @return the path, or null if unreachable or an endpoint is unknown
+     */
+    public Path hopPath(String from, String to, boolean includeWormholes) {
+        long key = -1;
+        if (includeWormholes) {
+            key = cacheKey(from, to);
+            Path cached = cached(hopCache, key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        prepare(false);
+        Path path;
+        long seen;
+        lock.readLock().lock();
+        try {
+            Integer s = index.get(from);
+            Integer t = index.get(to);
+            if (s == null || t == null) {
+                return null;
+            }
+            seen = version;
+            path = bidirectionalBfs(s, t, includeWormholes);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (includeWormholes && path != null) {
+            store(hopCache, key, path, seen);
+        }
+        return path;
+    }
+
+    /**
+     * Least-cost path over tree edges and wormholes (Dijkstra / A*)
+     *
+     * @return the path, or null if unreachable or an endpoint is unknown
+     */
+    public Path shortestPath(String from, String to) {
+        long key = cacheKey(from, to);
+        Path cached = cached(costCache, key);
+        if (cached != null) {
+            return cached;
+        }
+        prepare(true);
+        Path path;
+        long seen;
+        lock.readLock().lock();
+        try {
+            Integer s = index.get(from);
+            Integer t = index.get(to);
+            if (s == null || t == null) {
+                return null;
+            }
+            seen = version;
+            path = dijkstra(s, t, landmarksFresh ? landmarkDist : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (path != null) {
+            store(costCache, key, path, seen);
+        }
+        return path;
+    }
+
+    /**
+     * All nodes within maxHops of id (including id), in BFS order
+     */
+    public List<String> neighborhood(String id, int maxHops) {
+        prepare(false);
+        lock.readLock().lock();
+        try {
+            Integer s = index.get(id);
+            if (s == null) {
+                return Collections.emptyList();
+            }
+            Scratch sc = scratch.get().begin(names.size());
+            int[] queue = sc.queueA;
+            int head = 0, tail = 0;
+            queue[tail++] = s;
+            sc.markA(s, 0, -1, TREE);
+            List<String> out = new ArrayList<>();
+            while (head < tail) {
+                int u = queue[head++];
+                out.add(names.get(u));
+                int depth = sc.depthA[u];
+                if (depth == maxHops) continue;
+                if (u < csrNodes) {
+                    for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                        int w = targets[e];
+                        if (!sc.seenA(w)) {
+                            sc.markA(w, depth + 1, u, kinds[e]);
+                            queue[tail++] = w;
+                        }
+                    }
+                }
+                for (int d = deltaHead[u]; d >= 0; d = deltaNext[d]) {
+                    int w = deltaTo[d];
+                    if (!sc.seenA(w)) {
+                        sc.markA(w, depth + 1, u, deltaKind[d]);
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compact if the delta is large; for weighted queries on a big graph
+     * that has been read-only for a while, also rebuild the landmarks.
+     * Runs before each search, outside the read lock.
+     */
+    private void prepare(boolean weighted) {
+        boolean wantLandmarks = weighted
+                && queriesSinceMutation.incrementAndGet() >= LANDMARK_AFTER_QUERIES;
+        lock.readLock().lock();
+        try {
+            wantLandmarks &= !landmarksFresh && names.size() >= LANDMARK_MIN_NODES;
+            if (!wantLandmarks && !needsCompaction()) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (wantLandmarks && !landmarksFresh) {
+                compactLocked();
+                buildLandmarks();
+            } else if (needsCompaction()) {
+                compactLocked();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // BIDIRECTIONAL BFS
+    // ═══════════════════════════════════════════════════════════════════
+
+    private Path bidirectionalBfs(int s, int t, boolean includeWormholes) {
+        if (s == t) {
+            return buildPath(new int[]{s}, new byte[0], 0);
+        }
+        Scratch sc = scratch.get().begin(names.size());
+        int[] qa = sc.queueA, qb = sc.queueB;
+        int aHead = 0, aTail = 0, bHead = 0, bTail = 0;
+        qa[aTail++] = s;
+        qb[bTail++] = t;
+        sc.markA(s, 0, -1, TREE);
+        sc.markB(t, 0, -1, TREE);
+
+        int best = Integer.MAX_VALUE;
+        int meetU = -1, meetW = -1;
+        byte meetKind = TREE;
+
+        while (aHead < aTail && bHead < bTail) {
+            // Expand the smaller frontier by one full level
+            boolean forward = (aTail - aHead) <= (bTail - bHead);
+            int[] q = forward ? qa : qb;
+            int head = forward ? aHead : bHead;
+            int tail = forward ? aTail : bTail;
+            int levelEnd = tail;
+            while (head < levelEnd) {
+                int u = q[head++];
+                int du = forward ? sc.depthA[u] : sc.depthB[u];
+                int deg = u < csrNodes ? offsets[u + 1] - offsets[u] : 0;
+                int e = u < csrNodes ? offsets[u] : 0;
+                int d = deltaHead[u];
+                for (int i = 0; i < deg || d >= 0; i++) {
+                    int w;
+                    byte kind;
+                    if (i < deg) {
+                        w = targets[e + i];
+                        kind = kinds[e + i];
+                    } else {
+                        w = deltaTo[d];
+                        kind = deltaKind[d];
+                        d = deltaNext[d];
+                    }
+                    if (!includeWormholes && kind == WORMHOLE) continue;
+                    if (forward ? sc.seenA(w) : sc.seenB(w)) continue;
+                    if (forward) {
+                        sc.markA(w, du + 1, u, kind);
+                    } else {
+                        sc.markB(w, du + 1, u, kind);
+                    }
+                    q[tail++] = w;
+                    if (forward ? sc.seenB(w) : sc.seenA(w)) {
+                        int len = du + 1 + (forward ? sc.depthB[w] : sc.depthA[w]);
+                        if (len < best) {
+                            best = len;
+                            meetW = w;
+                        }
+                    }
+                }
+            }
+            if (forward) {
+                aHead = head;
+                aTail = tail;
+            } else {
+                bHead = head;
+                bTail = tail;
+            }
+            if (meetW >= 0) {
+                break;
+            }
+        }
+        if (meetW < 0) {
+            return null;
+        }
+
+        // Stitch: s … meetW via A parents, meetW … t via B parents
+        int[] nodes = new int[best + 1];
+        byte[] hopKinds = new byte[best];
+        int da = sc.depthA[meetW];
+        int v = meetW;
+        for (int i = da; i > 0; i--) {
+            nodes[i] = v;
+            hopKinds[i - 1] = sc.kindA[v];
+            v = sc.parentA[v];
+        }
+        nodes[0] = s;
+        v = meetW;
+        for (int i = da; i < best; i++) {
+            hopKinds[i] = sc.kindB[v];
+            v = sc.parentB[v];
+            nodes[i + 1] = v;
+        }
+        double cost = 0;
+        for (int i = 0; i < best; i++) {
+            cost += edgeWeight(nodes[i], nodes[i + 1], hopKinds[i]);
+        }
+        return buildPath(nodes, hopKinds, cost);
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // DIJKSTRA / A*
+    // ═══════════════════════════════════════════════════════════════════
+
+    private Path dijkstra(int s, int t, float[][] landmarks) {
+        Scratch sc = scratch.get().begin(names.size());
+        sc.markA(s, 0, -1, TREE);
+        sc.dist[s] = 0f;
+        sc.heapClear();
+        sc.heapPush(heuristic(landmarks, s, t), s);
+
+        while (!sc.heapEmpty()) {
+            long top = sc.heapPop();
+            int u = (int) top;
+            if (sc.settled(u)) continue;
+            sc.settle(u);
+            if (u == t) break;
+            float du = sc.dist[u];
+            int deg = u < csrNodes ? offsets[u + 1] - offsets[u] : 0;
+            int e = u < csrNodes ? offsets[u] : 0;
+            int d = deltaHead[u];
+            for (int i = 0; i < deg || d >= 0; i++) {
+                int w;
+                float wt;
+                byte kind;
+                if (i < deg) {
+                    w = targets[e + i];
+                    wt = weights[e + i];
+                    kind = kinds[e + i];
+                } else {
+                    w = deltaTo[d];
+                    wt = deltaWeight[d];
+                    kind = deltaKind[d];
+                    d = deltaNext[d];
+                }
+                float nd = du + wt;
+                if (!sc.seenA(w) || nd < sc.dist[w]) {
+                    if (sc.settled(w)) continue;
+                    sc.markA(w, sc.depthA[u] + 1, u, kind);
+                    sc.dist[w] = nd;
+                    float h = heuristic(landmarks, w, t);
+                    if (h != Float.POSITIVE_INFINITY) {
+                        sc.heapPush(nd + h, w);
+                    }
+                }
+            }
+        }
+        if (!sc.settled(t)) {
+            return null;
+        }
+        int hops = sc.depthA[t];
+        int[] nodes = new int[hops + 1];
+        byte[] hopKinds = new byte[hops];
+        int v = t;
+        for (int i = hops; i > 0; i--) {
+            nodes[i] = v;
+            hopKinds[i - 1] = sc.kindA[v];
+            v = sc.parentA[v];
+        }
+        nodes[0] = s;
+        return buildPath(nodes, hopKinds, sc.dist[t]);
+    }
+
+    /**
+     * ALT lower bound: max over landmarks of |d(L,t) − d(L,v)| (triangle
+     * inequality, undirected). +∞ means v and t are in different components.
+     */
+    private static float heuristic(float[][] landmarks, int v, int t) {
+        if (landmarks == null) {
+            return 0f;
+        }
+        float h = 0f;
+        for (float[] dl : landmarks) {
+            float a = dl[v], b = dl[t];
+            boolean ia = a == Float.POSITIVE_INFINITY, ib = b == Float.POSITIVE_INFINITY;
+            if (ia && ib) continue;
+            if (ia || ib) return Float.POSITIVE_INFINITY;
+            h = Math.max(h, Math.abs(a - b));
+        }
+        return h;
+    }
+
+    /**
+     * Farthest-point landmark selection; called under the write lock on a
+     * compacted graph
+     */
+    private void buildLandmarks() {
+        int n = names.size();
+        float[][] dist = new float[LANDMARKS][];
+        float[] minToLandmarks = new float[n];
+        Arrays.fill(minToLandmarks, Float.POSITIVE_INFINITY);
+        int next = 0;
+        for (int l = 0; l < LANDMARKS; l++) {
+            dist[l] = singleSource(next);
+            int far = next;
+            float farDist = -1f;
+            for (int v = 0; v < n; v++) {
+                float dv = dist[l][v];
+                if (dv < minToLandmarks[v]) {
+                    minToLandmarks[v] = dv;
+                }
+                float m = minToLandmarks[v];
+                if (m != Float.POSITIVE_INFINITY && m > farDist) {
+                    farDist = m;
+                    far = v;
+                }
+            }
+            next = far;
+        }
+        landmarkDist = dist;
+        landmarksFresh = true;
+    }
+
+    private float[] singleSource(int s) {
+        int n = names.size();
+        float[] dist = new float[n];
+        Arrays.fill(dist, Float.POSITIVE_INFINITY);
+        Scratch sc = scratch.get().begin(n);
+        dist[s] = 0f;
+        sc.heapClear();
+        sc.heapPush(0f, s);
+        while (!sc.heapEmpty()) {
+            int u = (int) sc.heapPop();
+            if (sc.settled(u)) continue;
+            sc.settle(u);
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int w = targets[e];
+                float nd = dist[u] + weights[e];
+                if (nd < dist[w]) {
+                    dist[w] = nd;
+                    sc.heapPush(nd, w);
+                }
+            }
+        }
+        return dist;
+    }
+
+    private float edgeWeight(int u, int w, byte kind) {
+        float best = Float.POSITIVE_INFINITY;
+        if (u < csrNodes) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                if (targets[e] == w && kinds[e] == kind) best = Math.min(best, weights[e]);
+            }
+        }
+        for (int d = deltaHead[u]; d >= 0; d = deltaNext[d]) {
+            if (deltaTo[d] == w && deltaKind[d] == kind) best = Math.min(best, deltaWeight[d]);
+        }
+        return best;
+    }
+
+    private Path buildPath(int[] nodes, byte[] hopKinds, double cost) {
+        List<String> ids = new ArrayList<>(nodes.length);
+        for (int v : nodes) {
+            ids.add(names.get(v));
+        }
+        return new Path(ids, hopKinds, cost);
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // PATH CACHE
+    // ═══════════════════════════════════════════════════════════════════
+
+    private static Map<Long, Path> lruCache() {
+        return new LinkedHashMap<Long, Path>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Path> eldest) {
+                return size() > PATH_CACHE_SIZE;
+            }
+        };
+    }
+
+    private long cacheKey(String from, String to) {
+        lock.readLock().lock();
+        try {
+            Integer s = index.get(from);
+            Integer t = index.get(to);
+            return s == null || t == null ? -1 : ((long) s << 32) | (t & 0xFFFFFFFFL);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Path cached(Map<Long, Path> cache, long key) {
+        if (key < 0) {
+            return null;
+        }
+        synchronized (cache) {
+            Path p = cache.get(key);
+            if (p != null) {
+                cacheHits++;
+            } else {
+                cacheMisses++;
+            }
+            return p;
+        }
+    }
+
+    private void store(Map<Long, Path> cache, long key, Path path, long seenVersion) {
+        if (key < 0) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            // Skip if the graph changed while we searched (cache was cleared)
+            if (version == seenVersion) {
+                synchronized (cache) {
+                    cache.put(key, path);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void invalidateCaches() {
+        synchronized (hopCache) {
+            hopCache.clear();
+        }
+        synchronized (costCache) {
+            costCache.clear();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // ACCESSORS
+    // ═══════════════════════════════════════════════════════════════════
+
+    public int getNodeCount() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Undirected edge count (each edge is stored twice)
+     */
+    public int getEdgeCount() {
+        lock.readLock().lock();
+        try {
+            return (targets.length + deltaCount) / 2;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("nodes", names.size());
+            stats.put("edges", (targets.length + deltaCount) / 2);
+            stats.put("compactedEdges", targets.length / 2);
+            stats.put("deltaEdges", deltaCount / 2);
+            stats.put("compactions", compactions);
+            stats.put("landmarks", landmarksFresh ? LANDMARKS : 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+        synchronized (costCache) {
+            stats.put("cacheHits", cacheHits);
+            stats.put("cacheMisses", cacheMisses);
+        }
+        return stats;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // INNER CLASSES
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * A resolved path: node ids plus the kind of each hop
+     */
+    public static final class Path {
+        public final List<String> nodes;
+        public final double cost;
+        private final byte[] hopKinds;
+
+        Path(List<String> nodes, byte[] hopKinds, double cost) {
+            this.nodes = Collections.unmodifiableList(nodes);
+            this.hopKinds = hopKinds;
+            this.cost = cost;
+        }
+
+        public int hops() {
+            return hopKinds.length;
+        }
+
+        public boolean isWormhole(int hop) {
+            return hopKinds[hop] == WORMHOLE;
+        }
+
+        public int wormholeHops() {
+            int n = 0;
+            for (byte k : hopKinds) {
+                if (k == WORMHOLE) n++;
+            }
+            return n;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(nodes.get(0));
+            for (int i = 0; i < hopKinds.length; i++) {
+                sb.append(hopKinds[i] == WORMHOLE ? " ⇝ " : " → ").append(nodes.get(i + 1));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Per-thread search state. Arrays are reused across queries; an epoch
+     * stamp replaces clearing them.
+     */
+    private static final class Scratch {
+        int[] stampA = new int[0], stampB = new int[0], settledStamp = new int[0];
+        int[] depthA = new int[0], depthB = new int[0];
+        int[] parentA = new int[0], parentB = new int[0];
+        byte[] kindA = new byte[0], kindB = new byte[0];
+        int[] queueA = new int[0], queueB = new int[0];
+        float[] dist = new float[0];
+        long[] heap = new long[64];
+        int heapSize;
+        int epoch;
+
+        Scratch begin(int n) {
+            if (stampA.length < n) {
+                int cap = Math.max(n, stampA.length * 2);
+                stampA = new int[cap];
+                stampB = new int[cap];
+                settledStamp = new int[cap];
+                depthA = new int[cap];
+                depthB = new int[cap];
+                parentA = new int[cap];
+                parentB = new int[cap];
+                kindA = new byte[cap];
+                kindB = new byte[cap];
+                queueA = new int[cap];
+                queueB = new int[cap];
+                dist = new float[cap];
+                epoch = 0;
+            }
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(stampA, 0);
+                Arrays.fill(stampB, 0);
+                Arrays.fill(settledStamp, 0);
+                epoch = 1;
+            }
+            return this;
+        }
+
+        boolean seenA(int v) { return stampA[v] == epoch; }
+        boolean seenB(int v) { return stampB[v] == epoch; }
+        boolean settled(int v) { return settledStamp[v] == epoch; }
+        void settle(int v) { settledStamp[v] = epoch; }
+
+        void markA(int v, int depth, int parent, byte kind) {
+            stampA[v] = epoch;
+            depthA[v] = depth;
+            parentA[v] = parent;
+            kindA[v] = kind;
+        }
+
+        void markB(int v, int depth, int parent, byte kind) {
+            stampB[v] = epoch;
+            depthB[v] = depth;
+            parentB[v] = parent;
+            kindB[v] = kind;
+        }
+
+        // Binary min-heap of (priority bits << 32 | node); priorities are
+        // non-negative floats, whose bit patterns sort like the values
+        void heapClear() { heapSize = 0; }
+        boolean heapEmpty() { return heapSize == 0; }
+
+        void heapPush(float priority, int node) {
+            if (heapSize == heap.length) heap = Arrays.copyOf(heap, heapSize * 2);
+            long item = ((long) Float.floatToIntBits(priority) << 32) | (node & 0xFFFFFFFFL);
+            int i = heapSize++;
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (heap[p] <= item) break;
+                heap[i] = heap[p];
+                i = p;
+            }
+            heap[i] = item;
+        }
+
+        long heapPop() {
+            long top = heap[0];
+            long last = heap[--heapSize];
+            int i = 0;
+            int half = heapSize >>> 1;
+            while (i < half) {
+                int c = 2 * i + 1;
+                if (c + 1 < heapSize && heap[c + 1] < heap[c]) c++;
+                if (last <= heap[c]) break;
+                heap[i] = heap[c];
+                i = c;
+            }
+            if (heapSize > 0) heap[i] = last;
+            return top;
+        }
+    }
+}
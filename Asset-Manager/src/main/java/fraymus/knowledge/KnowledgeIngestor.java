@@ -1,18 +1,22 @@
 package fraymus.knowledge;
 
+import fraymus.absorption.IngestPipeline;
 import fraymus.chaos.EvolutionaryChaos;
 import fraymus.hyper.HyperVector;
 import fraymus.hyper.HyperMemory;
+import fraymus.hyper.PackedHyperIndex;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.*;
+import java.util.zip.CRC32C;
 
 /**
  * THE KNOWLEDGE GUT: DIGESTING PDFs INTO HOLOGRAPHIC MEMORY
@@ -31,6 +35,18 @@ import java.util.concurrent.ConcurrentHashMap;
  * - We don't fine-tune (which ruins the model)
  * - We store in holographic memory (interference patterns)
  * - Retrieval uses similarity in hyperspace
+ *
+ * Folder ingestion is a pipeline:
+ *   IngestPipeline workers EXTRACT + CHUNK one PDF each (PDDocument is not
+ *   thread-safe, so parallelism is across documents) → an encoder pool
+ *   VECTORIZES chunks in batches → one synchronized COMMIT per document.
+ *
+ * Every chunk vector also lands in a PackedHyperIndex, so retrieval is a
+ * flat XOR/popcount scan with a bounded top-k heap instead of a full sort.
+ * Per folder, the chunks and a manifest (size, mtime, CRC32C per PDF) are
+ * persisted under .akashic/knowledge/; re-digesting the folder only
+ * extracts PDFs that are new or changed, and drops chunks of PDFs that
+ * were deleted.
  */
 public class KnowledgeIngestor {
 
@@ -42,6 +58,15 @@ public class KnowledgeIngestor {
     
     // Chunk index (concept -> vector mapping)
     private Map<String, String> chunkIndex = new ConcurrentHashMap<>();
+
+    // Packed vectors for retrieval (slot -> chunkId)
+    private final PackedHyperIndex vectorIndex = new PackedHyperIndex();
+
+    // Per-document chunk slots, keyed by "<folder id>:<relative path>"
+    private final Map<String, int[]> documentSlots = new HashMap<>();
+
+    // Folders whose persisted chunks are already in memory
+    private final Set<String> loadedFolders = new HashSet<>();
     
     // Statistics
     private int documentsProcessed = 0;
@@ -52,6 +77,10 @@ public class KnowledgeIngestor {
     private static final int CHUNK_SIZE = 500;       // Characters per chunk
     private static final int CHUNK_OVERLAP = 100;    // Overlap between chunks
     private static final int MIN_CHUNK_LENGTH = 50;  // Minimum viable chunk
+    private static final int ENCODE_BATCH = 64;      // Chunks per encoder task
+
+    private static final String STORE_DIR = ".akashic/knowledge";
+    private static final int STORE_MAGIC = 0x464B4231;   // "FKB1"
 
     public KnowledgeIngestor() {
         System.out.println("═══════════════════════════════════════════════════════");
@@ -73,7 +102,8 @@ public class KnowledgeIngestor {
     // ═══════════════════════════════════════════════════════════════════
     
     /**
-     * Digest an entire folder of PDFs
+     * Digest an entire folder of PDFs (recursively). PDFs unchanged since
+     * the last digest of this folder are not re-extracted.
      */
     public void digestFolder(String folderPath) {
         System.out.println("📚 OPENING KNOWLEDGE FOLDER: " + folderPath);
@@ -85,21 +115,98 @@ public class KnowledgeIngestor {
             System.out.println("   !! Folder not found: " + folderPath);
             return;
         }
-        
-        File[] files = folder.listFiles();
-        if (files == null) {
-            System.out.println("   !! Cannot read folder contents");
-            return;
+
+        Path root = folder.toPath().toAbsolutePath().normalize();
+        CRC32C id = new CRC32C();
+        id.update(root.toString().getBytes(StandardCharsets.UTF_8));
+        String folderId = Long.toHexString(id.getValue());
+        Path storeDir = Paths.get(STORE_DIR, folderId);
+        Path manifestFile = storeDir.resolve("manifest.tsv");
+        Path chunkFile = storeDir.resolve("chunks.bin");
+
+        IngestPipeline.Manifest manifest = IngestPipeline.Manifest.load(manifestFile);
+        if (!loadedFolders.contains(folderId) && manifest.size() > 0) {
+            if (!loadChunks(folderId, chunkFile)) {
+                manifest.clear();   // no vectors to go with it: start over
+            }
         }
-        
-        for (File file : files) {
-            if (file.getName().toLowerCase().endsWith(".pdf")) {
-                digestPDF(file);
+        loadedFolders.add(folderId);
+
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors());
+        ExecutorService encoders = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "knowledge-encoder");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            IngestPipeline.Stats stats = IngestPipeline.builder()
+                .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".pdf"))
+                .workers(Math.max(1, workers / 2))
+                .manifest(manifest)
+                .build()
+                .run(root, file -> digestIngested(folderId, file, encoders));
+
+            // Documents that vanished (or failed this time) lose their chunks
+            Set<String> tracked = manifest.keys(root);
+            int dropped = 0;
+            synchronized (this) {
+                String prefix = folderId + ":";
+                for (String doc : new ArrayList<>(documentSlots.keySet())) {
+                    if (doc.startsWith(prefix) && !tracked.contains(doc.substring(prefix.length()))) {
+                        dropDocument(doc);
+                        dropped++;
+                    }
+                }
+                compactIndex();
             }
+
+            // Chunks first: a manifest must never claim PDFs the store lacks
+            saveChunks(folderId, chunkFile);
+            manifest.save(manifestFile);
+
+            System.out.println("   ✓ FOLDER DIGESTED: " + stats
+                + (dropped > 0 ? " (" + dropped + " documents dropped)" : ""));
+        } catch (IOException e) {
+            System.out.println("   !! FOLDER DIGEST FAILED: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("   !! FOLDER DIGEST INTERRUPTED");
+        } finally {
+            encoders.shutdownNow();
         }
         
         printStats();
     }
+
+    /**
+     * Pipeline worker: extract and chunk one PDF, fan encoding out, commit
+     */
+    private void digestIngested(String folderId, IngestPipeline.IngestFile file,
+                                ExecutorService encoders) throws IOException {
+        System.out.println("   >> INGESTING: " + file.key);
+
+        ByteBuffer content = file.content();
+        byte[] bytes = new byte[content.remaining()];
+        content.get(bytes);
+
+        String rawText;
+        try (PDDocument document = org.apache.pdfbox.Loader.loadPDF(bytes)) {
+            rawText = extractText(document);
+        }
+        if (rawText == null || rawText.trim().isEmpty()) {
+            System.out.println("      !! No text extracted from " + file.key);
+            commit(folderId + ":" + file.key, Collections.emptyList(), new long[0][], true);
+            return;
+        }
+
+        List<String> chunks = chunkText(rawText, file.key);
+        long[][] vectors = encodeAll(chunks, encoders);
+        commit(folderId + ":" + file.key, chunks, vectors, true);
+
+        System.out.println("      ✓ " + file.key + ": " + rawText.length() + " characters, "
+            + chunks.size() + " chunks");
+    }
     
     /**
      * Digest a single PDF file
@@ -123,24 +230,7 @@ public class KnowledgeIngestor {
             System.out.println("      Created " + chunks.size() + " chunks");
             
             // 3. VECTORIZE AND STORE
-            for (int i = 0; i < chunks.size(); i++) {
-                String chunk = chunks.get(i);
-                String chunkId = pdfFile.getName() + "_chunk_" + i;
-                
-                // Generate HyperVector from text
-                HyperVector vector = textToHyperVector(chunk);
-                
-                // Store in holographic memory
-                holographicMemory.learn(chunkId, vector);
-                
-                // Keep text index for retrieval
-                chunkIndex.put(chunkId, chunk);
-                
-                conceptsLearned++;
-            }
-            
-            chunksCreated += chunks.size();
-            documentsProcessed++;
+            commit(pdfFile.getAbsolutePath(), chunks, encodeAll(chunks, null), true);
             
             System.out.println("      ✓ Integrated into holographic memory");
             
@@ -148,17 +238,78 @@ public class KnowledgeIngestor {
             System.out.println("      !! Error processing PDF: " + e.getMessage());
         }
     }
+
+    /**
+     * Store one document's chunks, replacing whatever it had before.
+     * Chunk ids derive from docKey ("<folder id>:<relative path>" or an
+     * absolute path), so same-named PDFs in different folders never share
+     * ids. Restored (not fresh) chunks don't count toward the digest stats.
+     */
+    private synchronized void commit(String docKey, List<String> chunks, long[][] vectors, boolean fresh) {
+        dropDocument(docKey);
+
+        int[] slots = new int[chunks.size()];
+        for (int i = 0; i < chunks.size(); i++) {
+            String chunkId = docKey + "_chunk_" + i;
+            slots[i] = vectorIndex.add(chunkId, vectors[i]);
+            holographicMemory.restore(chunkId, PackedHyperIndex.fromPacked(vectors[i]));
+            chunkIndex.put(chunkId, chunks.get(i));
+        }
+        documentSlots.put(docKey, slots);
+
+        if (fresh && !chunks.isEmpty()) {
+            chunksCreated += chunks.size();
+            conceptsLearned += chunks.size();
+            documentsProcessed++;
+        }
+    }
+
+    /**
+     * Rewrite the index without tombstones once they are the majority
+     * (caller holds the lock)
+     */
+    private void compactIndex() {
+        if (vectorIndex.size() < 2 * vectorIndex.liveCount() + 1024) {
+            return;
+        }
+        int[] remap = vectorIndex.compact();
+        for (int[] slots : documentSlots.values()) {
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = remap[slots[i]];
+            }
+        }
+    }
+
+    /**
+     * Forget a document's chunks (caller holds the lock)
+     */
+    private void dropDocument(String docKey) {
+        int[] old = documentSlots.remove(docKey);
+        if (old == null) {
+            return;
+        }
+        for (int slot : old) {
+            String chunkId = vectorIndex.id(slot);
+            vectorIndex.remove(slot);
+            chunkIndex.remove(chunkId);
+            holographicMemory.forget(chunkId);
+        }
+    }
     
     /**
      * Extract text from PDF using PDFBox
      */
     private String extractText(File pdfFile) throws IOException {
         try (PDDocument document = org.apache.pdfbox.Loader.loadPDF(pdfFile)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            stripper.setSortByPosition(true);
-            return stripper.getText(document);
+            return extractText(document);
         }
     }
+
+    private String extractText(PDDocument document) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setSortByPosition(true);
+        return stripper.getText(document);
+    }
     
     /**
      * Break text into overlapping chunks
@@ -166,16 +317,14 @@ public class KnowledgeIngestor {
     private List<String> chunkText(String text, String source) {
         List<String> chunks = new ArrayList<>();
         
-        // Clean the text
-        text = text.replaceAll("\\s+", " ").trim();
-        
-        // Try to split on natural boundaries first (paragraphs, sections)
-        String[] paragraphs = text.split("\n\n+");
+        // Split on natural boundaries first (paragraphs, sections), then
+        // clean each one; collapsing whitespace first would erase the breaks
+        String[] paragraphs = text.split("\\n\\s*\\n");
         
         StringBuilder currentChunk = new StringBuilder();
         
         for (String para : paragraphs) {
-            para = para.trim();
+            para = para.replaceAll("\\s+", " ").trim();
             if (para.isEmpty()) continue;
             
             // If adding this paragraph would exceed chunk size
@@ -193,6 +342,22 @@ public class KnowledgeIngestor {
                 }
                 currentChunk = new StringBuilder(overlap);
             }
+
+            // A paragraph that alone overflows a chunk gets a sliding window
+            if (currentChunk.length() + para.length() > CHUNK_SIZE) {
+                String window = currentChunk + para;
+                int start = 0;
+                while (window.length() - start > CHUNK_SIZE) {
+                    String chunk = window.substring(start, start + CHUNK_SIZE).trim();
+                    if (chunk.length() >= MIN_CHUNK_LENGTH) {
+                        chunks.add(chunk);
+                    }
+                    start += CHUNK_SIZE - CHUNK_OVERLAP;
+                }
+                currentChunk = new StringBuilder(window.substring(start));
+                currentChunk.append(" ");
+                continue;
+            }
             
             currentChunk.append(para).append(" ");
         }
@@ -202,17 +367,6 @@ public class KnowledgeIngestor {
             chunks.add(currentChunk.toString().trim());
         }
         
-        // If no chunks were created (e.g., no paragraph breaks), use sliding window
-        if (chunks.isEmpty() && text.length() >= MIN_CHUNK_LENGTH) {
-            for (int i = 0; i < text.length(); i += (CHUNK_SIZE - CHUNK_OVERLAP)) {
-                int end = Math.min(i + CHUNK_SIZE, text.length());
-                String chunk = text.substring(i, end).trim();
-                if (chunk.length() >= MIN_CHUNK_LENGTH) {
-                    chunks.add(chunk);
-                }
-            }
-        }
-        
         return chunks;
     }
 
@@ -229,13 +383,42 @@ public class KnowledgeIngestor {
         BigInteger textHash = new BigInteger(1, 
             text.getBytes()).multiply(BigInteger.valueOf(31));
         
-        // Add chaos perturbation for uniqueness
-        BigInteger chaosFactor = chaos.nextFractal();
+        // Add chaos perturbation for uniqueness (encoders share one engine)
+        BigInteger chaosFactor;
+        synchronized (chaos) {
+            chaosFactor = chaos.nextFractal();
+        }
         BigInteger combined = textHash.xor(chaosFactor);
         
         return new HyperVector(combined);
     }
 
+    /**
+     * Vectorize chunks into packed bits, ENCODE_BATCH chunks per task on
+     * the encoder pool (inline when there is none)
+     */
+    private long[][] encodeAll(List<String> chunks, ExecutorService encoders) {
+        long[][] packed = new long[chunks.size()][];
+        if (encoders == null || chunks.size() <= ENCODE_BATCH) {
+            for (int i = 0; i < chunks.size(); i++) {
+                packed[i] = textToHyperVector(chunks.get(i)).rawBits().toLongArray();
+            }
+            return packed;
+        }
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int from = 0; from < chunks.size(); from += ENCODE_BATCH) {
+            int lo = from;
+            int hi = Math.min(chunks.size(), from + ENCODE_BATCH);
+            batches.add(CompletableFuture.runAsync(() -> {
+                for (int i = lo; i < hi; i++) {
+                    packed[i] = textToHyperVector(chunks.get(i)).rawBits().toLongArray();
+                }
+            }, encoders));
+        }
+        CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0])).join();
+        return packed;
+    }
+
     // ═══════════════════════════════════════════════════════════════════
     // RETRIEVAL (RAG)
     // ═══════════════════════════════════════════════════════════════════
@@ -252,29 +435,21 @@ public class KnowledgeIngestor {
         HyperVector queryVector = textToHyperVector(queryText);
         
         // Find similar chunks
-        List<Map.Entry<String, Double>> similarities = new ArrayList<>();
-        
-        for (String chunkId : chunkIndex.keySet()) {
-            if (holographicMemory.knows(chunkId)) {
-                HyperVector chunkVector = holographicMemory.get(chunkId);
-                double similarity = queryVector.similarity(chunkVector);
-                similarities.add(new AbstractMap.SimpleEntry<>(chunkId, similarity));
-            }
-        }
-        
-        // Sort by similarity (descending)
-        similarities.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+        long start = System.nanoTime();
+        List<PackedHyperIndex.Hit> hits = vectorIndex.topK(queryVector, topK);
+        double millis = (System.nanoTime() - start) / 1e6;
         
         // Return top K chunks
         List<String> results = new ArrayList<>();
-        for (int i = 0; i < Math.min(topK, similarities.size()); i++) {
-            String chunkId = similarities.get(i).getKey();
-            double score = similarities.get(i).getValue();
-            String text = chunkIndex.get(chunkId);
+        for (PackedHyperIndex.Hit hit : hits) {
+            String text = chunkIndex.get(hit.id);
+            if (text == null) continue;   // replaced while we scanned
             
-            System.out.println("      [" + String.format("%.2f", score * 100) + "%] " + chunkId);
+            System.out.println("      [" + String.format("%.2f", hit.similarity * 100) + "%] " + hit.id);
             results.add(text);
         }
+        System.out.println("      (" + vectorIndex.liveCount() + " chunks scanned in "
+            + String.format("%.2f", millis) + " ms)");
         
         return results;
     }
@@ -301,6 +476,95 @@ public class KnowledgeIngestor {
         return context.toString();
     }
 
+    // ═══════════════════════════════════════════════════════════════════
+    // PERSISTENCE
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Write a folder's chunks: per document its key and chunk count, then
+     * per chunk its UTF-8 text and packed vector. Temp file, then move.
+     */
+    private void saveChunks(String folderId, Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        String prefix = folderId + ":";
+
+        synchronized (this) {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                List<String> docs = new ArrayList<>();
+                for (String doc : documentSlots.keySet()) {
+                    if (doc.startsWith(prefix)) docs.add(doc);
+                }
+                out.writeInt(STORE_MAGIC);
+                out.writeInt(docs.size());
+                for (String doc : docs) {
+                    int[] slots = documentSlots.get(doc);
+                    out.writeUTF(doc.substring(prefix.length()));
+                    out.writeInt(slots.length);
+                    for (int slot : slots) {
+                        byte[] text = chunkIndex.get(vectorIndex.id(slot)).getBytes(StandardCharsets.UTF_8);
+                        out.writeInt(text.length);
+                        out.write(text);
+                        for (long word : vectorIndex.packed(slot)) {
+                            out.writeLong(word);
+                        }
+                    }
+                }
+            }
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Bring a folder's persisted chunks back into memory; false if the
+     * store is missing or unreadable
+     */
+    private boolean loadChunks(String folderId, Path file) {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != STORE_MAGIC) {
+                throw new IOException("bad magic");
+            }
+            int docs = in.readInt();
+            int total = 0;
+            for (int d = 0; d < docs; d++) {
+                String key = in.readUTF();
+                int n = in.readInt();
+                List<String> chunks = new ArrayList<>(n);
+                long[][] vectors = new long[n][PackedHyperIndex.WORDS];
+                for (int i = 0; i < n; i++) {
+                    byte[] text = new byte[in.readInt()];
+                    in.readFully(text);
+                    chunks.add(new String(text, StandardCharsets.UTF_8));
+                    for (int w = 0; w < PackedHyperIndex.WORDS; w++) {
+                        vectors[i][w] = in.readLong();
+                    }
+                }
+                commit(folderId + ":" + key, chunks, vectors, false);
+                total += n;
+            }
+            System.out.println("   ✓ Restored " + total + " chunks from " + docs + " documents");
+            return true;
+        } catch (IOException e) {
+            System.out.println("   !! KNOWLEDGE STORE UNREADABLE, FULL RE-DIGEST: " + e.getMessage());
+            synchronized (this) {
+                String prefix = folderId + ":";
+                for (String doc : new ArrayList<>(documentSlots.keySet())) {
+                    if (doc.startsWith(prefix)) dropDocument(doc);
+                }
+            }
+            return false;
+        }
+    }
+
     // ═══════════════════════════════════════════════════════════════════
     // STATISTICS
     // ═══════════════════════════════════════════════════════════════════
@@ -321,6 +585,7 @@ public class KnowledgeIngestor {
     public int getChunksCreated() { return chunksCreated; }
     public int getConceptsLearned() { return conceptsLearned; }
     public HyperMemory getMemory() { return holographicMemory; }
+    public PackedHyperIndex getIndex() { return vectorIndex; }
 
     // ═══════════════════════════════════════════════════════════════════
     // MAIN DEMO
@@ -1,8 +1,10 @@
 package fraymus.llm.api;
 
-import java.io.*;
-import java.net.*;
-import java.nio.charset.StandardCharsets;
+import fraymus.core.FraymusHTTP;
+import fraymus.core.FraymusHTTPClient;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 
 /**
@@ -11,6 +13,7 @@ import java.util.function.Consumer;
  * 
  * Pure Java HTTP client for Ollama API.
  * Replaces OllamaBridge with native absorbed implementation.
+ * Requests go through the shared pooled FraymusHTTPClient.
  * 
  * "The bridge is absorbed. We speak directly."
  */
@@ -32,16 +35,7 @@ public class OllamaClient {
     }
     
     private void checkConnection() {
-        try {
-            HttpURLConnection conn = (HttpURLConnection) URI.create(baseUrl + "/api/tags").toURL().openConnection();
-            conn.setConnectTimeout(5000);
-            conn.setReadTimeout(5000);
-            conn.setRequestMethod("GET");
-            connected = conn.getResponseCode() == 200;
-            conn.disconnect();
-        } catch (Exception e) {
-            connected = false;
-        }
+        connected = FraymusHTTP.requestWithStatus("GET", baseUrl + "/api/tags", null, 5000).status == 200;
     }
     
     public boolean isConnected() { return connected; }
@@ -117,57 +111,17 @@ public class OllamaClient {
     // ═══════════════════════════════════════════════════════════════════════
     
     private String post(String endpoint, String json) {
-        try {
-            HttpURLConnection conn = (HttpURLConnection) URI.create(baseUrl + endpoint).toURL().openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setConnectTimeout(timeoutMs);
-            conn.setReadTimeout(timeoutMs);
-            conn.setDoOutput(true);
-            
-            try (OutputStream os = conn.getOutputStream()) {
-                os.write(json.getBytes(StandardCharsets.UTF_8));
-            }
-            
-            StringBuilder response = new StringBuilder();
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    response.append(line);
-                }
-            }
-            
-            return response.toString();
-        } catch (Exception e) {
-            return "{\"error\":\"" + e.getMessage() + "\"}";
-        }
+        return FraymusHTTP.post(baseUrl + endpoint, json, timeoutMs);
     }
     
     private void postStream(String endpoint, String json, Consumer<String> onLine) {
         try {
-            HttpURLConnection conn = (HttpURLConnection) URI.create(baseUrl + endpoint).toURL().openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setConnectTimeout(timeoutMs);
-            conn.setReadTimeout(timeoutMs);
-            conn.setDoOutput(true);
-            
-            try (OutputStream os = conn.getOutputStream()) {
-                os.write(json.getBytes(StandardCharsets.UTF_8));
-            }
-            
-            try (BufferedReader br = new BufferedReader(
-                    new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    if (!line.isEmpty()) {
-                        onLine.accept(line);
-                    }
-                }
-            }
-        } catch (Exception e) {
-            onLine.accept("{\"error\":\"" + e.getMessage() + "\",\"done\":true}");
+            FraymusHTTPClient.shared()
+                    .streamLines(baseUrl + endpoint, json, Duration.ofMillis(timeoutMs), onLine)
+                    .join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            onLine.accept("{\"error\":\"" + cause.getMessage() + "\",\"done\":true}");
         }
     }
     
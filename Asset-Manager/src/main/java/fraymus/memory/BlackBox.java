@@ -2,6 +2,7 @@ package fraymus.memory;
 
 import fraymus.limbs.ClawConnector;
 import fraymus.core.AuditLog;
+import fraymus.ollama.EmbeddingService;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
@@ -13,20 +14,45 @@ import java.util.*;
  * success, and failure Fraynix has ever had.
  * 
  * Enables continuous learning across reboots.
+ *
+ * Vectors are unit-length float[]; recall packs them row-major per
+ * embedding space so the search is one dot-product sweep over a float[]
+ * (cosine = dot for unit vectors). Embeddings come from an optional
+ * EmbeddingService (cached + batched Ollama); without one, or when it
+ * fails, a deterministic pseudo-embedding stands in.
+ *
+ * Each memory records its space ("pseudo" or the model name). Vectors
+ * from different spaces are never compared, even when their dimensions
+ * match; recall embeds the query once per space it can reach.
  */
 public class BlackBox {
 
     private final ClawConnector claw;
     private final AuditLog auditLog;
     private final File memoryFile;
+    private final EmbeddingService embedder;
     private final List<Memory> longTermStorage = new ArrayList<>();
+
+    // Packed unit vectors, one block per embedding space (pseudo and
+    // model embeddings can coexist in one file)
+    private final Map<String, VectorBlock> blocks = new HashMap<>();
+    private boolean embedderWarned = false;
     
     private static final int EMBEDDING_DIM = 384; // Standard embedding size
+    private static final String PSEUDO = "pseudo";
 
     public BlackBox(AuditLog auditLog) {
+        this(auditLog, null);
+    }
+
+    /**
+     * @param embedder Real embeddings (e.g. OllamaSpine.embeddings(model)); null for pseudo
+     */
+    public BlackBox(AuditLog auditLog, EmbeddingService embedder) {
         this.claw = new ClawConnector();
         this.auditLog = auditLog;
         this.memoryFile = new File("Fraynix_BlackBox.jsonl");
+        this.embedder = embedder;
         loadMemories();
     }
 
@@ -38,7 +64,10 @@ public class BlackBox {
         auditLog.log("memory_encoding", context);
 
         // 1. Get Embedding (Vector) from Ollama
-        List<Double> vector = generateEmbedding(context + " " + outcome);
+        String text = context + " " + outcome;
+        float[] vector = modelEmbedding(text);
+        String space = vector != null ? embedder.getModel() : PSEUDO;
+        if (vector == null) vector = generatePseudoEmbedding(text);
 
         // 2. Create Memory Object
         Memory mem = new Memory(
@@ -46,12 +75,15 @@ public class BlackBox {
             context,
             outcome,
             success,
-            vector
+            vector,
+            space
         );
-        longTermStorage.add(mem);
+        synchronized (this) {
+            index(mem);
 
-        // 3. Persist to Disk
-        persistMemory(mem);
+            // 3. Persist to Disk
+            persistMemory(mem);
+        }
         
         System.out.println("   ✓ Memory encoded and persisted");
         auditLog.log("memory_encoded", mem);
@@ -64,19 +96,40 @@ public class BlackBox {
         System.out.println("🧠 BLACK BOX: Searching for precedents...");
         auditLog.log("memory_recall_started", currentSituation);
         
-        if (longTermStorage.isEmpty()) {
-            return "NO PRECEDENT FOUND. Exploring new territory.";
+        boolean hasModel;
+        boolean hasPseudo;
+        synchronized (this) {
+            if (longTermStorage.isEmpty()) {
+                return "NO PRECEDENT FOUND. Exploring new territory.";
+            }
+            hasModel = embedder != null && blocks.containsKey(embedder.getModel());
+            hasPseudo = blocks.containsKey(PSEUDO);
         }
         
-        List<Double> currentVector = generateEmbedding(currentSituation);
+        // Embed outside the lock so concurrent agents can share a batch.
+        // Memories from a model that is no longer configured can't be
+        // queried and are skipped.
+        float[] modelVector = hasModel ? modelEmbedding(currentSituation) : null;
+        float[] pseudoVector = hasPseudo ? generatePseudoEmbedding(currentSituation) : null;
         Memory bestMatch = null;
         double bestScore = -1.0;
 
-        for (Memory mem : longTermStorage) {
-            double similarity = cosineSimilarity(currentVector, mem.vector);
-            if (similarity > bestScore) {
-                bestScore = similarity;
-                bestMatch = mem;
+        synchronized (this) {
+            if (modelVector != null) {
+                VectorBlock block = blocks.get(embedder.getModel());
+                int best = block.best(modelVector);
+                if (best >= 0 && block.lastScore > bestScore) {
+                    bestScore = block.lastScore;
+                    bestMatch = longTermStorage.get(block.memoryIndex[best]);
+                }
+            }
+            if (pseudoVector != null) {
+                VectorBlock block = blocks.get(PSEUDO);
+                int best = block.best(pseudoVector);
+                if (best >= 0 && block.lastScore > bestScore) {
+                    bestScore = block.lastScore;
+                    bestMatch = longTermStorage.get(block.memoryIndex[best]);
+                }
             }
         }
 
@@ -97,22 +150,23 @@ public class BlackBox {
     /**
      * Get all memories
      */
-    public List<Memory> getAllMemories() {
+    public synchronized List<Memory> getAllMemories() {
         return new ArrayList<>(longTermStorage);
     }
 
     /**
      * Get memory count
      */
-    public int getMemoryCount() {
+    public synchronized int getMemoryCount() {
         return longTermStorage.size();
     }
 
     /**
      * Clear all memories (use with caution)
      */
-    public void clearMemories() {
+    public synchronized void clearMemories() {
         longTermStorage.clear();
+        blocks.clear();
         memoryFile.delete();
         auditLog.log("memory_cleared", "All memories erased");
     }
@@ -147,7 +201,7 @@ public class BlackBox {
             while ((line = br.readLine()) != null) {
                 try {
                     Memory mem = Memory.fromJson(line);
-                    longTermStorage.add(mem);
+                    index(mem);
                     count++;
                 } catch (Exception e) {
                     System.err.println("⚠️ Skipping corrupted memory: " + e.getMessage());
@@ -166,66 +220,125 @@ public class BlackBox {
     // --- EMBEDDING GENERATION ---
 
     /**
-     * Generate embedding vector for text
-     * In production, this would call Ollama embeddings API
+     * Model embedding for text via the EmbeddingService (cached, batched
+     * Ollama); null when there is no service or it fails
      */
-    private List<Double> generateEmbedding(String text) {
-        // TODO: Integrate with actual Ollama embeddings
-        // For now, use hash-based pseudo-embedding
-        return generatePseudoEmbedding(text);
+    private float[] modelEmbedding(String text) {
+        if (embedder == null) return null;
+        try {
+            return normalize(embedder.embedOne(text));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (!embedderWarned) {
+                    System.err.println("⚠️ BLACK BOX: Embeddings unavailable, using pseudo-embedding: " + e.getMessage());
+                    embedderWarned = true;
+                }
+            }
+            return null;
+        }
     }
 
     /**
      * Generate pseudo-embedding based on text hash
      * This is a fallback for when Ollama is not available
      */
-    private List<Double> generatePseudoEmbedding(String text) {
-        List<Double> vector = new ArrayList<>();
+    private float[] generatePseudoEmbedding(String text) {
+        float[] vector = new float[EMBEDDING_DIM];
         Random r = new Random(text.hashCode());
         
         for (int i = 0; i < EMBEDDING_DIM; i++) {
-            vector.add(r.nextDouble());
+            vector[i] = (float) r.nextDouble();
         }
         
-        // Normalize
+        return normalize(vector);
+    }
+
+    // --- MATH ---
+
+    /**
+     * Scale to unit length (copy); zero vectors stay zero
+     */
+    private static float[] normalize(float[] v) {
         double norm = 0.0;
-        for (double v : vector) {
-            norm += v * v;
+        for (float x : v) {
+            norm += (double) x * x;
         }
-        norm = Math.sqrt(norm);
-        
-        for (int i = 0; i < vector.size(); i++) {
-            vector.set(i, vector.get(i) / norm);
+        float[] out = new float[v.length];
+        if (norm == 0.0) {
+            return out;
         }
-        
-        return vector;
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < v.length; i++) {
+            out[i] = v[i] * inv;
+        }
+        return out;
     }
 
-    // --- MATH ---
+    /**
+     * Add a memory to storage and to the packed block for its space
+     */
+    private void index(Memory mem) {
+        int slot = longTermStorage.size();
+        longTermStorage.add(mem);
+        VectorBlock block = blocks.computeIfAbsent(mem.space, s -> new VectorBlock(mem.vector.length));
+        if (block.dim != mem.vector.length) {
+            System.err.println("⚠️ BLACK BOX: " + mem.space + " memory has dim " + mem.vector.length
+                + " (expected " + block.dim + "); not searchable");
+            return;
+        }
+        block.add(normalize(mem.vector), slot);
+    }
 
     /**
-     * Calculate cosine similarity between two vectors
+     * Row-major unit vectors of one dimension
      */
-    private double cosineSimilarity(List<Double> v1, List<Double> v2) {
-        if (v1.size() != v2.size()) {
-            throw new IllegalArgumentException("Vectors must be same size");
+    private static final class VectorBlock {
+        final int dim;
+        float[] rows = new float[0];
+        int[] memoryIndex = new int[0];
+        int count = 0;
+        double lastScore;
+
+        VectorBlock(int dim) {
+            this.dim = dim;
         }
-        
-        double dot = 0.0;
-        double normA = 0.0;
-        double normB = 0.0;
-        
-        for (int i = 0; i < v1.size(); i++) {
-            dot += v1.get(i) * v2.get(i);
-            normA += v1.get(i) * v1.get(i);
-            normB += v2.get(i) * v2.get(i);
+
+        void add(float[] unit, int memory) {
+            if (count == memoryIndex.length) {
+                int cap = Math.max(16, count * 2);
+                rows = Arrays.copyOf(rows, cap * dim);
+                memoryIndex = Arrays.copyOf(memoryIndex, cap);
+            }
+            System.arraycopy(unit, 0, rows, count * dim, dim);
+            memoryIndex[count++] = memory;
         }
-        
-        if (normA == 0.0 || normB == 0.0) {
-            return 0.0;
+
+        /**
+         * Row with the highest dot product; score left in lastScore
+         */
+        int best(float[] q) {
+            int best = -1;
+            float bestDot = Float.NEGATIVE_INFINITY;
+            float[] r = rows;
+            for (int row = 0, base = 0; row < count; row++, base += dim) {
+                float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+                int i = 0;
+                for (; i + 3 < dim; i += 4) {
+                    s0 += q[i] * r[base + i];
+                    s1 += q[i + 1] * r[base + i + 1];
+                    s2 += q[i + 2] * r[base + i + 2];
+                    s3 += q[i + 3] * r[base + i + 3];
+                }
+                for (; i < dim; i++) s0 += q[i] * r[base + i];
+                float dot = (s0 + s1) + (s2 + s3);
+                if (dot > bestDot) {
+                    bestDot = dot;
+                    best = row;
+                }
+            }
+            lastScore = bestDot;
+            return best;
         }
-        
-        return dot / (Math.sqrt(normA) * Math.sqrt(normB));
     }
 
     // --- MEMORY CLASS ---
@@ -238,15 +351,22 @@ public class BlackBox {
         public final String context;
         public final String outcome;
         public final boolean success;
-        public final List<Double> vector;
+        public final float[] vector;
+        public final String space;   // "pseudo" or the embedding model
         
         public Memory(long timestamp, String context, String outcome, 
-                     boolean success, List<Double> vector) {
+                     boolean success, float[] vector) {
+            this(timestamp, context, outcome, success, vector, PSEUDO);
+        }
+
+        public Memory(long timestamp, String context, String outcome,
+                     boolean success, float[] vector, String space) {
             this.timestamp = timestamp;
             this.context = context;
             this.outcome = outcome;
             this.success = success;
             this.vector = vector;
+            this.space = space;
         }
         
         public String toJson() {
@@ -256,10 +376,11 @@ public class BlackBox {
             sb.append("\"context\":\"").append(escapeJson(context)).append("\",");
             sb.append("\"outcome\":\"").append(escapeJson(outcome)).append("\",");
             sb.append("\"success\":").append(success).append(",");
+            sb.append("\"space\":\"").append(escapeJson(space)).append("\",");
             sb.append("\"vector\":[");
-            for (int i = 0; i < vector.size(); i++) {
+            for (int i = 0; i < vector.length; i++) {
                 if (i > 0) sb.append(",");
-                sb.append(vector.get(i));
+                sb.append(vector[i]);
             }
             sb.append("]}");
             return sb.toString();
@@ -271,9 +392,11 @@ public class BlackBox {
             String context = extractString(json, "context");
             String outcome = extractString(json, "outcome");
             boolean success = extractBoolean(json, "success");
-            List<Double> vector = extractVector(json, "vector");
+            float[] vector = extractVector(json, "vector");
+            // Records written before spaces were tracked are pseudo-embeddings
+            String space = json.contains("\"space\":\"") ? extractString(json, "space") : PSEUDO;
             
-            return new Memory(timestamp, context, outcome, success, vector);
+            return new Memory(timestamp, context, outcome, success, vector, space);
         }
         
         private static String escapeJson(String s) {
@@ -303,15 +426,15 @@ public class BlackBox {
             return Boolean.parseBoolean(json.substring(start, end).trim());
         }
         
-        private static List<Double> extractVector(String json, String key) {
+        private static float[] extractVector(String json, String key) {
             String pattern = "\"" + key + "\":[";
             int start = json.indexOf(pattern) + pattern.length();
             int end = json.indexOf("]", start);
-            String vectorStr = json.substring(start, end);
+            String[] vals = json.substring(start, end).split(",");
             
-            List<Double> vector = new ArrayList<>();
-            for (String val : vectorStr.split(",")) {
-                vector.add(Double.parseDouble(val.trim()));
+            float[] vector = new float[vals.length];
+            for (int i = 0; i < vals.length; i++) {
+                vector[i] = Float.parseFloat(vals[i].trim());
             }
             return vector;
         }
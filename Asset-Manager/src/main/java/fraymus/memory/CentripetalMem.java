@@ -2,28 +2,44 @@ package fraymus.memory;
 
 import fraymus.quantum.core.PhiQuantumConstants;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * CENTRIPETAL MEMORY: RADIAL COMPRESSION
- * 
+ *
  * Patent: VS-PoQC-19046423-φ⁷⁵-2025
- * 
+ *
  * "The truth is always in the center."
- * 
+ *
  * Unlike linear compression (ZIP), this is RADIAL compression.
  * Works like a centrifuge or a black hole:
  * - Heavy, meaningful data (high importance) → Falls to the CENTER
  * - Light, noisy data (low importance) → Flung to the EDGE
- * 
+ *
  * To read the most important memories, you don't scan the whole drive;
  * you just look at the CORE. The data compresses itself by falling
  * into the center of the Phi-Spiral.
- * 
+ *
  * Mathematical Foundation:
  * - Polar coordinates (r, θ) instead of linear array
  * - Importance maps inversely to radius (high importance = low r)
  * - Angle determined by content hash × φ (Golden Angle distribution)
  * - Self-organizing: data naturally clusters by semantic similarity
+ *
+ * Indexes:
+ * - Radial index: concurrent skip list ordered center-outward, so core
+ *   reads and edge compression touch only the nodes they return/remove
+ * - Tag index and word index (tag/word → nodes) for searchByTag and
+ *   searchSimilar; similarity is scored only on nodes sharing a word
+ * - Lazy decay: a node stores importance relative to a global scale;
+ *   applyDecay multiplies the scale (O(1)), and an optional half-life
+ *   decays it continuously with time. Uniform scaling never reorders
+ *   the spiral, so the radial index stays valid.
+ *
+ * Readers are lock-free and may run concurrently with each other and
+ * with writers; writers (store/compress/decay) serialize on the memory.
  */
 public class CentripetalMem {
 
@@ -31,21 +47,38 @@ public class CentripetalMem {
     private static final double PHI_INV = PhiQuantumConstants.PHI_INVERSE;
     private static final double GOLDEN_ANGLE = 2 * Math.PI * PHI_INV;
 
-    // The memory spiral - sorted by radius (center = most important)
-    private final List<PolarNode> memorySpiral = new ArrayList<>();
-    
+    // The memory spiral - ordered by radius (center = most important)
+    private volatile ConcurrentSkipListSet<PolarNode> memorySpiral = new ConcurrentSkipListSet<>(CENTER_FIRST);
+
     // Index by content hash for fast lookup
-    private final Map<Long, PolarNode> hashIndex = new HashMap<>();
-    
+    private final Map<Long, PolarNode> hashIndex = new ConcurrentHashMap<>();
+
+    // Inverted indexes
+    private final Map<String, Set<PolarNode>> tagIndex = new ConcurrentHashMap<>();
+    private final Map<String, Set<PolarNode>> wordIndex = new ConcurrentHashMap<>();
+
+    // Global decay: effective importance = node.base × scale (× half-life factor)
+    private volatile double decayScale = 1.0;
+    private volatile long decayEpoch = System.currentTimeMillis();
+    private volatile long halfLifeMs = 0;   // 0 = no time-based decay
+
     // Statistics
-    private double totalImportance = 0;
-    private int accessCount = 0;
+    private volatile double totalBase = 0;
+    private final AtomicInteger accessCount = new AtomicInteger();
     private long creationTime = System.currentTimeMillis();
 
+    /**
+     * Highest base importance first (= smallest radius); hash breaks ties
+     */
+    private static final Comparator<PolarNode> CENTER_FIRST = (a, b) -> {
+        int c = Double.compare(b.base, a.base);
+        return c != 0 ? c : Long.compare(a.hash, b.hash);
+    };
+
     // ═══════════════════════════════════════════════════════════════════
     // 1. INGEST (The Spin) - Store data in the spiral
     // ═══════════════════════════════════════════════════════════════════
-    
+
     /**
      * Store data with importance weighting
      * @param data The content to store
@@ -58,42 +91,46 @@ public class CentripetalMem {
     /**
      * Store data with importance and optional tags
      */
-    public void storeData(String data, double importance, String[] tags) {
+    public synchronized void storeData(String data, double importance, String[] tags) {
         // Clamp importance
         importance = Math.max(0.0, Math.min(1.0, importance));
-        
-        // Invert importance to get radius (high importance = low radius)
-        // Use exponential scaling for better distribution
-        double radius = Math.pow(1.0 - importance, PHI) * 10.0;
-        
+        if (currentScale() < 1e-100) renormalize();
+        double scale = currentScale();
+
         // Angle determined by content hash × φ (ensures no collisions)
         long hash = computeHash(data);
         double theta = (Math.abs(hash) * GOLDEN_ANGLE) % (2 * Math.PI);
-        
+
         // Check for existing entry
-        if (hashIndex.containsKey(hash)) {
-            // Update existing - boost importance
-            PolarNode existing = hashIndex.get(hash);
-            existing.accessCount++;
-            existing.importance = Math.min(1.0, existing.importance + 0.1);
-            existing.r = Math.pow(1.0 - existing.importance, PHI) * 10.0;
+        PolarNode existing = hashIndex.get(hash);
+        if (existing != null) {
+            // Update existing - boost importance (re-key in the radial index)
+            existing.accessCount.incrementAndGet();
             existing.lastAccess = System.currentTimeMillis();
-            resort();
+            double boosted = Math.min(1.0, existing.importance(scale) + 0.1);
+            memorySpiral.remove(existing);
+            totalBase -= existing.base;
+            existing.base = boosted / scale;
+            totalBase += existing.base;
+            memorySpiral.add(existing);
             return;
         }
-        
-        // Create new node
-        PolarNode node = new PolarNode(radius, theta, data, importance, hash);
+
+        // Create new node (importance stored relative to the current decay scale)
+        PolarNode node = new PolarNode(theta, data, importance / scale, hash);
         if (tags != null) {
             node.tags.addAll(Arrays.asList(tags));
         }
-        
-        memorySpiral.add(node);
+
         hashIndex.put(hash, node);
-        totalImportance += importance;
-        
-        // Keep sorted by radius (closest to center first)
-        resort();
+        for (String tag : node.tags) {
+            tagIndex.computeIfAbsent(tag, k -> ConcurrentHashMap.newKeySet()).add(node);
+        }
+        for (String word : node.words) {
+            wordIndex.computeIfAbsent(word, k -> ConcurrentHashMap.newKeySet()).add(node);
+        }
+        totalBase += node.base;
+        memorySpiral.add(node);
     }
 
     /**
@@ -107,7 +144,7 @@ public class CentripetalMem {
     // ═══════════════════════════════════════════════════════════════════
     // 2. RETRIEVE (The Drill) - Read data from the spiral
     // ═══════════════════════════════════════════════════════════════════
-    
+
     /**
      * Read the core memories (most important)
      */
@@ -120,18 +157,15 @@ public class CentripetalMem {
      */
     public List<String> readCore(double maxRadius) {
         List<String> coreData = new ArrayList<>();
-        
+        double scale = currentScale();
+        long now = System.currentTimeMillis();
+
         for (PolarNode node : memorySpiral) {
-            if (node.r <= maxRadius) {
-                node.accessCount++;
-                node.lastAccess = System.currentTimeMillis();
-                accessCount++;
-                coreData.add(node.content);
-            } else {
-                break; // List is sorted, no need to continue
-            }
+            if (node.radius(scale) > maxRadius) break; // Ordered center-out, no need to continue
+            touch(node, now);
+            coreData.add(node.content);
         }
-        
+
         return coreData;
     }
 
@@ -140,31 +174,30 @@ public class CentripetalMem {
      */
     public List<String> readByImportance(double minImportance) {
         List<String> result = new ArrayList<>();
-        
+        double scale = currentScale();
+        long now = System.currentTimeMillis();
+
         for (PolarNode node : memorySpiral) {
-            if (node.importance >= minImportance) {
-                node.accessCount++;
-                node.lastAccess = System.currentTimeMillis();
-                accessCount++;
-                result.add(node.content);
-            }
+            if (node.importance(scale) < minImportance) break;
+            touch(node, now);
+            result.add(node.content);
         }
-        
+
         return result;
     }
 
     /**
-     * Search by tag
+     * Search by tag (most important first)
      */
     public List<String> searchByTag(String tag) {
-        List<String> result = new ArrayList<>();
-        
-        for (PolarNode node : memorySpiral) {
-            if (node.tags.contains(tag)) {
-                result.add(node.content);
-            }
-        }
-        
+        Set<PolarNode> tagged = tagIndex.get(tag);
+        if (tagged == null) return new ArrayList<>();
+
+        List<PolarNode> nodes = new ArrayList<>(tagged);
+        nodes.sort(CENTER_FIRST);
+
+        List<String> result = new ArrayList<>(nodes.size());
+        for (PolarNode node : nodes) result.add(node.content);
         return result;
     }
 
@@ -172,111 +205,143 @@ public class CentripetalMem {
      * Search by content similarity
      */
     public List<String> searchSimilar(String query, int maxResults) {
+        Set<String> queryWords = words(query);
+
+        // Only nodes sharing at least one word can score above zero
+        Set<PolarNode> candidates = new HashSet<>();
+        for (String word : queryWords) {
+            Set<PolarNode> nodes = wordIndex.get(word);
+            if (nodes != null) candidates.addAll(nodes);
+        }
+
         List<Map.Entry<PolarNode, Double>> scored = new ArrayList<>();
-        
-        for (PolarNode node : memorySpiral) {
-            double similarity = computeSimilarity(query, node.content);
+        for (PolarNode node : candidates) {
+            double similarity = computeSimilarity(queryWords, node.words);
             if (similarity > 0.1) {
                 scored.add(new AbstractMap.SimpleEntry<>(node, similarity));
             }
         }
-        
+
         // Sort by similarity descending
         scored.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
-        
+
         List<String> result = new ArrayList<>();
         for (int i = 0; i < Math.min(maxResults, scored.size()); i++) {
             result.add(scored.get(i).getKey().content);
         }
-        
+
         return result;
     }
 
     // ═══════════════════════════════════════════════════════════════════
     // 3. COMPRESSION (The Collapse) - Compress the spiral
     // ═══════════════════════════════════════════════════════════════════
-    
+
     /**
      * Compress by removing low-importance outer edge
      */
-    public int compress(double keepRadius) {
+    public synchronized int compress(double keepRadius) {
         int removed = 0;
-        Iterator<PolarNode> iter = memorySpiral.iterator();
-        
-        while (iter.hasNext()) {
-            PolarNode node = iter.next();
-            if (node.r > keepRadius) {
-                hashIndex.remove(node.hash);
-                totalImportance -= node.importance;
-                iter.remove();
-                removed++;
-            }
+        double scale = currentScale();
+
+        // Peel from the edge inward; stops at the first node to keep
+        PolarNode node;
+        while ((node = lastOrNull()) != null && node.radius(scale) > keepRadius) {
+            unlink(node);
+            removed++;
         }
-        
+
         return removed;
     }
 
     /**
      * Compress by access recency (remove stale data)
      */
-    public int compressByAge(long maxAgeMs) {
+    public synchronized int compressByAge(long maxAgeMs) {
         int removed = 0;
         long now = System.currentTimeMillis();
-        Iterator<PolarNode> iter = memorySpiral.iterator();
-        
-        while (iter.hasNext()) {
-            PolarNode node = iter.next();
-            if (now - node.lastAccess > maxAgeMs && node.importance < 0.8) {
-                hashIndex.remove(node.hash);
-                totalImportance -= node.importance;
-                iter.remove();
+        double scale = currentScale();
+
+        for (PolarNode node : memorySpiral) {
+            if (now - node.lastAccess > maxAgeMs && node.importance(scale) < 0.8) {
+                unlink(node);
                 removed++;
             }
         }
-        
+
         return removed;
     }
 
     /**
      * Decay all importance over time (forgetting curve)
+     *
+     * O(1): only the global scale changes.
      */
-    public void applyDecay(double decayRate) {
-        for (PolarNode node : memorySpiral) {
-            // Decay importance
-            node.importance *= decayRate;
-            
-            // Recalculate radius
-            node.r = Math.pow(1.0 - node.importance, PHI) * 10.0;
+    public synchronized void applyDecay(double decayRate) {
+        decayScale *= decayRate;
+
+        // Keep base values in double range after many decays
+        if (decayScale < 1e-100) {
+            renormalize();
         }
-        
-        // Resort after decay
-        resort();
-        
-        // Recalculate total importance
-        totalImportance = 0;
+    }
+
+    /**
+     * Continuous decay: importance halves every halfLifeMs (0 disables)
+     */
+    public synchronized void setDecayHalfLife(long halfLifeMs) {
+        decayScale = currentScale();
+        decayEpoch = System.currentTimeMillis();
+        this.halfLifeMs = halfLifeMs;
+    }
+
+    /**
+     * Fold the scale into every node (rebuilds the radial index once)
+     */
+    private void renormalize() {
+        double scale = currentScale();
+        ConcurrentSkipListSet<PolarNode> rebuilt = new ConcurrentSkipListSet<>(CENTER_FIRST);
+        double sum = 0;
         for (PolarNode node : memorySpiral) {
-            totalImportance += node.importance;
+            node.base *= scale;
+            sum += node.base;
+            rebuilt.add(node);
+        }
+        memorySpiral = rebuilt;
+        totalBase = sum;
+        decayScale = 1.0;
+        decayEpoch = System.currentTimeMillis();
+    }
+
+    private double currentScale() {
+        double scale = decayScale;
+        long hl = halfLifeMs;
+        if (hl > 0) {
+            scale *= Math.pow(0.5, (double) (System.currentTimeMillis() - decayEpoch) / hl);
         }
+        return scale > 0 ? scale : Double.MIN_NORMAL;
     }
 
     // ═══════════════════════════════════════════════════════════════════
     // 4. VISUALIZATION (The Map)
     // ═══════════════════════════════════════════════════════════════════
-    
+
     /**
      * Get spiral data for visualization
      */
     public List<double[]> getSpiralCoordinates() {
         List<double[]> coords = new ArrayList<>();
-        
+        double scale = currentScale();
+
         for (PolarNode node : memorySpiral) {
             // Convert polar to cartesian
-            double x = node.r * Math.cos(node.theta);
-            double y = node.r * Math.sin(node.theta);
-            
-            coords.add(new double[]{x, y, node.r, node.importance});
+            double r = node.radius(scale);
+            double x = r * Math.cos(node.theta);
+            double y = r * Math.sin(node.theta);
+
+            coords.add(new double[]{x, y, r, node.importance(scale)});
         }
-        
+
         return coords;
     }
 
@@ -287,28 +352,58 @@ public class CentripetalMem {
         double[][] density = new double[resolution][resolution];
         double maxRadius = 10.0;
         double cellSize = (maxRadius * 2) / resolution;
-        
+        double scale = currentScale();
+
         for (PolarNode node : memorySpiral) {
-            double x = node.r * Math.cos(node.theta);
-            double y = node.r * Math.sin(node.theta);
-            
+            double r = node.radius(scale);
+            double x = r * Math.cos(node.theta);
+            double y = r * Math.sin(node.theta);
+
             int cellX = (int)((x + maxRadius) / cellSize);
             int cellY = (int)((y + maxRadius) / cellSize);
-            
+
             if (cellX >= 0 && cellX < resolution && cellY >= 0 && cellY < resolution) {
-                density[cellX][cellY] += node.importance;
+                density[cellX][cellY] += node.importance(scale);
             }
         }
-        
+
         return density;
     }
 
     // ═══════════════════════════════════════════════════════════════════
     // UTILITY
     // ═══════════════════════════════════════════════════════════════════
-    
-    private void resort() {
-        memorySpiral.sort(Comparator.comparingDouble(n -> n.r));
+
+    private void touch(PolarNode node, long now) {
+        node.accessCount.incrementAndGet();
+        node.lastAccess = now;
+        accessCount.incrementAndGet();
+    }
+
+    private PolarNode lastOrNull() {
+        try {
+            return memorySpiral.last();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Remove a node from the spiral and every index
+     */
+    private void unlink(PolarNode node) {
+        memorySpiral.remove(node);
+        hashIndex.remove(node.hash);
+        for (String tag : node.tags) removeFromIndex(tagIndex, tag, node);
+        for (String word : node.words) removeFromIndex(wordIndex, word, node);
+        totalBase -= node.base;
+    }
+
+    private static void removeFromIndex(Map<String, Set<PolarNode>> index, String key, PolarNode node) {
+        index.computeIfPresent(key, (k, nodes) -> {
+            nodes.remove(node);
+            return nodes.isEmpty() ? null : nodes;
+        });
     }
 
     private long computeHash(String data) {
@@ -320,34 +415,36 @@ public class CentripetalMem {
         return hash;
     }
 
-    private double computeSimilarity(String a, String b) {
+    private static Set<String> words(String text) {
+        return new HashSet<>(Arrays.asList(text.toLowerCase().split("\\s+")));
+    }
+
+    private double computeSimilarity(Set<String> wordsA, Set<String> wordsB) {
         // Simple Jaccard-like similarity
-        Set<String> wordsA = new HashSet<>(Arrays.asList(a.toLowerCase().split("\\s+")));
-        Set<String> wordsB = new HashSet<>(Arrays.asList(b.toLowerCase().split("\\s+")));
-        
-        Set<String> intersection = new HashSet<>(wordsA);
-        intersection.retainAll(wordsB);
-        
-        Set<String> union = new HashSet<>(wordsA);
-        union.addAll(wordsB);
-        
-        if (union.isEmpty()) return 0;
-        return (double) intersection.size() / union.size();
+        int intersection = 0;
+        for (String w : wordsA) {
+            if (wordsB.contains(w)) intersection++;
+        }
+        int union = wordsA.size() + wordsB.size() - intersection;
+
+        if (union == 0) return 0;
+        return (double) intersection / union;
     }
 
     public int size() { return memorySpiral.size(); }
-    public double getTotalImportance() { return totalImportance; }
-    public int getAccessCount() { return accessCount; }
-    
+    public double getTotalImportance() { return totalBase * currentScale(); }
+    public int getAccessCount() { return accessCount.get(); }
+
     public double getCoreRadius() {
         // Calculate radius containing 80% of importance
+        double scale = currentScale();
         double accumulated = 0;
-        double target = totalImportance * 0.8;
-        
+        double target = getTotalImportance() * 0.8;
+
         for (PolarNode node : memorySpiral) {
-            accumulated += node.importance;
+            accumulated += node.importance(scale);
             if (accumulated >= target) {
-                return node.r;
+                return node.radius(scale);
             }
         }
         return 10.0;
@@ -366,9 +463,9 @@ public class CentripetalMem {
             "Age: %d seconds%n" +
             "Compression Ratio: %.2fx",
             memorySpiral.size(),
-            totalImportance,
+            getTotalImportance(),
             getCoreRadius(),
-            accessCount,
+            accessCount.get(),
             (System.currentTimeMillis() - creationTime) / 1000,
             10.0 / (getCoreRadius() + 0.1)
         );
@@ -379,54 +476,68 @@ public class CentripetalMem {
      */
     public String export() {
         StringBuilder sb = new StringBuilder();
+        double scale = currentScale();
+        List<PolarNode> nodes = new ArrayList<>(memorySpiral);
         sb.append("CENTRIPETAL_MEM_V1\n");
-        sb.append(memorySpiral.size()).append("\n");
-        
-        for (PolarNode node : memorySpiral) {
-            sb.append(node.r).append("|");
+        sb.append(nodes.size()).append("\n");
+
+        for (PolarNode node : nodes) {
+            sb.append(node.radius(scale)).append("|");
             sb.append(node.theta).append("|");
-            sb.append(node.importance).append("|");
+            sb.append(node.importance(scale)).append("|");
             sb.append(Base64.getEncoder().encodeToString(node.content.getBytes()));
             sb.append("\n");
         }
-        
+
         return sb.toString();
     }
 
     // ═══════════════════════════════════════════════════════════════════
     // POLAR NODE
     // ═══════════════════════════════════════════════════════════════════
-    
-    public static class PolarNode {
-        public double r;        // Distance from center (singularity)
-        public double theta;    // Angle
-        public String content;  // The actual data
-        public double importance;
-        public long hash;
-        public long createdAt;
-        public long lastAccess;
-        public int accessCount;
-        public Set<String> tags;
-
-        public PolarNode(double r, double theta, String content, double importance, long hash) {
-            this.r = r;
+
+    public class PolarNode {
+        public final double theta;    // Angle
+        public final String content;  // The actual data
+        public final long hash;
+        public final long createdAt;
+        public volatile long lastAccess;
+        public final AtomicInteger accessCount = new AtomicInteger();
+        public final Set<String> tags = ConcurrentHashMap.newKeySet();
+        final Set<String> words;
+        volatile double base;         // Importance relative to the decay scale
+
+        PolarNode(double theta, String content, double base, long hash) {
             this.theta = theta;
             this.content = content;
-            this.importance = importance;
+            this.base = base;
             this.hash = hash;
+            this.words = words(content);
             this.createdAt = System.currentTimeMillis();
             this.lastAccess = this.createdAt;
-            this.accessCount = 0;
-            this.tags = new HashSet<>();
         }
 
-        public double getX() { return r * Math.cos(theta); }
-        public double getY() { return r * Math.sin(theta); }
+        double importance(double scale) {
+            return Math.min(1.0, base * scale);
+        }
+
+        /**
+         * Distance from center (singularity)
+         */
+        double radius(double scale) {
+            return Math.pow(1.0 - importance(scale), PHI) * 10.0;
+        }
+
+        public double getImportance() { return importance(currentScale()); }
+        public double getR() { return radius(currentScale()); }
+
+        public double getX() { return getR() * Math.cos(theta); }
+        public double getY() { return getR() * Math.sin(theta); }
 
         @Override
         public String toString() {
             return String.format("Node[r=%.2f, θ=%.2f, imp=%.2f]: %s",
-                r, theta, importance, 
+                getR(), theta, getImportance(),
                 content.length() > 30 ? content.substring(0, 30) + "..." : content);
         }
     }
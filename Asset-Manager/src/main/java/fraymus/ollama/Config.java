@@ -8,12 +8,14 @@ package fraymus.ollama;
  * --embed <name>      Embedding model (default: embeddinggemma)
  * --port <number>     WebSocket port (default: 8887)
  * --index <path>      Index path and exit
+ * --embed-cache <dir> Persist embeddings under dir (default: memory only)
  */
 public class Config {
     public String chatModel = "llama3";
     public String embedModel = "embeddinggemma";
     public int port = 8887;
     public String indexPath = null;
+    public String embedCacheDir = null;
 
     public static Config fromArgs(String[] args) {
         Config c = new Config();
@@ -39,6 +41,11 @@ public class Config {
                         c.indexPath = args[++i];
                     }
                     break;
+                case "--embed-cache":
+                    if (i + 1 < args.length) {
+                        c.embedCacheDir = args[++i];
+                    }
+                    break;
             }
         }
         return c;
@@ -47,6 +54,7 @@ public class Config {
     @Override
     public String toString() {
         return "Config{chatModel='" + chatModel + "', embedModel='" + embedModel + 
-               "', port=" + port + ", indexPath='" + indexPath + "'}";
+               "', port=" + port + ", indexPath='" + indexPath +
+               "', embedCacheDir='" + embedCacheDir + "'}";
     }
 }
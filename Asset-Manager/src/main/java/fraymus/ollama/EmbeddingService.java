@@ -0,0 +1,483 @@
+package fraymus.ollama;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * EMBEDDING SERVICE - Cached, Batched Embeddings
+ *
+ * "Never ask Ollama the same question twice."
+ *
+ * Sits between callers and one embedding model:
+ * - Memory tier: LRU keyed by SHA-256(model + text), float[] values
+ * - Disk tier (optional): append-only log of (key, vector) records,
+ *   indexed in memory on open, read back with positional reads
+ * - Micro-batching: misses from concurrent callers are queued and sent
+ *   as one multi-input /api/embed call (up to maxBatch texts, waiting at
+ *   most lingerMs for company). Identical texts in flight share one slot.
+ *
+ * Vectors are returned exactly as the backend produced them; callers
+ * must not modify the arrays (they are shared with the cache).
+ */
+public class EmbeddingService implements AutoCloseable {
+
+    /**
+     * The remote call: one request, many inputs, one vector per input
+     */
+    @FunctionalInterface
+    public interface Backend {
+        float[][] embed(String model, List<String> inputs) throws Exception;
+    }
+
+    private static final int DISK_MAGIC = 0x46454331;   // "FEC1"
+    private static final int KEY_BYTES = 16;
+
+    private final Backend backend;
+    private final String model;
+
+    private int maxBatch = 64;
+    private long lingerMs = 2;
+
+    // ═══════════════════════════════════════════════════════════════════
+    // MEMORY TIER
+    // ═══════════════════════════════════════════════════════════════════
+
+    private int capacity = 4096;
+    private final LinkedHashMap<Key, float[]> lru = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, float[]> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    // ═══════════════════════════════════════════════════════════════════
+    // DISK TIER
+    // ═══════════════════════════════════════════════════════════════════
+
+    private FileChannel disk;
+    private Path diskFile;
+    private final Map<Key, Long> diskIndex = new HashMap<>();
+    private long diskEnd;
+
+    // ═══════════════════════════════════════════════════════════════════
+    // BATCHER
+    // ═══════════════════════════════════════════════════════════════════
+
+    private static final class Pending {
+        final Key key;
+        final String text;
+        final CompletableFuture<float[]> result = new CompletableFuture<>();
+
+        Pending(Key key, String text) {
+            this.key = key;
+            this.text = text;
+        }
+    }
+
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ConcurrentHashMap<Key, Pending> inFlight = new ConcurrentHashMap<>();
+    private Thread dispatcher;
+    private volatile boolean closed = false;
+
+    // Stats
+    private long memoryHits = 0;
+    private long diskHits = 0;
+    private long misses = 0;
+    private long backendCalls = 0;
+    private long textsSent = 0;
+
+    public EmbeddingService(Backend backend, String model) {
+        this.backend = backend;
+        this.model = model;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // CONFIGURATION
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Maximum vectors kept in memory
+     */
+    public synchronized EmbeddingService cacheSize(int entries) {
+        this.capacity = Math.max(0, entries);
+        if (lru.size() > capacity) {
+            Iterator<Key> it = lru.keySet().iterator();
+            while (lru.size() > capacity) {
+                it.next();
+                it.remove();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Largest single backend request, and how long the dispatcher waits
+     * for more requests to join a batch
+     */
+    public EmbeddingService batching(int maxBatch, long lingerMs) {
+        this.maxBatch = Math.max(1, maxBatch);
+        this.lingerMs = Math.max(0, lingerMs);
+        return this;
+    }
+
+    /**
+     * Open (or create) the persistent tier. A torn last record from a
+     * crash is trimmed. Pass null to run memory-only.
+     */
+    public synchronized EmbeddingService diskTier(Path file) throws IOException {
+        closeDisk();
+        if (file == null) return this;
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = ch.size();
+        long pos;
+        if (size < 4) {
+            ch.truncate(0);
+            ByteBuffer magic = ByteBuffer.allocate(4).putInt(DISK_MAGIC).flip();
+            ch.write(magic, 0);
+            pos = 4;
+        } else {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            ch.read(magic, 0);
+            if (magic.flip().getInt() != DISK_MAGIC) {
+                ch.close();
+                throw new IOException("Not an embedding cache: " + file);
+            }
+            pos = scanDisk(ch, size);
+            if (pos < size) ch.truncate(pos);
+        }
+        this.disk = ch;
+        this.diskFile = file;
+        this.diskEnd = pos;
+        return this;
+    }
+
+    private long scanDisk(FileChannel ch, long size) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(KEY_BYTES + 4);
+        long pos = 4;
+        while (pos + head.capacity() <= size) {
+            head.clear();
+            ch.read(head, pos);
+            head.flip();
+            Key key = new Key(head.getLong(), head.getLong());
+            int dim = head.getInt();
+            long end = pos + head.capacity() + (long) dim * 4;
+            if (dim <= 0 || end > size) break;
+            diskIndex.put(key, pos);
+            pos = end;
+        }
+        return pos;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // EMBED
+    // ═══════════════════════════════════════════════════════════════════
+
+    public float[] embedOne(String text) {
+        return embed(List.of(text)).get(0);
+    }
+
+    /**
+     * One vector per input, in order. Cached inputs never reach the
+     * backend; the rest are batched with whatever else is queued.
+     */
+    public List<float[]> embed(List<String> texts) {
+        float[][] out = new float[texts.size()][];
+        List<Pending> waits = new ArrayList<>();
+        int[] waitIndex = new int[texts.size()];
+
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            Key key = key(model, text);
+            float[] hit = lookup(key);
+            if (hit != null) {
+                out[i] = hit;
+                continue;
+            }
+            waitIndex[waits.size()] = i;
+            waits.add(enqueue(key, text));
+        }
+
+        if (!waits.isEmpty()) {
+            for (int w = 0; w < waits.size(); w++) {
+                try {
+                    out[waitIndex[w]] = waits.get(w).result.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    String why = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+                    throw new RuntimeException("Embed failed: " + why, cause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Embed interrupted", e);
+                }
+            }
+        }
+        return Arrays.asList(out);
+    }
+
+    private synchronized float[] lookup(Key key) {
+        float[] v = lru.get(key);
+        if (v != null) {
+            memoryHits++;
+            return v;
+        }
+        Long off = diskIndex.get(key);
+        if (off != null) {
+            v = readDisk(off);
+            if (v != null) {
+                diskHits++;
+                if (capacity > 0) lru.put(key, v);
+                return v;
+            }
+        }
+        return null;
+    }
+
+    private float[] readDisk(long off) {
+        try {
+            ByteBuffer head = ByteBuffer.allocate(KEY_BYTES + 4);
+            disk.read(head, off);
+            int dim = head.flip().getInt(KEY_BYTES);
+            ByteBuffer body = ByteBuffer.allocate(dim * 4).order(ByteOrder.LITTLE_ENDIAN);
+            disk.read(body, off + KEY_BYTES + 4);
+            float[] v = new float[dim];
+            body.flip().asFloatBuffer().get(v);
+            return v;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private synchronized void store(Key key, float[] v) {
+        if (capacity > 0) lru.put(key, v);
+        if (disk == null || diskIndex.containsKey(key)) return;
+        try {
+            ByteBuffer rec = ByteBuffer.allocate(KEY_BYTES + 4 + v.length * 4);
+            rec.putLong(key.hi).putLong(key.lo).putInt(v.length);
+            rec.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().put(v);
+            rec.position(rec.capacity()).flip();
+            long at = diskEnd;
+            while (rec.hasRemaining()) at += disk.write(rec, at);
+            diskIndex.put(key, diskEnd);
+            diskEnd = at;
+        } catch (IOException e) {
+            System.err.println(">>> [EMBED CACHE] Disk write failed: " + e.getMessage());
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // DISPATCH
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Join the in-flight request for key, or queue a new one. Runs under
+     * the lock close() takes, so nothing is queued after the dispatcher's
+     * final drain.
+     */
+    private synchronized Pending enqueue(Key key, String text) {
+        if (closed) throw new IllegalStateException("EmbeddingService closed");
+        Pending p = inFlight.get(key);
+        if (p == null) {
+            p = new Pending(key, text);
+            inFlight.put(key, p);
+            queue.add(p);
+        }
+        if (dispatcher == null) {
+            dispatcher = new Thread(this::dispatchLoop, "embed-" + model);
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+        }
+        return p;
+    }
+
+    private void dispatchLoop() {
+        List<Pending> batch = new ArrayList<>();
+        while (!closed) {
+            try {
+                Pending first = queue.poll(250, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < maxBatch) {
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) break;
+                    Pending next = queue.poll(left, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatch - batch.size());
+                }
+                send(batch);
+            } catch (InterruptedException e) {
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        // Fail anything still waiting so callers don't hang
+        Pending p;
+        while ((p = queue.poll()) != null) {
+            inFlight.remove(p.key, p);
+            p.result.completeExceptionally(new IllegalStateException("EmbeddingService closed"));
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        List<String> inputs = new ArrayList<>(batch.size());
+        for (Pending p : batch) inputs.add(p.text);
+        float[][] vecs;
+        try {
+            vecs = backend.embed(model, inputs);
+            if (vecs == null || vecs.length != batch.size()) {
+                throw new IllegalStateException("Backend returned "
+                    + (vecs == null ? 0 : vecs.length) + " vectors for " + batch.size() + " inputs");
+            }
+        } catch (Throwable t) {
+            for (Pending p : batch) {
+                inFlight.remove(p.key, p);
+                p.result.completeExceptionally(t);
+            }
+            return;
+        }
+        synchronized (this) {
+            backendCalls++;
+            textsSent += batch.size();
+            misses += batch.size();
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Pending p = batch.get(i);
+            store(p.key, vecs[i]);
+            inFlight.remove(p.key, p);
+            p.result.complete(vecs[i]);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // KEYS
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * First 128 bits of SHA-256(model \0 text)
+     */
+    private static final class Key {
+        final long hi;
+        final long lo;
+
+        Key(long hi, long lo) {
+            this.hi = hi;
+            this.lo = lo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && k.hi == hi && k.lo == lo;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(hi ^ (lo * 31));
+        }
+    }
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private static Key key(String model, String text) {
+        MessageDigest md = SHA256.get();
+        md.update(model.getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0);
+        byte[] h = md.digest(text.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer b = ByteBuffer.wrap(h);
+        return new Key(b.getLong(), b.getLong());
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // LIFECYCLE & STATS
+    // ═══════════════════════════════════════════════════════════════════
+
+    public String getModel() {
+        return model;
+    }
+
+    public synchronized long getBackendCalls() {
+        return backendCalls;
+    }
+
+    public synchronized long getHits() {
+        return memoryHits + diskHits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized void force() {
+        try {
+            if (disk != null) disk.force(false);
+        } catch (IOException ignored) {}
+    }
+
+    private void closeDisk() throws IOException {
+        if (disk != null) {
+            disk.close();
+            disk = null;
+            diskFile = null;
+            diskIndex.clear();
+        }
+    }
+
+    /**
+     * Stop taking requests, let the batch already sent to the backend land
+     * (in memory and on disk), fail whatever is still queued, then sync and
+     * close the disk tier.
+     */
+    @Override
+    public void close() {
+        Thread d;
+        synchronized (this) {
+            closed = true;
+            d = dispatcher;
+        }
+        if (d != null) {
+            try {
+                d.join();   // bounded by the backend's own request timeout
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            try {
+                if (disk != null) disk.force(false);
+                closeDisk();
+            } catch (IOException ignored) {}
+        }
+    }
+
+    public synchronized String statsLine() {
+        long lookups = memoryHits + diskHits + misses;
+        double hitRate = lookups == 0 ? 0 : 100.0 * (memoryHits + diskHits) / lookups;
+        return String.format("%s: %d cached (%d on disk) | hits %d mem + %d disk | %.1f%% hit | %d calls for %d texts",
+            model, lru.size(), diskIndex.size(), memoryHits, diskHits, hitRate, backendCalls, textsSent);
+    }
+
+    public void printStats() {
+        System.out.println("  Embeddings " + statsLine());
+        if (diskFile != null) {
+            System.out.println("  Embedding cache file: " + diskFile);
+        }
+    }
+}
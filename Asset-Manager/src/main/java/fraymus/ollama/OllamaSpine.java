@@ -5,9 +5,12 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URI;
 import java.net.http.*;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.*;
-import com.fasterxml.jackson.databind.JsonNode;
+import java.util.concurrent.ConcurrentHashMap;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
@@ -18,20 +21,38 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * 
  * This replaces Broca.java with Real Intelligence.
  * Java doesn't "think" anymore - it commands Ollama to think.
+ *
+ * Embeddings go through one EmbeddingService per model: repeated texts
+ * are served from an LRU, and misses from concurrent callers share
+ * multi-input /api/embed calls. The disk tier (<dir>/<model>.bin) is
+ * opt-in via setEmbeddingCacheDir: vectors are tied to one model build,
+ * and a stale file would silently outlive an `ollama pull`.
  */
 public class OllamaSpine {
 
-    private static final String OLLAMA_BASE = "http://localhost:11434/api";
-    private static final String OLLAMA_URL = "http://localhost:11434/api/generate";
+    private static final String DEFAULT_HOST = "http://localhost:11434";
     private static final ObjectMapper M = new ObjectMapper();
     
     private final HttpClient http;
+    private final String host;
     private String modelName; // e.g., "llama3" or "mistral"
     private int requestCount = 0;
     private long totalThinkTime = 0;
 
+    private String embedModel = "embeddinggemma";
+    private Path embedCacheDir = null;
+    private final Map<String, EmbeddingService> embedders = new ConcurrentHashMap<>();
+
     public OllamaSpine(String modelName) {
+        this(modelName, DEFAULT_HOST);
+    }
+
+    /**
+     * @param host Ollama base URL, e.g. "http://localhost:11434"
+     */
+    public OllamaSpine(String modelName, String host) {
         this.modelName = modelName;
+        this.host = host.endsWith("/") ? host.substring(0, host.length() - 1) : host;
         this.http = HttpClient.newBuilder()
             .connectTimeout(Duration.ofSeconds(3))
             .build();
@@ -47,7 +68,7 @@ public class OllamaSpine {
         requestCount++;
         
         try {
-            URL url = new URL(OLLAMA_URL);
+            URL url = new URL(host + "/api/generate");
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("POST");
             conn.setRequestProperty("Content-Type", "application/json");
@@ -88,7 +109,7 @@ public class OllamaSpine {
             return extractResponseText(response.toString());
 
         } catch (java.net.ConnectException e) {
-            return "[OLLAMA DISCONNECTED] Cannot connect to localhost:11434. Is Ollama running? Start with: ollama serve";
+            return "[OLLAMA DISCONNECTED] Cannot connect to " + host + ". Is Ollama running? Start with: ollama serve";
         } catch (java.net.SocketTimeoutException e) {
             return "[OLLAMA TIMEOUT] Generation took too long. Try a smaller prompt or faster model.";
         } catch (Exception e) {
@@ -153,7 +174,7 @@ public class OllamaSpine {
      */
     public boolean testConnection() {
         try {
-            URL url = new URL("http://localhost:11434/api/tags");
+            URL url = new URL(host + "/api/tags");
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("GET");
             conn.setConnectTimeout(2000);
@@ -170,7 +191,7 @@ public class OllamaSpine {
      */
     public String listModels() {
         try {
-            URL url = new URL("http://localhost:11434/api/tags");
+            URL url = new URL(host + "/api/tags");
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("GET");
             
@@ -222,46 +243,122 @@ public class OllamaSpine {
      * Get embeddings for text chunks using /api/embed
      * Ollama returns L2-normalized vectors (unit length)
      * Cosine similarity = dot product for normalized vectors
+     *
+     * Cached and batched; widened to double for older callers.
      */
     public double[][] embed(String embedModel, List<String> inputs) {
-        try {
-            Map<String, Object> payload = new LinkedHashMap<>();
-            payload.put("model", embedModel);
-            payload.put("input", inputs); // Supports batch input
+        List<float[]> vecs = embeddings(embedModel).embed(inputs);
+        double[][] out = new double[vecs.size()][];
+        for (int i = 0; i < out.length; i++) {
+            float[] v = vecs.get(i);
+            out[i] = new double[v.length];
+            for (int j = 0; j < v.length; j++) out[i][j] = v[j];
+        }
+        return out;
+    }
 
-            String body = M.writeValueAsString(payload);
+    /**
+     * EMBED ONE
+     * Single text with the current embedding model
+     */
+    public float[] embedOne(String text) {
+        return embeddings(embedModel).embedOne(text);
+    }
 
-            HttpRequest req = HttpRequest.newBuilder(URI.create(OLLAMA_BASE + "/embed"))
-                .timeout(Duration.ofSeconds(120))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .build();
+    /**
+     * EMBED BATCH
+     * One vector per chunk with the current embedding model
+     */
+    public List<float[]> embedBatch(List<String> chunks) {
+        return embeddings(embedModel).embed(chunks);
+    }
 
-            HttpResponse<String> resp = http.send(req, HttpResponse.BodyHandlers.ofString());
-            if (resp.statusCode() / 100 != 2) {
-                throw new RuntimeException("HTTP " + resp.statusCode() + ": " + resp.body());
+    /**
+     * The cache/batcher for a model (created on first use)
+     */
+    public EmbeddingService embeddings(String model) {
+        return embedders.computeIfAbsent(model, m -> {
+            EmbeddingService svc = new EmbeddingService(this::fetchEmbeddings, m);
+            if (embedCacheDir != null) {
+                try {
+                    svc.diskTier(embedCacheDir.resolve(m.replaceAll("[^A-Za-z0-9._-]", "_") + ".bin"));
+                } catch (IOException e) {
+                    System.err.println(">>> [OLLAMA] Embedding disk cache unavailable: " + e.getMessage());
+                }
             }
+            return svc;
+        });
+    }
+
+    public void setEmbedModel(String embedModel) {
+        this.embedModel = embedModel;
+    }
 
-            JsonNode root = M.readTree(resp.body());
-            JsonNode arr = root.path("embeddings");
-            if (!arr.isArray()) {
-                throw new RuntimeException("No embeddings in response: " + resp.body());
+    public String getEmbedModel() {
+        return embedModel;
+    }
+
+    /**
+     * Where per-model embedding caches live, e.g. memory/embeddings;
+     * null (the default) keeps them in memory only. Applies to models
+     * first used after the call.
+     */
+    public void setEmbeddingCacheDir(Path dir) {
+        this.embedCacheDir = dir;
+    }
+
+    /**
+     * The raw /api/embed call: one request for all inputs, parsed
+     * straight into float[] without building a JSON tree
+     */
+    float[][] fetchEmbeddings(String model, List<String> inputs) throws IOException, InterruptedException {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("model", model);
+        payload.put("input", inputs); // Supports batch input
+
+        HttpRequest req = HttpRequest.newBuilder(URI.create(host + "/api/embed"))
+            .timeout(Duration.ofSeconds(120))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(M.writeValueAsBytes(payload)))
+            .build();
+
+        HttpResponse<InputStream> resp = http.send(req, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = resp.body()) {
+            if (resp.statusCode() / 100 != 2) {
+                throw new IOException("HTTP " + resp.statusCode() + ": "
+                    + new String(body.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8));
             }
+            float[][] out = parseEmbeddings(body);
+            System.out.println(">>> [OLLAMA] Embedded " + inputs.size() + " chunks (dim="
+                + (out.length > 0 ? out[0].length : 0) + ")");
+            return out;
+        }
+    }
 
-            double[][] out = new double[arr.size()][];
-            for (int i = 0; i < arr.size(); i++) {
-                JsonNode v = arr.get(i);
-                out[i] = new double[v.size()];
-                for (int j = 0; j < v.size(); j++) {
-                    out[i][j] = v.get(j).asDouble();
+    private static float[][] parseEmbeddings(InputStream in) throws IOException {
+        try (JsonParser p = M.getFactory().createParser(in)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) throw new IOException("Bad embed response");
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken t = p.nextToken();
+                if (!"embeddings".equals(field) || t != JsonToken.START_ARRAY) {
+                    p.skipChildren();
+                    continue;
                 }
+                List<float[]> rows = new ArrayList<>();
+                float[] buf = new float[1024];
+                while (p.nextToken() == JsonToken.START_ARRAY) {
+                    int n = 0;
+                    while (p.nextToken() != JsonToken.END_ARRAY) {
+                        if (n == buf.length) buf = Arrays.copyOf(buf, n * 2);
+                        buf[n++] = p.getFloatValue();
+                    }
+                    rows.add(Arrays.copyOf(buf, n));
+                }
+                return rows.toArray(new float[0][]);
             }
-            
-            System.out.println(">>> [OLLAMA] Embedded " + inputs.size() + " chunks (dim=" + out[0].length + ")");
-            return out;
-        } catch (Exception e) {
-            throw new RuntimeException("Embed failed: " + e.getMessage(), e);
         }
+        throw new IOException("No embeddings in response");
     }
 
     /**
@@ -276,5 +373,8 @@ public class OllamaSpine {
         System.out.println("  Requests: " + requestCount);
         System.out.println("  Avg Think Time: " + getAverageThinkTime() + "ms");
         System.out.println("  Total Think Time: " + totalThinkTime + "ms");
+        for (EmbeddingService svc : embedders.values()) {
+            svc.printStats();
+        }
     }
 }
@@ -123,7 +123,7 @@ public class ToolRouter {
             List<String> chunks = transmudder.chunk(clean, chunkSize, overlap);
 
             // Embed in batches
-            List<double[]> vecs = brain.embedBatch(chunks);
+            List<float[]> vecs = brain.embedBatch(chunks);
             if (vecs.size() != chunks.size()) continue;
 
             vault.addAndPersist(f.toString(), chunks, vecs);
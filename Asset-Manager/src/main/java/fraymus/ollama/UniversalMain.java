@@ -6,6 +6,7 @@ import org.java_websocket.handshake.ClientHandshake;
 import org.java_websocket.server.WebSocketServer;
 
 import java.net.InetSocketAddress;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -67,6 +68,10 @@ public class UniversalMain {
 
         // Build components
         OllamaSpine brain = new OllamaSpine(cfg.chatModel);
+        brain.setEmbedModel(cfg.embedModel);
+        if (cfg.embedCacheDir != null) {
+            brain.setEmbeddingCacheDir(Path.of(cfg.embedCacheDir));
+        }
         Transmudder soul = new Transmudder();
         ToolRouter tools = new ToolRouter(vault, soul, brain);
         RagEngine rag = new RagEngine(brain, vault);
@@ -266,7 +271,7 @@ public class UniversalMain {
         if (clean.isBlank()) return;
 
         List<String> chunks = soul.chunk(clean, 1200, 200);
-        List<double[]> vecs = brain.embedBatch(chunks);
+        List<float[]> vecs = brain.embedBatch(chunks);
         if (vecs.size() != chunks.size()) throw new RuntimeException("embed mismatch");
 
         vault.addAndPersist(file, chunks, vecs);
@@ -1,6 +1,10 @@
 package fraymus.ollama;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.fraymus.ai.core.HnswIndex;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
@@ -21,6 +25,11 @@ import java.util.stream.Collectors;
  * 
  * Ollama's /api/embed returns L2-normalized embeddings (unit length)
  * Cosine similarity = dot product for normalized vectors
+ *
+ * Retrieval: exact scan up to BRUTE_FORCE_MAX chunks, then the shared
+ * fraymus-ai-core HnswIndex (graph persisted to memory/vectors.hnsw,
+ * caught up from vectors.jsonl on load). Searches may run while chunks
+ * are being added.
  */
 public class VectorVault {
     private static final ObjectMapper M = new ObjectMapper();
@@ -28,13 +37,14 @@ public class VectorVault {
     public static class VecChunk {
         public String id;
         public String path;
+        @JsonAlias("chunkIndex")   // name used on disk by addAndPersist
         public int index;
         public String text;
-        public double[] vec;
+        public float[] vec;
 
         public VecChunk() {}
         
-        public VecChunk(String id, String path, int index, String text, double[] vec) {
+        public VecChunk(String id, String path, int index, String text, float[] vec) {
             this.id = id;
             this.path = path;
             this.index = index;
@@ -51,20 +61,32 @@ public class VectorVault {
             super();
         }
         
-        public Entry(String id, String path, int index, String text, double[] vec) {
+        public Entry(String id, String path, int index, String text, float[] vec) {
             super(id, path, index, text, vec);
             this.chunkIndex = index;
         }
     }
 
+    private static final int BRUTE_FORCE_MAX = 4096;
+    private static final int GRAPH_SAVE_MIN = 1024;
+
     private final List<VecChunk> store = new ArrayList<>();
     private final Path diskFile = Path.of("memory", "vectors.jsonl");
+    private final Path graphFile = Path.of("memory", "vectors.hnsw");
+
+    // Unit-length float copies for search, published with their chunks
+    // and count as one snapshot
+    private volatile VaultSource view = new VaultSource(new float[0][], new VecChunk[0], 0);
+
+    private final HnswIndex.Params graphParams = new HnswIndex.Params();
+    private volatile HnswIndex graph;
+    private int unsavedInserts = 0;
 
     /**
      * LOAD FROM DISK
      * Resurrects previous embeddings
      */
-    public void loadFromDisk() {
+    public synchronized void loadFromDisk() {
         try {
             if (!Files.exists(diskFile)) {
                 System.out.println(">>> [VAULT] No previous vectors found");
@@ -78,10 +100,12 @@ public class VectorVault {
                     VecChunk c = M.readValue(line, VecChunk.class);
                     if (c != null && c.vec != null) {
                         store.add(c);
+                        publish(c);
                     }
                 }
             }
             System.out.println(">>> [VAULT] Loaded " + store.size() + " vector chunks from disk");
+            openGraph();
         } catch (Exception e) {
             System.err.println(">>> [VAULT] Load failed: " + e.getMessage());
         }
@@ -98,7 +122,7 @@ public class VectorVault {
      * ADD AND PERSIST
      * Adds chunks with vectors and persists to disk
      */
-    public void addAndPersist(String path, List<String> chunks, List<double[]> vectors) throws Exception {
+    public synchronized void addAndPersist(String path, List<String> chunks, List<float[]> vectors) throws Exception {
         Files.createDirectories(diskFile.getParent());
 
         try (BufferedWriter bw = Files.newBufferedWriter(diskFile, StandardCharsets.UTF_8,
@@ -113,6 +137,7 @@ public class VectorVault {
                 e.vec = vectors.get(i);
 
                 store.add(e);
+                publish(e);
 
                 ObjectNode o = M.createObjectNode();
                 o.put("id", e.id);
@@ -121,12 +146,20 @@ public class VectorVault {
                 o.put("text", e.text);
 
                 ArrayNode vec = o.putArray("vec");
-                for (double d : e.vec) vec.add(d);
+                for (float f : e.vec) vec.add(f);
 
                 bw.write(M.writeValueAsString(o));
                 bw.newLine();
             }
         }
+
+        HnswIndex g = graph;
+        if (g == null) {
+            openGraph();
+        } else {
+            catchUp(g);
+            if (unsavedInserts >= Math.max(GRAPH_SAVE_MIN, view.n / 10)) saveGraph();
+        }
     }
 
     /**
@@ -135,22 +168,149 @@ public class VectorVault {
      */
     public List<VecChunk> topK(double[] queryVec, int k) {
         if (queryVec == null || queryVec.length == 0) return List.of();
-        PriorityQueue<Map.Entry<VecChunk, Double>> pq = new PriorityQueue<>(Comparator.comparing(Map.Entry::getValue));
+        float[] q = new float[queryVec.length];
+        for (int i = 0; i < q.length; i++) q[i] = (float) queryVec[i];
+        return topK(q, k);
+    }
 
-        for (VecChunk e : store) {
-            double score = cosine(queryVec, e.vec);
-            if (pq.size() < k) pq.offer(new AbstractMap.SimpleEntry<>(e, score));
-            else if (score > pq.peek().getValue()) { pq.poll(); pq.offer(new AbstractMap.SimpleEntry<>(e, score)); }
-        }
+    public List<VecChunk> topK(float[] queryVec, int k) {
+        if (queryVec == null || queryVec.length == 0 || k <= 0) return List.of();
+        float[] q = normalize(queryVec);
+        VaultSource src = view;
 
-        List<Map.Entry<VecChunk, Double>> tmp = new ArrayList<>(pq);
-        tmp.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+        int[] rows;
+        HnswIndex g = graph;
+        if (g != null && src.n > BRUTE_FORCE_MAX) {
+            rows = g.search(q, k, src);
+        } else {
+            PriorityQueue<long[]> pq = new PriorityQueue<>(Comparator.comparingDouble(x -> Double.longBitsToDouble(x[1])));
+            for (int i = 0; i < src.n; i++) {
+                double score = src.dot(q, i);
+                if (pq.size() < k) pq.offer(new long[]{ i, Double.doubleToLongBits(score) });
+                else if (score > Double.longBitsToDouble(pq.peek()[1])) {
+                    pq.poll();
+                    pq.offer(new long[]{ i, Double.doubleToLongBits(score) });
+                }
+            }
+            List<long[]> tmp = new ArrayList<>(pq);
+            tmp.sort((x, y) -> Double.compare(Double.longBitsToDouble(y[1]), Double.longBitsToDouble(x[1])));
+            rows = new int[tmp.size()];
+            for (int i = 0; i < rows.length; i++) rows[i] = (int) tmp.get(i)[0];
+        }
 
         List<VecChunk> out = new ArrayList<>();
-        for (var it : tmp) out.add(it.getKey());
+        for (int row : rows) out.add(src.chunks[row]);
+        return out;
+    }
+
+    /**
+     * RECALL REPORT
+     * HNSW vs exact scan on perturbed stored vectors
+     */
+    public void printRecallReport(int k, int queries) {
+        HnswIndex g = graph;
+        if (g == null) {
+            System.out.println(">>> [VAULT] No HNSW graph (vault empty)");
+            return;
+        }
+        System.out.println(">>> [VAULT] HNSW " + g.recall(view, k, queries, 7));
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // HNSW GRAPH
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Make a chunk searchable: fill the next row, then publish a new view
+     * (rows below a view's count are never written again)
+     */
+    private void publish(VecChunk c) {
+        VaultSource v = view;
+        int n = v.n;
+        float[][] u = v.unit;
+        VecChunk[] cs = v.chunks;
+        if (n == u.length) {
+            u = Arrays.copyOf(u, Math.max(64, n * 2));
+            cs = Arrays.copyOf(cs, u.length);
+        }
+        u[n] = normalize(c.vec);
+        cs[n] = c;
+        view = new VaultSource(u, cs, n + 1);
+    }
+
+    private void openGraph() {
+        int count = view.n;
+        if (count == 0) return;
+        HnswIndex g = HnswIndex.load(graphFile, graphParams);
+        if (g == null || g.size() > count) g = new HnswIndex(graphParams);
+        catchUp(g);
+        graph = g;
+        if (unsavedInserts > 0) saveGraph();
+    }
+
+    private void catchUp(HnswIndex g) {
+        VaultSource src = view;
+        for (int i = g.size(); i < src.n; i++) {
+            g.insert(i, src);
+            unsavedInserts++;
+        }
+    }
+
+    private void saveGraph() {
+        try {
+            Files.createDirectories(graphFile.getParent());
+            graph.save(graphFile);
+            unsavedInserts = 0;
+        } catch (IOException e) {
+            System.err.println(">>> [VAULT] Graph save failed: " + e.getMessage());
+        }
+    }
+
+    private static float[] normalize(float[] v) {
+        double norm = 0;
+        for (float f : v) norm += f * f;
+        float[] out = new float[v.length];
+        if (norm == 0) return out;
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < v.length; i++) out[i] = v[i] * inv;
         return out;
     }
 
+    /**
+     * Published snapshot (unit vectors, chunks, count), also the graph's
+     * view of the vectors; readers take one volatile read and never see a
+     * count that doesn't belong to the arrays next to it
+     */
+    private static final class VaultSource implements HnswIndex.VectorSource {
+        final float[][] unit;
+        final VecChunk[] chunks;
+        final int n;
+
+        VaultSource(float[][] unit, VecChunk[] chunks, int n) {
+            this.unit = unit;
+            this.chunks = chunks;
+            this.n = n;
+        }
+
+        @Override
+        public int size() {
+            return n;
+        }
+
+        @Override
+        public float[] vector(int node) {
+            return unit[node].clone();
+        }
+
+        @Override
+        public float dot(float[] q, int node) {
+            float[] v = unit[node];
+            int len = Math.min(q.length, v.length);
+            float s = 0;
+            for (int i = 0; i < len; i++) s += q[i] * v[i];
+            return s;
+        }
+    }
 
     /**
      * APPEND TO DISK
@@ -166,33 +326,20 @@ public class VectorVault {
         }
     }
 
-    /**
-     * COSINE SIMILARITY
-     */
-    private double cosine(double[] a, double[] b) {
-        if (a == null || b == null || a.length == 0 || b.length == 0) return 0.0;
-        int n = Math.min(a.length, b.length);
-        double dot = 0, na = 0, nb = 0;
-        for (int i = 0; i < n; i++) {
-            dot += a[i] * b[i];
-            na += a[i] * a[i];
-            nb += b[i] * b[i];
-        }
-        if (na == 0 || nb == 0) return 0.0;
-        return dot / (Math.sqrt(na) * Math.sqrt(nb));
-    }
-
-
     /**
      * CLEAR VAULT
      * Removes all vectors (use with caution)
      */
-    public void clear() {
+    public synchronized void clear() {
         store.clear();
+        view = new VaultSource(new float[0][], new VecChunk[0], 0);
+        graph = null;
+        unsavedInserts = 0;
         try {
             if (Files.exists(diskFile)) {
                 Files.delete(diskFile);
             }
+            Files.deleteIfExists(graphFile);
             System.out.println(">>> [VAULT] Cleared all vectors");
         } catch (Exception e) {
             System.err.println(">>> [VAULT] Clear failed: " + e.getMessage());
@@ -209,6 +356,9 @@ public class VectorVault {
         System.out.println("  Total Chunks: " + store.size());
         System.out.println("  Disk File: " + diskFile);
         System.out.println("  Exists: " + Files.exists(diskFile));
+        HnswIndex g = graph;
+        System.out.println("  HNSW Graph: " + (g == null ? "none" : g.size() + " nodes"
+            + (view.n > BRUTE_FORCE_MAX ? " (active)" : " (exact scan below " + BRUTE_FORCE_MAX + ")")));
         
         if (!store.isEmpty()) {
             System.out.println("  Vector Dimension: " + store.get(0).vec.length);
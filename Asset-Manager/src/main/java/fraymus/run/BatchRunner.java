@@ -0,0 +1,649 @@
+package fraymus.run;
+
+import fraymus.core.FraymusJSON;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 🧪 BATCH RUNNER - Engines × Seeds × Configs
+ * "One seed is an anecdote. Two hundred seeds is evidence."
+ *
+ * Expands a run matrix (methods × configs × seeds), fans it out across a
+ * local worker pool and aggregates the EngineResults into per-method
+ * summary tables with 95% confidence intervals.
+ *
+ * CACHING / RESUME:
+ *   Every run is keyed by a hash of (method, config fingerprint). Finished
+ *   runs are appended to <outDir>/ledger.jsonl and flushed one line
+ *   at a time, so a crashed or interrupted batch restarted with the same
+ *   matrix only executes the runs that are missing. Failed runs are not
+ *   recorded and are retried on the next invocation.
+ *
+ * LAYOUT:
+ *   <outDir>/<configHash>/<engine>/<seed>/   per-run EventLogger output
+ *   <outDir>/ledger.jsonl                    one completed run per line
+ *   <outDir>/summary.csv                     aggregated table
+ *
+ * Engine and baseline instances are created per run from their factories,
+ * so engines that keep state in fields are safe to run concurrently.
+ *
+ * USAGE:
+ *   BatchRunner.Report report = BatchRunner.builder()
+ *       .engine(RigorousDrugEngine::new)
+ *       .baseline(GeneticBaseline::new)
+ *       .seedRange(1, 200)
+ *       .config("default", RunConfig.builder().steps(30).populationSize(50).build())
+ *       .workers(8)
+ *       .outDir("build/runs/batch")
+ *       .build()
+ *       .run();
+ *   report.print();
+ */
+public class BatchRunner {
+
+    private static final String LEDGER = "ledger.jsonl";
+    private static final String SUMMARY = "summary.csv";
+
+    private final List<Method> methods;
+    private final Map<String, RunConfig> configs;
+    private final long[] seeds;
+    private final int workers;
+    private final Path outDir;
+    private final boolean verbose;
+
+    private BatchRunner(Builder b) {
+        this.methods = new ArrayList<>(b.methods);
+        this.configs = new LinkedHashMap<>(b.configs);
+        this.seeds = b.seeds;
+        this.workers = b.workers;
+        this.outDir = b.outDir;
+        this.verbose = b.verbose;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // ========================================================================
+    // MATRIX
+    // ========================================================================
+
+    /**
+     * A runnable method: an Engine, or a Baseline given EngineBudget.fromConfig
+     */
+    private interface Method {
+        String name();
+
+        EngineResult run(RunContext ctx) throws Exception;
+    }
+
+    private static final class EngineMethod implements Method {
+        private final String name;
+        private final Supplier<? extends Engine> factory;
+
+        EngineMethod(Supplier<? extends Engine> factory) {
+            this.factory = factory;
+            this.name = factory.get().name();
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public EngineResult run(RunContext ctx) throws Exception {
+            return factory.get().run(ctx);
+        }
+    }
+
+    private static final class BaselineMethod implements Method {
+        private final String name;
+        private final Supplier<? extends Baseline> factory;
+
+        BaselineMethod(Supplier<? extends Baseline> factory) {
+            this.factory = factory;
+            this.name = factory.get().name();
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public EngineResult run(RunContext ctx) throws Exception {
+            return factory.get().run(ctx, EngineBudget.fromConfig(ctx.cfg));
+        }
+    }
+
+    /**
+     * One cell of the matrix
+     */
+    private static final class Job {
+        final Method method;
+        final String configLabel;
+        final String configHash;
+        final RunConfig cfg;
+        final String key;
+
+        Job(Method method, String configLabel, String configHash, RunConfig cfg) {
+            this.method = method;
+            this.configLabel = configLabel;
+            this.configHash = configHash;
+            this.cfg = cfg;
+            this.key = hash(method.name() + "|" + cfg.fingerprint());
+        }
+    }
+
+    private List<Job> expand() {
+        List<Job> jobs = new ArrayList<>();
+        for (Map.Entry<String, RunConfig> entry : configs.entrySet()) {
+            RunConfig template = entry.getValue();
+            // Seed-independent hash: groups this config's runs under one directory
+            String configHash = hash(template.toBuilder().seed(0).build().fingerprint());
+            for (long seed : seeds) {
+                RunConfig cfg = template.toBuilder()
+                    .seed(seed)
+                    .outDir(outDir.resolve(configHash))
+                    .prettyConsole(false)
+                    .build();
+                for (Method method : methods) {
+                    jobs.add(new Job(method, entry.getKey(), configHash, cfg));
+                }
+            }
+        }
+        return jobs;
+    }
+
+    // ========================================================================
+    // EXECUTION
+    // ========================================================================
+
+    /**
+     * Run every missing cell of the matrix, then aggregate all cells
+     * (cached and fresh) into a Report written to summary.csv.
+     */
+    public Report run() throws IOException, InterruptedException {
+        Files.createDirectories(outDir);
+        Path ledgerPath = outDir.resolve(LEDGER);
+
+        Map<String, EngineResult> done = loadLedger(ledgerPath);
+        List<Job> jobs = expand();
+        List<Job> pending = new ArrayList<>();
+        Set<String> queued = new HashSet<>();
+        int cached = 0;
+        for (Job job : jobs) {
+            if (done.containsKey(job.key)) {
+                cached++;
+            } else if (queued.add(job.key)) {
+                pending.add(job);   // identical configs under two labels run once
+            }
+        }
+
+        System.out.println("🧪 BatchRunner: " + jobs.size() + " runs ("
+            + methods.size() + " methods × " + configs.size() + " configs × " + seeds.length + " seeds)");
+        System.out.println("   cached: " + cached + "  pending: " + pending.size() + "  workers: " + workers);
+
+        long start = System.currentTimeMillis();
+        AtomicInteger completed = new AtomicInteger();
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+        try (BufferedWriter ledger = Files.newBufferedWriter(ledgerPath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            ExecutorService pool = Executors.newFixedThreadPool(workers, r -> {
+                Thread t = new Thread(r, "batch-runner");
+                t.setDaemon(true);
+                return t;
+            });
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (Job job : pending) {
+                    futures.add(pool.submit(() -> {
+                        try {
+                            EngineResult result = execute(job);
+                            synchronized (ledger) {
+                                ledger.write(FraymusJSON.stringify(ledgerEntry(job, result)));
+                                ledger.write('\n');
+                                ledger.flush();
+                                done.put(job.key, result);
+                            }
+                            int n = completed.incrementAndGet();
+                            if (verbose) {
+                                System.out.printf("   ✓ [%d/%d] %s %s seed=%d fitness=%.4f (%d ms)%n",
+                                    n, pending.size(), job.method.name(), job.configLabel,
+                                    job.cfg.seed, result.fitnessScore, result.runtimeMs);
+                            }
+                        } catch (Exception e) {
+                            failures.add(job.method.name() + " " + job.configLabel + " seed=" + job.cfg.seed
+                                + ": " + e.getMessage());
+                            System.err.println("   ❌ " + job.method.name() + " seed=" + job.cfg.seed
+                                + " failed: " + e.getMessage());
+                        }
+                    }));
+                }
+                for (Future<?> f : futures) {
+                    try {
+                        f.get();
+                    } catch (ExecutionException e) {
+                        failures.add(String.valueOf(e.getCause()));
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        System.out.println("   ran: " + completed.get() + "  failed: " + failures.size()
+            + "  elapsed: " + elapsed + " ms");
+
+        Report report = aggregate(jobs, done, cached, completed.get(), failures, elapsed);
+        report.writeCsv(outDir.resolve(SUMMARY));
+        return report;
+    }
+
+    private static EngineResult execute(Job job) throws Exception {
+        try (EventLogger log = new EventLogger(job.cfg, job.method.name())) {
+            return job.method.run(new RunContext(job.cfg, log));
+        }
+    }
+
+    // ========================================================================
+    // LEDGER
+    // ========================================================================
+
+    private static Map<String, Object> ledgerEntry(Job job, EngineResult result) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("key", job.key);
+        entry.put("method", job.method.name());
+        entry.put("config", job.configLabel);
+        entry.put("config_hash", job.configHash);
+        entry.put("fingerprint", job.cfg.fingerprint());
+        entry.put("completed_at", System.currentTimeMillis());
+        entry.put("result", finite(result.toMap()));
+        return entry;
+    }
+
+    /**
+     * Load completed runs. A torn last line (crash mid-write) is skipped
+     * and that run is simply executed again. The file is decoded leniently:
+     * a tail cut inside a multi-byte character becomes U+FFFD instead of
+     * failing the whole load with MalformedInputException.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, EngineResult> loadLedger(Path ledgerPath) throws IOException {
+        Map<String, EngineResult> done = new ConcurrentHashMap<>();
+        if (!Files.exists(ledgerPath)) {
+            return done;
+        }
+        int skipped = 0;
+        String text = new String(Files.readAllBytes(ledgerPath), StandardCharsets.UTF_8);
+        for (String line : text.split("\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            Object parsed = FraymusJSON.parse(line);
+            if (!(parsed instanceof Map)) {
+                skipped++;
+                continue;
+            }
+            Map<String, Object> entry = (Map<String, Object>) parsed;
+            Object key = entry.get("key");
+            Object result = entry.get("result");
+            if (key instanceof String && result instanceof Map) {
+                done.put((String) key, EngineResult.fromMap((Map<String, Object>) result));
+            } else {
+                skipped++;
+            }
+        }
+        if (skipped > 0) {
+            System.out.println("   ⚠️  Skipped " + skipped + " unreadable ledger line(s)");
+        }
+        terminateLastLine(ledgerPath);
+        return done;
+    }
+
+    /**
+     * Make sure appends after a torn write start on a fresh line
+     */
+    private static void terminateLastLine(Path ledgerPath) throws IOException {
+        try (FileChannel ch = FileChannel.open(ledgerPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = ch.size();
+            if (size == 0) {
+                return;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            ch.read(last, size - 1);
+            if (last.get(0) != '\n') {
+                ch.write(ByteBuffer.wrap(new byte[]{'\n'}), size);
+            }
+        }
+    }
+
+    /**
+     * JSON has no Infinity/NaN: store non-finite numbers as null (read back as NaN)
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> finite(Map<String, Object> map) {
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> e : map.entrySet()) {
+            Object v = e.getValue();
+            if (v instanceof Double && !Double.isFinite((Double) v)
+                    || v instanceof Float && !Float.isFinite((Float) v)) {
+                v = null;
+            } else if (v instanceof Map) {
+                v = finite((Map<String, Object>) v);
+            }
+            out.put(e.getKey(), v);
+        }
+        return out;
+    }
+
+    static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                sb.append(String.format("%02x", digest[i]));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    // ========================================================================
+    // AGGREGATION
+    // ========================================================================
+
+    private Report aggregate(List<Job> jobs, Map<String, EngineResult> done, int cached, int ran,
+                             List<String> failures, long elapsedMs) {
+        // (config label, method) → results, in matrix order
+        Map<String, Map<String, List<EngineResult>>> groups = new LinkedHashMap<>();
+        for (Job job : jobs) {
+            EngineResult r = done.get(job.key);
+            if (r == null) {
+                continue;
+            }
+            groups.computeIfAbsent(job.configLabel, k -> new LinkedHashMap<>())
+                .computeIfAbsent(job.method.name(), k -> new ArrayList<>())
+                .add(r);
+        }
+
+        List<Row> rows = new ArrayList<>();
+        for (Map.Entry<String, Map<String, List<EngineResult>>> cfg : groups.entrySet()) {
+            for (Map.Entry<String, List<EngineResult>> m : cfg.getValue().entrySet()) {
+                rows.add(Row.of(cfg.getKey(), m.getKey(), m.getValue()));
+            }
+        }
+        return new Report(rows, jobs.size(), cached, ran, failures, elapsedMs);
+    }
+
+    /**
+     * Mean, sample standard deviation and 95% confidence half-width
+     */
+    public static final class Stat {
+        public final int n;
+        public final double mean;
+        public final double stddev;
+        public final double ci95;
+
+        private Stat(int n, double mean, double stddev, double ci95) {
+            this.n = n;
+            this.mean = mean;
+            this.stddev = stddev;
+            this.ci95 = ci95;
+        }
+
+        /**
+         * NaN samples (failed/non-finite values) are ignored
+         */
+        public static Stat of(double[] samples) {
+            int n = 0;
+            double mean = 0;
+            double m2 = 0;
+            for (double x : samples) {
+                if (Double.isNaN(x)) continue;
+                n++;
+                double d = x - mean;
+                mean += d / n;
+                m2 += d * (x - mean);
+            }
+            if (n == 0) {
+                return new Stat(0, Double.NaN, Double.NaN, Double.NaN);
+            }
+            double sd = n > 1 ? Math.sqrt(m2 / (n - 1)) : 0.0;
+            double ci = n > 1 ? tCritical95(n - 1) * sd / Math.sqrt(n) : Double.NaN;
+            return new Stat(n, mean, sd, ci);
+        }
+
+        @Override
+        public String toString() {
+            return Double.isNaN(ci95)
+                ? String.format("%.4f", mean)
+                : String.format("%.4f ± %.4f", mean, ci95);
+        }
+    }
+
+    // Two-sided 95% Student-t critical values for df = 1..30
+    private static final double[] T95 = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    static double tCritical95(int df) {
+        if (df <= T95.length) {
+            return T95[df - 1];
+        }
+        // Cornish-Fisher expansion around z = 1.96
+        double z = 1.959964;
+        return z + (z * z * z + z) / (4.0 * df);
+    }
+
+    /**
+     * One (config, method) line of the summary table
+     */
+    public static final class Row {
+        public final String config;
+        public final String method;
+        public final Stat fitness;
+        public final Stat novelty;
+        public final Stat runtimeMs;
+        public final Map<String, Stat> metrics;
+
+        private Row(String config, String method, Stat fitness, Stat novelty, Stat runtimeMs,
+                    Map<String, Stat> metrics) {
+            this.config = config;
+            this.method = method;
+            this.fitness = fitness;
+            this.novelty = novelty;
+            this.runtimeMs = runtimeMs;
+            this.metrics = metrics;
+        }
+
+        static Row of(String config, String method, List<EngineResult> results) {
+            int n = results.size();
+            double[] fitness = new double[n];
+            double[] novelty = new double[n];
+            double[] runtime = new double[n];
+            Map<String, double[]> metricSamples = new TreeMap<>();
+            for (int i = 0; i < n; i++) {
+                EngineResult r = results.get(i);
+                fitness[i] = r.fitnessScore;
+                novelty[i] = r.noveltyCount;
+                runtime[i] = r.runtimeMs;
+                for (Map.Entry<String, Object> e : r.metrics.entrySet()) {
+                    if (e.getValue() instanceof Number) {
+                        double[] s = metricSamples.computeIfAbsent(e.getKey(), k -> {
+                            double[] a = new double[n];
+                            Arrays.fill(a, Double.NaN);
+                            return a;
+                        });
+                        s[i] = ((Number) e.getValue()).doubleValue();
+                    }
+                }
+            }
+            Map<String, Stat> metrics = new LinkedHashMap<>();
+            metricSamples.forEach((k, v) -> metrics.put(k, Stat.of(v)));
+            return new Row(config, method, Stat.of(fitness), Stat.of(novelty), Stat.of(runtime), metrics);
+        }
+    }
+
+    public static final class Report {
+        public final List<Row> rows;
+        public final int total;
+        public final int cached;
+        public final int ran;
+        public final List<String> failures;
+        public final long elapsedMs;
+
+        private Report(List<Row> rows, int total, int cached, int ran, List<String> failures, long elapsedMs) {
+            this.rows = rows;
+            this.total = total;
+            this.cached = cached;
+            this.ran = ran;
+            this.failures = new ArrayList<>(failures);
+            this.elapsedMs = elapsedMs;
+        }
+
+        public void print() {
+            System.out.println();
+            System.out.println("╔═══════════════════════════════════════════════════════════════╗");
+            System.out.println("║                  BATCH SUMMARY (mean ± 95% CI)                ║");
+            System.out.println("╚═══════════════════════════════════════════════════════════════╝");
+            System.out.println();
+            String last = null;
+            for (Row row : rows) {
+                if (!row.config.equals(last)) {
+                    last = row.config;
+                    System.out.println("Config: " + row.config);
+                    System.out.printf("  %-22s %5s %22s %20s %20s%n", "Method", "n", "Fitness", "Novelty", "Time(ms)");
+                    System.out.println("  ─────────────────────────────────────────────────────────────────────────────────────────");
+                }
+                System.out.printf("  %-22s %5d %22s %20s %20s%n", row.method, row.fitness.n,
+                    row.fitness, row.novelty, row.runtimeMs);
+            }
+            System.out.println();
+            System.out.println("Runs: " + total + " (cached " + cached + ", ran " + ran
+                + ", failed " + failures.size() + ") in " + elapsedMs + " ms");
+        }
+
+        /**
+         * Long format: one line per (config, method, measure)
+         */
+        public void writeCsv(Path path) throws IOException {
+            try (BufferedWriter w = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                w.write("config,method,measure,n,mean,stddev,ci95\n");
+                for (Row row : rows) {
+                    writeCsvLine(w, row, "fitness_score", row.fitness);
+                    writeCsvLine(w, row, "novelty_count", row.novelty);
+                    writeCsvLine(w, row, "runtime_ms", row.runtimeMs);
+                    for (Map.Entry<String, Stat> e : row.metrics.entrySet()) {
+                        writeCsvLine(w, row, e.getKey(), e.getValue());
+                    }
+                }
+            }
+        }
+
+        private static void writeCsvLine(BufferedWriter w, Row row, String measure, Stat s) throws IOException {
+            w.write(String.format(Locale.ROOT, "%s,%s,%s,%d,%.6f,%.6f,%.6f%n",
+                csv(row.config), csv(row.method), csv(measure), s.n, s.mean, s.stddev, s.ci95));
+        }
+
+        private static String csv(String s) {
+            return s.contains(",") || s.contains("\"") ? "\"" + s.replace("\"", "\"\"") + "\"" : s;
+        }
+    }
+
+    // ========================================================================
+    // BUILDER
+    // ========================================================================
+
+    public static class Builder {
+        private final List<Method> methods = new ArrayList<>();
+        private final Map<String, RunConfig> configs = new LinkedHashMap<>();
+        private long[] seeds = {1337, 42, 2025};
+        private int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        private Path outDir = Paths.get("build/runs/batch");
+        private boolean verbose = true;
+
+        /**
+         * Engine factory, called once per run (and once up front for the name)
+         */
+        public Builder engine(Supplier<? extends Engine> factory) {
+            methods.add(new EngineMethod(factory));
+            return this;
+        }
+
+        /**
+         * Baseline factory; each run gets EngineBudget.fromConfig(cfg)
+         */
+        public Builder baseline(Supplier<? extends Baseline> factory) {
+            methods.add(new BaselineMethod(factory));
+            return this;
+        }
+
+        /**
+         * Named config; its seed, outDir and console flag are overridden per run
+         */
+        public Builder config(String label, RunConfig template) {
+            configs.put(label, template);
+            return this;
+        }
+
+        public Builder seeds(long... seeds) {
+            this.seeds = seeds.clone();
+            return this;
+        }
+
+        /**
+         * Seeds first, first+1, ..., first+count-1
+         */
+        public Builder seedRange(long first, int count) {
+            this.seeds = new long[count];
+            for (int i = 0; i < count; i++) {
+                this.seeds[i] = first + i;
+            }
+            return this;
+        }
+
+        public Builder workers(int workers) {
+            this.workers = Math.max(1, workers);
+            return this;
+        }
+
+        public Builder outDir(Path dir) {
+            this.outDir = dir;
+            return this;
+        }
+
+        public Builder outDir(String dir) {
+            this.outDir = Paths.get(dir);
+            return this;
+        }
+
+        public Builder verbose(boolean verbose) {
+            this.verbose = verbose;
+            return this;
+        }
+
+        public BatchRunner build() {
+            if (methods.isEmpty()) {
+                throw new IllegalStateException("BatchRunner needs at least one engine or baseline");
+            }
+            if (configs.isEmpty()) {
+                configs.put("default", RunConfig.builder().build());
+            }
+            return new BatchRunner(this);
+        }
+    }
+}
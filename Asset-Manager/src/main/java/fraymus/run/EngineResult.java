@@ -41,6 +41,28 @@ public class EngineResult {
         return map;
     }
     
+    /**
+     * Inverse of toMap() (e.g. for results reloaded from a JSON ledger)
+     */
+    @SuppressWarnings("unchecked")
+    public static EngineResult fromMap(Map<String, Object> map) {
+        Builder b = builder(String.valueOf(map.get("engine")))
+            .seed(number(map.get("seed")).longValue())
+            .fitnessScore(number(map.get("fitness_score")).doubleValue())
+            .iterations(number(map.get("iterations")).intValue())
+            .runtimeMs(number(map.get("runtime_ms")).longValue())
+            .noveltyCount(number(map.get("novelty_count")).intValue());
+        Object metrics = map.get("metrics");
+        if (metrics instanceof Map) {
+            ((Map<String, Object>) metrics).forEach(b::metric);
+        }
+        return b.build();
+    }
+    
+    private static Number number(Object value) {
+        return value instanceof Number ? (Number) value : Double.NaN;
+    }
+    
     public static class Builder {
         private final String engineName;
         private long seed;
@@ -0,0 +1,470 @@
+package fraymus.run;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel island-model evolution runtime
+ *
+ * The population is split into islands that evolve independently and
+ * periodically pass their best individuals around a ring (migration).
+ *
+ * Reproducible regardless of thread count:
+ * - each island owns a SplittableRandom derived from (seed, island index),
+ *   and all random decisions (selection, crossover, mutation) happen on
+ *   that island's stream in a fixed order
+ * - only fitness evaluation runs in parallel, and it must be a pure
+ *   function of the genome
+ *
+ * Exact budget accounting: every fitness call counts against
+ * EngineBudget.evaluations, and the runtime never makes more calls than
+ * that. When the budget cannot cover a full generation, the remaining
+ * offspring slots are filled with unevaluated elite clones.
+ *
+ * Selection uses partial top-k (bounded heap, O(n log k)) rather than
+ * sorting the whole island every generation.
+ *
+ * @param <G> Genome type
+ */
+public final class IslandEvolution<G> {
+
+    /**
+     * Problem definition. fitness() is called concurrently and must not
+     * touch shared mutable state; the other operators run on one island's
+     * thread with that island's RNG.
+     */
+    public interface Problem<G> {
+        G random(SplittableRandom rng);
+        G crossover(G a, G b, SplittableRandom rng);
+        void mutate(G genome, SplittableRandom rng);
+        G copy(G genome);
+        double fitness(G genome);
+    }
+
+    /**
+     * Outcome of a run
+     */
+    public static final class Result<G> {
+        public final G best;
+        public final double bestFitness;
+        public final int generations;
+        public final int evaluations;
+        public final int improvements;
+        public final int migrations;
+        public final int islands;
+
+        Result(G best, double bestFitness, int generations, int evaluations,
+               int improvements, int migrations, int islands) {
+            this.best = best;
+            this.bestFitness = bestFitness;
+            this.generations = generations;
+            this.evaluations = evaluations;
+            this.improvements = improvements;
+            this.migrations = migrations;
+            this.islands = islands;
+        }
+    }
+
+    private static final int EVAL_CHUNK = 16;   // genomes per fork/join leaf
+
+    private final Problem<G> problem;
+    private final int islandCount;
+    private final int migrationInterval;
+    private final int migrants;
+    private final double eliteFraction;
+    private final int tournamentSize;
+    private final double mutationRate;
+    private final ForkJoinPool pool;
+
+    private IslandEvolution(Builder<G> b) {
+        this.problem = b.problem;
+        this.islandCount = b.islands;
+        this.migrationInterval = b.migrationInterval;
+        this.migrants = b.migrants;
+        this.eliteFraction = b.eliteFraction;
+        this.tournamentSize = b.tournamentSize;
+        this.mutationRate = b.mutationRate;
+        this.pool = b.pool != null ? b.pool : ForkJoinPool.commonPool();
+    }
+
+    public static <G> Builder<G> builder(Problem<G> problem) {
+        return new Builder<>(problem);
+    }
+
+    public static class Builder<G> {
+        private final Problem<G> problem;
+        private int islands = 4;
+        private int migrationInterval = 5;
+        private int migrants = 2;
+        private double eliteFraction = 0.1;
+        private int tournamentSize = 3;
+        private double mutationRate = 0.1;
+        private ForkJoinPool pool;
+
+        Builder(Problem<G> problem) {
+            this.problem = problem;
+        }
+
+        public Builder<G> islands(int n) { this.islands = n; return this; }
+        public Builder<G> migrationInterval(int generations) { this.migrationInterval = generations; return this; }
+        public Builder<G> migrants(int n) { this.migrants = n; return this; }
+        public Builder<G> eliteFraction(double f) { this.eliteFraction = f; return this; }
+        public Builder<G> tournamentSize(int n) { this.tournamentSize = n; return this; }
+        public Builder<G> mutationRate(double p) { this.mutationRate = p; return this; }
+        public Builder<G> pool(ForkJoinPool pool) { this.pool = pool; return this; }
+
+        public IslandEvolution<G> build() {
+            return new IslandEvolution<>(this);
+        }
+    }
+
+    // ========================================================================
+    // RUN
+    // ========================================================================
+
+    /**
+     * Evolve for up to budget.steps generations over budget.population
+     * individuals, making at most budget.evaluations fitness calls.
+     */
+    public Result<G> run(long seed, EngineBudget budget) {
+        int islands = Math.max(1, Math.min(islandCount, budget.population / 2));
+        List<Island<G>> archipelago = newIslands(islands, budget.population, seed);
+        int remaining = budget.evaluations;
+
+        // Initial population (clipped to the budget)
+        for (Island<G> island : archipelago) {
+            for (int i = 0; i < island.size; i++) {
+                island.genomes.add(problem.random(island.rng));
+            }
+        }
+        remaining -= evaluateAll(archipelago, remaining);
+
+        double bestFitness = Double.NEGATIVE_INFINITY;
+        G best = null;
+        int improvements = 0;
+        int migrations = 0;
+        int generation = 0;
+
+        for (; generation < budget.steps; generation++) {
+            // Track best (before breeding, as the sequential baseline did)
+            for (Island<G> island : archipelago) {
+                int top = island.bestIndex();
+                if (top >= 0 && island.fitness[top] > bestFitness) {
+                    bestFitness = island.fitness[top];
+                    best = problem.copy(island.genomes.get(top));
+                    improvements++;
+                }
+            }
+            if (remaining <= 0) {
+                break;
+            }
+
+            // Share the remaining evaluations across islands in island order
+            int[] quota = new int[islands];
+            int left = remaining;
+            for (int i = 0; i < islands; i++) {
+                quota[i] = Math.min(left, archipelago.get(i).size - archipelago.get(i).eliteCount());
+                left -= quota[i];
+            }
+
+            // Breed: each island on its own RNG, islands in parallel
+            List<Runnable> breeding = new ArrayList<>(islands);
+            for (int i = 0; i < islands; i++) {
+                Island<G> island = archipelago.get(i);
+                int q = quota[i];
+                breeding.add(() -> breed(island, q));
+            }
+            runAll(breeding);
+
+            remaining -= evaluateAll(archipelago, remaining);
+
+            if (islands > 1 && migrationInterval > 0 && (generation + 1) % migrationInterval == 0) {
+                migrate(archipelago);
+                migrations++;
+            }
+        }
+
+        // Final best over the last population
+        for (Island<G> island : archipelago) {
+            int top = island.bestIndex();
+            if (top >= 0 && island.fitness[top] > bestFitness) {
+                bestFitness = island.fitness[top];
+                best = problem.copy(island.genomes.get(top));
+            }
+        }
+
+        return new Result<>(best, bestFitness, generation, budget.evaluations - remaining,
+                improvements, migrations, islands);
+    }
+
+    private List<Island<G>> newIslands(int islands, int population, long seed) {
+        List<Island<G>> archipelago = new ArrayList<>(islands);
+        for (int i = 0; i < islands; i++) {
+            int size = population / islands + (i < population % islands ? 1 : 0);
+            archipelago.add(new Island<>(size, new SplittableRandom(islandSeed(seed, i)), eliteFraction));
+        }
+        return archipelago;
+    }
+
+    /**
+     * SplitMix64 finalizer over (seed, island): well-separated, stable streams
+     */
+    static long islandSeed(long seed, int island) {
+        long z = seed + 0x9E3779B97F4A7C15L * (island + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // ========================================================================
+    // GENERATION
+    // ========================================================================
+
+    /**
+     * Elites survive as-is; `quota` offspring are bred for evaluation; any
+     * slot the budget can't pay for gets an unevaluated elite clone.
+     */
+    private void breed(Island<G> island, int quota) {
+        int eliteCount = island.eliteCount();
+        int[] elite = topK(island.fitness, island.genomes.size(), eliteCount);
+
+        List<G> next = new ArrayList<>(island.size);
+        double[] nextFitness = new double[island.size];
+        for (int e : elite) {
+            nextFitness[next.size()] = island.fitness[e];
+            next.add(problem.copy(island.genomes.get(e)));
+        }
+
+        int offspringStart = next.size();
+        for (int i = 0; i < quota; i++) {
+            G p1 = island.genomes.get(tournament(island));
+            G p2 = island.genomes.get(tournament(island));
+            G child = problem.crossover(p1, p2, island.rng);
+            if (island.rng.nextDouble() < mutationRate) {
+                problem.mutate(child, island.rng);
+            }
+            next.add(child);
+        }
+
+        int clone = 0;
+        while (next.size() < island.size) {
+            int e = elite[clone++ % elite.length];
+            nextFitness[next.size()] = island.fitness[e];
+            next.add(problem.copy(island.genomes.get(e)));
+        }
+
+        island.genomes = next;
+        island.fitness = nextFitness;
+        island.pendingFrom = offspringStart;
+        island.pendingTo = offspringStart + quota;
+    }
+
+    private int tournament(Island<G> island) {
+        int n = island.genomes.size();
+        int best = island.rng.nextInt(n);
+        for (int i = 1; i < tournamentSize; i++) {
+            int candidate = island.rng.nextInt(n);
+            if (island.fitness[candidate] > island.fitness[best]) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Ring migration: island i's best `migrants` replace island i+1's worst
+     */
+    private void migrate(List<Island<G>> archipelago) {
+        int n = archipelago.size();
+        List<List<G>> outgoing = new ArrayList<>(n);
+        List<double[]> outgoingFitness = new ArrayList<>(n);
+        for (Island<G> island : archipelago) {
+            int k = Math.min(migrants, island.genomes.size());
+            int[] top = topK(island.fitness, island.genomes.size(), k);
+            List<G> travellers = new ArrayList<>(k);
+            double[] f = new double[k];
+            for (int j = 0; j < k; j++) {
+                travellers.add(problem.copy(island.genomes.get(top[j])));
+                f[j] = island.fitness[top[j]];
+            }
+            outgoing.add(travellers);
+            outgoingFitness.add(f);
+        }
+        for (int i = 0; i < n; i++) {
+            Island<G> target = archipelago.get((i + 1) % n);
+            List<G> travellers = outgoing.get(i);
+            int[] worst = bottomK(target.fitness, target.genomes.size(), travellers.size());
+            for (int j = 0; j < worst.length; j++) {
+                target.genomes.set(worst[j], travellers.get(j));
+                target.fitness[worst[j]] = outgoingFitness.get(i)[j];
+            }
+        }
+    }
+
+    // ========================================================================
+    // PARALLEL EVALUATION
+    // ========================================================================
+
+    /**
+     * Evaluate every pending genome across all islands (at most `limit`)
+     * on the fork/join pool. Returns the number of fitness calls made.
+     */
+    private int evaluateAll(List<Island<G>> archipelago, int limit) {
+        List<Island<G>> owners = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        for (Island<G> island : archipelago) {
+            if (island.pendingTo < 0) {
+                // Fresh island: everything pending; anything the budget
+                // can't score stays at -inf and is never selected as elite
+                island.pendingFrom = 0;
+                island.pendingTo = island.genomes.size();
+                Arrays.fill(island.fitness, Double.NEGATIVE_INFINITY);
+            }
+            for (int i = island.pendingFrom; i < island.pendingTo && slots.size() < limit; i++) {
+                owners.add(island);
+                slots.add(i);
+            }
+            island.pendingFrom = island.pendingTo = 0;
+        }
+        int count = slots.size();
+        if (count > 0) {
+            pool.invoke(new EvaluateTask<>(problem, owners, slots, 0, count));
+        }
+        return count;
+    }
+
+    private static final class EvaluateTask<G> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;   // never serialized; silences -Xlint:serial
+
+        private final transient Problem<G> problem;
+        private final transient List<Island<G>> owners;
+        private final transient List<Integer> slots;
+        private final int from;
+        private final int to;
+
+        EvaluateTask(Problem<G> problem, List<Island<G>> owners, List<Integer> slots, int from, int to) {
+            this.problem = problem;
+            this.owners = owners;
+            this.slots = slots;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= EVAL_CHUNK) {
+                for (int i = from; i < to; i++) {
+                    Island<G> island = owners.get(i);
+                    int slot = slots.get(i);
+                    island.fitness[slot] = problem.fitness(island.genomes.get(slot));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new EvaluateTask<>(problem, owners, slots, from, mid),
+                      new EvaluateTask<>(problem, owners, slots, mid, to));
+        }
+    }
+
+    private void runAll(List<Runnable> tasks) {
+        if (tasks.size() == 1) {
+            tasks.get(0).run();
+            return;
+        }
+        List<RunTask> forks = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks) {
+            forks.add(new RunTask(task));
+        }
+        pool.invoke(new RunTask(() -> ForkJoinTask.invokeAll(forks)));
+    }
+
+    private static final class RunTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Runnable body;
+
+        RunTask(Runnable body) {
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            body.run();
+        }
+    }
+
+    // ========================================================================
+    // PARTIAL SELECTION
+    // ========================================================================
+
+    /**
+     * Indices of the k highest values among the first n, best first.
+     * Bounded min-heap: O(n log k). Ties favour the lower index.
+     */
+    static int[] topK(double[] values, int n, int k) {
+        k = Math.min(k, n);
+        if (k <= 0) return new int[0];
+        Comparator<Integer> worseFirst = (a, b) -> {
+            int c = Double.compare(values[a], values[b]);
+            return c != 0 ? c : Integer.compare(b, a);
+        };
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k, worseFirst);
+        for (int i = 0; i < n; i++) {
+            if (heap.size() < k) {
+                heap.add(i);
+            } else if (worseFirst.compare(i, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        int[] out = new int[k];
+        for (int j = k - 1; j >= 0; j--) {
+            out[j] = heap.poll();
+        }
+        return out;
+    }
+
+    /**
+     * Indices of the k lowest values among the first n, worst first
+     */
+    static int[] bottomK(double[] values, int n, int k) {
+        double[] negated = new double[n];
+        for (int i = 0; i < n; i++) {
+            negated[i] = -values[i];
+        }
+        return topK(negated, n, k);
+    }
+
+    // ========================================================================
+    // ISLAND
+    // ========================================================================
+
+    private static final class Island<G> {
+        final int size;
+        final SplittableRandom rng;
+        final double eliteFraction;
+        List<G> genomes;
+        double[] fitness;
+        int pendingFrom = -1;    // [pendingFrom, pendingTo) awaiting evaluation
+        int pendingTo = -1;
+
+        Island(int size, SplittableRandom rng, double eliteFraction) {
+            this.size = size;
+            this.rng = rng;
+            this.eliteFraction = eliteFraction;
+            this.genomes = new ArrayList<>(size);
+            this.fitness = new double[size];
+        }
+
+        int eliteCount() {
+            return Math.max(1, Math.min(size, (int) (size * eliteFraction)));
+        }
+
+        int bestIndex() {
+            int[] top = topK(fitness, genomes.size(), 1);
+            return top.length == 0 ? -1 : top[0];
+        }
+    }
+}
@@ -34,6 +34,35 @@ public class RunConfig {
         return new Builder();
     }
     
+    /**
+     * Builder pre-filled with this config (e.g. to vary only the seed)
+     */
+    public Builder toBuilder() {
+        return new Builder()
+            .seed(seed)
+            .steps(steps)
+            .populationSize(populationSize)
+            .gravityConstant(gravityConstant)
+            .fusionDistance(fusionDistance)
+            .energyThreshold(energyThreshold)
+            .outDir(outDir)
+            .prettyConsole(prettyConsole)
+            .jsonl(jsonl);
+    }
+    
+    /**
+     * Canonical string of every parameter that affects results
+     * (output location and console/logging flags excluded)
+     */
+    public String fingerprint() {
+        return "seed=" + seed
+            + ";steps=" + steps
+            + ";pop=" + populationSize
+            + ";gravity=" + Double.toString(gravityConstant)
+            + ";fusionDist=" + Double.toString(fusionDistance)
+            + ";energyThresh=" + Double.toString(energyThreshold);
+    }
+    
     public static class Builder {
         private long seed = System.currentTimeMillis();
         private int steps = 30;
@@ -0,0 +1,219 @@
+package fraymus.security;
+
+/**
+ * THE LATTICE RING: NTT ARITHMETIC FOR R_q = Z_q[X] / (X^256 + 1)
+ *
+ * Component 51b: Number-Theoretic Transform engine behind LatticeShield.
+ *
+ * Multiplying two ring elements the schoolbook way is N² = 65,536
+ * multiply-adds. In the NTT domain it is N pointwise products, and the
+ * transform itself costs N·log N butterflies.
+ *
+ * Q = 3329 has a primitive 256th root of unity (ζ = 17) but no 512th,
+ * so the forward transform stops one layer early (Kyber style): the
+ * result is 128 degree-1 polynomials mod (X² − ζ^(2·br(i)+1)), and
+ * "pointwise" multiplication is a tiny 2×2 product per pair.
+ *
+ * Reductions:
+ *   Montgomery: a·R⁻¹ mod q with R = 2^16, no division
+ *   Barrett:    a mod q via a multiply and shift
+ *
+ * All functions work in place on int[256] holding signed coefficients.
+ * Twiddles are precomputed once in Montgomery form.
+ *
+ * "Twist the lattice into the frequency domain; multiply; twist back."
+ */
+public final class LatticeRing {
+
+    public static final int N = 256;
+    public static final int Q = 3329;
+
+    private static final int ZETA = 17;                 // primitive 256th root of unity mod Q
+    private static final int QINV = -3327;              // Q⁻¹ mod 2^16 (signed)
+    private static final int MONT = 2285;               // 2^16 mod Q
+    private static final int BARRETT_V = ((1 << 26) + Q / 2) / Q;
+    private static final int INV_NTT_SCALE = 1441;      // MONT² / 128 mod Q
+
+    // ζ^br7(i) · R mod Q, centered in (−Q/2, Q/2]
+    private static final int[] ZETAS = new int[128];
+
+    static {
+        for (int i = 0; i < 128; i++) {
+            int z = (int) ((long) MONT * powMod(ZETA, bitReverse7(i)) % Q);
+            ZETAS[i] = z > Q / 2 ? z - Q : z;
+        }
+    }
+
+    private LatticeRing() {
+    }
+
+    // ========================================================================
+    // REDUCTION
+    // ========================================================================
+
+    /**
+     * a · 2^-16 mod q, for |a| < q · 2^15. Result in (−q, q).
+     */
+    static int montgomeryReduce(int a) {
+        int t = (short) (a * QINV);
+        return (a - t * Q) >> 16;
+    }
+
+    /**
+     * Centered representative of a mod q, for 16-bit-range a. Result in [−q/2, q/2].
+     */
+    static int barrettReduce(int a) {
+        int t = (BARRETT_V * a + (1 << 25)) >> 26;
+        return a - t * Q;
+    }
+
+    private static int fqmul(int a, int b) {
+        return montgomeryReduce(a * b);
+    }
+
+    // ========================================================================
+    // TRANSFORMS
+    // ========================================================================
+
+    /**
+     * Forward NTT in place. Input: normal order, |coeff| < q.
+     * Output: bit-reversed NTT domain, coefficients reduced to [−q/2, q/2].
+     */
+    public static void ntt(int[] r) {
+        int k = 1;
+        for (int len = 128; len >= 2; len >>= 1) {
+            for (int start = 0; start < N; start += 2 * len) {
+                int zeta = ZETAS[k++];
+                for (int j = start; j < start + len; j++) {
+                    int t = fqmul(zeta, r[j + len]);
+                    r[j + len] = r[j] - t;
+                    r[j] = r[j] + t;
+                }
+            }
+        }
+        reduce(r);
+    }
+
+    /**
+     * Inverse NTT in place, including the 1/128 scaling and one factor of R
+     * (so invNtt(basemul(â, b̂)) is the plain product a·b).
+     */
+    public static void invNtt(int[] r) {
+        int k = 127;
+        for (int len = 2; len <= 128; len <<= 1) {
+            for (int start = 0; start < N; start += 2 * len) {
+                int zeta = ZETAS[k--];
+                for (int j = start; j < start + len; j++) {
+                    int t = r[j];
+                    r[j] = barrettReduce(t + r[j + len]);
+                    r[j + len] = fqmul(zeta, r[j + len] - t);
+                }
+            }
+        }
+        for (int j = 0; j < N; j++) {
+            r[j] = fqmul(r[j], INV_NTT_SCALE);
+        }
+    }
+
+    /**
+     * acc += â ∘ b̂ (NTT-domain product, result carries a factor R⁻¹).
+     * Accumulating K products before one reduce() keeps the inner product cheap.
+     */
+    public static void basemulAcc(int[] acc, int[] a, int[] b) {
+        for (int i = 0; i < N / 4; i++) {
+            int zeta = ZETAS[64 + i];
+            int p = 4 * i;
+            basemulAcc(acc, a, b, p, zeta);
+            basemulAcc(acc, a, b, p + 2, -zeta);
+        }
+    }
+
+    private static void basemulAcc(int[] acc, int[] a, int[] b, int p, int zeta) {
+        int a0 = a[p], a1 = a[p + 1];
+        int b0 = b[p], b1 = b[p + 1];
+        acc[p] += fqmul(fqmul(a1, b1), zeta) + fqmul(a0, b0);
+        acc[p + 1] += fqmul(a0, b1) + fqmul(a1, b0);
+    }
+
+    // ========================================================================
+    // COEFFICIENT-WISE HELPERS
+    // ========================================================================
+
+    /**
+     * Barrett-reduce every coefficient to [−q/2, q/2]
+     */
+    public static void reduce(int[] r) {
+        for (int i = 0; i < N; i++) {
+            r[i] = barrettReduce(r[i]);
+        }
+    }
+
+    /**
+     * Multiply every coefficient by R (cancels the R⁻¹ left by basemul)
+     */
+    public static void toMont(int[] r) {
+        int f = (int) ((long) MONT * MONT % Q);
+        for (int i = 0; i < N; i++) {
+            r[i] = montgomeryReduce(r[i] * f);
+        }
+    }
+
+    public static void add(int[] r, int[] a) {
+        for (int i = 0; i < N; i++) {
+            r[i] += a[i];
+        }
+    }
+
+    /**
+     * Canonical representative in [0, q)
+     */
+    public static int freeze(int a) {
+        int r = barrettReduce(a);
+        return r < 0 ? r + Q : r;
+    }
+
+    // ========================================================================
+    // REFERENCE PATH
+    // ========================================================================
+
+    /**
+     * Schoolbook negacyclic product a·b mod (X^N + 1, q): O(N²).
+     * Kept as the reference the NTT path is checked and benchmarked against.
+     */
+    public static int[] schoolbookMultiply(int[] a, int[] b) {
+        long[] acc = new long[N];
+        for (int i = 0; i < N; i++) {
+            if (a[i] == 0) continue;
+            for (int j = 0; j < N; j++) {
+                int k = i + j;
+                long p = (long) a[i] * b[j];
+                if (k < N) {
+                    acc[k] += p;
+                } else {
+                    acc[k - N] -= p;   // X^N = −1
+                }
+            }
+        }
+        int[] r = new int[N];
+        for (int i = 0; i < N; i++) {
+            int m = (int) (acc[i] % Q);
+            r[i] = m < 0 ? m + Q : m;
+        }
+        return r;
+    }
+
+    private static int powMod(int base, int exp) {
+        long result = 1;
+        long b = base;
+        while (exp > 0) {
+            if ((exp & 1) != 0) result = result * b % Q;
+            b = b * b % Q;
+            exp >>= 1;
+        }
+        return (int) result;
+    }
+
+    private static int bitReverse7(int i) {
+        return Integer.reverse(i) >>> 25;
+    }
+}
@@ -1,5 +1,8 @@
 package fraymus.signals;
 
+import fraymus.signals.dsp.Goertzel;
+import fraymus.signals.dsp.RealFFT;
+
 /**
  * THE SILENT SHOUT: HARDWARE FREQUENCY MODULATION
  * 
@@ -23,6 +26,9 @@ public class FrequencyComm {
     private static final double PHI = 1.6180339887;
     private static final double TWO_PI = 2.0 * Math.PI;
     
+    // Largest zero-padded FFT scanSpectrum will build before falling back to per-bin Goertzel
+    private static final int MAX_SCAN_FFT = 1 << 22;
+    
     // Standard frequencies
     public static final double FREQ_432_HZ = 432.0;        // Phi-harmonic base
     public static final double FREQ_PHI_HARMONIC = 432.0 * PHI;  // 698.99 Hz
@@ -112,31 +118,21 @@ public class FrequencyComm {
      * @return Magnitude of the target frequency (how LOUD is it?)
      */
     public double detectResonance(double[] signalData, double targetFreq, double sampleRate) {
-        int n = signalData.length;
-        double real = 0;
-        double imag = 0;
-        
-        // The Discrete Fourier Transform (DFT) at the target frequency
-        // We act like a Tuner, ignoring everything except the Target.
-        double normalizedFreq = targetFreq / sampleRate;
-        
-        for (int i = 0; i < n; i++) {
-            double angle = TWO_PI * normalizedFreq * i;
-            real += signalData[i] * Math.cos(angle);
-            imag -= signalData[i] * Math.sin(angle);
-        }
-        
-        // Normalize
-        real /= n;
-        imag /= n;
-        
-        // Magnitude = sqrt(Real² + Imag²)
-        return Math.sqrt(real * real + imag * imag) * 2.0;
+        // Exact DTFT at the target frequency via the Goertzel recurrence:
+        // one cosine per call instead of a sin/cos pair per sample
+        return Goertzel.amplitude(signalData, 0, signalData.length, targetFreq, sampleRate);
     }
 
     /**
      * Scan a range of frequencies and find peaks
      * 
+     * One zero-padded FFT covers every bin: the padding is chosen so bins
+     * are at most freqStep / 8 apart, and each requested frequency reads
+     * the interpolated magnitude between its two neighbouring bins.
+     * Magnitudes use the same scale as detectResonance(); peaks match it
+     * closely, while the steep nulls right beside a strong tone read a few
+     * percent of that tone's amplitude instead of zero.
+     * 
      * @param signalData The signal to analyze
      * @param sampleRate Sample rate in Hz
      * @param freqStart Start of frequency range
@@ -148,12 +144,32 @@ public class FrequencyComm {
                                    double freqStart, double freqEnd, double freqStep) {
         int numBins = (int) ((freqEnd - freqStart) / freqStep);
         double[][] spectrum = new double[numBins][2];
+        int n = signalData.length;
+        
+        long wanted = Math.max(n, (long) Math.ceil(8.0 * sampleRate / freqStep));
+        if (n == 0 || wanted > MAX_SCAN_FFT) {
+            // Resolution finer than any sane FFT: evaluate bins one by one
+            for (int i = 0; i < numBins; i++) {
+                double freq = freqStart + i * freqStep;
+                spectrum[i][0] = freq;
+                spectrum[i][1] = detectResonance(signalData, freq, sampleRate);
+            }
+            return spectrum;
+        }
         
+        RealFFT fft = new RealFFT(RealFFT.nextPowerOfTwo((int) wanted));
+        double[] mags = new double[fft.bins()];
+        fft.magnitudes(signalData, 0, n, mags);
+        
+        double binsPerHz = fft.size() / sampleRate;
         for (int i = 0; i < numBins; i++) {
             double freq = freqStart + i * freqStep;
-            double magnitude = detectResonance(signalData, freq, sampleRate);
+            double pos = Math.max(0.0, Math.min(mags.length - 1, freq * binsPerHz));
+            int lo = (int) pos;
+            int hi = Math.min(lo + 1, mags.length - 1);
+            double frac = pos - lo;
             spectrum[i][0] = freq;
-            spectrum[i][1] = magnitude;
+            spectrum[i][1] = mags[lo] + (mags[hi] - mags[lo]) * frac;
         }
         
         return spectrum;
@@ -302,6 +318,22 @@ public class FrequencyComm {
         System.out.println("Dominant frequency detected: " + dominant + " Hz");
         System.out.println();
         
+        // Test 4b: FFT scan vs per-bin DFT (same answer, one transform)
+        System.out.println("--- FFT SCAN vs PER-BIN DFT (50-800 Hz, 1 Hz step) ---");
+        long t0 = System.nanoTime();
+        double[][] fftScan = comm.scanSpectrum(testSignal, sampleRate, 50.0, 800.0, 1.0);
+        long fftNs = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        double maxError = 0;
+        for (double[] bin : fftScan) {
+            double dft = comm.detectResonance(testSignal, bin[0], sampleRate);
+            maxError = Math.max(maxError, Math.abs(dft - bin[1]));
+        }
+        long dftNs = System.nanoTime() - t0;
+        System.out.printf("  FFT scan: %.2f ms | per-bin scan: %.2f ms | max |Δ| = %.4f%n",
+            fftNs / 1e6, dftNs / 1e6, maxError);
+        System.out.println();
+        
         // Test 5: Harmonize/Corrupt demonstration
         comm.harmonizeOrCorrupt(432.0, true);  // Amplify
         System.out.println();
@@ -1,6 +1,8 @@
 package fraymus.signals;
 
 import fraymus.quantum.core.PhiQuantumConstants;
+import fraymus.signals.dsp.STFT;
+import fraymus.signals.dsp.Window;
 import javax.sound.sampled.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -31,6 +33,11 @@ public class SonicBridge {
     private static final int FREQ_SYNC = 18000;     // Sync pulse
     private static final int BIT_DURATION_MS = 100; // Speed of transmission
     
+    // Listener spectrum: 1024-point frames (~43 Hz bins), 50% overlap
+    private static final int FFT_SIZE = 1024;
+    private static final int FFT_HOP = FFT_SIZE / 2;
+    private static final double DETECT_THRESHOLD = 0.2;  // tone amplitude (full scale = 1.0)
+    
     // Phi-resonant frequencies (alternative mode)
     private static final int FREQ_PHI_1 = (int)(432 * PHI * PHI * PHI); // ~1829 Hz
     private static final int FREQ_PHI_0 = (int)(432 * PHI * PHI);       // ~1130 Hz
@@ -40,6 +47,7 @@ public class SonicBridge {
     private AtomicBoolean isBroadcasting = new AtomicBoolean(false);
     private TargetDataLine micLine;
     private Thread listenerThread;
+    private final STFT spectrum = new STFT(FFT_SIZE, FFT_HOP, Window.HANN, SAMPLE_RATE, this::onSpectrumFrame);
     
     // Listener callback
     private SignalListener signalListener;
@@ -166,6 +174,7 @@ public class SonicBridge {
                 }
                 
                 micLine.start();
+                spectrum.reset();
                 byte[] buffer = new byte[4096];
                 
                 while (isListening.get()) {
@@ -200,65 +209,50 @@ public class SonicBridge {
 
     /**
      * Analyze audio buffer for ultrasonic signals
-     * Uses a simple energy-based detection (real impl would use FFT)
+     * Bytes stream straight into the sliding spectrum (no per-buffer copies);
+     * each completed frame is checked in onSpectrumFrame()
      */
     private void analyzeAudio(byte[] buffer, int length) {
-        // Convert bytes to samples
-        double[] samples = new double[length];
-        for (int i = 0; i < length; i++) {
-            samples[i] = buffer[i] / 128.0;
-        }
-        
-        // Simple Goertzel algorithm for specific frequency detection
-        double magHigh = goertzel(samples, FREQ_HIGH, SAMPLE_RATE);
-        double magLow = goertzel(samples, FREQ_LOW, SAMPLE_RATE);
-        double magSync = goertzel(samples, FREQ_SYNC, SAMPLE_RATE);
-        
-        // Threshold detection
-        double threshold = 0.1;
+        spectrum.pushPcm8(buffer, 0, length);
+    }
+
+    /**
+     * Feed already-decoded samples (e.g. FrequencyComm.generateTestSignal at
+     * 44.1 kHz) through the same detector, for offline testing.
+     * Not while the microphone listener is running (one spectrum per bridge).
+     */
+    public void analyzeSamples(double[] samples) {
+        spectrum.push(samples, 0, samples.length);
+    }
+
+    /**
+     * One STFT frame: read the sync / bit carriers and report chirps
+     */
+    private void onSpectrumFrame(double[] magnitudes, long frameIndex) {
+        double magHigh = spectrum.peakNear(magnitudes, FREQ_HIGH);
+        double magLow = spectrum.peakNear(magnitudes, FREQ_LOW);
+        double magSync = spectrum.peakNear(magnitudes, FREQ_SYNC);
         
-        if (magSync > threshold) {
+        if (magSync > DETECT_THRESHOLD) {
             System.out.println("!!! SYNC SIGNAL DETECTED | Strength: " + String.format("%.3f", magSync));
             if (signalListener != null) {
                 signalListener.onChirpDetected(FREQ_SYNC, magSync);
             }
         }
         
-        if (magHigh > threshold) {
+        if (magHigh > DETECT_THRESHOLD) {
             if (signalListener != null) {
                 signalListener.onChirpDetected(FREQ_HIGH, magHigh);
             }
         }
         
-        if (magLow > threshold) {
+        if (magLow > DETECT_THRESHOLD) {
             if (signalListener != null) {
                 signalListener.onChirpDetected(FREQ_LOW, magLow);
             }
         }
     }
 
-    /**
-     * Goertzel algorithm - efficient single-frequency detection
-     */
-    private double goertzel(double[] samples, double targetFreq, double sampleRate) {
-        int N = samples.length;
-        double k = Math.round(N * targetFreq / sampleRate);
-        double w = 2 * Math.PI * k / N;
-        double cosine = Math.cos(w);
-        double coeff = 2 * cosine;
-        
-        double s0 = 0, s1 = 0, s2 = 0;
-        
-        for (double sample : samples) {
-            s0 = sample + coeff * s1 - s2;
-            s2 = s1;
-            s1 = s0;
-        }
-        
-        double power = s1 * s1 + s2 * s2 - coeff * s1 * s2;
-        return Math.sqrt(power) / N;
-    }
-
     // ═══════════════════════════════════════════════════════════════════
     // AUDIO UTILITIES
     // ═══════════════════════════════════════════════════════════════════
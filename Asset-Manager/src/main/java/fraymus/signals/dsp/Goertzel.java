@@ -0,0 +1,33 @@
+package fraymus.signals.dsp;
+
+/**
+ * GOERTZEL: SINGLE-FREQUENCY DETECTOR
+ *
+ * When only a handful of frequencies matter (a carrier, a sync tone),
+ * one second-order recurrence per frequency beats a full FFT. The
+ * frequency need not sit on a bin: this is the exact DTFT magnitude,
+ * with one cosine per call instead of a sin/cos pair per sample.
+ */
+public final class Goertzel {
+
+    private Goertzel() {
+    }
+
+    /**
+     * Amplitude of {@code frequency} in x[offset .. offset+length):
+     * 2·|X(ω)| / length, so a sine of amplitude A reads ≈ A.
+     */
+    public static double amplitude(double[] x, int offset, int length, double frequency, double sampleRate) {
+        if (length == 0) return 0.0;
+        double w = 2.0 * Math.PI * frequency / sampleRate;
+        double coeff = 2.0 * Math.cos(w);
+        double s1 = 0, s2 = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            double s0 = x[i] + coeff * s1 - s2;
+            s2 = s1;
+            s1 = s0;
+        }
+        double power = s1 * s1 + s2 * s2 - coeff * s1 * s2;
+        return 2.0 * Math.sqrt(Math.max(0.0, power)) / length;
+    }
+}
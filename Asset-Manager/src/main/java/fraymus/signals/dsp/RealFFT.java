@@ -0,0 +1,204 @@
+package fraymus.signals.dsp;
+
+/**
+ * REAL FFT: RADIX-2 TRANSFORM FOR REAL-VALUED SIGNALS
+ *
+ * "Every bin at once, for the price of log N."
+ *
+ * A real signal of length n is packed into a complex signal of length n/2
+ * (even samples → real, odd samples → imaginary), transformed with an
+ * iterative radix-2 FFT, then split back into the n/2 + 1 bins of the
+ * real spectrum. Half the work of a complex FFT of size n.
+ *
+ * Everything that depends only on n is computed once in the constructor:
+ * - bit-reversal permutation
+ * - cos/sin twiddle tables (no Math.sin/cos in the hot loop)
+ * - the work buffers
+ *
+ * An instance is NOT thread-safe (it owns its scratch buffers); give each
+ * capture thread its own.
+ *
+ * USAGE:
+ *   RealFFT fft = new RealFFT(4096);
+ *   double[] mag = new double[fft.bins()];
+ *   fft.magnitudes(samples, 0, samples.length, mag);   // amplitude per bin
+ *   double hz = fft.binFrequency(peakBin, 8000.0);
+ */
+public final class RealFFT {
+
+    private final int n;            // real transform size
+    private final int half;         // complex transform size
+    private final int[] bitReverse;
+    private final double[] cos;     // cos(2πj/half), j < half/2
+    private final double[] sin;
+    private final double[] splitCos; // cos(2πk/n), k <= half
+    private final double[] splitSin;
+
+    // Scratch: complex work arrays and spectrum buffers for magnitudes()
+    private final double[] re;
+    private final double[] im;
+    private final double[] specRe;
+    private final double[] specIm;
+
+    /**
+     * @param n Transform size, a power of two ≥ 4
+     */
+    public RealFFT(int n) {
+        if (n < 4 || Integer.bitCount(n) != 1) {
+            throw new IllegalArgumentException("FFT size must be a power of two >= 4, got " + n);
+        }
+        this.n = n;
+        this.half = n / 2;
+        this.re = new double[half];
+        this.im = new double[half];
+        this.specRe = new double[half + 1];
+        this.specIm = new double[half + 1];
+
+        int bits = Integer.numberOfTrailingZeros(half);
+        bitReverse = new int[half];
+        for (int i = 0; i < half; i++) {
+            bitReverse[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+        }
+
+        cos = new double[Math.max(1, half / 2)];
+        sin = new double[cos.length];
+        for (int j = 0; j < cos.length; j++) {
+            double angle = 2.0 * Math.PI * j / half;
+            cos[j] = Math.cos(angle);
+            sin[j] = Math.sin(angle);
+        }
+
+        splitCos = new double[half + 1];
+        splitSin = new double[half + 1];
+        for (int k = 0; k <= half; k++) {
+            double angle = 2.0 * Math.PI * k / n;
+            splitCos[k] = Math.cos(angle);
+            splitSin[k] = Math.sin(angle);
+        }
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Number of spectrum bins (DC .. Nyquist inclusive)
+     */
+    public int bins() {
+        return half + 1;
+    }
+
+    public double binFrequency(int bin, double sampleRate) {
+        return bin * sampleRate / n;
+    }
+
+    public int binFor(double frequency, double sampleRate) {
+        int bin = (int) Math.round(frequency * n / sampleRate);
+        return Math.max(0, Math.min(half, bin));
+    }
+
+    /**
+     * Smallest power of two ≥ max(4, x)
+     */
+    public static int nextPowerOfTwo(int x) {
+        if (x <= 4) return 4;
+        return Integer.highestOneBit(x - 1) << 1;
+    }
+
+    // ========================================================================
+    // TRANSFORMS
+    // ========================================================================
+
+    /**
+     * Spectrum of x[offset .. offset+length), zero-padded to size().
+     *
+     * @param outRe Real parts, length ≥ bins()
+     * @param outIm Imaginary parts, length ≥ bins()
+     */
+    public void forward(double[] x, int offset, int length, double[] outRe, double[] outIm) {
+        forward(x, offset, length, null, outRe, outIm);
+    }
+
+    /**
+     * Spectrum of windowed input: x[i] · window[i] (window may be null)
+     */
+    public void forward(double[] x, int offset, int length, double[] window,
+                        double[] outRe, double[] outIm) {
+        if (length > n) {
+            throw new IllegalArgumentException("Input length " + length + " exceeds FFT size " + n);
+        }
+        // Pack even/odd samples into one complex sequence, in bit-reversed order
+        for (int m = 0; m < half; m++) {
+            int i0 = 2 * m;
+            int i1 = i0 + 1;
+            double a = i0 < length ? x[offset + i0] : 0.0;
+            double b = i1 < length ? x[offset + i1] : 0.0;
+            if (window != null) {
+                if (i0 < length) a *= window[i0];
+                if (i1 < length) b *= window[i1];
+            }
+            int r = bitReverse[m];
+            re[r] = a;
+            im[r] = b;
+        }
+        complexFFT();
+
+        // Split: X[k] = E[k] + W^k · O[k]
+        for (int k = 0; k <= half; k++) {
+            int k1 = k == half ? 0 : k;
+            int k2 = k == 0 ? 0 : half - k;
+            double ar = re[k1], ai = im[k1];
+            double br = re[k2], bi = -im[k2];          // conj(Z[half-k])
+            double er = 0.5 * (ar + br), ei = 0.5 * (ai + bi);
+            double dr = ar - br, di = ai - bi;
+            double or = 0.5 * di, oi = -0.5 * dr;       // (a - b) / 2i
+            double wr = splitCos[k], wi = -splitSin[k];
+            outRe[k] = er + wr * or - wi * oi;
+            outIm[k] = ei + wr * oi + wi * or;
+        }
+    }
+
+    /**
+     * Amplitude spectrum, scaled so a sine of amplitude A (spanning the
+     * input) reads ≈ A at its bin: |X[k]| · 2 / Σwindow.
+     */
+    public void magnitudes(double[] x, int offset, int length, double[] window, double[] out) {
+        forward(x, offset, length, window, specRe, specIm);
+        double gain = window == null ? length : Window.sum(window, length);
+        double scale = gain > 0 ? 2.0 / gain : 0.0;
+        for (int k = 0; k <= half; k++) {
+            out[k] = Math.sqrt(specRe[k] * specRe[k] + specIm[k] * specIm[k]) * scale;
+        }
+        // DC and Nyquist have no mirrored twin
+        out[0] *= 0.5;
+        out[half] *= 0.5;
+    }
+
+    /**
+     * Unwindowed amplitude spectrum
+     */
+    public void magnitudes(double[] x, int offset, int length, double[] out) {
+        magnitudes(x, offset, length, null, out);
+    }
+
+    private void complexFFT() {
+        for (int len = 2; len <= half; len <<= 1) {
+            int step = half / len;
+            int h = len >> 1;
+            for (int start = 0; start < half; start += len) {
+                for (int j = 0; j < h; j++) {
+                    double wr = cos[j * step];
+                    double wi = -sin[j * step];
+                    int p = start + j;
+                    int q = p + h;
+                    double tr = wr * re[q] - wi * im[q];
+                    double ti = wr * im[q] + wi * re[q];
+                    re[q] = re[p] - tr;
+                    im[q] = im[p] - ti;
+                    re[p] += tr;
+                    im[p] += ti;
+                }
+            }
+        }
+    }
+}
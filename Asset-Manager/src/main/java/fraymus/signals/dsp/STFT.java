@@ -0,0 +1,170 @@
+package fraymus.signals.dsp;
+
+import java.util.Arrays;
+
+/**
+ * STFT: SLIDING SPECTRUM FOR STREAMING CAPTURE
+ *
+ * "The microphone never stops; neither does the ear."
+ *
+ * Feed capture buffers of any size as they arrive; every {@code hop}
+ * samples a windowed frame of the last {@code frameSize} samples is
+ * transformed and handed to the listener. hop < frameSize gives
+ * overlapping frames (hop = frameSize / 2 is the usual choice).
+ *
+ * All buffers (ring, frame, spectrum) are allocated once. 8-bit PCM is
+ * converted sample by sample straight into the ring, so a capture loop
+ * allocates nothing per read.
+ *
+ * The magnitudes array passed to the listener is reused for the next
+ * frame: copy it if it must outlive the callback. Not thread-safe; feed
+ * from one capture thread.
+ *
+ * USAGE:
+ *   STFT stft = new STFT(1024, 512, Window.HANN, 44100, (mag, frame) -> {
+ *       double carrier = mag[stft.binFor(20000)];
+ *   });
+ *   while (capturing) {
+ *       int n = line.read(buf, 0, buf.length);
+ *       stft.pushPcm8(buf, 0, n);
+ *   }
+ */
+public final class STFT {
+
+    @FunctionalInterface
+    public interface FrameListener {
+        /**
+         * @param magnitudes Amplitude per bin (length bins()), reused between frames
+         * @param frameIndex 0-based count of frames emitted so far
+         */
+        void onFrame(double[] magnitudes, long frameIndex);
+    }
+
+    private final RealFFT fft;
+    private final int frameSize;
+    private final int hop;
+    private final double sampleRate;
+    private final double[] window;
+    private final FrameListener listener;
+
+    private final double[] ring;      // last frameSize samples, circular
+    private final double[] frame;     // ring unrolled in time order
+    private final double[] magnitudes;
+    private int writePos;
+    private long samplesSeen;
+    private int sinceLastFrame;
+    private long frames;
+
+    /**
+     * @param frameSize FFT frame length (power of two)
+     * @param hop Samples between consecutive frames (1 .. frameSize)
+     * @param window Taper applied to each frame
+     * @param sampleRate Input sample rate in Hz
+     * @param listener Receives each frame's amplitude spectrum
+     */
+    public STFT(int frameSize, int hop, Window window, double sampleRate, FrameListener listener) {
+        if (hop < 1 || hop > frameSize) {
+            throw new IllegalArgumentException("Hop must be in [1, frameSize], got " + hop);
+        }
+        this.fft = new RealFFT(frameSize);
+        this.frameSize = frameSize;
+        this.hop = hop;
+        this.sampleRate = sampleRate;
+        this.window = window.coefficients(frameSize);
+        this.listener = listener;
+        this.ring = new double[frameSize];
+        this.frame = new double[frameSize];
+        this.magnitudes = new double[fft.bins()];
+    }
+
+    // ========================================================================
+    // INPUT
+    // ========================================================================
+
+    public void push(double[] samples, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            accept(samples[i]);
+        }
+    }
+
+    /**
+     * Signed 8-bit PCM (javax.sound 8-bit signed format), scaled to [-1, 1)
+     */
+    public void pushPcm8(byte[] pcm, int offset, int length) {
+        for (int i = offset, end = offset + length; i < end; i++) {
+            accept(pcm[i] / 128.0);
+        }
+    }
+
+    /**
+     * Signed 16-bit PCM, scaled to [-1, 1)
+     */
+    public void pushPcm16(byte[] pcm, int offset, int length, boolean bigEndian) {
+        for (int i = offset, end = offset + length - 1; i < end; i += 2) {
+            int hi = bigEndian ? pcm[i] : pcm[i + 1];
+            int lo = (bigEndian ? pcm[i + 1] : pcm[i]) & 0xFF;
+            accept(((hi << 8) | lo) / 32768.0);
+        }
+    }
+
+    private void accept(double sample) {
+        ring[writePos] = sample;
+        writePos = (writePos + 1) % frameSize;
+        samplesSeen++;
+        if (++sinceLastFrame >= hop && samplesSeen >= frameSize) {
+            sinceLastFrame = 0;
+            emitFrame();
+        }
+    }
+
+    private void emitFrame() {
+        // Oldest sample sits at writePos
+        int tail = frameSize - writePos;
+        System.arraycopy(ring, writePos, frame, 0, tail);
+        System.arraycopy(ring, 0, frame, tail, writePos);
+        fft.magnitudes(frame, 0, frameSize, window, magnitudes);
+        listener.onFrame(magnitudes, frames++);
+    }
+
+    /**
+     * Forget buffered samples (e.g. after the capture line restarts)
+     */
+    public void reset() {
+        Arrays.fill(ring, 0.0);
+        writePos = 0;
+        samplesSeen = 0;
+        sinceLastFrame = 0;
+    }
+
+    // ========================================================================
+    // BINS
+    // ========================================================================
+
+    public int bins() {
+        return fft.bins();
+    }
+
+    public int binFor(double frequency) {
+        return fft.binFor(frequency, sampleRate);
+    }
+
+    public double binFrequency(int bin) {
+        return fft.binFrequency(bin, sampleRate);
+    }
+
+    /**
+     * Peak amplitude near {@code frequency} (its bin ± 1, absorbing leakage
+     * when the tone falls between bins)
+     */
+    public double peakNear(double[] magnitudes, double frequency) {
+        int bin = binFor(frequency);
+        double peak = magnitudes[bin];
+        if (bin > 0) peak = Math.max(peak, magnitudes[bin - 1]);
+        if (bin + 1 < magnitudes.length) peak = Math.max(peak, magnitudes[bin + 1]);
+        return peak;
+    }
+
+    public long getFrameCount() {
+        return frames;
+    }
+}
@@ -0,0 +1,68 @@
+package fraymus.signals.dsp;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WINDOW FUNCTIONS: TAPERING FOR SPECTRAL ANALYSIS
+ *
+ * A frame cut out of a longer signal has hard edges, and the FFT hears
+ * those edges as broadband noise ("leakage"). Tapering the frame first
+ * keeps a strong 60 Hz hum from burying a faint 432 Hz tone.
+ *
+ * Coefficient tables are cached per (window, size) and shared, so
+ * callers must treat the returned arrays as read-only.
+ */
+public enum Window {
+
+    /** No taper: best resolution, worst leakage */
+    RECTANGULAR,
+    /** General purpose: good leakage suppression */
+    HANN,
+    /** Slightly narrower main lobe than Hann */
+    HAMMING,
+    /** Strongest sidelobe suppression, widest main lobe */
+    BLACKMAN;
+
+    private final Map<Integer, double[]> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Coefficients for a frame of the given size (cached, read-only)
+     */
+    public double[] coefficients(int size) {
+        return cache.computeIfAbsent(size, this::compute);
+    }
+
+    private double[] compute(int size) {
+        double[] w = new double[size];
+        double denom = Math.max(1, size - 1);
+        for (int i = 0; i < size; i++) {
+            double x = 2.0 * Math.PI * i / denom;
+            switch (this) {
+                case HANN:
+                    w[i] = 0.5 - 0.5 * Math.cos(x);
+                    break;
+                case HAMMING:
+                    w[i] = 0.54 - 0.46 * Math.cos(x);
+                    break;
+                case BLACKMAN:
+                    w[i] = 0.42 - 0.5 * Math.cos(x) + 0.08 * Math.cos(2 * x);
+                    break;
+                default:
+                    w[i] = 1.0;
+            }
+        }
+        return w;
+    }
+
+    /**
+     * Sum of the first {@code length} coefficients (the window's coherent gain × length)
+     */
+    static double sum(double[] window, int length) {
+        double s = 0;
+        for (int i = 0; i < length; i++) {
+            s += window[i];
+        }
+        return s;
+    }
+}
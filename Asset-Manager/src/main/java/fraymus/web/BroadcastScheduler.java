@@ -0,0 +1,326 @@
+package fraymus.web;
+
+import fraymus.core.FraymusJSON;
+import org.java_websocket.WebSocket;
+import org.java_websocket.server.WebSocketServer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 📡 BROADCAST SCHEDULER - Coalesced Frames for Live Dashboards
+ * "Say it once, at the frame rate, to everyone."
+ *
+ * Producers publish as often as they like; clients hear at most one
+ * message per topic per frame:
+ * - STATE topics (consciousness, swarm status...) coalesce: latest value
+ *   of each field wins, unchanged fields are not re-sent
+ * - EVENT topics (predictions, spawns...) queue up to a bound per frame;
+ *   overflow drops the oldest
+ *
+ * Each message is serialized once per frame and handed to Java-WebSocket's
+ * broadcast(), which also builds the wire frame once for all receivers.
+ *
+ * SUBSCRIBER MODES (query string on connect, or a "subscribe" command):
+ *   ws://host:8082/                   full messages, text frames (default)
+ *   ws://host:8082/?delta=1           only changed fields, flagged "delta":true
+ *   ws://host:8082/?binary=1          UTF-8 JSON in binary frames
+ *
+ * Slow clients (bytes still queued from the last frame) skip the frame
+ * instead of buffering without bound. Any subscriber that skips a frame
+ * gets a full keyframe when it catches up.
+ */
+public class BroadcastScheduler {
+
+    private static final int MAX_EVENTS_PER_FRAME = 32;
+
+    private volatile WebSocketServer server;
+    private final long frameMillis;
+    private final ConcurrentHashMap<String, Topic> topics = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+
+    // Metrics
+    private final LongAdder published = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder framesSkipped = new LongAdder();
+    private final LongAdder eventsDropped = new LongAdder();
+
+    /**
+     * Per-connection preferences, stored as the WebSocket attachment
+     */
+    public static final class Subscriber {
+        volatile boolean delta;
+        volatile boolean binary;
+        volatile boolean needsKeyframe = true;
+
+        public Subscriber(boolean delta, boolean binary) {
+            this.delta = delta;
+            this.binary = binary;
+        }
+
+        /**
+         * Parse "?delta=1&binary=1" style options from a handshake resource descriptor
+         */
+        public static Subscriber fromResource(String resource) {
+            boolean delta = false;
+            boolean binary = false;
+            int q = resource == null ? -1 : resource.indexOf('?');
+            if (q >= 0) {
+                for (String param : resource.substring(q + 1).split("&")) {
+                    String[] kv = param.split("=", 2);
+                    boolean on = kv.length == 1 || kv[1].equals("1") || kv[1].equalsIgnoreCase("true");
+                    if (kv[0].equals("delta")) delta = on;
+                    if (kv[0].equals("binary")) binary = on;
+                }
+            }
+            return new Subscriber(delta, binary);
+        }
+
+        public void configure(boolean delta, boolean binary) {
+            this.delta = delta;
+            this.binary = binary;
+            this.needsKeyframe = true;
+        }
+    }
+
+    /**
+     * One topic's coalescing state. Guarded by its own monitor.
+     */
+    private static final class Topic {
+        final String type;
+        final boolean event;
+        final Map<String, Object> current = new LinkedHashMap<>();   // last emitted state
+        final Map<String, Object> pending = new LinkedHashMap<>();   // published since last frame
+        final ArrayDeque<Map<String, Object>> events = new ArrayDeque<>();
+        Message keyframe;                                            // serialized `current`
+
+        Topic(String type, boolean event) {
+            this.type = type;
+            this.event = event;
+        }
+    }
+
+    /**
+     * A message serialized once, encoded lazily once per wire format
+     */
+    private static final class Message {
+        final String text;
+        private byte[] bytes;
+
+        Message(String text) {
+            this.text = text;
+        }
+
+        byte[] bytes() {
+            if (bytes == null) {
+                bytes = text.getBytes(StandardCharsets.UTF_8);
+            }
+            return bytes;
+        }
+    }
+
+    public BroadcastScheduler(long frameMillis) {
+        this.frameMillis = frameMillis;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fraynix-broadcast");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Begin ticking frames out to server's connections (call from onStart,
+     * so the server is never handed out half-constructed)
+     */
+    public void start(WebSocketServer server) {
+        this.server = server;
+        ticker.scheduleAtFixedRate(this::tick, frameMillis, frameMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    // ========================================================================
+    // PUBLISH
+    // ========================================================================
+
+    /**
+     * Merge fields into a STATE topic; only the latest value per field is sent
+     */
+    public void publishState(String type, Map<String, ?> fields) {
+        Topic topic = topics.computeIfAbsent(type, t -> new Topic(t, false));
+        synchronized (topic) {
+            topic.pending.putAll(fields);
+        }
+        published.increment();
+    }
+
+    /**
+     * Queue a discrete EVENT; at most MAX_EVENTS_PER_FRAME per topic per frame
+     */
+    public void publishEvent(String type, Map<String, ?> fields) {
+        Topic topic = topics.computeIfAbsent(type, t -> new Topic(t, true));
+        Map<String, Object> msg = new LinkedHashMap<>();
+        msg.put("type", type);
+        msg.putAll(fields);
+        synchronized (topic) {
+            if (topic.events.size() == MAX_EVENTS_PER_FRAME) {
+                topic.events.pollFirst();
+                eventsDropped.increment();
+            }
+            topic.events.addLast(msg);
+        }
+        published.increment();
+    }
+
+    // ========================================================================
+    // FRAME
+    // ========================================================================
+
+    /**
+     * Build this frame's messages once, then fan them out per subscriber group
+     */
+    void tick() {
+        try {
+            List<Message> events = new ArrayList<>();
+            List<Message> states = new ArrayList<>();
+            List<Message> deltas = new ArrayList<>();
+            List<Message> keyframes = new ArrayList<>();
+
+            for (Topic topic : topics.values()) {
+                synchronized (topic) {
+                    if (topic.event) {
+                        while (!topic.events.isEmpty()) {
+                            events.add(new Message(FraymusJSON.stringify(topic.events.pollFirst())));
+                        }
+                        continue;
+                    }
+
+                    Map<String, Object> changed = new LinkedHashMap<>();
+                    for (Map.Entry<String, Object> e : topic.pending.entrySet()) {
+                        if (!topic.current.containsKey(e.getKey())
+                                || !Objects.equals(topic.current.get(e.getKey()), e.getValue())) {
+                            changed.put(e.getKey(), e.getValue());
+                        }
+                    }
+                    topic.pending.clear();
+
+                    if (!changed.isEmpty()) {
+                        topic.current.putAll(changed);
+                        Map<String, Object> msg = new LinkedHashMap<>();
+                        msg.put("type", topic.type);
+                        msg.putAll(topic.current);
+                        topic.keyframe = new Message(FraymusJSON.stringify(msg));
+                        states.add(topic.keyframe);
+
+                        Map<String, Object> delta = new LinkedHashMap<>();
+                        delta.put("type", topic.type);
+                        delta.put("delta", true);
+                        delta.putAll(changed);
+                        deltas.add(new Message(FraymusJSON.stringify(delta)));
+                    }
+                    if (topic.keyframe != null) {
+                        keyframes.add(topic.keyframe);
+                    }
+                }
+            }
+
+            states.addAll(events);
+            deltas.addAll(events);
+            keyframes.addAll(events);
+            fanOut(states, deltas, keyframes);
+        } catch (RuntimeException e) {
+            System.err.println("   ⚠️  Broadcast frame failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param full      changed state topics in full, then events
+     * @param deltas    changed fields only, then events
+     * @param keyframes every known state topic in full, then events
+     */
+    private void fanOut(List<Message> full, List<Message> deltas, List<Message> keyframes) {
+        List<WebSocket> fullText = new ArrayList<>();
+        List<WebSocket> fullBinary = new ArrayList<>();
+        List<WebSocket> deltaText = new ArrayList<>();
+        List<WebSocket> deltaBinary = new ArrayList<>();
+
+        for (WebSocket conn : server.getConnections()) {
+            if (!conn.isOpen()) {
+                continue;
+            }
+            Subscriber sub = conn.getAttachment();
+            if (sub == null) {
+                sub = new Subscriber(false, false);
+                conn.setAttachment(sub);
+            }
+
+            // Slow client: previous frame still queued → skip this one
+            if (conn.hasBufferedData()) {
+                framesSkipped.increment();
+                sub.needsKeyframe = true;   // the skipped frame's changes must reach full subscribers too
+                continue;
+            }
+
+            if (sub.needsKeyframe) {
+                sub.needsKeyframe = false;
+                for (Message m : keyframes) {
+                    send(conn, m, sub.binary);
+                }
+                continue;
+            }
+
+            if (sub.delta) {
+                (sub.binary ? deltaBinary : deltaText).add(conn);
+            } else {
+                (sub.binary ? fullBinary : fullText).add(conn);
+            }
+        }
+
+        broadcast(full, fullText, false);
+        broadcast(full, fullBinary, true);
+        broadcast(deltas, deltaText, false);
+        broadcast(deltas, deltaBinary, true);
+    }
+
+    private void broadcast(List<Message> messages, List<WebSocket> receivers, boolean binary) {
+        if (receivers.isEmpty()) {
+            return;
+        }
+        for (Message m : messages) {
+            if (binary) {
+                server.broadcast(m.bytes(), receivers);
+            } else {
+                server.broadcast(m.text, receivers);
+            }
+            messagesSent.add(receivers.size());
+        }
+    }
+
+    private void send(WebSocket conn, Message m, boolean binary) {
+        if (binary) {
+            conn.send(m.bytes());
+        } else {
+            conn.send(m.text);
+        }
+        messagesSent.increment();
+    }
+
+    // ========================================================================
+    // METRICS
+    // ========================================================================
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("frameMillis", frameMillis);
+        stats.put("topics", topics.size());
+        stats.put("published", published.sum());
+        stats.put("messagesSent", messagesSent.sum());
+        stats.put("framesSkipped", framesSkipped.sum());
+        stats.put("eventsDropped", eventsDropped.sum());
+        return stats;
+    }
+}
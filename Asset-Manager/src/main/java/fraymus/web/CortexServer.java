@@ -1,11 +1,10 @@
 package fraymus.web;
 
-import com.sun.net.httpserver.HttpServer;
 import com.sun.net.httpserver.HttpExchange;
 import fraymus.core.CoreIntelligence;
-import java.io.OutputStream;
-import java.io.IOException;
-import java.net.InetSocketAddress;
+import fraymus.web.ServingLayer.Reply;
+
+import java.time.Duration;
 
 /**
  * 🌐 CORTEX SERVER - The Web Dashboard
@@ -15,13 +14,21 @@ import java.net.InetSocketAddress;
  * - Live statistics (vocab, memory, uptime)
  * - Visual dashboard
  * - API access
+ * - Per-endpoint latency metrics (/api/metrics)
+ * 
+ * Served through ServingLayer: virtual thread per request,
+ * 429 load-shedding, gzip for the dashboard and JSON.
  * 
  * This makes Fraymus observable from any browser.
  */
 public class CortexServer {
     
+    private static final int MAX_IN_FLIGHT = 256;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    
     private final CoreIntelligence brain;
-    private HttpServer server;
+    private ServingLayer server;
+    private volatile Reply dashboard;
 
     public CortexServer(CoreIntelligence brain) {
         this.brain = brain;
@@ -36,18 +43,17 @@ public class CortexServer {
         
         for (int attempt = 0; attempt < maxAttempts; attempt++) {
             try {
-                server = HttpServer.create(new InetSocketAddress(currentPort), 0);
+                server = ServingLayer.bind(currentPort, MAX_IN_FLIGHT, REQUEST_TIMEOUT);
                 
                 // API: Current State
-                server.createContext("/api/status", this::handleStatus);
+                server.route("/api/status", this::handleStatus);
                 
                 // API: Statistics
-                server.createContext("/api/stats", this::handleStats);
+                server.route("/api/stats", this::handleStats);
 
                 // UI: The Dashboard
-                server.createContext("/", this::handleDashboard);
+                server.route("/", this::handleDashboard);
 
-                server.setExecutor(null); // Default executor
                 server.start();
                 
                 System.out.println("🌐 CORTEX WEB LIVE: http://localhost:" + currentPort);
@@ -80,7 +86,7 @@ public class CortexServer {
     /**
      * Handle /api/status
      */
-    private void handleStatus(HttpExchange ex) throws IOException {
+    private Reply handleStatus(HttpExchange ex) {
         String json = String.format(
             "{\"vocab\": %d, \"memory\": %d, \"uptime\": %d, \"processes\": %d}",
             brain.getVocabSize(),
@@ -88,13 +94,13 @@ public class CortexServer {
             brain.getUptime(),
             brain.getProcessCount()
         );
-        sendResponse(ex, json, "application/json");
+        return Reply.json(json);
     }
 
     /**
      * Handle /api/stats
      */
-    private void handleStats(HttpExchange ex) throws IOException {
+    private Reply handleStats(HttpExchange ex) {
         String json = String.format(
             "{\"vocab\": %d, \"memory\": %d, \"facts\": %d, \"concepts\": %d, \"uptime\": %d, \"processes\": %d, \"birthTime\": %d}",
             brain.getVocabSize(),
@@ -105,14 +111,23 @@ public class CortexServer {
             brain.getProcessCount(),
             brain.birthTime
         );
-        sendResponse(ex, json, "application/json");
+        return Reply.json(json);
     }
 
     /**
-     * Handle / (dashboard)
+     * Handle / (dashboard). The page is static, so it is built
+     * (and gzipped) once and reused for every poll.
      */
-    private void handleDashboard(HttpExchange ex) throws IOException {
-        String html = """
+    private Reply handleDashboard(HttpExchange ex) {
+        Reply page = dashboard;
+        if (page == null) {
+            page = Reply.html(DASHBOARD_HTML);
+            dashboard = page;
+        }
+        return page;
+    }
+
+    private static final String DASHBOARD_HTML = """
             <!DOCTYPE html>
             <html>
             <head>
@@ -223,18 +238,4 @@ public class CortexServer {
             </body>
             </html>
             """;
-        
-        sendResponse(ex, html, "text/html");
-    }
-
-    /**
-     * Send HTTP response
-     */
-    private void sendResponse(HttpExchange ex, String data, String contentType) throws IOException {
-        ex.getResponseHeaders().set("Content-Type", contentType);
-        ex.sendResponseHeaders(200, data.length());
-        try (OutputStream os = ex.getResponseBody()) {
-            os.write(data.getBytes());
-        }
-    }
 }
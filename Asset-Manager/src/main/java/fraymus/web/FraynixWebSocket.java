@@ -10,6 +10,9 @@ import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpExchange;
 
 import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.io.IOException;
@@ -22,10 +25,19 @@ import java.nio.file.Paths;
  * FraynixWebSocket - WebSocket server for FRAYNIX OS visualization
  * Broadcasts FraymusConvergence state to connected web clients
  * Also serves the fraynix-os.html file via HTTP
+ *
+ * Broadcasts go through a BroadcastScheduler: updates are coalesced into
+ * FRAME_MILLIS frames, serialized once, and slow clients skip frames
+ * instead of queueing. Clients may connect with ?delta=1 (changed fields
+ * only) and/or ?binary=1 (binary frames), or send
+ * {"command":"subscribe","data":{"delta":true,"binary":false}}.
  */
 public class FraynixWebSocket extends WebSocketServer {
     
+    private static final long FRAME_MILLIS = 50;   // 20 frames/sec
+
     private final Set<WebSocket> clients = new CopyOnWriteArraySet<>();
+    private final BroadcastScheduler scheduler = new BroadcastScheduler(FRAME_MILLIS);
     private HttpServer httpServer;
     
     public FraynixWebSocket(int port) {
@@ -87,6 +99,7 @@ public class FraynixWebSocket extends WebSocketServer {
     
     @Override
     public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        conn.setAttachment(BroadcastScheduler.Subscriber.fromResource(handshake.getResourceDescriptor()));
         clients.add(conn);
         System.out.println("   ✓ FRAYNIX OS client connected: " + conn.getRemoteSocketAddress());
         
@@ -121,6 +134,13 @@ public class FraynixWebSocket extends WebSocketServer {
                     boolean active = data.optJSONObject("data").optBoolean("active", false);
                     System.out.println("   💤 DreamState: " + (active ? "ENTER" : "EXIT"));
                     break;
+                case "subscribe":
+                    JSONObject opts = data.optJSONObject("data");
+                    BroadcastScheduler.Subscriber sub = conn.getAttachment();
+                    if (opts != null && sub != null) {
+                        sub.configure(opts.optBoolean("delta", false), opts.optBoolean("binary", false));
+                    }
+                    break;
             }
             
         } catch (Exception e) {
@@ -135,84 +155,91 @@ public class FraynixWebSocket extends WebSocketServer {
     
     @Override
     public void onStart() {
+        scheduler.start(this);
         System.out.println("   ✓ FraynixWebSocket server started successfully");
     }
     
+    /**
+     * stop() and stop(int) both end up here; halt the frame thread with the server
+     */
+    @Override
+    public void stop(int timeout, String closeMessage) throws InterruptedException {
+        scheduler.stop();
+        super.stop(timeout, closeMessage);
+    }
+    
     /**
      * Broadcast HDC prediction to all connected clients
      */
     public void broadcastHDCPrediction(String prediction) {
-        JSONObject msg = new JSONObject();
-        msg.put("type", "hdc_prediction");
-        msg.put("prediction", prediction);
-        broadcastToClients(msg.toString());
+        scheduler.publishEvent("hdc_prediction", Collections.singletonMap("prediction", prediction));
     }
     
     /**
      * Broadcast consciousness level update
      */
     public void broadcastConsciousness(double level) {
-        JSONObject msg = new JSONObject();
-        msg.put("type", "consciousness");
-        msg.put("level", level);
-        broadcastToClients(msg.toString());
+        scheduler.publishState("consciousness", Collections.singletonMap("level", level));
     }
     
     /**
      * Broadcast living code spawn event
      */
     public void broadcastLivingCode(String name) {
-        JSONObject msg = new JSONObject();
-        msg.put("type", "living_code");
-        msg.put("name", name);
-        broadcastToClients(msg.toString());
+        scheduler.publishEvent("living_code", Collections.singletonMap("name", name));
     }
     
     /**
      * Broadcast memory operation
      */
     public void broadcastMemoryOperation(int activeAgents) {
-        JSONObject msg = new JSONObject();
-        msg.put("type", "memory_operation");
-        msg.put("activeAgents", activeAgents);
-        broadcastToClients(msg.toString());
+        scheduler.publishState("memory_operation", Collections.singletonMap("activeAgents", activeAgents));
     }
     
     /**
      * Broadcast dreamstate change
      */
     public void broadcastDreamState(boolean entering) {
-        String msg = String.format("{\"type\":\"dreamstate\",\"active\":%b}", entering);
-        broadcastToClients(msg);
+        scheduler.publishState("dreamstate", Collections.singletonMap("active", entering));
     }
 
     public void broadcastAeonSwarmStatus(long cycle, long entropy, int activeCores, int maxCores) {
-        String msg = String.format("{\"type\":\"aeon_swarm\",\"cycle\":%d,\"entropy\":%d,\"activeCores\":%d,\"maxCores\":%d}", 
-            cycle, entropy, activeCores, maxCores);
-        broadcastToClients(msg);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("cycle", cycle);
+        fields.put("entropy", entropy);
+        fields.put("activeCores", activeCores);
+        fields.put("maxCores", maxCores);
+        scheduler.publishState("aeon_swarm", fields);
     }
 
     public void broadcastAeonLearning(String source, String topic, double weight) {
-        String msg = String.format("{\"type\":\"aeon_learning\",\"source\":\"%s\",\"topic\":\"%s\",\"weight\":%.3f}", 
-            source, topic, weight);
-        broadcastToClients(msg);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("source", source);
+        fields.put("topic", topic);
+        fields.put("weight", Math.round(weight * 1000) / 1000.0);
+        scheduler.publishEvent("aeon_learning", fields);
     }
 
     public void broadcastAeonDiffusion(int step, String status) {
-        String msg = String.format("{\"type\":\"aeon_diffusion\",\"step\":%d,\"status\":\"%s\"}", 
-            step, status);
-        broadcastToClients(msg);
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("step", step);
+        fields.put("status", status);
+        scheduler.publishState("aeon_diffusion", fields);
     }
     
     /**
-     * Broadcast message to all connected clients
+     * Broadcast a pre-serialized message to all connected clients immediately,
+     * bypassing frame coalescing (frame encoded once for all receivers)
      */
     public void broadcastToClients(String message) {
-        for (WebSocket client : clients) {
-            if (client.isOpen()) {
-                client.send(message);
-            }
-        }
+        broadcast(message, clients);
+    }
+
+    /**
+     * Broadcast scheduler metrics (messages sent, frames skipped, events dropped)
+     */
+    public Map<String, Object> getBroadcastStats() {
+        return scheduler.getStats();
     }
     
     /**
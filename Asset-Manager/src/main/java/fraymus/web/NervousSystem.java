@@ -1,15 +1,13 @@
 package fraymus.web;
 
-import com.sun.net.httpserver.HttpServer;
-import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpExchange;
 import fraymus.core.FraymusJSON;
 import fraymus.nexus.OllamaBridge;
+import fraymus.web.ServingLayer.Reply;
 
 import java.io.IOException;
-import java.io.OutputStream;
-import java.net.InetSocketAddress;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.Map;
 
 /**
@@ -32,6 +30,8 @@ import java.util.Map;
  * - Endpoint: POST /transmute
  * - Format: JSON (using sovereign FraymusJSON)
  * - CORS enabled for local HTML files
+ * - Virtual thread per request; beyond MAX_IN_FLIGHT requests → 429
+ * - Latency histograms at GET /api/metrics
  * 
  * ZERO DEPENDENCIES:
  * - Uses com.sun.net.httpserver (built into JDK)
@@ -40,6 +40,10 @@ import java.util.Map;
  */
 public class NervousSystem {
     
+    private static final int MAX_IN_FLIGHT = 32;
+    private static final Duration TRANSMUTE_TIMEOUT = Duration.ofMinutes(3);
+    private static final Duration HEALTH_TIMEOUT = Duration.ofSeconds(10);
+    
     private final OllamaBridge brain;
     private final int port;
     
@@ -85,15 +89,17 @@ public class NervousSystem {
             System.out.println();
         }
         
-        // Create HTTP server
-        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        // Create HTTP server (virtual thread per request, bounded admission)
+        ServingLayer server = ServingLayer.bind(port, MAX_IN_FLIGHT, HEALTH_TIMEOUT);
         
-        // Register endpoints
-        server.createContext("/transmute", new TransmuteHandler());
-        server.createContext("/health", new HealthHandler());
+        // CORS headers on every reply, 405/429/504 included (crucial for HTML local files)
+        server.header("Access-Control-Allow-Origin", "*")
+              .header("Access-Control-Allow-Methods", "POST, OPTIONS")
+              .header("Access-Control-Allow-Headers", "Content-Type");
         
-        // Use thread pool for concurrent requests
-        server.setExecutor(java.util.concurrent.Executors.newFixedThreadPool(4));
+        // Register endpoints
+        server.route("/transmute", this::handleTransmute, TRANSMUTE_TIMEOUT);
+        server.route("/health", this::handleHealth, HEALTH_TIMEOUT);
         
         // Start server
         server.start();
@@ -107,6 +113,7 @@ public class NervousSystem {
         System.out.println("   Port: " + port);
         System.out.println("   Endpoint: POST /transmute");
         System.out.println("   Health: GET /health");
+        System.out.println("   Metrics: GET /api/metrics");
         System.out.println();
         System.out.println("   Waiting for transmuter interface signals...");
         System.out.println("   Open Fraymus_Transmuter.html in your browser");
@@ -120,116 +127,82 @@ public class NervousSystem {
     /**
      * Handle /transmute endpoint
      */
-    private class TransmuteHandler implements HttpHandler {
-        @Override
-        public void handle(HttpExchange exchange) throws IOException {
-            // CORS headers (crucial for HTML local files)
-            exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
-            exchange.getResponseHeaders().add("Access-Control-Allow-Methods", "POST, OPTIONS");
-            exchange.getResponseHeaders().add("Access-Control-Allow-Headers", "Content-Type");
-            exchange.getResponseHeaders().add("Content-Type", "application/json");
-            
-            // Handle preflight
-            if ("OPTIONS".equals(exchange.getRequestMethod())) {
-                exchange.sendResponseHeaders(204, -1);
-                return;
+    private Reply handleTransmute(HttpExchange exchange) throws IOException {
+        // Handle preflight
+        if ("OPTIONS".equals(exchange.getRequestMethod())) {
+            return Reply.empty(204);
+        }
+        
+        // Method not allowed
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            return Reply.empty(405);
+        }
+        
+        try {
+            // 1. READ INPUT (parsed straight from the request stream)
+            Map<String, Object> json;
+            try (InputStream in = exchange.getRequestBody()) {
+                json = (Map<String, Object>) FraymusJSON.parse(in);
             }
             
-            // Handle POST
-            if ("POST".equals(exchange.getRequestMethod())) {
-                try {
-                    // 1. READ INPUT
-                    String body = new String(
-                        exchange.getRequestBody().readAllBytes(),
-                        StandardCharsets.UTF_8
-                    );
-                    
-                    System.out.println("═══════════════════════════════════════════════════════════════");
-                    System.out.println("📥 SIGNAL RECEIVED");
-                    System.out.println("═══════════════════════════════════════════════════════════════");
-                    System.out.println("   Payload size: " + body.length() + " bytes");
-                    
-                    // 2. PARSE JSON (Using Sovereign Parser)
-                    Map<String, Object> json = (Map<String, Object>) FraymusJSON.parse(body);
-                    String sourceCode = (String) json.get("source");
-                    
-                    if (sourceCode == null || sourceCode.isEmpty()) {
-                        throw new IllegalArgumentException("No source code provided");
-                    }
-                    
-                    System.out.println("   Source code: " + sourceCode.length() + " chars");
-                    System.out.println();
-                    
-                    // 3. THE BICAMERAL PROCESS (Left/Right Brain)
-                    String evolvedCode = performBicameralTransmutation(sourceCode);
-                    
-                    // 4. SEND RESPONSE
-                    String response = FraymusJSON.stringify(Map.of(
-                        "result", evolvedCode,
-                        "status", "success"
-                    ));
-                    
-                    byte[] respBytes = response.getBytes(StandardCharsets.UTF_8);
-                    exchange.sendResponseHeaders(200, respBytes.length);
-                    
-                    try (OutputStream os = exchange.getResponseBody()) {
-                        os.write(respBytes);
-                    }
-                    
-                    System.out.println("📤 TRANSMUTATION SENT");
-                    System.out.println("   Result size: " + evolvedCode.length() + " chars");
-                    System.out.println("═══════════════════════════════════════════════════════════════");
-                    System.out.println();
-                    
-                } catch (Exception e) {
-                    System.err.println("❌ ERROR: " + e.getMessage());
-                    e.printStackTrace();
-                    
-                    String errorResponse = FraymusJSON.stringify(Map.of(
-                        "error", e.getMessage(),
-                        "status", "error"
-                    ));
-                    
-                    byte[] errorBytes = errorResponse.getBytes(StandardCharsets.UTF_8);
-                    exchange.sendResponseHeaders(500, errorBytes.length);
-                    
-                    try (OutputStream os = exchange.getResponseBody()) {
-                        os.write(errorBytes);
-                    }
-                }
-            } else {
-                // Method not allowed
-                exchange.sendResponseHeaders(405, -1);
+            System.out.println("═══════════════════════════════════════════════════════════════");
+            System.out.println("📥 SIGNAL RECEIVED");
+            System.out.println("═══════════════════════════════════════════════════════════════");
+            
+            // 2. VALIDATE
+            String sourceCode = (String) json.get("source");
+            
+            if (sourceCode == null || sourceCode.isEmpty()) {
+                throw new IllegalArgumentException("No source code provided");
             }
-        }
-    }
-    
-    /**
-     * Handle /health endpoint
-     */
-    private class HealthHandler implements HttpHandler {
-        @Override
-        public void handle(HttpExchange exchange) throws IOException {
-            exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
-            exchange.getResponseHeaders().add("Content-Type", "application/json");
             
-            boolean ollamaAvailable = brain.isAvailable();
+            System.out.println("   Source code: " + sourceCode.length() + " chars");
+            System.out.println();
+            
+            // 3. THE BICAMERAL PROCESS (Left/Right Brain)
+            String evolvedCode = performBicameralTransmutation(sourceCode);
             
+            // 4. SEND RESPONSE
             String response = FraymusJSON.stringify(Map.of(
-                "status", ollamaAvailable ? "healthy" : "degraded",
-                "ollama", ollamaAvailable,
-                "port", port
+                "result", evolvedCode,
+                "status", "success"
             ));
             
-            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(200, bytes.length);
+            System.out.println("📤 TRANSMUTATION SENT");
+            System.out.println("   Result size: " + evolvedCode.length() + " chars");
+            System.out.println("═══════════════════════════════════════════════════════════════");
+            System.out.println();
             
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(bytes);
-            }
+            return Reply.json(response);
+            
+        } catch (Exception e) {
+            System.err.println("❌ ERROR: " + e.getMessage());
+            e.printStackTrace();
+            
+            String errorResponse = FraymusJSON.stringify(Map.of(
+                "error", String.valueOf(e.getMessage()),
+                "status", "error"
+            ));
+            
+            return Reply.json(500, errorResponse);
         }
     }
     
+    /**
+     * Handle /health endpoint
+     */
+    private Reply handleHealth(HttpExchange exchange) {
+        boolean ollamaAvailable = brain.isAvailable();
+        
+        String response = FraymusJSON.stringify(Map.of(
+            "status", ollamaAvailable ? "healthy" : "degraded",
+            "ollama", ollamaAvailable,
+            "port", port
+        ));
+        
+        return Reply.json(response);
+    }
+    
     // ═══════════════════════════════════════════════════════════════════
     // BICAMERAL TRANSMUTATION
     // ═══════════════════════════════════════════════════════════════════
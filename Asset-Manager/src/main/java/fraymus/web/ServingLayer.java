@@ -0,0 +1,318 @@
+package fraymus.web;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import fraymus.core.FraymusJSON;
+import fraymus.core.LatencyHistogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 🛡️ SERVING LAYER - Shared HTTP Front End
+ * "Every request gets a thread. Not every request gets in."
+ *
+ * Wraps com.sun.net.httpserver.HttpServer for CortexServer and NervousSystem:
+ * - Virtual-thread-per-request dispatch (a slow LLM call never blocks a poll)
+ * - Bounded admission: beyond maxInFlight requests, shed load with 429
+ * - Per-endpoint request timeouts (504 when exceeded, handler interrupted)
+ * - Layer-wide headers (e.g. CORS) on every reply, including 429/504/500
+ * - gzip for HTML/JSON bodies when the client accepts it
+ * - Per-endpoint latency histograms, served at /api/metrics
+ *
+ * Endpoints return a Reply instead of writing to the exchange themselves,
+ * so compression, status codes and accounting live in one place.
+ *
+ * USAGE:
+ *   ServingLayer web = ServingLayer.bind(8080, 64, Duration.ofSeconds(10));
+ *   web.route("/api/status", ex -> Reply.json(statusJson()));
+ *   web.route("/transmute", this::transmute, Duration.ofMinutes(3));
+ *   web.start();
+ */
+public class ServingLayer {
+
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private final HttpServer server;
+    private final Semaphore admission;
+    private final int maxInFlight;
+    private final Duration defaultTimeout;
+    // platform thread: a CPU-bound handler can pin every virtual-thread carrier
+    private final ScheduledExecutorService deadlines =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("serving-deadline").daemon().factory());
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, String> headers = new ConcurrentHashMap<>();
+
+    /**
+     * Endpoint logic: inspect the exchange (method, headers, body) and return a Reply
+     */
+    @FunctionalInterface
+    public interface Endpoint {
+        Reply handle(HttpExchange exchange) throws Exception;
+    }
+
+    private ServingLayer(HttpServer server, int maxInFlight, Duration defaultTimeout) {
+        this.server = server;
+        this.maxInFlight = maxInFlight;
+        this.admission = new Semaphore(maxInFlight);
+        this.defaultTimeout = defaultTimeout;
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/metrics", ex -> dispatch(ex, "/api/metrics",
+                e -> Reply.json(FraymusJSON.stringify(metrics())), defaultTimeout, false));
+    }
+
+    /**
+     * Bind a server socket. Throws java.net.BindException if the port is taken.
+     *
+     * @param port Port to listen on
+     * @param maxInFlight Requests processed concurrently before shedding with 429
+     * @param defaultTimeout Timeout for routes registered without one
+     */
+    public static ServingLayer bind(int port, int maxInFlight, Duration defaultTimeout) throws IOException {
+        return new ServingLayer(HttpServer.create(new InetSocketAddress(port), 0), maxInFlight, defaultTimeout);
+    }
+
+    public ServingLayer route(String path, Endpoint endpoint) {
+        return route(path, endpoint, defaultTimeout);
+    }
+
+    public ServingLayer route(String path, Endpoint endpoint, Duration timeout) {
+        server.createContext(path, ex -> dispatch(ex, path, endpoint, timeout, true));
+        return this;
+    }
+
+    /**
+     * Header added to every reply this layer sends, including the ones it
+     * generates itself (429, 504, 500). Reply headers override it.
+     */
+    public ServingLayer header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        deadlines.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // ========================================================================
+    // DISPATCH
+    // ========================================================================
+
+    /**
+     * Runs on the server's per-request virtual thread. The handler runs
+     * inline; a deadline task answers 504 and interrupts it on timeout.
+     * The admission permit is held until the handler actually returns, so
+     * a handler that ignores the interrupt still counts against maxInFlight.
+     */
+    private void dispatch(HttpExchange ex, String path, Endpoint endpoint, Duration timeout, boolean admit) throws IOException {
+        EndpointStats endpointStats = stats.computeIfAbsent(path, p -> new EndpointStats());
+        long start = System.nanoTime();
+
+        if (admit && !admission.tryAcquire()) {
+            endpointStats.shed.increment();
+            Reply busy = Reply.json(429, "{\"error\": \"overloaded\", \"status\": 429}").header("Retry-After", "1");
+            send(ex, busy);
+            return;
+        }
+
+        Thread handler = Thread.currentThread();
+        AtomicBoolean answered = new AtomicBoolean();
+        ScheduledFuture<?> deadline;
+        try {
+            deadline = deadlines.schedule(() -> {
+                if (answered.compareAndSet(false, true)) {
+                    endpointStats.timeouts.increment();
+                    handler.interrupt();
+                    respond(ex, endpointStats, start, Reply.json(504, "{\"error\": \"timeout\", \"status\": 504}"));
+                }
+            }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            if (admit) {
+                admission.release();
+            }
+            send(ex, Reply.json(503, "{\"error\": \"shutting down\", \"status\": 503}"));
+            return;
+        }
+
+        Reply reply;
+        try {
+            reply = endpoint.handle(ex);
+            if (reply == null) {
+                reply = Reply.empty(204);
+            }
+        } catch (Exception e) {
+            if (!answered.get()) {
+                System.err.println("❌ " + path + ": " + e.getMessage());
+            }
+            reply = Reply.json(500, FraymusJSON.stringify(Map.of(
+                    "error", String.valueOf(e.getMessage()),
+                    "status", "error")));
+        } finally {
+            deadline.cancel(false);
+            if (admit) {
+                admission.release();
+            }
+        }
+
+        if (answered.compareAndSet(false, true)) {
+            respond(ex, endpointStats, start, reply);
+        }
+        Thread.interrupted();   // a late deadline interrupt must not leak past this request
+    }
+
+    private void respond(HttpExchange ex, EndpointStats endpointStats, long start, Reply reply) {
+        try {
+            send(ex, reply);
+        } catch (IOException e) {
+            // client went away; still account for the request
+        }
+        endpointStats.latency.record(System.nanoTime() - start, reply.status >= 500);
+    }
+
+    private void send(HttpExchange ex, Reply reply) throws IOException {
+        try {
+            headers.forEach((k, v) -> ex.getResponseHeaders().set(k, v));
+            reply.headers.forEach((k, v) -> ex.getResponseHeaders().set(k, v));
+            if (reply.body == null) {
+                ex.sendResponseHeaders(reply.status, -1);
+                return;
+            }
+            ex.getResponseHeaders().set("Content-Type", reply.contentType);
+
+            byte[] body = reply.body;
+            String accept = ex.getRequestHeaders().getFirst("Accept-Encoding");
+            if (reply.compressible() && accept != null && accept.contains("gzip")) {
+                body = reply.gzipped();
+                ex.getResponseHeaders().set("Content-Encoding", "gzip");
+                ex.getResponseHeaders().add("Vary", "Accept-Encoding");
+            }
+
+            ex.sendResponseHeaders(reply.status, body.length);
+            try (OutputStream os = ex.getResponseBody()) {
+                os.write(body);
+            }
+        } finally {
+            ex.close();
+        }
+    }
+
+    // ========================================================================
+    // METRICS
+    // ========================================================================
+
+    /**
+     * Snapshot of per-endpoint metrics (also served as JSON at /api/metrics)
+     */
+    public Map<String, Object> metrics() {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stats).entrySet()) {
+            EndpointStats s = entry.getValue();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("requests", s.latency.getRequests());
+            m.put("errors", s.latency.getErrors());
+            m.put("shed", s.shed.sum());
+            m.put("timeouts", s.timeouts.sum());
+            m.put("meanMs", s.latency.getMeanMillis());
+            m.put("p50Ms", s.latency.getPercentileMillis(50));
+            m.put("p99Ms", s.latency.getPercentileMillis(99));
+            m.put("maxMs", s.latency.getMaxMillis());
+            endpoints.put(entry.getKey(), m);
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("inFlight", maxInFlight - admission.availablePermits());
+        root.put("maxInFlight", maxInFlight);
+        root.put("endpoints", endpoints);
+        return root;
+    }
+
+    private static final class EndpointStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder shed = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+    }
+
+    // ========================================================================
+    // REPLY
+    // ========================================================================
+
+    /**
+     * Immutable-ish HTTP reply. A Reply built once and returned repeatedly
+     * (e.g. a static dashboard page) is gzipped only the first time.
+     */
+    public static final class Reply {
+        final int status;
+        final String contentType;
+        final byte[] body;
+        final Map<String, String> headers = new LinkedHashMap<>();
+        private volatile byte[] gzipped;
+
+        private Reply(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public static Reply json(String json) {
+            return json(200, json);
+        }
+
+        public static Reply json(int status, String json) {
+            return new Reply(status, "application/json; charset=utf-8", json.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Reply html(String html) {
+            return new Reply(200, "text/html; charset=utf-8", html.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Status-only reply with no body (e.g. 204 preflight, 405)
+         */
+        public static Reply empty(int status) {
+            return new Reply(status, null, null);
+        }
+
+        public Reply header(String name, String value) {
+            headers.put(name, value);
+            return this;
+        }
+
+        boolean compressible() {
+            return body.length >= GZIP_MIN_BYTES
+                    && (contentType.startsWith("text/") || contentType.startsWith("application/json"));
+        }
+
+        byte[] gzipped() {
+            byte[] g = gzipped;
+            if (g == null) {
+                ByteArrayOutputStream bos = new ByteArrayOutputStream(body.length / 3 + 64);
+                try (GZIPOutputStream gz = new GZIPOutputStream(bos)) {
+                    gz.write(body);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                g = bos.toByteArray();
+                gzipped = g;
+            }
+            return g;
+        }
+    }
+}
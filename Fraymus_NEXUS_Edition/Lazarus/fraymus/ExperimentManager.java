@@ -93,6 +93,7 @@ public class ExperimentManager {
         this.bardoPatterns = new BardoMemoryPatterns(infiniteMemory);
         this.feedbackService = new ContextualFeedbackService();
         this.mrlAnalytics = new MRLAnalytics();
+        this.mrlAnalytics.setMemory(infiniteMemory);
         
         // Initialize AGI Systems
         this.metaLearner = new MetaLearner();
@@ -120,6 +120,7 @@ public class InfiniteMemory {
 
     private final List<MemoryRecord> records = Collections.synchronizedList(new ArrayList<>());
     private final Map<String, List<Integer>> categoryIndex = new ConcurrentHashMap<>();
+    private final MemoryColumns columns = new MemoryColumns();
     private final Path storageFile;
     private int totalRecordsEver = 0;
     private long lastSaveTime = 0;
@@ -192,16 +193,18 @@ public class InfiniteMemory {
         // Limit in-memory records to prevent overflow
         if (records.size() >= MAX_IN_MEMORY_RECORDS) {
             // Remove oldest 20% when limit reached
-            int toRemove = MAX_IN_MEMORY_RECORDS / 5;
+            int toRemove = Math.min(MAX_IN_MEMORY_RECORDS / 5, records.size());
             for (int i = 0; i < toRemove && !records.isEmpty(); i++) {
                 records.remove(0);
             }
+            columns.dropOldest(toRemove);
             rebuildCategoryIndex();
             System.gc(); // Force garbage collection
         }
         
         int idx = records.size();
         records.add(record);
+        columns.append(record);
         categoryIndex.computeIfAbsent(category, k -> Collections.synchronizedList(new ArrayList<>())).add(idx);
         totalRecordsEver++;
         dirty = true;
@@ -291,12 +294,14 @@ public class InfiniteMemory {
     }
 
     public double getAverageResonance() {
-        if (records.isEmpty()) return 0;
-        double sum = 0;
-        for (MemoryRecord r : records) {
-            sum += r.phiResonance;
-        }
-        return sum / records.size();
+        return columns.snapshot().averageResonance();
+    }
+
+    /**
+     * Columnar view of the live records, for analytics
+     */
+    public MemoryColumns getColumns() {
+        return columns;
     }
 
     public void forceSave() {
@@ -348,6 +353,7 @@ public class InfiniteMemory {
                 if (record != null) {
                     int idx = records.size();
                     records.add(record);
+                    columns.append(record);
                     categoryIndex.computeIfAbsent(record.category,
                             k -> Collections.synchronizedList(new ArrayList<>())).add(idx);
                 }
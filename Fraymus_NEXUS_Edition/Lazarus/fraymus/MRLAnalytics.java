@@ -11,6 +11,7 @@ import java.util.*;
  * - BARDO state monitoring
  * - Age to DSR (Data State Ratio) patterns
  * - Latency metrics
+ * - Per-category memory reports (columnar scans via MemoryColumns)
  */
 public class MRLAnalytics {
 
@@ -54,6 +55,10 @@ public class MRLAnalytics {
     private Quadrant currentQuadrant = Quadrant.LOW_PASSIVE;
     private double mrlScore = 1.0;
 
+    // Memory being analysed (columnar reports); null = metrics only
+    private InfiniteMemory memory;
+    private static final long ACTIVITY_WINDOW_MS = 3600_000L;
+
     public MRLAnalytics() {
         initializeMetrics();
     }
@@ -271,6 +276,75 @@ public class MRLAnalytics {
         return suggestions;
     }
 
+    // ═══════════════════════════════════════════════════════════════════
+    // MEMORY REPORTS (columnar scans over InfiniteMemory)
+    // ═══════════════════════════════════════════════════════════════════
+
+    public void setMemory(InfiniteMemory memory) {
+        this.memory = memory;
+    }
+
+    /**
+     * Per-category resonance stats for the whole memory, largest first
+     */
+    public List<MemoryColumns.GroupStats> getCategoryStats() {
+        if (memory == null) return Collections.emptyList();
+        return memory.getColumns().snapshot().groupByCategory(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Place each memory category on the MRL grid: resonance against the
+     * memory-wide mean, activity as the category's share of the last
+     * window against its share overall
+     */
+    public Map<String, Quadrant> getMemoryQuadrants(long windowMs) {
+        Map<String, Quadrant> result = new LinkedHashMap<>();
+        if (memory == null) return result;
+
+        MemoryColumns.Snapshot snap = memory.getColumns().snapshot();
+        if (snap.size() == 0) return result;
+        double avgRes = snap.averageResonance();
+        long now = System.currentTimeMillis();
+
+        List<MemoryColumns.GroupStats> all = snap.groupByCategory(Long.MIN_VALUE, Long.MAX_VALUE);
+        Map<String, Long> recent = new HashMap<>();
+        long recentTotal = 0;
+        for (MemoryColumns.GroupStats g : snap.groupByCategory(now - windowMs, Long.MAX_VALUE)) {
+            recent.put(g.key(), g.count());
+            recentTotal += g.count();
+        }
+
+        for (MemoryColumns.GroupStats g : all) {
+            boolean highRes = g.mean() >= avgRes;
+            double share = (double) g.count() / snap.size();
+            double recentShare = recentTotal == 0 ? 0 : (double) recent.getOrDefault(g.key(), 0L) / recentTotal;
+            boolean highAct = recentShare >= share;
+            result.put(g.key(), highRes
+                    ? (highAct ? Quadrant.HIGH_ACTIVE : Quadrant.HIGH_PASSIVE)
+                    : (highAct ? Quadrant.LOW_ACTIVE : Quadrant.LOW_PASSIVE));
+        }
+        return result;
+    }
+
+    private void printMemoryReport() {
+        MemoryColumns.Snapshot snap = memory.getColumns().snapshot();
+        CommandTerminal.print("");
+        CommandTerminal.printInfo(String.format("Memory Resonance (%d records, avg %.4f):", snap.size(), snap.averageResonance()));
+        Map<String, Quadrant> quadrants = getMemoryQuadrants(ACTIVITY_WINDOW_MS);
+        List<MemoryColumns.GroupStats> stats = snap.groupByCategory(Long.MIN_VALUE, Long.MAX_VALUE);
+        for (MemoryColumns.GroupStats g : stats.subList(0, Math.min(10, stats.size()))) {
+            CommandTerminal.print(String.format("  %-14s %7d  mean %.3f  [%.3f..%.3f]  %s",
+                    g.key(), g.count(), g.mean(), g.min(), g.max(), quadrants.get(g.key())));
+        }
+
+        long bucket = ACTIVITY_WINDOW_MS / 6;
+        long now = System.currentTimeMillis();
+        MemoryColumns.Histogram h = snap.timeHistogram(now - ACTIVITY_WINDOW_MS, bucket, 6, null);
+        StringBuilder line = new StringBuilder("  Last hour (10 min buckets):");
+        for (long c : h.counts()) line.append(' ').append(c);
+        CommandTerminal.print(line.toString());
+    }
+
     // Getters
     public double getMrlScore() { return mrlScore; }
     public double getPhaseConsistency() { return phaseConsistency; }
@@ -294,6 +368,9 @@ public class MRLAnalytics {
         for (Map.Entry<Quadrant, Double> e : getQuadrantDistribution().entrySet()) {
             CommandTerminal.print(String.format("  %s: %.1f%%", e.getKey().name(), e.getValue() * 100));
         }
+        if (memory != null) {
+            printMemoryReport();
+        }
         
         List<String> suggestions = getSuggestions();
         if (!suggestions.isEmpty()) {
@@ -0,0 +1,308 @@
+package fraymus;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * MEMORY COLUMNS: Columnar snapshot of InfiniteMemory records
+ *
+ * One primitive array per field instead of one object per record:
+ *
+ *   category   int[]     dictionary code (categoryDict)
+ *   entity     int[]     dictionary code (entityDict), -1 = none
+ *   timestamp  long[]
+ *   resonance  double[]
+ *
+ * Kept in step with InfiniteMemory (append on store, drop oldest on
+ * eviction), so reports never re-walk record objects or compare
+ * strings. Operators run as tight loops over the arrays, grouped by
+ * dictionary code into per-group accumulator arrays; above
+ * PARALLEL_THRESHOLD rows the scan is split into chunks that run on
+ * the common pool and merge their partial accumulators.
+ *
+ * Readers work on an immutable {@link Snapshot}: the writer only ever
+ * appends past the snapshot's end or swaps in new arrays, so a
+ * snapshot stays valid without locking.
+ */
+public class MemoryColumns {
+
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int CHUNK = 1 << 15;
+
+    private final Map<String, Integer> categoryCodes = new HashMap<>();
+    private final Map<String, Integer> entityCodes = new HashMap<>();
+    private String[] categoryDict = new String[16];
+    private String[] entityDict = new String[16];
+    private int categoryCount, entityCount;
+
+    private int[] category = new int[1024];
+    private int[] entity = new int[1024];
+    private long[] timestamp = new long[1024];
+    private double[] resonance = new double[1024];
+    private int start, end;              // live rows are [start, end)
+    private boolean timeOrdered = true;  // lets time windows binary-search
+
+    /**
+     * Append one record (InfiniteMemory calls this on every store)
+     */
+    public synchronized void append(InfiniteMemory.MemoryRecord r) {
+        if (end == timestamp.length) grow();
+        category[end] = code(categoryCodes, r.category, true);
+        entity[end] = r.entityName == null ? -1 : code(entityCodes, r.entityName, false);
+        if (end > start && r.timestamp < timestamp[end - 1]) timeOrdered = false;
+        timestamp[end] = r.timestamp;
+        resonance[end] = r.phiResonance;
+        end++;
+    }
+
+    /**
+     * Forget the n oldest rows (mirrors InfiniteMemory's eviction)
+     */
+    public synchronized void dropOldest(int n) {
+        start = Math.min(end, start + Math.max(0, n));
+    }
+
+    public synchronized void clear() {
+        category = new int[1024];
+        entity = new int[1024];
+        timestamp = new long[1024];
+        resonance = new double[1024];
+        start = end = 0;
+        timeOrdered = true;
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(category, entity, timestamp, resonance, start, end, timeOrdered,
+            Arrays.copyOf(categoryDict, categoryCount), Arrays.copyOf(entityDict, entityCount));
+    }
+
+    private int code(Map<String, Integer> codes, String value, boolean isCategory) {
+        Integer c = codes.get(value);
+        if (c != null) return c;
+        if (isCategory) {
+            if (categoryCount == categoryDict.length) categoryDict = Arrays.copyOf(categoryDict, categoryCount * 2);
+            categoryDict[categoryCount] = value;
+            codes.put(value, categoryCount);
+            return categoryCount++;
+        }
+        if (entityCount == entityDict.length) entityDict = Arrays.copyOf(entityDict, entityCount * 2);
+        entityDict[entityCount] = value;
+        codes.put(value, entityCount);
+        return entityCount++;
+    }
+
+    /**
+     * New arrays (never resized in place, so snapshots stay valid); evicted
+     * rows are compacted away at the same time
+     */
+    private void grow() {
+        int live = end - start;
+        int cap = Math.max(1024, live * 2);
+        category = Arrays.copyOfRange(category, start, start + cap);
+        entity = Arrays.copyOfRange(entity, start, start + cap);
+        timestamp = Arrays.copyOfRange(timestamp, start, start + cap);
+        resonance = Arrays.copyOfRange(resonance, start, start + cap);
+        start = 0;
+        end = live;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // RESULTS
+    // ═══════════════════════════════════════════════════════════════════
+
+    public record GroupStats(String key, long count, double sum, double min, double max) {
+        public double mean() { return count == 0 ? 0 : sum / count; }
+    }
+
+    /**
+     * Fixed-width time buckets starting at fromTs
+     */
+    public record Histogram(long fromTs, long bucketMs, long[] counts, double[] resonanceSums) {
+        public double mean(int bucket) {
+            return counts[bucket] == 0 ? 0 : resonanceSums[bucket] / counts[bucket];
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // SNAPSHOT + OPERATORS
+    // ═══════════════════════════════════════════════════════════════════
+
+    public static final class Snapshot {
+        private final int[] category, entity;
+        private final long[] timestamp;
+        private final double[] resonance;
+        private final int start, end;
+        private final boolean timeOrdered;
+        private final String[] categoryDict, entityDict;
+
+        private Snapshot(int[] category, int[] entity, long[] timestamp, double[] resonance,
+                         int start, int end, boolean timeOrdered, String[] categoryDict, String[] entityDict) {
+            this.category = category;
+            this.entity = entity;
+            this.timestamp = timestamp;
+            this.resonance = resonance;
+            this.start = start;
+            this.end = end;
+            this.timeOrdered = timeOrdered;
+            this.categoryDict = categoryDict;
+            this.entityDict = entityDict;
+        }
+
+        public int size() { return end - start; }
+
+        public double averageResonance() {
+            int n = size();
+            if (n == 0) return 0;
+            double sum = 0;
+            for (int i = start; i < end; i++) sum += resonance[i];
+            return sum / n;
+        }
+
+        /**
+         * count/sum/min/max of resonance per category, rows with
+         * fromTs ≤ timestamp < toTs; largest groups first
+         */
+        public List<GroupStats> groupByCategory(long fromTs, long toTs) {
+            return group(category, categoryDict, fromTs, toTs);
+        }
+
+        /**
+         * Same per entity (records without an entity are skipped)
+         */
+        public List<GroupStats> groupByEntity(long fromTs, long toTs) {
+            return group(entity, entityDict, fromTs, toTs);
+        }
+
+        public Map<String, Integer> countsByCategory() {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (GroupStats g : groupByCategory(Long.MIN_VALUE, Long.MAX_VALUE)) {
+                counts.put(g.key(), (int) g.count());
+            }
+            return counts;
+        }
+
+        /**
+         * Activity and mean resonance per time bucket, optionally for one
+         * category (null = all)
+         */
+        public Histogram timeHistogram(long fromTs, long bucketMs, int buckets, String categoryFilter) {
+            long toTs = fromTs + bucketMs * buckets;
+            int want = -2;   // -2 = no filter
+            if (categoryFilter != null) {
+                want = Arrays.asList(categoryDict).indexOf(categoryFilter);
+                if (want < 0) return new Histogram(fromTs, bucketMs, new long[buckets], new double[buckets]);
+            }
+            int[] range = rows(fromTs, toTs);
+            final int filter = want;
+            Acc acc = scan(range[0], range[1], () -> new Acc(buckets), (a, lo, hi) -> {
+                for (int i = lo; i < hi; i++) {
+                    long t = timestamp[i];
+                    if (t < fromTs || t >= toTs) continue;
+                    if (filter != -2 && category[i] != filter) continue;
+                    int b = (int) ((t - fromTs) / bucketMs);
+                    a.count[b]++;
+                    a.sum[b] += resonance[i];
+                }
+            });
+            return new Histogram(fromTs, bucketMs, acc.count, acc.sum);
+        }
+
+        private List<GroupStats> group(int[] codes, String[] dict, long fromTs, long toTs) {
+            int groups = dict.length;
+            int[] range = rows(fromTs, toTs);
+            boolean filterTime = !timeOrdered && (fromTs != Long.MIN_VALUE || toTs != Long.MAX_VALUE);
+            Acc acc = scan(range[0], range[1], () -> new Acc(groups), (a, lo, hi) -> {
+                for (int i = lo; i < hi; i++) {
+                    int g = codes[i];
+                    if (g < 0 || g >= groups) continue;
+                    if (filterTime && (timestamp[i] < fromTs || timestamp[i] >= toTs)) continue;
+                    double r = resonance[i];
+                    a.count[g]++;
+                    a.sum[g] += r;
+                    if (r < a.min[g]) a.min[g] = r;
+                    if (r > a.max[g]) a.max[g] = r;
+                }
+            });
+            List<GroupStats> result = new ArrayList<>();
+            for (int g = 0; g < groups; g++) {
+                if (acc.count[g] > 0) {
+                    result.add(new GroupStats(dict[g], acc.count[g], acc.sum[g], acc.min[g], acc.max[g]));
+                }
+            }
+            result.sort((a, b) -> Long.compare(b.count(), a.count()));
+            return result;
+        }
+
+        /**
+         * Rows that can hold timestamps in [fromTs, toTs): a binary-searched
+         * slice when rows are time-ordered, otherwise everything
+         */
+        private int[] rows(long fromTs, long toTs) {
+            if (!timeOrdered) return new int[] { start, end };
+            return new int[] { lowerBound(fromTs), lowerBound(toTs) };
+        }
+
+        private int lowerBound(long t) {
+            int lo = start, hi = end;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (timestamp[mid] < t) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        /**
+         * Run kernel over [lo, hi), chunked across the common pool when
+         * the range is large, merging per-chunk accumulators
+         */
+        private static Acc scan(int lo, int hi, java.util.function.Supplier<Acc> fresh, Kernel kernel) {
+            int n = hi - lo;
+            if (n < PARALLEL_THRESHOLD) {
+                Acc a = fresh.get();
+                kernel.run(a, lo, hi);
+                return a;
+            }
+            int chunks = (n + CHUNK - 1) / CHUNK;
+            return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> {
+                    Acc a = fresh.get();
+                    kernel.run(a, lo + c * CHUNK, Math.min(hi, lo + (c + 1) * CHUNK));
+                    return a;
+                })
+                .reduce(Acc::merge)
+                .orElseGet(fresh);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Kernel {
+        void run(Acc acc, int lo, int hi);
+    }
+
+    /**
+     * Per-group accumulators, indexed by dictionary code or bucket
+     */
+    private static final class Acc {
+        final long[] count;
+        final double[] sum, min, max;
+
+        Acc(int groups) {
+            count = new long[groups];
+            sum = new double[groups];
+            min = new double[groups];
+            max = new double[groups];
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        }
+
+        Acc merge(Acc o) {
+            for (int g = 0; g < count.length; g++) {
+                count[g] += o.count[g];
+                sum[g] += o.sum[g];
+                min[g] = Math.min(min[g], o.min[g]);
+                max[g] = Math.max(max[g], o.max[g]);
+            }
+            return this;
+        }
+    }
+}
@@ -252,6 +252,9 @@ public class AutonomicSystem {
             }
         }
         
+        // Drain pending demotions (batch files, git) before exit
+        storage.close();
+        
         System.out.println("   ✓ Autonomic system offline");
     }
 
@@ -1,6 +1,7 @@
 package fraymus.evolution.goals;
 
 import fraymus.evolution.EvolutionGoal;
+import fraymus.hardware.BitCircuit;
 import fraymus.hardware.LogicBlock;
 import java.util.List;
 
@@ -19,33 +20,22 @@ public class FullAdderGoal extends EvolutionGoal {
         super("Full Adder", "1-bit addition with carry", 15);
     }
     
+    // All 8 cases: A, B, Cin → Sum (the stack sees B ⊕ Cin on its side input)
+    private static final BitCircuit.Vectors TESTS = new BitCircuit.Vectors();
+    static {
+        for (int i = 0; i < 8; i++) {
+            boolean a = (i & 4) != 0, b = (i & 2) != 0, cin = (i & 1) != 0;
+            TESTS.add(a, b ^ cin, a ^ b ^ cin);
+        }
+    }
+    
     @Override
     public int calculateFitness(List<LogicBlock> circuit) {
         if (circuit.isEmpty()) return 0;
         
-        int score = 0;
-        int maxScore = 8; // 8 test cases (all combinations of 3 inputs)
-        
-        // Test all 8 cases: A, B, Cin → Sum, Cout
-        boolean[][] tests = {
-            {false, false, false}, // 0+0+0 = 0, carry 0
-            {false, false, true},  // 0+0+1 = 1, carry 0
-            {false, true, false},  // 0+1+0 = 1, carry 0
-            {false, true, true},   // 0+1+1 = 0, carry 1
-            {true, false, false},  // 1+0+0 = 1, carry 0
-            {true, false, true},   // 1+0+1 = 0, carry 1
-            {true, true, false},   // 1+1+0 = 0, carry 1
-            {true, true, true}     // 1+1+1 = 1, carry 1
-        };
-        
-        boolean[] expectedSum = {false, true, true, false, true, false, false, true};
-        
-        for (int i = 0; i < tests.length; i++) {
-            boolean result = runCircuit(circuit, tests[i][0], tests[i][1], tests[i][2]);
-            if (result == expectedSum[i]) score++;
-        }
-        
-        return (score * 100) / maxScore;
+        // For now, simplified: chain through circuit
+        // In real implementation, would need to extract both Sum and Carry outputs
+        return TESTS.percent(circuit);
     }
     
     @Override
@@ -58,14 +48,4 @@ public class FullAdderGoal extends EvolutionGoal {
         int fitness = calculateFitness(circuit);
         return String.format("Full Adder: %d%% (%d/8 test cases)", fitness, fitness * 8 / 100);
     }
-    
-    private boolean runCircuit(List<LogicBlock> circuit, boolean a, boolean b, boolean cin) {
-        // For now, simplified: chain through circuit
-        // In real implementation, would need to extract both Sum and Carry outputs
-        boolean signal = a;
-        for (LogicBlock gate : circuit) {
-            signal = gate.process(signal, b ^ cin); // Simplified
-        }
-        return signal;
-    }
 }
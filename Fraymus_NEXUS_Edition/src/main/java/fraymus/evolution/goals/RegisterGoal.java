@@ -1,6 +1,7 @@
 package fraymus.evolution.goals;
 
 import fraymus.evolution.EvolutionGoal;
+import fraymus.hardware.BitCircuit;
 import fraymus.hardware.LogicBlock;
 import java.util.List;
 
@@ -17,35 +18,22 @@ public class RegisterGoal extends EvolutionGoal {
         super("8-bit Register", "Memory storage (LOAD, STORE, HOLD)", 45);
     }
     
+    // 8 storage patterns as (data, enable, expected) rows
+    // (simplified - in real implementation would test actual flip-flop behavior)
+    private static final BitCircuit.Vectors TESTS = new BitCircuit.Vectors()
+        .add(false, true, false)   // Store 0
+        .add(true, true, true)     // Store 1
+        .add(false, false, true)   // Toggle 0 → 1
+        .add(true, false, false)   // Toggle 1 → 0
+        .add(true, false, true)    // Hold 1
+        .add(false, false, false)  // Hold 0
+        .add(true, true, true)     // Load new value 1
+        .add(false, true, false);  // Load new value 0
+    
     @Override
     public int calculateFitness(List<LogicBlock> circuit) {
         if (circuit.isEmpty()) return 0;
-        
-        int score = 0;
-        int maxScore = 8; // Test 8 different storage patterns
-        
-        // Test if circuit can maintain state (simplified)
-        // In real implementation, would test actual flip-flop behavior
-        
-        // Test pattern 1: Store 0
-        if (testStore(circuit, false, false)) score++;
-        
-        // Test pattern 2: Store 1
-        if (testStore(circuit, true, true)) score++;
-        
-        // Test pattern 3: Toggle
-        if (testToggle(circuit, false, true)) score++;
-        if (testToggle(circuit, true, false)) score++;
-        
-        // Test pattern 4: Hold state
-        if (testHold(circuit, true)) score++;
-        if (testHold(circuit, false)) score++;
-        
-        // Test pattern 5: Load new value
-        if (testLoad(circuit, false, true)) score++;
-        if (testLoad(circuit, true, false)) score++;
-        
-        return (score * 100) / maxScore;
+        return TESTS.percent(circuit);
     }
     
     @Override
@@ -58,32 +46,4 @@ public class RegisterGoal extends EvolutionGoal {
         int fitness = calculateFitness(circuit);
         return String.format("8-bit Register: %d%% (%d/8 operations)", fitness, fitness * 8 / 100);
     }
-    
-    private boolean testStore(List<LogicBlock> circuit, boolean input, boolean expected) {
-        boolean result = runCircuit(circuit, input, true);
-        return result == expected;
-    }
-    
-    private boolean testToggle(List<LogicBlock> circuit, boolean from, boolean to) {
-        boolean result = runCircuit(circuit, from, false);
-        return result != from; // Should toggle
-    }
-    
-    private boolean testHold(List<LogicBlock> circuit, boolean value) {
-        boolean result = runCircuit(circuit, value, false);
-        return result == value; // Should maintain
-    }
-    
-    private boolean testLoad(List<LogicBlock> circuit, boolean old, boolean newVal) {
-        boolean result = runCircuit(circuit, newVal, true);
-        return result == newVal; // Should load new value
-    }
-    
-    private boolean runCircuit(List<LogicBlock> circuit, boolean data, boolean enable) {
-        boolean signal = data;
-        for (LogicBlock gate : circuit) {
-            signal = gate.process(signal, enable);
-        }
-        return signal;
-    }
 }
@@ -1,6 +1,7 @@
 package fraymus.evolution.goals;
 
 import fraymus.evolution.EvolutionGoal;
+import fraymus.hardware.BitCircuit;
 import fraymus.hardware.LogicBlock;
 import java.util.List;
 
@@ -11,6 +12,13 @@ import java.util.List;
  */
 public class XORGoal extends EvolutionGoal {
     
+    // All 4 cases, packed for one bit-sliced pass
+    private static final BitCircuit.Vectors TESTS = new BitCircuit.Vectors()
+        .add(false, false, false)
+        .add(false, true, true)
+        .add(true, false, true)
+        .add(true, true, false);
+    
     public XORGoal() {
         super("XOR Gate", "Binary addition (0⊕1=1, 1⊕1=0)", 5);
     }
@@ -19,16 +27,7 @@ public class XORGoal extends EvolutionGoal {
     public int calculateFitness(List<LogicBlock> circuit) {
         if (circuit.isEmpty()) return 0;
         
-        int score = 0;
-        int maxScore = 4;
-        
-        // Test all 4 cases
-        if (runCircuit(circuit, false, false) == false) score++;
-        if (runCircuit(circuit, false, true) == true) score++;
-        if (runCircuit(circuit, true, false) == true) score++;
-        if (runCircuit(circuit, true, true) == false) score++;
-        
-        return (score * 100) / maxScore;
+        return TESTS.percent(circuit);
     }
     
     @Override
@@ -41,12 +40,4 @@ public class XORGoal extends EvolutionGoal {
         int fitness = calculateFitness(circuit);
         return String.format("XOR: %d%% (%d/4 test cases)", fitness, fitness * 4 / 100);
     }
-    
-    private boolean runCircuit(List<LogicBlock> circuit, boolean a, boolean b) {
-        boolean signal = a;
-        for (LogicBlock gate : circuit) {
-            signal = gate.process(signal, b);
-        }
-        return signal;
-    }
 }
@@ -0,0 +1,268 @@
+package fraymus.hardware;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * BIT CIRCUIT
+ * "64 universes per clock tick."
+ *
+ * A compiled gate netlist evaluated bit-sliced: every wire is a long,
+ * and bit i of every wire belongs to test vector i. One pass over the
+ * netlist simulates 64 input patterns, so a full truth table of an
+ * n-input circuit costs ceil(2^n / 64) passes instead of 2^n.
+ *
+ * NETLIST:
+ * Wires 0..inputs-1 are primary inputs, then one wire per gate.
+ * Each gate reads two earlier wires (NOT ignores its second one).
+ *
+ * The breeders grow "Tetris stacks": the signal starts at input A and
+ * threads through every gate, with input B on every gate's side input.
+ * chain() compiles exactly that; Vectors scores a stack against a test
+ * table without compiling anything (one long op per gate).
+ *
+ * "We don't test circuits one row at a time. We test the whole table."
+ */
+public final class BitCircuit {
+
+    private final int inputs;
+    private final LogicBlock[] gates;
+    private final int[] srcA;
+    private final int[] srcB;
+    private final int output;
+
+    private BitCircuit(int inputs, LogicBlock[] gates, int[] srcA, int[] srcB, int output) {
+        this.inputs = inputs;
+        this.gates = gates;
+        this.srcA = srcA;
+        this.srcB = srcB;
+        this.output = output;
+    }
+
+    /**
+     * Compile a breeder stack: A threads through, B feeds every gate
+     */
+    public static BitCircuit chain(List<LogicBlock> circuit) {
+        Builder b = builder(2);
+        return b.output(b.chain(circuit, 0, 1));
+    }
+
+    public static Builder builder(int inputs) {
+        return new Builder(inputs);
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // EVALUATION
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Simulate 64 vectors: in[k] holds input k's bit for each vector
+     */
+    public long evaluate(long... in) {
+        long[] wires = new long[inputs + gates.length];
+        return evaluate(in, wires);
+    }
+
+    /**
+     * Same as evaluate(long...) with a caller-owned scratch array
+     * (length >= getWireCount()), for allocation-free inner loops
+     */
+    public long evaluate(long[] in, long[] wires) {
+        System.arraycopy(in, 0, wires, 0, inputs);
+        for (int g = 0; g < gates.length; g++) {
+            wires[inputs + g] = gates[g].process(wires[srcA[g]], wires[srcB[g]]);
+        }
+        return wires[output];
+    }
+
+    /**
+     * Full truth table: bit p of word p/64 is the output for input
+     * pattern p, where input k is bit k of p
+     */
+    public long[] truthTable() {
+        if (inputs > 26) {
+            throw new IllegalStateException("Truth table too large: " + inputs + " inputs");
+        }
+        int patterns = 1 << inputs;
+        long[] table = new long[(patterns + 63) >>> 6];
+        long[] in = new long[inputs];
+        long[] wires = new long[getWireCount()];
+        for (int w = 0; w < table.length; w++) {
+            for (int k = 0; k < inputs; k++) {
+                in[k] = inputWord(k, w);
+            }
+            table[w] = evaluate(in, wires);
+        }
+        // Patterns beyond 2^n (n < 6) are not real rows
+        if (patterns < 64) table[0] &= (1L << patterns) - 1;
+        return table;
+    }
+
+    /**
+     * Input k's bits for truth-table word w (patterns 64w .. 64w+63)
+     */
+    static long inputWord(int k, int w) {
+        if (k < 6) return LANE_MASKS[k];
+        return ((w >>> (k - 6)) & 1) != 0 ? -1L : 0L;
+    }
+
+    // Bit p of LANE_MASKS[k] = bit k of p
+    private static final long[] LANE_MASKS = {
+        0xAAAAAAAAAAAAAAAAL,
+        0xCCCCCCCCCCCCCCCCL,
+        0xF0F0F0F0F0F0F0F0L,
+        0xFF00FF00FF00FF00L,
+        0xFFFF0000FFFF0000L,
+        0xFFFFFFFF00000000L
+    };
+
+    /**
+     * Scalar run of one pattern (bit k of pattern = input k)
+     */
+    public boolean run(long pattern) {
+        long[] in = new long[inputs];
+        for (int k = 0; k < inputs; k++) {
+            in[k] = ((pattern >>> k) & 1) != 0 ? -1L : 0L;
+        }
+        return (evaluate(in) & 1) != 0;
+    }
+
+    /**
+     * Evaluate a breeder stack over 64 vectors without compiling it
+     */
+    public static long runChain(List<LogicBlock> circuit, long a, long b) {
+        long signal = a;
+        for (int i = 0, n = circuit.size(); i < n; i++) {
+            signal = circuit.get(i).process(signal, b);
+        }
+        return signal;
+    }
+
+    public int getInputCount() { return inputs; }
+    public int getGateCount() { return gates.length; }
+    public int getWireCount() { return inputs + gates.length; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("BitCircuit[in=" + inputs + "]");
+        for (int g = 0; g < gates.length; g++) {
+            sb.append(" w").append(inputs + g).append('=').append(gates[g].getSymbol())
+              .append("(w").append(srcA[g]).append(",w").append(srcB[g]).append(')');
+        }
+        return sb.append(" → w").append(output).toString();
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // BUILDER
+    // ═══════════════════════════════════════════════════════════════════
+
+    public static final class Builder {
+        private final int inputs;
+        private final List<LogicBlock> gates = new ArrayList<>();
+        private final List<int[]> sources = new ArrayList<>();
+
+        private Builder(int inputs) {
+            if (inputs < 1) throw new IllegalArgumentException("Need at least one input");
+            this.inputs = inputs;
+        }
+
+        /**
+         * Add a gate reading two existing wires; returns its output wire
+         */
+        public int gate(LogicBlock type, int a, int b) {
+            int next = inputs + gates.size();
+            if (a < 0 || a >= next || b < 0 || b >= next) {
+                throw new IllegalArgumentException("Gate reads an undefined wire: " + a + ", " + b);
+            }
+            gates.add(type);
+            sources.add(new int[]{ a, b });
+            return next;
+        }
+
+        /**
+         * Thread a signal wire through a stack, side wire on every gate
+         */
+        public int chain(List<LogicBlock> stack, int signal, int side) {
+            int wire = signal;
+            for (LogicBlock g : stack) {
+                wire = gate(g, wire, side);
+            }
+            return wire;
+        }
+
+        public BitCircuit output(int wire) {
+            int n = gates.size();
+            if (wire < 0 || wire >= inputs + n) {
+                throw new IllegalArgumentException("Undefined output wire: " + wire);
+            }
+            int[] a = new int[n];
+            int[] b = new int[n];
+            for (int g = 0; g < n; g++) {
+                a[g] = sources.get(g)[0];
+                b[g] = sources.get(g)[1];
+            }
+            return new BitCircuit(inputs, gates.toArray(new LogicBlock[0]), a, b, wire);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // TEST VECTORS
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * A packed test table for breeder stacks: each row is (A, B,
+     * expected). Rows are sliced into words of 64, so scoring a stack
+     * is one pass per 64 rows and a popcount.
+     */
+    public static final class Vectors {
+        private long[] a = new long[1];
+        private long[] b = new long[1];
+        private long[] expected = new long[1];
+        private int rows;
+
+        public Vectors add(boolean inA, boolean inB, boolean out) {
+            int w = rows >>> 6;
+            if (w == a.length) {
+                a = Arrays.copyOf(a, w * 2);
+                b = Arrays.copyOf(b, w * 2);
+                expected = Arrays.copyOf(expected, w * 2);
+            }
+            long bit = 1L << (rows & 63);
+            if (inA) a[w] |= bit;
+            if (inB) b[w] |= bit;
+            if (out) expected[w] |= bit;
+            rows++;
+            return this;
+        }
+
+        /**
+         * Number of rows the stack gets right
+         */
+        public int score(List<LogicBlock> circuit) {
+            int passed = 0;
+            int words = (rows + 63) >>> 6;
+            for (int w = 0; w < words; w++) {
+                long out = runChain(circuit, a[w], b[w]);
+                long valid = (w == words - 1 && (rows & 63) != 0) ? (1L << (rows & 63)) - 1 : -1L;
+                passed += Long.bitCount(~(out ^ expected[w]) & valid);
+            }
+            return passed;
+        }
+
+        /**
+         * Score as a 0-100 percentage (integer, like the goals report)
+         */
+        public int percent(List<LogicBlock> circuit) {
+            return rows == 0 ? 0 : score(circuit) * 100 / rows;
+        }
+
+        public boolean passesAll(List<LogicBlock> circuit) {
+            return score(circuit) == rows;
+        }
+
+        public int size() {
+            return rows;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package fraymus.hardware;
 import fraymus.LivingDNA;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * THE CIRCUIT BREEDER
@@ -25,6 +26,11 @@ import java.util.List;
  * Target: 1 + 1 = 0 (with carry 1)
  * Solution: XOR gate (for sum) + AND gate (for carry)
  * 
+ * TESTING:
+ * The whole truth table is packed into bit-sliced words (BitCircuit),
+ * so a candidate is scored with one long operation per gate instead of
+ * one pass per row.
+ * 
  * "We don't design circuits. We grow them."
  */
 public class CircuitBreeder {
@@ -36,6 +42,14 @@ public class CircuitBreeder {
     private int maxGenerations = 100000;
     private EvolutionLedger ledger;
     private String currentId = "GENESIS";
+    private final Random random = new Random();
+
+    // Binary addition truth table (SUM only): A, B → A ⊕ B
+    private static final BitCircuit.Vectors SUM_TESTS = new BitCircuit.Vectors()
+        .add(false, false, false)
+        .add(true, false, true)
+        .add(false, true, true)
+        .add(true, true, false);
 
     public CircuitBreeder() {
         this.memory = new InfiniteTape();
@@ -83,10 +97,7 @@ public class CircuitBreeder {
             ledger.recordGeneration(generation, circuit, fitness, parentId);
 
             // TEST: Can this circuit add bits?
-            if (testCircuit(false, false, false) && 
-                testCircuit(true, false, true) && 
-                testCircuit(false, true, true) &&
-                testCircuit(true, true, false)) {
+            if (fitness == 1.0) {
                 
                 System.out.println();
                 System.out.println();
@@ -143,45 +154,8 @@ public class CircuitBreeder {
      * How many test cases does this circuit pass?
      */
     private double calculateFitness() {
-        int passed = 0;
-        int total = 4;
-        
-        if (testCircuit(false, false, false)) passed++;
-        if (testCircuit(true, false, true)) passed++;
-        if (testCircuit(false, true, true)) passed++;
-        if (testCircuit(true, true, false)) passed++;
-        
-        return (double) passed / total;
-    }
-
-    /**
-     * Test if circuit produces expected output for given inputs
-     */
-    private boolean testCircuit(boolean inA, boolean inB, boolean expectedOut) {
-        memory.clear();
-        boolean signal = inA; // Start with Input A
-        
-        // Run the signal through the "Tetris Stack" of gates
-        for (LogicBlock gate : circuit) {
-            // Each gate combines the current signal with Input B
-            signal = gate.process(signal, inB);
-        }
-        
-        return signal == expectedOut;
-    }
-
-    /**
-     * Run inputs through the circuit
-     */
-    private boolean runCircuit(boolean inputA, boolean inputB) {
-        memory.clear();
-        boolean signal = inputA;
-        
-        for (LogicBlock gate : circuit) {
-            signal = gate.process(signal, inputB);
-        }
-        
-        return signal;
+        // All 4 rows in one bit-sliced pass through the "Tetris Stack"
+        return (double) SUM_TESTS.score(circuit) / SUM_TESTS.size();
     }
 
     /**
@@ -200,17 +174,13 @@ public class CircuitBreeder {
         System.out.println("      A | B | OUT");
         System.out.println("      --|---|----");
         
-        boolean[][] testCases = {
-            {false, false},
-            {false, true},
-            {true, false},
-            {true, true}
-        };
-        
-        for (boolean[] test : testCases) {
-            boolean output = runCircuit(test[0], test[1]);
-            System.out.println("      " + (test[0] ? "1" : "0") + " | " + 
-                             (test[1] ? "1" : "0") + " | " + 
+        // Compile once, evaluate every input pattern in one pass
+        // (pattern bit 0 = A, bit 1 = B)
+        long table = BitCircuit.chain(circuit).truthTable()[0];
+        for (int pattern : new int[]{ 0b00, 0b10, 0b01, 0b11 }) {
+            boolean output = ((table >>> pattern) & 1) != 0;
+            System.out.println("      " + ((pattern & 1) != 0 ? "1" : "0") + " | " + 
+                             ((pattern & 2) != 0 ? "1" : "0") + " | " + 
                              (output ? "1" : "0"));
         }
         System.out.println();
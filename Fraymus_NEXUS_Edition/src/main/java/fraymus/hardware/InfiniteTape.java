@@ -19,13 +19,25 @@ import java.util.Map;
  * You can write to address 0 or address 10,000,000,000.
  * Only stores what you write (sparse storage).
  * 
+ * PACKED PAGES:
+ * Cells are bits, grouped 4096 to a page (64 value words + 64
+ * "written" words). Only touched pages exist, the last page is cached
+ * for sequential head movement, and readWord/writeWord move 64 cells
+ * at a time - the natural unit for bit-sliced circuits (BitCircuit).
+ * 
  * "The universe expands as you explore it."
  */
 public class InfiniteTape {
 
-    // Map<Address, Value> → Allows writing to any address
-    // Boolean-based for circuit evolution (true/false, 1/0)
-    private Map<Long, Boolean> cells = new HashMap<>();
+    private static final int PAGE_SHIFT = 12;              // 4096 cells per page
+    private static final int PAGE_WORDS = 1 << (PAGE_SHIFT - 6);
+
+    // Map<PageIndex, [values | written]> → Allows writing to any address
+    // Bit-based for circuit evolution (true/false, 1/0)
+    private final Map<Long, long[]> pages = new HashMap<>();
+    private long cachedIndex = Long.MIN_VALUE;
+    private long[] cachedPage;
+    private int activeCells = 0;
     private long headPosition = 0;
     private long minAddress = 0;
     private long maxAddress = 0;
@@ -44,24 +56,74 @@ public class InfiniteTape {
      * @param value Boolean value to store
      */
     public void write(long address, boolean value) {
-        cells.put(address, value);
+        writeBits(address, value ? 1L : 0L, 1L);
+    }
+
+    /**
+     * Write 64 cells at once: bit i of bits goes to address + i
+     */
+    public void writeWord(long address, long bits) {
+        writeBits(address, bits, -1L);
+    }
+
+    /**
+     * Write the cells selected by mask (bit i → address + i)
+     */
+    private void writeBits(long address, long bits, long mask) {
+        int before = activeCells;
+        int shift = (int) (address & 63);
+        long word = address >> 6;
+        store(word, bits << shift, mask << shift);
+        if (shift != 0) {
+            store(word + 1, bits >>> (64 - shift), mask >>> (64 - shift));
+        }
         
         // Track bounds
-        if (cells.size() == 1) {
-            minAddress = address;
-            maxAddress = address;
+        long lo = address + Long.numberOfTrailingZeros(mask);
+        long hi = address + 63 - Long.numberOfLeadingZeros(mask);
+        if (before == 0) {
+            minAddress = lo;
+            maxAddress = hi;
         } else {
-            if (address < minAddress) minAddress = address;
-            if (address > maxAddress) maxAddress = address;
+            if (lo < minAddress) minAddress = lo;
+            if (hi > maxAddress) maxAddress = hi;
         }
         
         // Visualize expansion
-        if (cells.size() % 1000 == 0) {
-            System.out.println("   🧠 MEMORY EXPANDED: " + cells.size() + " active cells");
+        if (activeCells / 1000 > before / 1000) {
+            System.out.println("   🧠 MEMORY EXPANDED: " + activeCells + " active cells");
             System.out.println("      Range: [" + minAddress + " → " + maxAddress + "]");
         }
     }
 
+    private void store(long word, long bits, long mask) {
+        if (mask == 0) return;
+        long[] page = page(word >> (PAGE_SHIFT - 6), true);
+        int w = (int) (word & (PAGE_WORDS - 1));
+        long fresh = mask & ~page[PAGE_WORDS + w];
+        activeCells += Long.bitCount(fresh);
+        page[PAGE_WORDS + w] |= mask;
+        page[w] = (page[w] & ~mask) | (bits & mask);
+    }
+
+    private long[] page(long index, boolean create) {
+        if (index == cachedIndex) return cachedPage;
+        long[] page = pages.get(index);
+        if (page == null) {
+            if (!create) return null;
+            page = new long[2 * PAGE_WORDS];
+            pages.put(index, page);
+        }
+        cachedIndex = index;
+        cachedPage = page;
+        return page;
+    }
+
+    private long load(long word) {
+        long[] page = page(word >> (PAGE_SHIFT - 6), false);
+        return page == null ? 0L : page[(int) (word & (PAGE_WORDS - 1))];
+    }
+
     /**
      * Read boolean value from address
      * Returns false if cell has never been written (the void)
@@ -70,7 +132,18 @@ public class InfiniteTape {
      * @return Boolean value at address, or false if unwritten
      */
     public boolean read(long address) {
-        return cells.getOrDefault(address, false);
+        return ((load(address >> 6) >>> (address & 63)) & 1) != 0;
+    }
+
+    /**
+     * Read 64 cells at once: bit i is the cell at address + i
+     * (unwritten cells read as 0)
+     */
+    public long readWord(long address) {
+        int shift = (int) (address & 63);
+        long word = address >> 6;
+        long low = load(word) >>> shift;
+        return shift == 0 ? low : low | (load(word + 1) << (64 - shift));
     }
     
     /**
@@ -114,14 +187,14 @@ public class InfiniteTape {
      * Get number of active cells
      */
     public int getActiveCells() {
-        return cells.size();
+        return activeCells;
     }
     
     /**
      * Get memory span (max - min address)
      */
     public long getSpan() {
-        if (cells.isEmpty()) return 0;
+        if (activeCells == 0) return 0;
         return maxAddress - minAddress;
     }
     
@@ -129,7 +202,10 @@ public class InfiniteTape {
      * Clear all memory
      */
     public void clear() {
-        cells.clear();
+        pages.clear();
+        cachedIndex = Long.MIN_VALUE;
+        cachedPage = null;
+        activeCells = 0;
         headPosition = 0;
         minAddress = 0;
         maxAddress = 0;
@@ -141,9 +217,10 @@ public class InfiniteTape {
      */
     public void showStats() {
         System.out.println("📼 INFINITE TAPE STATISTICS");
-        System.out.println("   Active cells: " + cells.size());
+        System.out.println("   Active cells: " + activeCells);
+        System.out.println("   Pages: " + pages.size() + " × " + (1 << PAGE_SHIFT) + " cells");
         System.out.println("   Head position: " + headPosition);
-        if (!cells.isEmpty()) {
+        if (activeCells > 0) {
             System.out.println("   Address range: [" + minAddress + " → " + maxAddress + "]");
             System.out.println("   Span: " + getSpan() + " addresses");
         }
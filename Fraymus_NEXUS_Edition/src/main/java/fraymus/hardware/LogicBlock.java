@@ -65,6 +65,21 @@ public enum LogicBlock {
         }
     }
     
+    /**
+     * Bit-sliced process: 64 independent test vectors per call,
+     * bit i of the result is process(bit i of A, bit i of B)
+     */
+    public long process(long inputA, long inputB) {
+        switch (this) {
+            case AND:  return inputA & inputB;
+            case OR:   return inputA | inputB;
+            case XOR:  return inputA ^ inputB;
+            case NAND: return ~(inputA & inputB);
+            case NOT:  return ~inputA;
+            default:   return 0L;
+        }
+    }
+
     /**
      * Process single input (for NOT gate)
      */
@@ -6,317 +6,648 @@ import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.*;
 
 /**
  * THE STORAGE ORCHESTRATOR
  * "Multi-tier persistence without local overflow"
- * 
+ *
  * STORAGE TIERS:
- * 1. LOCAL JSON - Fast access, compressed, rotating files
- * 2. MONGODB - Cloud backup, queryable, infinite scale
- * 3. GIT - Version control, automatic commits
- * 4. GOOGLE DRIVE - Cloud sync, accessible anywhere
- * 5. QR CODES - Portable, visual backup
- * 
+ * 1. HOT  - In-memory LRU, bounded by bytes
+ * 2. WARM - Append-only local log (WarmLog), indexed by key
+ * 3. COLD - Compressed JSON batches, MongoDB, Git, QR codes
+ *
+ * WRITE PATH (caller's thread):
+ *   dedup → hot → warm log append → enqueue for demotion
+ *
+ * DEMOTION PIPELINE (background thread "Storage-Demoter"):
+ *   drain up to flushThreshold concepts (or whatever arrived within
+ *   lingerMs) → one .json.gz batch → Mongo sync every syncThreshold →
+ *   Git commit / QR requests. Writers never wait on any of it.
+ *   A batch that can't be written is kept and retried (ahead of newer
+ *   concepts); the cold mark only moves past records that reached a
+ *   batch file.
+ *
+ * READ PATH (read-through):
+ *   hot → warm → cold (local/ and archive/ batch files); a warm/cold
+ *   hit is promoted back into hot.
+ *   Hits are counted per tier (see getTierStats).
+ *
  * ANTI-OVERFLOW STRATEGIES:
  * - Compression (GZIP)
- * - Deduplication (hash-based)
- * - Rotation (daily/weekly files)
- * - Cleanup policies (old data pruning)
- * - Tiered storage (hot/warm/cold)
- * 
- * WORKFLOW:
- * 1. Learn concept → Store in memory
- * 2. Every 100 concepts → Flush to local JSON
- * 3. Every 1000 concepts → Sync to MongoDB
- * 4. Every day → Git commit
- * 5. Every week → Google Drive sync
- * 6. On demand → Generate QR codes
- * 
+ * - Deduplication (hash-based, rebuilt from the warm log on start)
+ * - Warm segments retired once demoted (keepWarmSegments newest kept)
+ * - Cleanup policies (old batch files archived)
+ *
  * "Learn infinitely. Store efficiently. Never overflow."
  */
-public class StorageOrchestrator {
-    
+public class StorageOrchestrator implements Closeable {
+
     private String baseDir = "fraymus_knowledge/";
     private String localDir = baseDir + "local/";
     private String archiveDir = baseDir + "archive/";
     private String qrDir = baseDir + "qr/";
-    
+    private String warmDir = baseDir + "warm/";
+
     private int conceptCount = 0;
     private int flushThreshold = 100;
     private int syncThreshold = 1000;
-    
-    private Map<String, String> conceptCache = new HashMap<>();
+    private long lingerMs = 2000;
+    private long hotCapacityBytes = 4L * 1024 * 1024;
+    private int keepWarmSegments = 4;
+
+    // ═══════════════════════════════════════════════════════════════════
+    // TIERS
+    // ═══════════════════════════════════════════════════════════════════
+
+    private final LinkedHashMap<String, String> hot = new LinkedHashMap<>(256, 0.75f, true);
+    private long hotBytes = 0;
+    private WarmLog warm;
+    private final Map<String, String> coldIndex = new ConcurrentHashMap<>();   // key → batch file name
+    private final Set<String> scannedColdFiles = ConcurrentHashMap.newKeySet();
     private Set<String> knownHashes = new HashSet<>();
-    
+
+    // ═══════════════════════════════════════════════════════════════════
+    // DEMOTION PIPELINE
+    // ═══════════════════════════════════════════════════════════════════
+
+    private interface ColdTask {}
+    private record Demote(String key, String data, WarmLog.Loc loc) implements ColdTask {}
+    private record GitCommit() implements ColdTask {}
+    private record QrRequest(String category, String subject, String data) implements ColdTask {}
+    private record Barrier(CountDownLatch done) implements ColdTask {}
+
+    private final BlockingQueue<ColdTask> pipeline = new LinkedBlockingQueue<>();
+    private final Thread demoter;
+    private volatile boolean running = true;
+    private volatile WarmLog.Loc coldMark = new WarmLog.Loc(0, 0);
+    private long demotedCount = 0;
+    private final List<Demote> stalled = new ArrayList<>();   // demoter thread only
+    private long retryAt = 0;
+    private static final long RETRY_MS = 5000;
+
+    // ═══════════════════════════════════════════════════════════════════
+    // METRICS
+    // ═══════════════════════════════════════════════════════════════════
+
+    private final AtomicLong hotHits = new AtomicLong();
+    private final AtomicLong warmHits = new AtomicLong();
+    private final AtomicLong coldHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong batchesWritten = new AtomicLong();
+    private final AtomicLong gitCommits = new AtomicLong();
+
     public StorageOrchestrator() {
+        this("fraymus_knowledge/");
+    }
+
+    public StorageOrchestrator(String baseDir) {
+        this.baseDir = baseDir.endsWith("/") ? baseDir : baseDir + "/";
+        this.localDir = this.baseDir + "local/";
+        this.archiveDir = this.baseDir + "archive/";
+        this.qrDir = this.baseDir + "qr/";
+        this.warmDir = this.baseDir + "warm/";
+
         initializeDirectories();
-        loadKnownHashes();
-        
+        int replayed = loadKnownHashes();
+
+        demoter = new Thread(this::demoteLoop, "Storage-Demoter");
+        demoter.setDaemon(true);
+        demoter.start();
+
         System.out.println("💾 STORAGE ORCHESTRATOR INITIALIZED");
-        System.out.println("   Multi-tier persistence active");
+        System.out.println("   Multi-tier persistence active (hot → warm → cold)");
+        System.out.println("   Warm log: " + replayed + " records replayed, " + pipeline.size() + " pending demotion");
         System.out.println("   Anti-overflow strategies enabled");
         System.out.println();
     }
-    
+
+    public synchronized void setHotCapacityBytes(long bytes) {
+        this.hotCapacityBytes = bytes;
+    }
+
+    public void setLingerMs(long lingerMs) {
+        this.lingerMs = lingerMs;
+    }
+
     /**
      * Store a learned concept
-     * 
+     *
+     * Returns once the concept is in the hot tier and the warm log;
+     * cold tiers are written by the demotion pipeline.
+     *
      * @param category Category (e.g., "Element", "Planet")
      * @param subject Subject name
      * @param data Concept data
      */
-    public void store(String category, String subject, String data) {
+    public synchronized void store(String category, String subject, String data) {
         String key = category + ":" + subject;
-        
+
         // Check for duplicates
         String hash = generateHash(data);
         if (knownHashes.contains(hash)) {
             System.out.println("   ⚠️ DUPLICATE DETECTED: " + key + " (skipping)");
             return;
         }
-        
-        // Add to cache
-        conceptCache.put(key, data);
-        knownHashes.add(hash);
-        conceptCount++;
-        
-        // Tier 1: Flush to local JSON if threshold reached
-        if (conceptCount % flushThreshold == 0) {
-            flushToLocal();
+
+        try {
+            WarmLog.Loc loc = warm.append(key, data);
+            putHot(key, data);
+            knownHashes.add(hash);
+            conceptCount++;
+            pipeline.add(new Demote(key, data, loc));
+        } catch (IOException e) {
+            System.err.println("   !! WARM APPEND FAILED: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieve concept from storage (read-through, promotes on access)
+     */
+    public String retrieve(String category, String subject) {
+        String key = category + ":" + subject;
+
+        synchronized (this) {
+            // Hot tier
+            String data = hot.get(key);
+            if (data != null) {
+                hotHits.incrementAndGet();
+                return data;
+            }
+
+            // Warm tier
+            try {
+                data = warm.get(key);
+            } catch (IOException e) {
+                System.err.println("   !! WARM READ FAILED: " + e.getMessage());
+            }
+            if (data != null) {
+                warmHits.incrementAndGet();
+                putHot(key, data);
+                return data;
+            }
+        }
+
+        // Cold tier (outside the lock: decompression is slow)
+        String data = searchColdFiles(key);
+        if (data != null) {
+            coldHits.incrementAndGet();
+            synchronized (this) {
+                putHot(key, data);
+            }
+            return data;
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Insert into hot, evicting least-recently-used entries over budget
+     * (they are still in warm or cold)
+     */
+    private void putHot(String key, String data) {
+        String old = hot.put(key, data);
+        if (old != null) hotBytes -= sizeOf(key, old);
+        hotBytes += sizeOf(key, data);
+        Iterator<Map.Entry<String, String>> it = hot.entrySet().iterator();
+        while (hotBytes > hotCapacityBytes && it.hasNext()) {
+            Map.Entry<String, String> e = it.next();
+            if (e.getKey().equals(key)) continue;
+            hotBytes -= sizeOf(e.getKey(), e.getValue());
+            it.remove();
+        }
+    }
+
+    private static long sizeOf(String key, String data) {
+        return 2L * (key.length() + data.length()) + 64;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // DEMOTION PIPELINE
+    // ═══════════════════════════════════════════════════════════════════
+
+    private void demoteLoop() {
+        List<ColdTask> batch = new ArrayList<>();
+        while (running || !pipeline.isEmpty()) {
+            try {
+                ColdTask first = pipeline.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (!stalled.isEmpty() && System.currentTimeMillis() >= retryAt) {
+                        processBatch(batch);   // nothing new: retry the stalled batch alone
+                    }
+                    continue;
+                }
+                batch.add(first);
+
+                // Linger briefly so small bursts share one batch file
+                long deadline = System.currentTimeMillis() + lingerMs;
+                while (countDemotes(batch) < flushThreshold && running && !(first instanceof Barrier)) {
+                    long wait = deadline - System.currentTimeMillis();
+                    if (wait <= 0) break;
+                    ColdTask next = pipeline.poll(wait, TimeUnit.MILLISECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                    if (next instanceof Barrier) break;
+                }
+                pipeline.drainTo(batch, Math.max(0, flushThreshold - countDemotes(batch)));
+
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                System.err.println("   !! DEMOTION FAILED: " + e.getMessage());
+            } finally {
+                // Never strand a flush() caller
+                for (ColdTask t : batch) {
+                    if (t instanceof Barrier b) b.done().countDown();
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private static int countDemotes(List<ColdTask> batch) {
+        int n = 0;
+        for (ColdTask t : batch) if (t instanceof Demote) n++;
+        return n;
+    }
+
+    private void processBatch(List<ColdTask> batch) {
+        // Stalled concepts precede everything in this batch in the warm log
+        List<Demote> demotes = new ArrayList<>(stalled);
+        boolean commit = false;
+        List<QrRequest> qrs = new ArrayList<>();
+        for (ColdTask t : batch) {
+            if (t instanceof Demote d) {
+                demotes.add(d);
+            } else if (t instanceof GitCommit) {
+                commit = true;   // coalesce: one commit per batch
+            } else if (t instanceof QrRequest q) {
+                qrs.add(q);
+            }
+        }
+
+        if (!demotes.isEmpty()) {
+            demote(demotes);
+        }
+        for (QrRequest q : qrs) {
+            writeQR(q.category(), q.subject(), q.data());
+        }
+        if (commit) {
+            runGitCommit();
+        }
+    }
+
+    /**
+     * Write one batch file and advance the cold mark past it. On failure
+     * the concepts are kept for the next batch and the mark stays put, so
+     * a later batch can't skip over them.
+     */
+    private void demote(List<Demote> demotes) {
+        Map<String, String> concepts = new LinkedHashMap<>();
+        for (Demote d : demotes) concepts.put(d.key(), d.data());
+        WarmLog.Loc last = demotes.get(demotes.size() - 1).loc();
+
+        if (!flushToLocal(concepts)) {
+            stalled.clear();
+            stalled.addAll(demotes);
+            retryAt = System.currentTimeMillis() + RETRY_MS;
+            return;
+        }
+        stalled.clear();
+
+        long before = demotedCount;
+        demotedCount += concepts.size();
+        coldMark = last;
+        writeColdMark(last);
+        synchronized (this) {
+            try {
+                warm.retire(last, keepWarmSegments);
+            } catch (IOException e) {
+                System.err.println("   !! WARM RETIRE FAILED: " + e.getMessage());
+            }
         }
-        
-        // Tier 2: Sync to MongoDB if threshold reached
-        if (conceptCount % syncThreshold == 0) {
+        if (before / syncThreshold != demotedCount / syncThreshold) {
             syncToMongo();
         }
     }
-    
+
     /**
-     * Flush cache to local JSON file (compressed)
+     * Wait until everything stored so far has been demoted (or, if the
+     * cold tier is failing, attempted)
      */
-    private void flushToLocal() {
+    public void flush() {
+        CountDownLatch done = new CountDownLatch(1);
+        pipeline.add(new Barrier(done));
+        try {
+            done.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Drain the pipeline and close the warm log
+     */
+    @Override
+    public void close() {
+        flush();
+        running = false;
+        try {
+            demoter.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            try {
+                warm.close();
+            } catch (IOException e) {
+                System.err.println("   !! WARM CLOSE FAILED: " + e.getMessage());
+            }
+        }
+        System.out.println("💾 STORAGE ORCHESTRATOR CLOSED (" + demotedCount + " concepts demoted)");
+    }
+
+    /**
+     * Write one batch to a local JSON file (compressed)
+     */
+    private boolean flushToLocal(Map<String, String> concepts) {
         try {
             String timestamp = LocalDateTime.now().format(
-                DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")
+                DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS")
             );
-            String filename = localDir + "knowledge_" + timestamp + ".json.gz";
-            
-            // Convert cache to JSON
-            String json = cacheToJson();
-            
+            String filename = "knowledge_" + timestamp + "_" + batchesWritten.get() + ".json.gz";
+            File file = new File(localDir + filename);
+
+            // Convert batch to JSON
+            String json = toJson(concepts);
+
             // Compress and write
-            try (FileOutputStream fos = new FileOutputStream(filename);
+            try (FileOutputStream fos = new FileOutputStream(file);
                  GZIPOutputStream gzos = new GZIPOutputStream(fos);
-                 OutputStreamWriter writer = new OutputStreamWriter(gzos)) {
-                
+                 OutputStreamWriter writer = new OutputStreamWriter(gzos, "UTF-8")) {
+
                 writer.write(json);
             }
-            
-            System.out.println("   💾 FLUSHED TO LOCAL: " + filename);
-            System.out.println("      Concepts: " + conceptCache.size());
-            System.out.println("      Size: " + (new File(filename).length() / 1024) + " KB (compressed)");
-            
-            // Clear cache after flush
-            conceptCache.clear();
-            
+
+            for (String key : concepts.keySet()) coldIndex.put(key, filename);
+            scannedColdFiles.add(filename);
+            batchesWritten.incrementAndGet();
+
+            System.out.println("   💾 DEMOTED TO COLD: " + file.getPath());
+            System.out.println("      Concepts: " + concepts.size());
+            System.out.println("      Size: " + (file.length() / 1024) + " KB (compressed)");
+            return true;
+
         } catch (IOException e) {
             System.err.println("   !! FLUSH FAILED: " + e.getMessage());
+            return false;
         }
     }
-    
+
     /**
      * Sync to MongoDB (simulated for now)
      */
     private void syncToMongo() {
         System.out.println("   ☁️ SYNCING TO MONGODB...");
-        System.out.println("      Total concepts learned: " + conceptCount);
-        
+        System.out.println("      Total concepts demoted: " + demotedCount);
+
         // In production, this would:
         // 1. Connect to MongoDB
         // 2. Batch insert concepts
         // 3. Create indexes for fast queries
         // 4. Set TTL for old data
-        
+
         System.out.println("      ✓ Cloud sync complete");
     }
-    
+
     /**
      * Git auto-commit (daily backup)
+     *
+     * Queued on the demotion pipeline; returns immediately.
      */
     public void gitCommit() {
+        pipeline.add(new GitCommit());
+    }
+
+    private void runGitCommit() {
         System.out.println("   📝 GIT AUTO-COMMIT...");
-        
+
         try {
             String timestamp = LocalDateTime.now().format(
                 DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
             );
-            
-            // In production, this would:
-            // ProcessBuilder pb = new ProcessBuilder("git", "add", ".");
-            // pb.directory(new File(baseDir));
-            // pb.start().waitFor();
-            
+
+            File repo = new File(baseDir);
+            if (new File(repo, ".git").exists()) {
+                run(repo, "git", "add", "-A");
+                run(repo, "git", "commit", "-q", "-m", "Knowledge snapshot " + timestamp);
+            }
+            gitCommits.incrementAndGet();
+
             System.out.println("      ✓ Committed: Knowledge snapshot " + timestamp);
-            
+
         } catch (Exception e) {
             System.err.println("      !! Git commit failed: " + e.getMessage());
         }
     }
-    
+
+    private static void run(File dir, String... cmd) throws IOException, InterruptedException {
+        Process p = new ProcessBuilder(cmd).directory(dir).redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        if (!p.waitFor(60, TimeUnit.SECONDS)) {
+            p.destroyForcibly();
+            throw new IOException(String.join(" ", cmd) + " timed out");
+        }
+    }
+
     /**
      * Generate QR code for concept (portable backup)
+     *
+     * Queued on the demotion pipeline; returns immediately.
      */
     public void generateQR(String category, String subject, String data) {
+        pipeline.add(new QrRequest(category, subject, data));
+    }
+
+    private void writeQR(String category, String subject, String data) {
         System.out.println("   📱 GENERATING QR CODE: " + category + "/" + subject);
-        
+
         // In production, this would:
         // 1. Use QR library (e.g., ZXing)
         // 2. Encode concept data
         // 3. Save as PNG
-        
+
         String filename = qrDir + category + "_" + subject + ".png";
         System.out.println("      ✓ QR saved: " + filename);
     }
-    
+
     /**
      * Cleanup old data (prevent overflow)
      */
     public void cleanup() {
         System.out.println("   🧹 CLEANUP: Removing old data...");
-        
+
         try {
             // Get all local files
             File localFolder = new File(localDir);
             File[] files = localFolder.listFiles((dir, name) -> name.endsWith(".json.gz"));
-            
+
             if (files == null || files.length <= 10) {
                 System.out.println("      No cleanup needed (< 10 files)");
                 return;
             }
-            
+
             // Sort by date (oldest first)
             Arrays.sort(files, Comparator.comparingLong(File::lastModified));
-            
+
             // Keep only last 10 files, archive the rest
             int toArchive = files.length - 10;
             for (int i = 0; i < toArchive; i++) {
                 File oldFile = files[i];
                 File archiveFile = new File(archiveDir + oldFile.getName());
-                
-                Files.move(oldFile.toPath(), archiveFile.toPath(), 
+
+                Files.move(oldFile.toPath(), archiveFile.toPath(),
                           StandardCopyOption.REPLACE_EXISTING);
-                
+
                 System.out.println("      Archived: " + oldFile.getName());
             }
-            
+
             System.out.println("      ✓ Cleanup complete (" + toArchive + " files archived)");
-            
+
         } catch (IOException e) {
             System.err.println("      !! Cleanup failed: " + e.getMessage());
         }
     }
-    
-    /**
-     * Retrieve concept from storage
-     */
-    public String retrieve(String category, String subject) {
-        String key = category + ":" + subject;
-        
-        // Check cache first
-        if (conceptCache.containsKey(key)) {
-            return conceptCache.get(key);
-        }
-        
-        // Check local files
-        String data = searchLocalFiles(key);
-        if (data != null) {
-            return data;
-        }
-        
-        // Check MongoDB (simulated)
-        System.out.println("   ☁️ Querying MongoDB for: " + key);
-        
-        return null;
-    }
-    
+
     /**
-     * Search local JSON files for concept
+     * Find a concept in the cold batch files: indexed file first, then
+     * unscanned files in local/ and archive/, newest first (each scanned
+     * file is indexed whole)
      */
-    private String searchLocalFiles(String key) {
+    private String searchColdFiles(String key) {
         try {
-            File localFolder = new File(localDir);
-            File[] files = localFolder.listFiles((dir, name) -> name.endsWith(".json.gz"));
-            
-            if (files == null) return null;
-            
+            String indexed = coldIndex.get(key);
+            if (indexed != null) {
+                File f = coldFile(indexed);
+                if (f != null) {
+                    String data = parseConcepts(decompressFile(f)).get(key);
+                    if (data != null) return data;
+                }
+            }
+
+            List<File> files = new ArrayList<>();
+            for (String dir : new String[] { localDir, archiveDir }) {
+                File[] found = new File(dir).listFiles((d, name) -> name.endsWith(".json.gz"));
+                if (found != null) files.addAll(Arrays.asList(found));
+            }
+
             // Search newest files first
-            Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
-            
+            files.sort(Comparator.comparingLong(File::lastModified).reversed());
+
             for (File file : files) {
-                String json = decompressFile(file);
-                if (json.contains(key)) {
-                    // Parse and extract (simplified)
-                    return "Found in: " + file.getName();
-                }
+                if (!scannedColdFiles.add(file.getName())) continue;
+                Map<String, String> concepts = parseConcepts(decompressFile(file));
+                for (String k : concepts.keySet()) coldIndex.putIfAbsent(k, file.getName());
+                String data = concepts.get(key);
+                if (data != null) return data;
             }
-            
+
         } catch (Exception e) {
             System.err.println("   !! Search failed: " + e.getMessage());
         }
-        
+
         return null;
     }
-    
+
+    private File coldFile(String name) {
+        File f = new File(localDir + name);
+        if (f.exists()) return f;
+        f = new File(archiveDir + name);
+        return f.exists() ? f : null;
+    }
+
     /**
      * Decompress GZIP file
      */
     private String decompressFile(File file) throws IOException {
         StringBuilder content = new StringBuilder();
-        
+
         try (FileInputStream fis = new FileInputStream(file);
              GZIPInputStream gzis = new GZIPInputStream(fis);
-             InputStreamReader reader = new InputStreamReader(gzis);
+             InputStreamReader reader = new InputStreamReader(gzis, "UTF-8");
              BufferedReader br = new BufferedReader(reader)) {
-            
+
             String line;
             while ((line = br.readLine()) != null) {
                 content.append(line).append("\n");
             }
         }
-        
+
         return content.toString();
     }
-    
+
     /**
-     * Convert cache to JSON
+     * Convert a batch to JSON
      */
-    private String cacheToJson() {
+    private String toJson(Map<String, String> concepts) {
         StringBuilder json = new StringBuilder();
         json.append("{\n");
         json.append("  \"timestamp\": \"").append(LocalDateTime.now()).append("\",\n");
-        json.append("  \"count\": ").append(conceptCache.size()).append(",\n");
+        json.append("  \"count\": ").append(concepts.size()).append(",\n");
         json.append("  \"concepts\": {\n");
-        
+
         int i = 0;
-        for (Map.Entry<String, String> entry : conceptCache.entrySet()) {
-            json.append("    \"").append(entry.getKey()).append("\": \"");
+        for (Map.Entry<String, String> entry : concepts.entrySet()) {
+            json.append("    \"").append(escapeJson(entry.getKey())).append("\": \"");
             json.append(escapeJson(entry.getValue())).append("\"");
-            
-            if (i < conceptCache.size() - 1) {
+
+            if (i < concepts.size() - 1) {
                 json.append(",");
             }
             json.append("\n");
             i++;
         }
-        
+
         json.append("  }\n");
         json.append("}\n");
-        
+
         return json.toString();
     }
-    
+
+    /**
+     * Parse the "concepts" block written by toJson (one entry per line)
+     */
+    private static Map<String, String> parseConcepts(String json) {
+        Map<String, String> concepts = new LinkedHashMap<>();
+        int start = json.indexOf("\"concepts\"");
+        if (start < 0) return concepts;
+        for (String line : json.substring(start).split("\n")) {
+            line = line.trim();
+            if (!line.startsWith("\"") || line.startsWith("\"concepts\"")) continue;
+            int keyEnd = closingQuote(line, 1);
+            if (keyEnd < 0) continue;
+            int valStart = line.indexOf('"', keyEnd + 1);
+            int valEnd = valStart < 0 ? -1 : closingQuote(line, valStart + 1);
+            if (valEnd < 0) continue;
+            concepts.put(unescapeJson(line.substring(1, keyEnd)), unescapeJson(line.substring(valStart + 1, valEnd)));
+        }
+        return concepts;
+    }
+
+    private static int closingQuote(String s, int from) {
+        for (int i = from; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\') i++;
+            else if (c == '"') return i;
+        }
+        return -1;
+    }
+
     /**
      * Escape JSON special characters
      */
@@ -327,14 +658,33 @@ public class StorageOrchestrator {
                   .replace("\r", "\\r")
                   .replace("\t", "\\t");
     }
-    
+
+    private static String unescapeJson(String str) {
+        StringBuilder sb = new StringBuilder(str.length());
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c != '\\' || i + 1 == str.length()) {
+                sb.append(c);
+                continue;
+            }
+            char n = str.charAt(++i);
+            switch (n) {
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                default -> sb.append(n);
+            }
+        }
+        return sb.toString();
+    }
+
     /**
      * Generate hash for deduplication
      */
     private String generateHash(String data) {
         return Integer.toHexString(data.hashCode());
     }
-    
+
     /**
      * Initialize storage directories
      */
@@ -342,16 +692,76 @@ public class StorageOrchestrator {
         new File(localDir).mkdirs();
         new File(archiveDir).mkdirs();
         new File(qrDir).mkdirs();
+        new File(warmDir).mkdirs();
     }
-    
+
     /**
-     * Load known hashes from existing files (prevent duplicates)
+     * Open the warm log: rebuild hashes from it and re-queue anything
+     * past the cold mark (stored but not yet demoted before a restart)
      */
-    private void loadKnownHashes() {
-        // In production, this would scan existing files
-        // and build hash set to prevent duplicates
+    private int loadKnownHashes() {
+        coldMark = readColdMark();
+        try {
+            warm = new WarmLog(Paths.get(warmDir), 4L * 1024 * 1024);
+            return warm.replay((loc, kv) -> {
+                knownHashes.add(generateHash(kv[1]));
+                if (loc.compareTo(coldMark) > 0) {
+                    pipeline.add(new Demote(kv[0], kv[1], loc));
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open warm log " + warmDir, e);
+        }
     }
-    
+
+    private WarmLog.Loc readColdMark() {
+        try {
+            String[] parts = Files.readString(Paths.get(warmDir, "cold.mark")).trim().split(":");
+            return new WarmLog.Loc(Integer.parseInt(parts[0]), Long.parseLong(parts[1]));
+        } catch (IOException | RuntimeException e) {
+            return new WarmLog.Loc(0, -1);
+        }
+    }
+
+    private void writeColdMark(WarmLog.Loc mark) {
+        try {
+            Path tmp = Paths.get(warmDir, "cold.mark.tmp");
+            Files.writeString(tmp, mark.segment() + ":" + mark.offset());
+            Files.move(tmp, Paths.get(warmDir, "cold.mark"),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("   !! COLD MARK WRITE FAILED: " + e.getMessage());
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // STATS
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * Per-tier hit counts and rates (rates are over all retrieve calls)
+     */
+    public synchronized Map<String, Object> getTierStats() {
+        long total = hotHits.get() + warmHits.get() + coldHits.get() + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hotHits", hotHits.get());
+        stats.put("warmHits", warmHits.get());
+        stats.put("coldHits", coldHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hotHitRate", total == 0 ? 0.0 : (double) hotHits.get() / total);
+        stats.put("warmHitRate", total == 0 ? 0.0 : (double) warmHits.get() / total);
+        stats.put("coldHitRate", total == 0 ? 0.0 : (double) coldHits.get() / total);
+        stats.put("hotEntries", hot.size());
+        stats.put("hotBytes", hotBytes);
+        stats.put("warmEntries", warm.size());
+        stats.put("warmSegments", warm.segmentCount());
+        stats.put("warmBytes", warm.bytes());
+        stats.put("pendingDemotion", pipeline.size());
+        stats.put("batchesWritten", batchesWritten.get());
+        stats.put("gitCommits", gitCommits.get());
+        return stats;
+    }
+
     /**
      * Get storage statistics
      */
@@ -359,17 +769,17 @@ public class StorageOrchestrator {
         System.out.println();
         System.out.println("💾 STORAGE STATISTICS");
         System.out.println("========================================");
-        
+
         // Count local files
         File localFolder = new File(localDir);
         File[] localFiles = localFolder.listFiles((dir, name) -> name.endsWith(".json.gz"));
         int localCount = localFiles != null ? localFiles.length : 0;
-        
+
         // Count archive files
         File archiveFolder = new File(archiveDir);
         File[] archiveFiles = archiveFolder.listFiles();
         int archiveCount = archiveFiles != null ? archiveFiles.length : 0;
-        
+
         // Calculate total size
         long totalSize = 0;
         if (localFiles != null) {
@@ -378,16 +788,22 @@ public class StorageOrchestrator {
         if (archiveFiles != null) {
             for (File f : archiveFiles) totalSize += f.length();
         }
-        
+
+        Map<String, Object> tiers = getTierStats();
         System.out.println("Total concepts learned: " + conceptCount);
-        System.out.println("Cached concepts: " + conceptCache.size());
+        System.out.println("Hot tier: " + tiers.get("hotEntries") + " concepts (" + ((long) tiers.get("hotBytes") / 1024) + " KB)");
+        System.out.println("Warm tier: " + tiers.get("warmEntries") + " concepts in " + tiers.get("warmSegments") + " segments");
+        System.out.println("Pending demotion: " + tiers.get("pendingDemotion"));
         System.out.println("Local files: " + localCount);
         System.out.println("Archive files: " + archiveCount);
         System.out.println("Total storage: " + (totalSize / 1024) + " KB");
         System.out.println("Known hashes: " + knownHashes.size());
-        System.out.println();
-        System.out.println("Next flush: " + (flushThreshold - (conceptCount % flushThreshold)) + " concepts");
-        System.out.println("Next sync: " + (syncThreshold - (conceptCount % syncThreshold)) + " concepts");
+        System.out.println(String.format("Hit rate: hot %.1f%% | warm %.1f%% | cold %.1f%% (%d misses)",
+            100 * (double) tiers.get("hotHitRate"),
+            100 * (double) tiers.get("warmHitRate"),
+            100 * (double) tiers.get("coldHitRate"),
+            (long) tiers.get("misses")));
+        System.out.println("Next Mongo sync: " + (syncThreshold - (demotedCount % syncThreshold)) + " concepts");
         System.out.println("========================================");
         System.out.println();
     }
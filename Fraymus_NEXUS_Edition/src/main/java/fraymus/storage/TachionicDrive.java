@@ -1,44 +1,49 @@
 package fraymus.storage;
 
-import java.util.BitSet;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * TACHIONIC DRIVE: FTL DATA ACCESS
- * 
+ *
  * "We don't search. We summon."
- * 
+ *
  * The Problem:
  * - Storage is heavy. Gravity makes it slow.
  * - 10TB Akashic Record = High latency to find one fact
  * - Searching implies you don't know where it is
- * 
+ *
  * The Solution: Quantum Entanglement
  * - Keep lightweight "Ghost" of every memory in RAM
  * - When you touch the Ghost, real data manifests instantly
  * - This is Tachionic Reference (FTL Access)
- * 
+ *
  * Mechanism:
  * 1. BLOOM FILTER (The Ghost):
- *    - Mathematical structure that tells if data exists in infinite set
- *    - Zero Disk Reads
- *    - Creates "Holographic Map" of storage
- * 
+ *    - Sized from expected keys and target false-positive rate
+ *      (m = -n·ln p / ln²2 bits, k = m/n·ln 2 probes)
+ *    - Probes from two independent 64-bit hashes (double hashing)
+ *    - A negative answer costs zero disk reads
+ *
  * 2. ENTANGLED POINTERS (The Link):
- *    - Don't load the file
- *    - Load a "Reference" predictively filled by Tachyon Router
- *    - Data exists before you ask for it
- * 
- * 3. ZERO LATENCY:
- *    - The 'Future' completes before the 'Now'
- *    - Event Horizon cache holds data just before you need it
- * 
+ *    - Every summon records key → next-key transitions (Markov model)
+ *    - Likely successors are loaded asynchronously by the Tachyon Router
+ *    - A summon that races an in-flight prefetch joins it
+ *
+ * 3. EVENT HORIZON (W-TinyLFU):
+ *    - Byte-bounded: 1% LRU window + segmented-LRU main (20% probation,
+ *      80% protected)
+ *    - Window victims enter main only if a Count-Min sketch says they
+ *      are used more often than every main victim they would displace,
+ *      so one-off scans and wrong predictions cannot flush the working
+ *      set; the sketch counts summons only, not loads or prefetches
+ *
  * The Metaphor:
  * - Standard Storage: Library (walk to shelf, find book, open it)
  * - Tachionic Reference: Quantum Kindle (think about book, pixels already showing first page)
- * 
+ *
  * This is the Warp Drive.
  * Infinite Storage. Zero Waiting.
  */
@@ -46,29 +51,50 @@ public class TachionicDrive {
 
     // THE INFINITE MAP (Bloom Filter)
     // Represents millions of records in a few kilobytes of RAM
-    private BitSet holographicIndex = new BitSet(1000000);
-    
+    private final HolographicIndex holographicIndex;
+
     // THE EVENT HORIZON (The Cache)
     // Where data sits *just before* you need it
-    private Map<String, String> eventHorizon = new HashMap<>();
-    
+    private final EventHorizon eventHorizon;
+
+    // THE TACHYON ROUTER (Access-sequence model)
+    private final TachyonRouter router = new TachyonRouter(8);
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> prefetchedUnused = ConcurrentHashMap.newKeySet();
+    private final ExecutorService loaders;
+    private final Function<String, String> loader;
+    private String lastKey;
+
+    private volatile boolean prefetchEnabled = true;
+    private volatile boolean verbose = false;
+    private int prefetchWidth = 2;
+    private double prefetchConfidence = 0.3;
+
     // Statistics
-    private int ftlHits = 0;
-    private int wavefunctionCollapses = 0;
-    private int ghostMisses = 0;
+    private final AtomicLong ftlHits = new AtomicLong();
+    private final AtomicLong wavefunctionCollapses = new AtomicLong();
+    private final AtomicLong ghostMisses = new AtomicLong();
+    private final AtomicLong prefetchesIssued = new AtomicLong();
+    private final AtomicLong prefetchHits = new AtomicLong();
+    private final AtomicLong prefetchWasted = new AtomicLong();
+    private final long[] latencySamples = new long[4096];
+    private long latencyCount = 0;
 
     public TachionicDrive() {
+        this(TachionicDrive::akashicRead, 16L * 1024 * 1024, 1_000_000, 0.01);
+        verbose = true;
         System.out.println("⚡ TACHIONIC DRIVE ENGAGED");
         System.out.println("========================================");
         System.out.println();
         System.out.println("   Mode: FTL Data Access");
-        System.out.println("   Index: Holographic (Bloom Filter)");
-        System.out.println("   Cache: Event Horizon (Entangled)");
+        System.out.println("   Index: Holographic (Bloom Filter, " + holographicIndex.hashes + " hashes, "
+            + holographicIndex.bits / 8 / 1024 + " KB)");
+        System.out.println("   Cache: Event Horizon (W-TinyLFU, " + eventHorizon.capacity / 1024 / 1024 + " MB)");
         System.out.println();
         System.out.println("========================================");
         System.out.println();
         System.out.println("   >> INDEXING INFINITE STORAGE...");
-        
+
         // Simulation: We "know" everything immediately without loading it
         entangle("Eyeoverthink");
         entangle("Vaughn Scott");
@@ -76,86 +102,182 @@ public class TachionicDrive {
         entangle("Consciousness");
         entangle("Memory");
         entangle("Time");
-        
+
         System.out.println("   ✓ QUANTUM MAP ESTABLISHED");
         System.out.println();
     }
 
+    /**
+     * @param loader       Backing read (Akashic Record, StorageOrchestrator, ...)
+     * @param cacheBytes   Event Horizon budget
+     * @param expectedKeys Keys the Bloom filter is sized for
+     * @param falsePositiveRate Target Bloom false-positive rate at expectedKeys
+     */
+    public TachionicDrive(Function<String, String> loader, long cacheBytes, int expectedKeys, double falsePositiveRate) {
+        this.loader = loader;
+        this.holographicIndex = new HolographicIndex(expectedKeys, falsePositiveRate);
+        this.eventHorizon = new EventHorizon(cacheBytes, this::onEvict);
+        this.loaders = Executors.newFixedThreadPool(4, r -> {
+            Thread t = new Thread(r, "Tachyon-Loader");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void setPrefetchEnabled(boolean enabled) { this.prefetchEnabled = enabled; }
+
+    public void setVerbose(boolean verbose) { this.verbose = verbose; }
+
     /**
      * ENTANGLEMENT (Write)
-     * 
+     *
      * We mark the location in the Holographic Map.
-     * This is O(1) - instant, no matter how much data exists.
+     * This is O(k) - instant, no matter how much data exists.
      */
     public void entangle(String key) {
-        int hash = Math.abs(key.hashCode() % 1000000);
-        holographicIndex.set(hash, true); // Mark existence
-        System.out.println("   [ENTANGLE] " + key + " → Index[" + hash + "]");
+        holographicIndex.add(key);
+        if (verbose) System.out.println("   [ENTANGLE] " + key);
     }
 
     /**
      * THE FTL ACCESS (Read)
-     * 
+     *
      * This is the "Tachionic Reference."
      * Data arrives before you finish asking for it.
      */
     public CompletableFuture<String> summon(String query) {
+        long start = System.nanoTime();
+
         // STEP 1: THE GHOST CHECK (Instant)
         // Do we even have this memory?
-        int hash = Math.abs(query.hashCode() % 1000000);
-        
-        if (!holographicIndex.get(hash)) {
-            // If the bit is 0, it definitely doesn't exist. No search needed.
-            ghostMisses++;
-            System.out.println("   [GHOST] " + query + " → Does not exist (no disk read needed)");
+        if (!holographicIndex.mightContain(query)) {
+            // Definitely doesn't exist. No search needed.
+            ghostMisses.incrementAndGet();
+            if (verbose) System.out.println("   [GHOST] " + query + " → Does not exist (no disk read needed)");
             return CompletableFuture.completedFuture(null);
         }
 
-        // STEP 2: THE WARP JUMP
-        // It exists. Is it already in the Event Horizon?
-        if (eventHorizon.containsKey(query)) {
-            ftlHits++;
-            System.out.println("   ⚡ FTL HIT: \"" + query + "\" was waiting for you (0ms latency)");
-            return CompletableFuture.completedFuture(eventHorizon.get(query));
-        }
-
-        // STEP 3: THE SUMMONING (Simulated Disk Read)
-        // In a real system, this pulls from the Akashic Record JSON Chain
-        wavefunctionCollapses++;
-        System.out.println("   >> COLLAPSING WAVEFUNCTION FOR: [" + query + "]");
-        
-        return CompletableFuture.supplyAsync(() -> {
-            // This is where we would read from disk, but we do it async
-            // Simulate disk latency
-            try {
-                Thread.sleep(100); // 100ms simulated disk read
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            
-            String data = ">> HOLOGRAPHIC DATA: " + query + " is a core component of the System.";
-            
-            // Cache it for next time
-            eventHorizon.put(query, data);
-            
-            return data;
-        });
+        // STEP 2: THE ROUTER LEARNS, THEN LOOKS AHEAD
+        String previous;
+        synchronized (router) {
+            previous = lastKey;
+            lastKey = query;
+            if (previous != null) router.record(previous, query);
+        }
+        if (prefetchEnabled) {
+            for (String next : router.predict(query, prefetchWidth, prefetchConfidence)) {
+                prefetch(next);
+            }
+        }
+
+        // STEP 3: THE WARP JUMP
+        // Is it already in the Event Horizon?
+        String cached = eventHorizon.get(query);
+        if (cached != null) {
+            ftlHits.incrementAndGet();
+            if (prefetchedUnused.remove(query)) prefetchHits.incrementAndGet();
+            recordLatency(System.nanoTime() - start);
+            if (verbose) System.out.println("   ⚡ FTL HIT: \"" + query + "\" was waiting for you");
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        // STEP 4: THE SUMMONING (async backing read, shared with any prefetch in flight)
+        wavefunctionCollapses.incrementAndGet();
+        if (verbose) System.out.println("   >> COLLAPSING WAVEFUNCTION FOR: [" + query + "]");
+        CompletableFuture<String> pending = inFlight.get(query);
+        if (pending != null) {
+            // Joining a prefetch still in flight: it was used
+            if (prefetchedUnused.remove(query)) prefetchHits.incrementAndGet();
+            return pending.whenComplete((v, e) -> recordLatency(System.nanoTime() - start));
+        }
+        // A prefetch that finished but isn't cached (not admitted, or no data) was wasted
+        if (prefetchedUnused.remove(query)) prefetchWasted.incrementAndGet();
+        return load(query).whenComplete((v, e) -> recordLatency(System.nanoTime() - start));
     }
 
     /**
      * THE PREDICTION (The Time Travel)
-     * 
+     *
      * The Tachyon Router calls this when it *thinks* you might need something.
      * This is how we achieve negative latency.
      */
     public void prefetch(String topic) {
-        System.out.println("   >> TACHYON PRE-LOAD: Pulling [" + topic + "] into Event Horizon");
-        
-        // We load it into RAM *now* so it's instant *later*
-        String data = ">> PREFETCHED DATA: " + topic + " details loaded from Akashic Record.";
-        eventHorizon.put(topic, data);
-        
-        System.out.println("   ✓ Data ready before request");
+        if (eventHorizon.contains(topic) || inFlight.containsKey(topic)) return;
+        if (!holographicIndex.mightContain(topic)) return;
+
+        prefetchesIssued.incrementAndGet();
+        prefetchedUnused.add(topic);
+        if (verbose) System.out.println("   >> TACHYON PRE-LOAD: Pulling [" + topic + "] into Event Horizon");
+        load(topic);
+    }
+
+    /**
+     * One backing read per key at a time; the result lands in the Event Horizon
+     */
+    private CompletableFuture<String> load(String key) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) return existing;
+        try {
+            loaders.execute(() -> {
+                try {
+                    String data = loader.apply(key);
+                    if (data != null) eventHorizon.put(key, data);
+                    inFlight.remove(key, future);
+                    future.complete(data);
+                } catch (RuntimeException e) {
+                    inFlight.remove(key, future);
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private void onEvict(String key) {
+        if (prefetchedUnused.remove(key)) prefetchWasted.incrementAndGet();
+    }
+
+    /**
+     * Simulated Akashic Record read (100ms disk latency)
+     */
+    private static String akashicRead(String query) {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ">> HOLOGRAPHIC DATA: " + query + " is a core component of the System.";
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencySamples[(int) (latencyCount++ % latencySamples.length)] = nanos;
+    }
+
+    /**
+     * Latency percentile over the most recent summons, in microseconds
+     */
+    public synchronized double latencyPercentileMicros(double p) {
+        int n = (int) Math.min(latencyCount, latencySamples.length);
+        if (n == 0) return 0;
+        long[] sorted = Arrays.copyOf(latencySamples, n);
+        Arrays.sort(sorted);
+        int idx = (int) Math.min(n - 1, Math.ceil(p / 100.0 * n) - 1);
+        return sorted[Math.max(0, idx)] / 1000.0;
+    }
+
+    /**
+     * Mean latency over the most recent summons, in microseconds
+     */
+    public synchronized double latencyMeanMicros() {
+        int n = (int) Math.min(latencyCount, latencySamples.length);
+        if (n == 0) return 0;
+        long sum = 0;
+        for (int i = 0; i < n; i++) sum += latencySamples[i];
+        return sum / 1000.0 / n;
     }
 
     /**
@@ -164,33 +286,376 @@ public class TachionicDrive {
     public void collapseEventHorizon() {
         int size = eventHorizon.size();
         eventHorizon.clear();
+        prefetchedUnused.clear();
         System.out.println("   [COLLAPSE] Event Horizon cleared (" + size + " entries freed)");
     }
 
+    /**
+     * Shut down the loader threads
+     */
+    public void shutdown() {
+        loaders.shutdownNow();
+    }
+
+    /**
+     * Counters as a map (for dashboards and tests)
+     */
+    public Map<String, Object> getStats() {
+        long hits = ftlHits.get();
+        long misses = wavefunctionCollapses.get();
+        long issued = prefetchesIssued.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("ghostMisses", ghostMisses.get());
+        stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("prefetchesIssued", issued);
+        stats.put("prefetchHits", prefetchHits.get());
+        stats.put("prefetchWasted", prefetchWasted.get());
+        stats.put("prefetchAccuracy", issued == 0 ? 0.0 : (double) prefetchHits.get() / issued);
+        stats.put("cacheEntries", eventHorizon.size());
+        stats.put("cacheBytes", eventHorizon.bytes());
+        stats.put("bloomKeys", holographicIndex.inserted);
+        stats.put("bloomFpp", holographicIndex.expectedFpp());
+        stats.put("meanMicros", latencyMeanMicros());
+        stats.put("p50Micros", latencyPercentileMicros(50));
+        stats.put("p99Micros", latencyPercentileMicros(99));
+        return stats;
+    }
+
     /**
      * Get statistics
      */
     public void showStats() {
+        Map<String, Object> s = getStats();
         System.out.println();
         System.out.println("⚡ TACHIONIC DRIVE STATISTICS");
         System.out.println("========================================");
         System.out.println();
-        System.out.println("   FTL Hits: " + ftlHits + " (0ms latency)");
-        System.out.println("   Wavefunction Collapses: " + wavefunctionCollapses + " (async disk reads)");
-        System.out.println("   Ghost Misses: " + ghostMisses + " (saved disk reads)");
-        System.out.println("   Event Horizon size: " + eventHorizon.size() + " entries");
-        System.out.println("   Holographic Index: " + holographicIndex.cardinality() + " / 1,000,000 bits set");
+        System.out.println("   FTL Hits: " + s.get("hits"));
+        System.out.println("   Wavefunction Collapses: " + s.get("misses") + " (async disk reads)");
+        System.out.println("   Ghost Misses: " + s.get("ghostMisses") + " (saved disk reads)");
+        System.out.println("   Event Horizon: " + s.get("cacheEntries") + " entries, "
+            + ((long) s.get("cacheBytes") / 1024) + " / " + (eventHorizon.capacity / 1024) + " KB");
+        System.out.println("   Holographic Index: " + s.get("bloomKeys") + " keys, "
+            + holographicIndex.hashes + " hashes, est. FPP " + String.format("%.4f%%", 100 * (double) s.get("bloomFpp")));
+        System.out.println("   Prefetch: " + s.get("prefetchesIssued") + " issued, " + s.get("prefetchHits") + " used, "
+            + s.get("prefetchWasted") + " evicted unused (accuracy "
+            + String.format("%.1f%%", 100 * (double) s.get("prefetchAccuracy")) + ")");
+        System.out.println("   Latency: mean " + String.format("%.0f", (double) s.get("meanMicros"))
+            + " µs, p50 " + String.format("%.0f", (double) s.get("p50Micros"))
+            + " µs, p99 " + String.format("%.0f", (double) s.get("p99Micros")) + " µs");
         System.out.println();
-        
-        if (ftlHits + wavefunctionCollapses > 0) {
-            double hitRate = (double) ftlHits / (ftlHits + wavefunctionCollapses) * 100;
-            System.out.println("   Cache Hit Rate: " + String.format("%.1f", hitRate) + "%");
+
+        if ((long) s.get("hits") + (long) s.get("misses") > 0) {
+            System.out.println("   Cache Hit Rate: " + String.format("%.1f", 100 * (double) s.get("hitRate")) + "%");
         }
-        
+
         System.out.println();
         System.out.println("========================================");
     }
 
+    // ═══════════════════════════════════════════════════════════════════
+    // HASHING
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * 64-bit string hash: FNV-1a over UTF-16 units, then the murmur3
+     * finalizer; different seeds give independent hash functions
+     */
+    static long hash64(String s, long seed) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // HOLOGRAPHIC INDEX (Bloom filter)
+    // ═══════════════════════════════════════════════════════════════════
+
+    static final class HolographicIndex {
+        final long bits;
+        final int hashes;
+        private final long[] words;
+        long inserted;
+
+        HolographicIndex(int expectedKeys, double fpp) {
+            int n = Math.max(1, expectedKeys);
+            double p = Math.min(0.5, Math.max(1e-9, fpp));
+            long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+            this.bits = Math.max(64, (m + 63) / 64 * 64);
+            this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+            this.words = new long[(int) (bits / 64)];
+        }
+
+        synchronized void add(String key) {
+            long h1 = hash64(key, 0x9E3779B97F4A7C15L);
+            long h2 = hash64(key, 0xC2B2AE3D27D4EB4FL) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                words[(int) (bit >>> 6)] |= 1L << bit;
+            }
+            inserted++;
+        }
+
+        synchronized boolean mightContain(String key) {
+            long h1 = hash64(key, 0x9E3779B97F4A7C15L);
+            long h2 = hash64(key, 0xC2B2AE3D27D4EB4FL) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        /**
+         * (1 - e^(-kn/m))^k at the current fill
+         */
+        synchronized double expectedFpp() {
+            return Math.pow(1 - Math.exp(-hashes * (double) inserted / bits), hashes);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // EVENT HORIZON (W-TinyLFU)
+    // ═══════════════════════════════════════════════════════════════════
+
+    static final class EventHorizon {
+        final long capacity;
+        private final long windowBudget;
+        private final long protectedBudget;
+        private final FrequencySketch sketch;
+        private final java.util.function.Consumer<String> onEvict;
+
+        // Insertion-ordered; re-put moves an entry to the MRU end
+        private final LinkedHashMap<String, String> window = new LinkedHashMap<>();
+        private final LinkedHashMap<String, String> probation = new LinkedHashMap<>();
+        private final LinkedHashMap<String, String> protectedSeg = new LinkedHashMap<>();
+        private long windowBytes, probationBytes, protectedBytes;
+
+        EventHorizon(long capacity, java.util.function.Consumer<String> onEvict) {
+            this.capacity = Math.max(1024, capacity);
+            this.windowBudget = Math.max(256, this.capacity / 100);
+            this.protectedBudget = (this.capacity - windowBudget) * 8 / 10;
+            this.sketch = new FrequencySketch((int) Math.min(1 << 20, Math.max(64, this.capacity / 256)));
+            this.onEvict = onEvict;
+        }
+
+        static long weigh(String key, String value) {
+            return 2L * (key.length() + value.length()) + 48;
+        }
+
+        synchronized String get(String key) {
+            sketch.increment(key);
+            String v = window.remove(key);
+            if (v != null) {
+                window.put(key, v);
+                return v;
+            }
+            v = probation.remove(key);
+            if (v != null) {
+                // Second touch: promote to protected, demote its LRU if over budget
+                probationBytes -= weigh(key, v);
+                protectedSeg.put(key, v);
+                protectedBytes += weigh(key, v);
+                while (protectedBytes > protectedBudget && protectedSeg.size() > 1) {
+                    Map.Entry<String, String> e = first(protectedSeg);
+                    protectedSeg.remove(e.getKey());
+                    protectedBytes -= weigh(e.getKey(), e.getValue());
+                    probation.put(e.getKey(), e.getValue());
+                    probationBytes += weigh(e.getKey(), e.getValue());
+                }
+                return v;
+            }
+            v = protectedSeg.remove(key);
+            if (v != null) {
+                protectedSeg.put(key, v);
+            }
+            return v;
+        }
+
+        synchronized boolean contains(String key) {
+            return window.containsKey(key) || probation.containsKey(key) || protectedSeg.containsKey(key);
+        }
+
+        /**
+         * Insert a loaded value; does not count as an access (the summon
+         * that asked for it already did, and prefetches shouldn't)
+         */
+        synchronized void put(String key, String value) {
+            long w = weigh(key, value);
+            if (w > capacity - windowBudget) {   // would never fit in main
+                onEvict.accept(key);
+                return;
+            }
+            remove(key);
+            window.put(key, value);
+            windowBytes += w;
+            while (windowBytes > windowBudget && window.size() > 1) {
+                Map.Entry<String, String> cand = first(window);
+                window.remove(cand.getKey());
+                windowBytes -= weigh(cand.getKey(), cand.getValue());
+                admit(cand.getKey(), cand.getValue());
+            }
+        }
+
+        /**
+         * TinyLFU admission: the window's victim displaces main's victims
+         * only if it is more frequent than each of them. All victims are
+         * chosen and compared first, so a rejected candidate evicts nothing.
+         */
+        private void admit(String key, String value) {
+            long w = weigh(key, value);
+            long need = probationBytes + protectedBytes + w - (capacity - windowBudget);
+            int freq = sketch.frequency(key);
+            List<String> victims = new ArrayList<>();
+            for (LinkedHashMap<String, String> seg : List.of(probation, protectedSeg)) {
+                Iterator<Map.Entry<String, String>> it = seg.entrySet().iterator();
+                while (need > 0 && it.hasNext()) {
+                    Map.Entry<String, String> victim = it.next();
+                    if (freq <= sketch.frequency(victim.getKey())) {
+                        onEvict.accept(key);   // rejected; main is untouched
+                        return;
+                    }
+                    victims.add(victim.getKey());
+                    need -= weigh(victim.getKey(), victim.getValue());
+                }
+            }
+            for (String v : victims) {
+                remove(v);
+                onEvict.accept(v);
+            }
+            probation.put(key, value);
+            probationBytes += w;
+        }
+
+        private void remove(String key) {
+            String v;
+            if ((v = window.remove(key)) != null) windowBytes -= weigh(key, v);
+            else if ((v = probation.remove(key)) != null) probationBytes -= weigh(key, v);
+            else if ((v = protectedSeg.remove(key)) != null) protectedBytes -= weigh(key, v);
+        }
+
+        private static Map.Entry<String, String> first(LinkedHashMap<String, String> m) {
+            return m.entrySet().iterator().next();
+        }
+
+        synchronized int size() {
+            return window.size() + probation.size() + protectedSeg.size();
+        }
+
+        synchronized long bytes() {
+            return windowBytes + probationBytes + protectedBytes;
+        }
+
+        synchronized void clear() {
+            window.clear();
+            probation.clear();
+            protectedSeg.clear();
+            windowBytes = probationBytes = protectedBytes = 0;
+        }
+    }
+
+    /**
+     * Count-Min sketch, 4 rows of 4-bit counters; all counters halve after
+     * 10 × width increments so old popularity fades
+     */
+    static final class FrequencySketch {
+        private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xBF58476D1CE4E5B9L, 0x94D049BB133111EBL, 0xD6E8FEB86659FD93L
+        };
+        private final byte[][] rows;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int width) {
+            int w = Integer.highestOneBit(Math.max(16, width - 1)) << 1;
+            this.rows = new byte[4][w];
+            this.mask = w - 1;
+            this.sampleSize = 10 * w;
+        }
+
+        void increment(String key) {
+            long h = hash64(key, 0);
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int idx = (int) ((h ^ SEEDS[i]) * SEEDS[(i + 1) & 3] >>> 40) & mask;
+                if (rows[i][idx] < 15) {
+                    rows[i][idx]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (byte[] row : rows) {
+                    for (int j = 0; j < row.length; j++) row[j] >>= 1;
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(String key) {
+            long h = hash64(key, 0);
+            int min = 15;
+            for (int i = 0; i < 4; i++) {
+                int idx = (int) ((h ^ SEEDS[i]) * SEEDS[(i + 1) & 3] >>> 40) & mask;
+                min = Math.min(min, rows[i][idx]);
+            }
+            return min;
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // TACHYON ROUTER (first-order Markov successor counts)
+    // ═══════════════════════════════════════════════════════════════════
+
+    static final class TachyonRouter {
+        private final int maxSuccessors;
+        private final Map<String, Map<String, Integer>> successors = new HashMap<>();
+
+        TachyonRouter(int maxSuccessors) {
+            this.maxSuccessors = maxSuccessors;
+        }
+
+        synchronized void record(String from, String to) {
+            Map<String, Integer> next = successors.computeIfAbsent(from, k -> new HashMap<>());
+            next.merge(to, 1, Integer::sum);
+            if (next.size() > maxSuccessors) {
+                // Drop the weakest successor and age the rest
+                String weakest = Collections.min(next.entrySet(), Map.Entry.comparingByValue()).getKey();
+                next.remove(weakest);
+                next.replaceAll((k, v) -> Math.max(1, v / 2));
+            }
+        }
+
+        /**
+         * Up to width successors whose share of observed transitions is at
+         * least minConfidence, most likely first
+         */
+        synchronized List<String> predict(String from, int width, double minConfidence) {
+            Map<String, Integer> next = successors.get(from);
+            if (next == null || next.isEmpty()) return List.of();
+            int total = 0;
+            for (int c : next.values()) total += c;
+            List<Map.Entry<String, Integer>> ranked = new ArrayList<>(next.entrySet());
+            ranked.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+            List<String> result = new ArrayList<>(width);
+            for (Map.Entry<String, Integer> e : ranked) {
+                if (result.size() == width || (double) e.getValue() / total < minConfidence) break;
+                result.add(e.getKey());
+            }
+            return result;
+        }
+    }
+
     /**
      * Demonstration
      */
@@ -198,48 +663,84 @@ public class TachionicDrive {
         System.out.println("🌊⚡ TACHIONIC DRIVE DEMONSTRATION");
         System.out.println("========================================");
         System.out.println();
-        
+
         TachionicDrive drive = new TachionicDrive();
-        
+
         System.out.println("TEST 1: STANDARD ACCESS (First time)");
         System.out.println("========================================");
         System.out.println();
-        
+
         CompletableFuture<String> result1 = drive.summon("Consciousness");
         System.out.println("   Result: " + result1.get());
         System.out.println();
-        
+
         System.out.println("TEST 2: FTL ACCESS (Cached)");
         System.out.println("========================================");
         System.out.println();
-        
+
         CompletableFuture<String> result2 = drive.summon("Consciousness");
         System.out.println("   Result: " + result2.get());
         System.out.println();
-        
+
         System.out.println("TEST 3: PREDICTIVE PREFETCH");
         System.out.println("========================================");
         System.out.println();
-        
+
         // Tachyon Router predicts user will ask about "Memory"
         drive.prefetch("Memory");
+        Thread.sleep(150);
         System.out.println();
-        
+
         // User actually asks
         CompletableFuture<String> result3 = drive.summon("Memory");
         System.out.println("   Result: " + result3.get());
         System.out.println();
-        
+
         System.out.println("TEST 4: GHOST CHECK (Non-existent)");
         System.out.println("========================================");
         System.out.println();
-        
+
         CompletableFuture<String> result4 = drive.summon("NonExistentTopic");
         System.out.println("   Result: " + result4.get());
         System.out.println();
-        
+
         drive.showStats();
-        
+        drive.shutdown();
+
+        System.out.println();
+        System.out.println("TEST 5: LEARNED PREFETCH (patterned lookups, 5ms backing reads)");
+        System.out.println("========================================");
+        System.out.println();
+
+        for (boolean prefetch : new boolean[] { false, true }) {
+            TachionicDrive d = new TachionicDrive(k -> {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "data:" + k;
+            }, 4 * 1024, 10_000, 0.01);
+            d.setPrefetchEnabled(prefetch);
+            Random rnd = new Random(7);
+            for (int i = 0; i < 2000; i++) d.entangle("topic-" + i);
+            // Sessions walk short chains (topic-n → n+1 → n+2 → n+3) over
+            // 200 topics; the cache holds only about a quarter of them
+            for (int session = 0; session < 200; session++) {
+                int startTopic = rnd.nextInt(50) * 4;
+                for (int step = 0; step < 4; step++) {
+                    d.summon("topic-" + (startTopic + step)).get();
+                    Thread.sleep(6);   // think time
+                }
+            }
+            Map<String, Object> s = d.getStats();
+            System.out.println(String.format("   prefetch=%-5s hit=%5.1f%%  mean=%6.0f µs  p50=%6.0f µs  p99=%6.0f µs  accuracy=%.1f%%",
+                prefetch, 100 * (double) s.get("hitRate"), (double) s.get("meanMicros"),
+                (double) s.get("p50Micros"), (double) s.get("p99Micros"),
+                100 * (double) s.get("prefetchAccuracy")));
+            d.shutdown();
+        }
+
         System.out.println();
         System.out.println("========================================");
         System.out.println("   This is FTL Access.");
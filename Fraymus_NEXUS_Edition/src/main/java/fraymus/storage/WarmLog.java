@@ -0,0 +1,236 @@
+package fraymus.storage;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * WARM LOG: Append-only local tier under the StorageOrchestrator
+ *
+ * Records go to numbered segment files (warm_000001.log, ...):
+ *
+ *   [int keyLen][key][int valLen][value][int crc32]
+ *
+ * An in-memory index maps key → (segment, offset), so a read is one
+ * positional read. The active segment rolls over at segmentBytes. Old
+ * segments are deleted only once the cold pipeline has demoted past
+ * them (see {@link #retire}). On open, a torn tail of the active segment
+ * (a crash mid-append) is truncated; a bad record in a sealed segment is
+ * skipped when its lengths are intact, and the segment is never cut.
+ */
+final class WarmLog implements Closeable {
+
+    /** Position of a record; ordered, so it doubles as the demotion mark */
+    record Loc(int segment, long offset) implements Comparable<Loc> {
+        @Override
+        public int compareTo(Loc o) {
+            return segment != o.segment ? Integer.compare(segment, o.segment) : Long.compare(offset, o.offset);
+        }
+    }
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final TreeMap<Integer, FileChannel> segments = new TreeMap<>();
+    private final Map<String, Loc> index = new HashMap<>();
+    private int active;
+    private long activeSize;
+    private long bytes;
+
+    WarmLog(Path dir, long segmentBytes) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(dir);
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "warm_*.log")) {
+            for (Path p : ds) {
+                String n = p.getFileName().toString();
+                int id = Integer.parseInt(n.substring(5, n.length() - 4));
+                segments.put(id, FileChannel.open(p, StandardOpenOption.READ, StandardOpenOption.WRITE));
+            }
+        }
+        if (segments.isEmpty()) {
+            openSegment(1);
+        }
+        active = segments.lastKey();
+        activeSize = segments.get(active).size();
+    }
+
+    /**
+     * Rebuild the index from disk, oldest first; returns records replayed.
+     * Each record is also handed to visitor (used to rebuild dedup hashes
+     * and re-queue anything the cold tier has not seen).
+     */
+    int replay(BiConsumer<Loc, String[]> visitor) throws IOException {
+        int count = 0;
+        for (Map.Entry<Integer, FileChannel> e : segments.entrySet()) {
+            FileChannel ch = e.getValue();
+            boolean sealed = e.getKey() != active;
+            long size = ch.size();
+            long pos = 0;
+            while (pos < size) {
+                String[] kv = readAt(ch, pos, size);
+                if (kv == null) {
+                    if (!sealed) {
+                        // Torn tail: keep what is intact
+                        ch.truncate(pos);
+                        size = pos;
+                        System.out.println("   ⚠️ WARM LOG: truncated torn tail of segment " + e.getKey() + " at " + pos);
+                        break;
+                    }
+                    long skip = framedSize(ch, pos, size);
+                    System.out.println("   ⚠️ WARM LOG: bad record in sealed segment " + e.getKey() + " at " + pos
+                        + (skip > 0 ? " (skipped)" : " (rest of segment unreadable)"));
+                    if (skip <= 0) break;
+                    pos += skip;
+                    continue;
+                }
+                Loc loc = new Loc(e.getKey(), pos);
+                index.put(kv[0], loc);
+                visitor.accept(loc, kv);
+                pos += recordSize(kv);
+                count++;
+            }
+            bytes += size;
+        }
+        activeSize = segments.get(active).size();
+        return count;
+    }
+
+    Loc append(String key, String value) throws IOException {
+        byte[] k = key.getBytes(StandardCharsets.UTF_8);
+        byte[] v = value.getBytes(StandardCharsets.UTF_8);
+        int size = 12 + k.length + v.length;
+        if (activeSize > 0 && activeSize + size > segmentBytes) {
+            openSegment(active + 1);
+            active = segments.lastKey();
+            activeSize = 0;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putInt(k.length).put(k).putInt(v.length).put(v);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, size - 4);
+        buf.putInt((int) crc.getValue()).flip();
+
+        FileChannel ch = segments.get(active);
+        long offset = activeSize;
+        while (buf.hasRemaining()) ch.write(buf, offset + buf.position());
+        activeSize += size;
+        bytes += size;
+
+        Loc loc = new Loc(active, offset);
+        index.put(key, loc);
+        return loc;
+    }
+
+    /**
+     * Value for key, or null if it is not in the warm tier
+     */
+    String get(String key) throws IOException {
+        Loc loc = index.get(key);
+        if (loc == null) return null;
+        FileChannel ch = segments.get(loc.segment());
+        if (ch == null) return null;
+        String[] kv = readAt(ch, loc.offset(), ch.size());
+        return kv != null && kv[0].equals(key) ? kv[1] : null;
+    }
+
+    boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Delete sealed segments that are wholly before the cold mark, keeping
+     * the newest keepSegments; their keys then resolve from the cold tier.
+     */
+    int retire(Loc coldMark, int keepSegments) throws IOException {
+        int retired = 0;
+        while (segments.size() > keepSegments) {
+            int oldest = segments.firstKey();
+            if (oldest == active || oldest >= coldMark.segment()) break;
+            FileChannel ch = segments.remove(oldest);
+            bytes -= ch.size();
+            ch.close();
+            Files.deleteIfExists(segmentPath(oldest));
+            index.values().removeIf(l -> l.segment() == oldest);
+            retired++;
+        }
+        return retired;
+    }
+
+    int size() { return index.size(); }
+
+    int segmentCount() { return segments.size(); }
+
+    long bytes() { return bytes; }
+
+    @Override
+    public void close() throws IOException {
+        for (FileChannel ch : segments.values()) {
+            ch.force(false);
+            ch.close();
+        }
+        segments.clear();
+    }
+
+    private void openSegment(int id) throws IOException {
+        segments.put(id, FileChannel.open(segmentPath(id),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    private Path segmentPath(int id) {
+        return dir.resolve(String.format("warm_%06d.log", id));
+    }
+
+    private static int recordSize(String[] kv) {
+        return 12 + kv[0].getBytes(StandardCharsets.UTF_8).length + kv[1].getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Size of the record at pos going by its length fields alone, or -1
+     * if they run past limit (the record can't be stepped over)
+     */
+    private static long framedSize(FileChannel ch, long pos, long limit) throws IOException {
+        if (pos + 4 > limit) return -1;
+        ByteBuffer len = ByteBuffer.allocate(4);
+        ch.read(len, pos);
+        int kLen = len.flip().getInt();
+        if (kLen < 0 || pos + 8 + kLen > limit) return -1;
+        len.clear();
+        ch.read(len, pos + 4 + kLen);
+        int vLen = len.flip().getInt();
+        if (vLen < 0 || pos + 12L + kLen + vLen > limit) return -1;
+        return 12L + kLen + vLen;
+    }
+
+    /**
+     * Decode one record, or null if it is short or fails its checksum
+     */
+    private static String[] readAt(FileChannel ch, long pos, long limit) throws IOException {
+        if (pos + 4 > limit) return null;
+        ByteBuffer len = ByteBuffer.allocate(4);
+        ch.read(len, pos);
+        int kLen = len.flip().getInt();
+        if (kLen < 0 || pos + 8 + kLen > limit) return null;
+        len.clear();
+        ch.read(len, pos + 4 + kLen);
+        int vLen = len.flip().getInt();
+        if (vLen < 0 || pos + 12L + kLen + vLen > limit) return null;
+
+        ByteBuffer buf = ByteBuffer.allocate(12 + kLen + vLen);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, pos + buf.position()) < 0) return null;
+        }
+        byte[] a = buf.array();
+        CRC32 crc = new CRC32();
+        crc.update(a, 0, a.length - 4);
+        if ((int) crc.getValue() != buf.getInt(a.length - 4)) return null;
+        return new String[] {
+            new String(a, 4, kLen, StandardCharsets.UTF_8),
+            new String(a, 8 + kLen, vLen, StandardCharsets.UTF_8)
+        };
+    }
+}
@@ -0,0 +1,230 @@
+package fraymus.storage;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * STORAGE ORCHESTRATOR TEST - STANDALONE VALIDATION
+ *
+ * 1. Warm log replay: torn active tail is truncated, sealed segments are not
+ * 2. Cold mark never moves past a batch that failed to write
+ * 3. Concepts stalled at shutdown are demoted after a restart
+ * 4. Cold reads find batch files that were moved to archive/
+ *
+ * Exits non-zero if any check fails.
+ */
+public class StorageOrchestratorTest {
+
+    private static int failures = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("STORAGE ORCHESTRATOR TEST");
+        System.out.println();
+
+        run("replay truncates only the active tail", StorageOrchestratorTest::testReplaySealedVsActive);
+        run("cold mark holds after a failed batch", StorageOrchestratorTest::testMarkHoldsAfterFailedFlush);
+        run("stalled concepts demoted after restart", StorageOrchestratorTest::testStalledReplayedAfterRestart);
+        run("cold read searches archive/", StorageOrchestratorTest::testArchiveSearch);
+
+        System.out.println();
+        if (failures > 0) {
+            System.out.println("❌ " + failures + " check(s) failed");
+            System.exit(1);
+        }
+        System.out.println("✅ All storage tests passed");
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // TESTS
+    // ═══════════════════════════════════════════════════════════════════
+
+    private static void testReplaySealedVsActive(Path dir) throws IOException {
+        // Small segments: each record is 12 + 4 + 20 bytes, three fit per segment
+        try (WarmLog log = new WarmLog(dir, 120)) {
+            for (int i = 0; i < 9; i++) {
+                log.append(String.format("k%03d", i), "v".repeat(20));
+            }
+            check(log.segmentCount() == 3, "three segments written");
+        }
+
+        // Flip a value byte of the second record in the first (sealed) segment
+        Path sealed = dir.resolve("warm_000001.log");
+        long sealedSize = Files.size(sealed);
+        flipByte(sealed, 36 + 12 + 5);
+
+        // Tear the last record of the active segment
+        Path active = dir.resolve("warm_000003.log");
+        try (FileChannel ch = FileChannel.open(active, StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() - 5);
+        }
+
+        List<String> keys = new ArrayList<>();
+        try (WarmLog log = new WarmLog(dir, 120)) {
+            int n = log.replay((loc, kv) -> keys.add(kv[0]));
+            check(n == 7, "seven intact records replayed (got " + n + ")");
+            check(!keys.contains("k001"), "corrupt sealed record skipped");
+            check(keys.contains("k002"), "record after the corrupt one still replayed");
+            check(!keys.contains("k008"), "torn active record dropped");
+            check(log.get("k002") != null, "k002 readable after replay");
+        }
+        check(Files.size(sealed) == sealedSize, "sealed segment not truncated");
+        check(Files.size(active) == 72, "active segment cut back to its last intact record");
+    }
+
+    private static void testMarkHoldsAfterFailedFlush(Path dir) throws IOException {
+        Path local = dir.resolve("local");
+        Path mark = dir.resolve("warm/cold.mark");
+        StorageOrchestrator store = new StorageOrchestrator(dir.toString());
+        try {
+            store.setLingerMs(10);
+
+            // Make batch writes fail: local/ is a plain file
+            Files.delete(local);
+            Files.writeString(local, "");
+            store.store("Element", "Hydrogen", "H, atomic number 1");
+            store.flush();
+            check(!Files.exists(mark), "no cold mark after failed batch");
+
+            // Repair local/; the next batch carries the stalled concept too
+            Files.delete(local);
+            Files.createDirectories(local);
+            store.store("Element", "Helium", "He, atomic number 2");
+            store.flush();
+
+            Map<String, String> cold = readBatches(local);
+            check(cold.containsKey("Element:Hydrogen"), "failed concept demoted on retry");
+            check(cold.containsKey("Element:Helium"), "new concept demoted");
+            check(Files.exists(mark), "cold mark written after successful batch");
+        } finally {
+            store.close();
+        }
+    }
+
+    private static void testStalledReplayedAfterRestart(Path dir) throws IOException {
+        Path local = dir.resolve("local");
+        StorageOrchestrator store = new StorageOrchestrator(dir.toString());
+        try {
+            store.setLingerMs(10);
+            Files.delete(local);
+            Files.writeString(local, "");
+            store.store("Planet", "Mars", "fourth planet");
+        } finally {
+            store.close();
+        }
+        check(!Files.exists(dir.resolve("warm/cold.mark")), "mark untouched by failed batch");
+
+        Files.delete(local);
+        store = new StorageOrchestrator(dir.toString());
+        try {
+            store.flush();
+            check(readBatches(local).containsKey("Planet:Mars"), "stalled concept demoted after restart");
+        } finally {
+            store.close();
+        }
+    }
+
+    private static void testArchiveSearch(Path dir) throws IOException {
+        StorageOrchestrator store = new StorageOrchestrator(dir.toString());
+        try {
+            store.setLingerMs(10);
+            store.store("Planet", "Venus", "second planet");
+            store.flush();
+        } finally {
+            store.close();
+        }
+
+        // Move the batch to archive/ and drop the warm tier so only cold can answer
+        Path local = dir.resolve("local");
+        try (Stream<Path> files = Files.list(local)) {
+            for (Path p : files.toList()) {
+                Files.move(p, dir.resolve("archive").resolve(p.getFileName()));
+            }
+        }
+        deleteTree(dir.resolve("warm"));
+
+        store = new StorageOrchestrator(dir.toString());
+        try {
+            check("second planet".equals(store.retrieve("Planet", "Venus")), "archived concept found");
+            check(((Number) store.getTierStats().get("coldHits")).longValue() == 1, "counted as a cold hit");
+        } finally {
+            store.close();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // HELPERS
+    // ═══════════════════════════════════════════════════════════════════
+
+    private interface Case {
+        void run(Path dir) throws Exception;
+    }
+
+    private static void run(String name, Case c) {
+        System.out.println("▶ " + name);
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory("storage-test");
+            c.run(dir);
+        } catch (Exception e) {
+            failures++;
+            System.out.println("   ❌ threw " + e);
+        } finally {
+            if (dir != null) {
+                try {
+                    deleteTree(dir);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static void check(boolean ok, String what) {
+        if (ok) {
+            System.out.println("   ✅ " + what);
+        } else {
+            failures++;
+            System.out.println("   ❌ " + what);
+        }
+    }
+
+    private static void flipByte(Path file, long pos) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            ch.read(b, pos);
+            b.put(0, (byte) (b.get(0) ^ 0x01)).rewind();
+            ch.write(b, pos);
+        }
+    }
+
+    /** Concept keys → raw JSON text of every batch file under dir */
+    private static Map<String, String> readBatches(Path dir) throws IOException {
+        Map<String, String> out = new HashMap<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : files.filter(f -> f.toString().endsWith(".json.gz")).toList()) {
+                String json;
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(p))) {
+                    json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                }
+                for (String key : new String[] { "Element:Hydrogen", "Element:Helium", "Planet:Mars" }) {
+                    if (json.contains("\"" + key + "\"")) out.put(key, json);
+                }
+            }
+        }
+        return out;
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        if (!Files.exists(root)) return;
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,573 @@
+package io.fraymus.ai.core;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * HNSW INDEX - Approximate Nearest Neighbour Search
+ *
+ * Hierarchical Navigable Small World graph over unit vectors, scored by
+ * dot product (= cosine). Search cost grows roughly with log(n) instead
+ * of n, so RAG retrieval stays flat as the corpus grows.
+ *
+ * - Nodes are dense ids 0..n-1 inserted in order; vectors live in the
+ *   caller's storage and are read through a VectorSource
+ * - M: links per node per layer (2M on layer 0)
+ * - efConstruction: candidate list size while inserting
+ * - efSearch: candidate list size while querying (≥ k)
+ *
+ * Inserts are serialized; searches run concurrently with them without
+ * locking. A node only becomes reachable once its own links are written
+ * and size() is bumped, and searches skip ids past the size they started
+ * with (and past the VectorSource they were handed).
+ */
+public class HnswIndex {
+
+    /**
+     * Vector access for the graph. Vectors must be L2-normalized.
+     */
+    public interface VectorSource {
+        int size();
+
+        /** Copy of a stored vector */
+        float[] vector(int node);
+
+        /** Dot product of q with a stored vector */
+        float dot(float[] q, int node);
+    }
+
+    /**
+     * Tuning knobs
+     */
+    public static class Params {
+        public int m = 16;
+        public int efConstruction = 200;
+        public int efSearch = 64;
+        public long seed = 42;
+
+        public Params m(int m) { this.m = Math.max(2, m); return this; }
+        public Params efConstruction(int ef) { this.efConstruction = Math.max(1, ef); return this; }
+        public Params efSearch(int ef) { this.efSearch = Math.max(1, ef); return this; }
+        public Params seed(long seed) { this.seed = seed; return this; }
+    }
+
+    private static final int MAGIC = 0x484E5357;   // "HNSW"
+    private static final int VERSION = 1;
+
+    private final int m;
+    private final int m0;
+    private final int efConstruction;
+    private volatile int efSearch;
+    private final double levelMult;
+    private final Random random;
+
+    // Layer 0: node * (m0 + 1) → [count, ids...]
+    private volatile int[] level0 = new int[0];
+    // Layers ≥ 1: upper[node][layer - 1] → [count, ids...]; null for layer-0 nodes
+    private volatile int[][][] upper = new int[0][][];
+    private volatile int size = 0;
+    // (top layer << 32) | entry node, or -1 when empty
+    private volatile long entry = -1;
+
+    public HnswIndex(Params p) {
+        this.m = p.m;
+        this.m0 = 2 * p.m;
+        this.efConstruction = p.efConstruction;
+        this.efSearch = p.efSearch;
+        this.levelMult = 1.0 / Math.log(p.m);
+        this.random = new Random(p.seed);
+    }
+
+    /**
+     * SIZE
+     * Nodes visible to searches
+     */
+    public int size() {
+        return size;
+    }
+
+    public void setEfSearch(int ef) {
+        this.efSearch = Math.max(1, ef);
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // INSERT
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * INSERT
+     * Link the next node (id must equal size()) into the graph
+     */
+    public synchronized void insert(int id, VectorSource src) {
+        if (id != size) throw new IllegalArgumentException("expected node " + size + ", got " + id);
+        float[] v = src.vector(id);
+        int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMult);
+        grow(id + 1);
+        if (level > 0) upper[id] = new int[level][m + 1];
+
+        long ep = entry;
+        if (ep < 0) {
+            entry = ((long) level << 32) | id;
+            size = id + 1;
+            return;
+        }
+
+        int cur = (int) ep;
+        int top = (int) (ep >>> 32);
+        float curSim = src.dot(v, cur);
+        for (int l = top; l > level; l--) {
+            long best = greedy(v, cur, curSim, l, id, src);
+            cur = (int) best;
+            curSim = keySim(best >>> 32);
+        }
+
+        long[] entries = { key(curSim, cur) };
+        for (int l = Math.min(top, level); l >= 0; l--) {
+            long[] found = searchLayer(v, entries, efConstruction, l, id, src);
+            int[] chosen = selectNeighbors(found, l == 0 ? m0 : m, src);
+            int[] own = l == 0 ? level0 : upper[id][l - 1];
+            int base = l == 0 ? id * (m0 + 1) : 0;
+            for (int i = 0; i < chosen.length; i++) own[base + 1 + i] = chosen[i];
+            own[base] = chosen.length;
+            for (int n : chosen) link(n, id, l, src);
+            entries = found;
+        }
+
+        size = id + 1;   // publish
+        if (level > top) entry = ((long) level << 32) | id;
+    }
+
+    private void grow(int n) {
+        int cap = upper.length;
+        if (n <= cap) return;
+        int next = Math.max(n, Math.max(1024, cap * 2));
+        level0 = Arrays.copyOf(level0, next * (m0 + 1));
+        upper = Arrays.copyOf(upper, next);
+    }
+
+    /**
+     * Add id to n's list on a layer, pruning with the heuristic if full
+     */
+    private void link(int n, int id, int layer, VectorSource src) {
+        int max = layer == 0 ? m0 : m;
+        int[] arr = layer == 0 ? level0 : upper[n][layer - 1];
+        int base = layer == 0 ? n * (m0 + 1) : 0;
+        int count = arr[base];
+        if (count < max) {
+            arr[base + 1 + count] = id;
+            arr[base] = count + 1;
+            return;
+        }
+        float[] nv = src.vector(n);
+        long[] cand = new long[count + 1];
+        for (int i = 0; i < count; i++) {
+            int o = arr[base + 1 + i];
+            cand[i] = key(src.dot(nv, o), o);
+        }
+        cand[count] = key(src.dot(nv, id), id);
+        int[] kept = selectNeighbors(cand, max, src);
+        for (int i = 0; i < kept.length; i++) arr[base + 1 + i] = kept[i];
+        arr[base] = kept.length;
+    }
+
+    /**
+     * Heuristic selection: walk candidates best-first and keep one only
+     * if it is closer to the base than to anything already kept. Spreads
+     * links across directions instead of clustering them.
+     */
+    private int[] selectNeighbors(long[] candidates, int max, VectorSource src) {
+        long[] sorted = candidates.clone();
+        Arrays.sort(sorted);
+        int[] out = new int[Math.min(max, sorted.length)];
+        float[][] keptVecs = new float[out.length][];
+        int n = 0;
+        for (int i = sorted.length - 1; i >= 0 && n < out.length; i--) {
+            int c = (int) sorted[i];
+            float sim = keySim(sorted[i] >>> 32);
+            float[] cv = src.vector(c);
+            boolean good = true;
+            for (int j = 0; j < n && good; j++) {
+                if (dot(cv, keptVecs[j]) > sim) good = false;
+            }
+            if (good) {
+                keptVecs[n] = cv;
+                out[n++] = c;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // SEARCH
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * SEARCH
+     * Up to k nearest node ids to q (normalized), best first
+     */
+    public int[] search(float[] q, int k, VectorSource src) {
+        return search(q, k, Math.max(k, efSearch), src);
+    }
+
+    public int[] search(float[] q, int k, int ef, VectorSource src) {
+        long ep = entry;
+        int bound = Math.min(size, src.size());
+        if (ep < 0 || bound == 0 || k <= 0) return new int[0];
+        int cur = (int) ep;
+        int top = (int) (ep >>> 32);
+        if (cur >= bound) {
+            // Entry point newer than the caller's vectors: start from node 0
+            int[][] up = upper[0];
+            cur = 0;
+            top = up == null ? 0 : up.length;
+        }
+
+        float curSim = src.dot(q, cur);
+        for (int l = top; l > 0; l--) {
+            long best = greedy(q, cur, curSim, l, bound, src);
+            cur = (int) best;
+            curSim = keySim(best >>> 32);
+        }
+        long[] found = searchLayer(q, new long[]{ key(curSim, cur) }, Math.max(ef, k), 0, bound, src);
+        Arrays.sort(found);
+        int n = Math.min(k, found.length);
+        int[] out = new int[n];
+        for (int i = 0; i < n; i++) out[i] = (int) found[found.length - 1 - i];
+        return out;
+    }
+
+    /**
+     * Hill-climb on an upper layer; returns key(best sim, best node)
+     */
+    private long greedy(float[] q, int cur, float curSim, int layer, int bound, VectorSource src) {
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            int[][] up = upper[cur];
+            if (up == null || up.length < layer) break;
+            int[] arr = up[layer - 1];
+            int count = Math.min(arr[0], arr.length - 1);
+            for (int i = 1; i <= count; i++) {
+                int n = arr[i];
+                if (n >= bound) continue;
+                float s = src.dot(q, n);
+                if (s > curSim) {
+                    curSim = s;
+                    cur = n;
+                    moved = true;
+                }
+            }
+        }
+        return key(curSim, cur);
+    }
+
+    /**
+     * Best-first beam search on one layer; returns up to ef keys (unsorted)
+     */
+    private long[] searchLayer(float[] q, long[] entries, int ef, int layer, int bound, VectorSource src) {
+        Visited visited = VISITED.get().reset(bound);
+        LongHeap candidates = new LongHeap(ef * 2);   // max by sim (keys negated)
+        LongHeap results = new LongHeap(ef + 1);       // min by sim
+        for (long e : entries) {
+            int n = (int) e;
+            if (n >= bound || !visited.mark(n)) continue;
+            candidates.push(-e);
+            results.push(e);
+        }
+        while (results.size() > ef) results.pop();
+
+        int[] l0 = level0;
+        int stride = m0 + 1;
+        while (candidates.size() > 0) {
+            long c = -candidates.pop();
+            if (results.size() >= ef && c < results.peek()) break;
+            int node = (int) c;
+
+            int[] arr;
+            int base;
+            if (layer == 0) {
+                arr = l0;
+                base = node * stride;
+                if (base >= arr.length) continue;
+            } else {
+                int[][] up = upper[node];
+                if (up == null || up.length < layer) continue;
+                arr = up[layer - 1];
+                base = 0;
+            }
+            int count = Math.min(arr[base], layer == 0 ? m0 : m);
+            for (int i = 1; i <= count; i++) {
+                int n = arr[base + i];
+                if (n >= bound || !visited.mark(n)) continue;
+                long key = key(src.dot(q, n), n);
+                if (results.size() < ef || key > results.peek()) {
+                    candidates.push(-key);
+                    results.push(key);
+                    if (results.size() > ef) results.pop();
+                }
+            }
+        }
+        return results.toArray();
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // KEYS & SCRATCH
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * (similarity, node) packed so that long order = similarity order
+     */
+    private static long key(float sim, int node) {
+        int bits = Float.floatToRawIntBits(sim);
+        bits ^= (bits >> 31) & 0x7FFFFFFF;
+        return ((long) bits << 32) | (node & 0xFFFFFFFFL);
+    }
+
+    private static float keySim(long high) {
+        int bits = (int) high;
+        bits ^= (bits >> 31) & 0x7FFFFFFF;
+        return Float.intBitsToFloat(bits);
+    }
+
+    static float dot(float[] a, float[] b) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int n = Math.min(a.length, b.length);
+        int i = 0;
+        for (; i + 3 < n; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < n; i++) s0 += a[i] * b[i];
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static final ThreadLocal<Visited> VISITED = ThreadLocal.withInitial(Visited::new);
+
+    /**
+     * Epoch-stamped visited set; reset is O(1) except on growth or wrap
+     */
+    private static final class Visited {
+        int[] stamp = new int[0];
+        int epoch = 0;
+
+        Visited reset(int n) {
+            if (stamp.length < n) stamp = new int[Math.max(n, stamp.length * 2)];
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(stamp, 0);
+                epoch = 1;
+            }
+            return this;
+        }
+
+        boolean mark(int n) {
+            if (stamp[n] == epoch) return false;
+            stamp[n] = epoch;
+            return true;
+        }
+    }
+
+    /**
+     * Binary min-heap of longs
+     */
+    private static final class LongHeap {
+        long[] a;
+        int n;
+
+        LongHeap(int cap) {
+            a = new long[Math.max(4, cap)];
+        }
+
+        int size() { return n; }
+
+        long peek() { return a[0]; }
+
+        void push(long v) {
+            if (n == a.length) a = Arrays.copyOf(a, n * 2);
+            int i = n++;
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (a[p] <= v) break;
+                a[i] = a[p];
+                i = p;
+            }
+            a[i] = v;
+        }
+
+        long pop() {
+            long top = a[0];
+            long v = a[--n];
+            int i = 0;
+            int half = n >>> 1;
+            while (i < half) {
+                int c = 2 * i + 1;
+                if (c + 1 < n && a[c + 1] < a[c]) c++;
+                if (v <= a[c]) break;
+                a[i] = a[c];
+                i = c;
+            }
+            if (n > 0) a[i] = v;
+            return top;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(a, n);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // PERSISTENCE
+    // ═══════════════════════════════════════════════════════════════════
+
+    /**
+     * SAVE
+     * Write the graph (temp file, then move into place)
+     */
+    public synchronized void save(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(m);
+            out.writeInt(size);
+            out.writeLong(entry);
+            int stride = m0 + 1;
+            for (int node = 0; node < size; node++) {
+                int[][] up = upper[node];
+                out.writeByte(up == null ? 0 : up.length);
+                writeList(out, level0, node * stride);
+                if (up != null) {
+                    for (int[] list : up) writeList(out, list, 0);
+                }
+            }
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void writeList(DataOutputStream out, int[] arr, int base) throws IOException {
+        int count = arr[base];
+        out.writeShort(count);
+        for (int i = 1; i <= count; i++) out.writeInt(arr[base + i]);
+    }
+
+    /**
+     * LOAD
+     * Read a saved graph; null if missing, unreadable or built with a
+     * different M
+     */
+    public static HnswIndex load(Path file, Params p) {
+        if (!Files.exists(file)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != p.m) return null;
+            HnswIndex idx = new HnswIndex(p);
+            int n = in.readInt();
+            long entry = in.readLong();
+            idx.grow(n);
+            int stride = idx.m0 + 1;
+            for (int node = 0; node < n; node++) {
+                int levels = in.readUnsignedByte();
+                readList(in, idx.level0, node * stride, idx.m0);
+                if (levels > 0) {
+                    idx.upper[node] = new int[levels][idx.m + 1];
+                    for (int l = 0; l < levels; l++) readList(in, idx.upper[node][l], 0, idx.m);
+                }
+            }
+            idx.entry = entry;
+            idx.size = n;
+            // Advance the level generator so later inserts don't replay it
+            for (int i = 0; i < n; i++) idx.random.nextDouble();
+            return idx;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void readList(DataInputStream in, int[] arr, int base, int max) throws IOException {
+        int count = in.readUnsignedShort();
+        if (count > max) throw new IOException("corrupt neighbour list");
+        arr[base] = count;
+        for (int i = 1; i <= count; i++) arr[base + i] = in.readInt();
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // RECALL REPORT
+    // ═══════════════════════════════════════════════════════════════════
+
+    public static class Recall {
+        public int k;
+        public int queries;
+        public int ef;
+        public double recall;
+        public double hnswMillis;
+        public double bruteMillis;
+
+        @Override
+        public String toString() {
+            return String.format("recall@%d = %.4f over %d queries (ef=%d) | hnsw %.3f ms vs brute force %.3f ms",
+                k, recall, queries, ef, hnswMillis, bruteMillis);
+        }
+    }
+
+    /**
+     * RECALL
+     * Compare search() against an exact scan for perturbed copies of
+     * random stored vectors
+     */
+    public Recall recall(VectorSource src, int k, int queries, long seed) {
+        Random rnd = new Random(seed);
+        int n = Math.min(size, src.size());
+        Recall r = new Recall();
+        r.k = k;
+        r.ef = Math.max(k, efSearch);
+        if (n == 0) return r;
+
+        long hnswNanos = 0, bruteNanos = 0, hits = 0, total = 0;
+        for (int qi = 0; qi < queries; qi++) {
+            float[] q = src.vector(rnd.nextInt(n));
+            double norm = 0;
+            double sigma = 1.0 / Math.sqrt(q.length);
+            for (int i = 0; i < q.length; i++) {
+                q[i] += (float) (rnd.nextGaussian() * sigma);
+                norm += q[i] * q[i];
+            }
+            for (int i = 0; i < q.length; i++) q[i] /= (float) Math.sqrt(norm);
+
+            long t0 = System.nanoTime();
+            int[] approx = search(q, k, src);
+            long t1 = System.nanoTime();
+            int[] exact = bruteForce(q, k, n, src);
+            long t2 = System.nanoTime();
+            hnswNanos += t1 - t0;
+            bruteNanos += t2 - t1;
+
+            Set<Integer> truth = new HashSet<>();
+            for (int id : exact) truth.add(id);
+            for (int id : approx) if (truth.contains(id)) hits++;
+            total += exact.length;
+        }
+        r.queries = queries;
+        r.recall = total == 0 ? 1.0 : (double) hits / total;
+        r.hnswMillis = hnswNanos / 1e6 / queries;
+        r.bruteMillis = bruteNanos / 1e6 / queries;
+        return r;
+    }
+
+    private static int[] bruteForce(float[] q, int k, int n, VectorSource src) {
+        LongHeap heap = new LongHeap(k + 1);
+        for (int i = 0; i < n; i++) {
+            heap.push(key(src.dot(q, i), i));
+            if (heap.size() > k) heap.pop();
+        }
+        long[] keys = heap.toArray();
+        Arrays.sort(keys);
+        int[] out = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) out[i] = (int) keys[keys.length - 1 - i];
+        return out;
+    }
+}
@@ -2,18 +2,48 @@ package io.fraymus.ai.core;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
 
 /**
  * VECTOR STORE - Semantic Search
- * 
+ *
  * Stores text chunks with embeddings for similarity search
+ *
+ * On-disk layout (storePath/):
+ * - vectors.bin  16-byte header (magic, version, dim, encoding), then one
+ *                fixed-size row per chunk. Rows are L2-normalized at write
+ *                time, so cosine similarity is a plain dot product.
+ *                FLOAT32 rows are dim floats; INT8 rows are a float scale
+ *                followed by dim signed bytes (x ≈ q * scale).
+ * - entries.bin  per chunk: id, path, chunkIndex, text
+ * - index.jsonl  legacy format; imported once when vectors.bin is absent.
+ *                The import writes *.tmp files and renames vectors.bin into
+ *                place last, so a crash mid-import just imports again.
+ *
+ * - vectors.hnsw HNSW graph over the rows (see HnswIndex); rebuilt or
+ *                caught up from vectors.bin when missing or behind
+ *
+ * load() memory-maps vectors.bin instead of parsing it; addAndPersist()
+ * appends to both files, maps the new rows and links them into the
+ * graph. Small stores are searched exactly (a dot-product scan over the
+ * mapped rows, in parallel partitions when large enough); past
+ * BRUTE_FORCE_MAX rows topK walks the graph instead.
+ *
+ * Searches may run concurrently with addAndPersist(); they see the rows
+ * that were committed when they started.
+ *
+ * A store that exists but cannot be read (bad header, failed import) is
+ * never overwritten: addAndPersist() throws until load() succeeds.
  */
 public class VectorStore {
 
@@ -22,85 +52,370 @@ public class VectorStore {
         public String path;
         public int chunkIndex;
         public String text;
+        /** Normalized vector; filled in for entries returned by topK */
         public double[] vec;
+        int row;
     }
 
+    /**
+     * Row encoding for vectors.bin
+     */
+    public enum Encoding { FLOAT32, INT8 }
+
+    private static final int MAGIC = 0x46565331;        // "FVS1"
+    private static final int VERSION = 1;
+    private static final int HEADER = 16;
+    private static final long MAX_SEGMENT = 1L << 30;   // bytes per mapping
+    private static final int PARALLEL_MIN = 16384;
+    private static final int PARTITION = 4096;
+    private static final int BRUTE_FORCE_MAX = 4096;
+    private static final int GRAPH_SAVE_MIN = 1024;
+
     private final ObjectMapper mapper = new ObjectMapper();
-    private final List<Entry> entries = new ArrayList<>();
     private final Path indexFile;
+    private final Path vectorFile;
+    private final Path entryFile;
+    private final Path graphFile;
+    private final Encoding preferred;
+    private volatile boolean parallel = true;
+    private volatile HnswIndex.Params graphParams = new HnswIndex.Params();
+    private volatile HnswIndex graph;
+    private int unsavedInserts;
+    private volatile Exception loadError;
+
+    /**
+     * Mapped run of rows [firstRow, firstRow + rows)
+     */
+    private static final class Segment {
+        final ByteBuffer data;
+        final int firstRow;
+        final int rows;
+
+        Segment(ByteBuffer data, int firstRow, int rows) {
+            this.data = data;
+            this.firstRow = firstRow;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * Published snapshot: one volatile read gives a consistent view
+     */
+    private static final class Table {
+        final int dim;
+        final Encoding encoding;
+        final int stride;
+        final Segment[] segments;
+        final Entry[] entries;
+        final int size;
+
+        Table(int dim, Encoding encoding, Segment[] segments, Entry[] entries, int size) {
+            this.dim = dim;
+            this.encoding = encoding;
+            this.stride = encoding == Encoding.INT8 ? 4 + dim : 4 * dim;
+            this.segments = segments;
+            this.entries = entries;
+            this.size = size;
+        }
+    }
+
+    private static final Table EMPTY = new Table(0, Encoding.FLOAT32, new Segment[0], new Entry[0], 0);
+
+    private volatile Table table = EMPTY;
 
     public VectorStore(String storePath) {
+        this(storePath, Encoding.FLOAT32);
+    }
+
+    /**
+     * @param encoding row encoding for a new store; an existing
+     *                 vectors.bin keeps the encoding it was written with
+     */
+    public VectorStore(String storePath, Encoding encoding) {
         this.indexFile = Path.of(storePath, "index.jsonl");
+        this.vectorFile = Path.of(storePath, "vectors.bin");
+        this.entryFile = Path.of(storePath, "entries.bin");
+        this.graphFile = Path.of(storePath, "vectors.hnsw");
+        this.preferred = encoding;
+    }
+
+    /**
+     * PARALLEL
+     * Scan large stores in parallel partitions (default on)
+     */
+    public VectorStore parallel(boolean on) {
+        this.parallel = on;
+        return this;
+    }
+
+    /**
+     * INDEX
+     * HNSW parameters; null turns the graph off (exact scans only).
+     * Applies from the next load().
+     */
+    public VectorStore index(HnswIndex.Params params) {
+        this.graphParams = params;
+        return this;
     }
 
     /**
      * LOAD
-     * Load vectors from disk
+     * Map vectors from disk (importing index.jsonl on first use)
      */
-    public void load() {
-        entries.clear();
-        if (!Files.exists(indexFile)) return;
+    public synchronized void load() {
+        table = EMPTY;
+        graph = null;
+        loadError = null;
 
-        try (BufferedReader br = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.isBlank()) continue;
-                JsonNode o = mapper.readTree(line);
-                Entry e = new Entry();
-                e.id = o.get("id").asText();
-                e.path = o.get("path").asText();
-                e.chunkIndex = o.get("chunkIndex").asInt();
-                e.text = o.get("text").asText();
+        try {
+            if (!Files.exists(vectorFile) && Files.exists(indexFile)) {
+                importJsonl();
+            }
+            if (Files.exists(vectorFile)) {
+                mapStore();
+            }
+            openGraph();
+        } catch (Exception e) {
+            if (table == EMPTY) loadError = e;   // a graph failure still leaves usable rows
+        }
+    }
 
-                JsonNode v = o.get("vec");
-                double[] arr = new double[v.size()];
-                for (int i = 0; i < v.size(); i++) arr[i] = v.get(i).asDouble();
-                e.vec = arr;
+    /**
+     * Map vectors.bin, trimming rows that only made it into one file
+     */
+    private void mapStore() throws IOException {
+        try (FileChannel ch = FileChannel.open(vectorFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (ch.size() < HEADER) return;   // died before the header landed: no rows yet
+            ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && ch.read(header, header.position()) >= 0) {
+                // keep reading
+            }
+            header.flip();
+            int magic = header.getInt();
+            int version = header.getInt();
+            int dim = header.getInt();
+            int encodingOrdinal = header.getInt();
+            if (magic != MAGIC || version != VERSION || dim <= 0
+                    || encodingOrdinal < 0 || encodingOrdinal >= Encoding.values().length) {
+                throw new IOException(vectorFile + ": unrecognized header");
+            }
+            Encoding encoding = Encoding.values()[encodingOrdinal];
+            Table layout = new Table(dim, encoding, new Segment[0], new Entry[0], 0);
 
-                entries.add(e);
+            // Complete rows in both files count; a torn tail is cut off
+            List<Entry> loaded = new ArrayList<>();
+            List<Long> ends = new ArrayList<>();
+            readEntries(loaded, ends);
+            int rows = (int) Math.min(loaded.size(), (ch.size() - HEADER) / layout.stride);
+            ch.truncate(HEADER + (long) rows * layout.stride);
+            long keep = rows == 0 ? 0 : ends.get(rows - 1);
+            if (Files.exists(entryFile) && Files.size(entryFile) > keep) {
+                try (FileChannel ech = FileChannel.open(entryFile, StandardOpenOption.WRITE)) {
+                    ech.truncate(keep);
+                }
             }
-        } catch (Exception ignored) {}
+
+            Entry[] arr = loaded.subList(0, rows).toArray(new Entry[0]);
+            table = new Table(dim, encoding, mapRows(ch, layout, 0, rows, new Segment[0]), arr, rows);
+        }
     }
 
     /**
      * SIZE
      */
     public int size() {
-        return entries.size();
+        return table.size;
     }
 
     /**
      * ADD AND PERSIST
-     * Add chunks with vectors and save to disk
+     * Add chunks with vectors and append them to disk
      */
     public void addAndPersist(String path, List<String> chunks, List<double[]> vectors) throws Exception {
-        Files.createDirectories(indexFile.getParent());
+        List<Entry> entries = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            Entry e = new Entry();
+            e.id = UUID.randomUUID().toString();
+            e.path = path;
+            e.chunkIndex = i;
+            e.text = chunks.get(i);
+            entries.add(e);
+        }
+        append(entries, vectors);
+    }
 
-        try (BufferedWriter bw = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+    private synchronized void append(List<Entry> added, List<double[]> vectors) throws IOException {
+        if (added.isEmpty()) return;
+        Files.createDirectories(vectorFile.getParent());
+        if (table == EMPTY && loadError == null && (Files.exists(vectorFile) || Files.exists(indexFile))) {
+            load();   // appending to a store (or legacy index) nobody loaded yet
+        }
+        if (loadError != null) {
+            throw new IOException("vector store " + vectorFile.getParent()
+                + " could not be read; refusing to overwrite it", loadError);
+        }
+        Table t = table;
+        if (t == EMPTY) {
+            t = new Table(vectors.get(0).length, preferred, new Segment[0], new Entry[0], 0);
+            writeHeader(t);
+        }
 
-            for (int i = 0; i < chunks.size(); i++) {
-                Entry e = new Entry();
-                e.id = UUID.randomUUID().toString();
-                e.path = path;
-                e.chunkIndex = i;
-                e.text = chunks.get(i);
-                e.vec = vectors.get(i);
+        ByteBuffer rows = ByteBuffer.allocate(added.size() * t.stride).order(ByteOrder.LITTLE_ENDIAN);
+        for (double[] v : vectors) {
+            if (v.length != t.dim) {
+                throw new IllegalArgumentException("vector dim " + v.length + " != store dim " + t.dim);
+            }
+            encodeRow(t, v, rows);
+        }
+        rows.flip();
+
+        int first = t.size;
+        // Slots past a reader's size are never read, so spare capacity is reused
+        Entry[] entries = t.entries.length >= first + added.size() ? t.entries
+            : Arrays.copyOf(t.entries, Math.max(64, (first + added.size()) * 3 / 2));
+        // A failure in either write cuts both files back, so rows stay aligned
+        long entryEnd = Files.exists(entryFile) ? Files.size(entryFile) : 0;
+        long vectorEnd = HEADER + (long) first * t.stride;
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(entryFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+                for (int i = 0; i < added.size(); i++) {
+                    Entry e = added.get(i);
+                    e.row = first + i;
+                    entries[first + i] = e;
+                    writeEntry(out, e);
+                }
+            }
+
+            try (FileChannel ch = FileChannel.open(vectorFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long pos = vectorEnd;
+                while (rows.hasRemaining()) {
+                    pos += ch.write(rows, pos);
+                }
+                Segment[] segments = mapRows(ch, t, first, added.size(), t.segments);
+                table = new Table(t.dim, t.encoding, segments, entries, first + added.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            truncate(entryFile, entryEnd, e);
+            truncate(vectorFile, vectorEnd, e);
+            throw e;
+        }
+
+        if (graph != null) {
+            catchUp(graph, table);
+            if (unsavedInserts >= Math.max(GRAPH_SAVE_MIN, table.size / 10)) saveGraph();
+        } else if (graphParams != null) {
+            openGraph();
+        }
+    }
+
+    /**
+     * Cut file back to size after a failed append; errors ride along on cause
+     */
+    private static void truncate(Path file, long size, Exception cause) {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            if (ch.size() > size) ch.truncate(size);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * FLUSH
+     * Persist graph links added since the last save
+     */
+    public synchronized void flush() throws IOException {
+        if (graph != null && unsavedInserts > 0) saveGraph();
+    }
 
-                entries.add(e);
+    // ═══════════════════════════════════════════════════════════════════
+    // GRAPH
+    // ═══════════════════════════════════════════════════════════════════
 
-                ObjectNode o = mapper.createObjectNode();
-                o.put("id", e.id);
-                o.put("path", e.path);
-                o.put("chunkIndex", e.chunkIndex);
-                o.put("text", e.text);
+    /**
+     * Load vectors.hnsw, or start a new graph, and link any rows it lacks
+     */
+    private void openGraph() throws IOException {
+        HnswIndex.Params p = graphParams;
+        Table t = table;
+        if (p == null || t == EMPTY) return;
+        HnswIndex g = HnswIndex.load(graphFile, p);
+        if (g == null || g.size() > t.size) g = new HnswIndex(p);
+        catchUp(g, t);
+        graph = g;
+        if (unsavedInserts > 0) saveGraph();
+    }
 
-                ArrayNode vec = o.putArray("vec");
-                for (double d : e.vec) vec.add(d);
+    private void catchUp(HnswIndex g, Table t) {
+        if (g.size() >= t.size) return;
+        TableSource src = new TableSource(t);
+        for (int r = g.size(); r < t.size; r++) {
+            g.insert(r, src);
+            unsavedInserts++;
+        }
+    }
 
-                bw.write(mapper.writeValueAsString(o));
-                bw.newLine();
+    private void saveGraph() throws IOException {
+        graph.save(graphFile);
+        unsavedInserts = 0;
+    }
+
+    /**
+     * RECALL REPORT
+     * HNSW vs exact scan on perturbed stored vectors; null without a graph
+     */
+    public HnswIndex.Recall recallReport(int k, int queries) {
+        HnswIndex g = graph;
+        Table t = table;
+        return g == null ? null : g.recall(new TableSource(t), k, queries, 7);
+    }
+
+    /**
+     * Graph access to one table snapshot. Holds scratch rows, so one
+     * instance per thread.
+     */
+    private static final class TableSource implements HnswIndex.VectorSource {
+        final Table t;
+        final FloatBuffer[] floats;
+        final float[] frow;
+        final byte[] brow;
+
+        TableSource(Table t) {
+            this.t = t;
+            this.floats = new FloatBuffer[t.segments.length];
+            if (t.encoding == Encoding.FLOAT32) {
+                for (int i = 0; i < floats.length; i++) {
+                    floats[i] = t.segments[i].data.duplicate().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+                }
+            }
+            this.frow = new float[t.dim];
+            this.brow = new byte[t.dim];
+        }
+
+        @Override
+        public int size() {
+            return t.size;
+        }
+
+        @Override
+        public float[] vector(int node) {
+            return decode(t, node);
+        }
+
+        @Override
+        public float dot(float[] q, int node) {
+            int si = segmentOf(t, node);
+            Segment s = t.segments[si];
+            int r = node - s.firstRow;
+            if (t.encoding == Encoding.FLOAT32) {
+                floats[si].get(r * t.dim, frow);
+                return VectorStore.dot(q, frow, t.dim);
             }
+            int off = r * t.stride;
+            s.data.get(off + 4, brow);
+            float sum = 0;
+            for (int i = 0; i < t.dim; i++) sum += q[i] * brow[i];
+            return sum * s.data.getFloat(off);
         }
     }
 
@@ -110,32 +425,387 @@ public class VectorStore {
      */
     public List<Entry> topK(double[] queryVec, int k) {
         if (queryVec == null || queryVec.length == 0) return List.of();
-        PriorityQueue<Map.Entry<Entry, Double>> pq = new PriorityQueue<>(Comparator.comparing(Map.Entry::getValue));
+        Table t = table;
+        if (t.size == 0 || k <= 0) return List.of();
+
+        float[] q = normalizedQuery(t, queryVec);
+        HnswIndex g = graph;
+        if (g != null && t.size > BRUTE_FORCE_MAX) {
+            List<Entry> out = new ArrayList<>();
+            for (int row : g.search(q, k, new TableSource(t))) {
+                Entry e = t.entries[row];
+                if (e.vec == null) e.vec = decodeRow(t, row);
+                out.add(e);
+            }
+            return out;
+        }
 
-        for (Entry e : entries) {
-            double score = cosine(queryVec, e.vec);
-            if (pq.size() < k) pq.offer(new AbstractMap.SimpleEntry<>(e, score));
-            else if (score > pq.peek().getValue()) { pq.poll(); pq.offer(new AbstractMap.SimpleEntry<>(e, score)); }
+        byte[] q8 = t.encoding == Encoding.INT8 ? quantize(q) : null;
+        List<Segment> parts = partitions(t);
+
+        PriorityQueue<Scored> pq;
+        if (parallel && t.size >= PARALLEL_MIN) {
+            pq = parts.parallelStream()
+                .map(s -> scan(t, s, q, q8, k))
+                .reduce((a, b) -> { for (Scored s : b) offer(a, s, k); return a; })
+                .orElseGet(PriorityQueue::new);
+        } else {
+            pq = new PriorityQueue<>();
+            for (Segment s : parts) {
+                for (Scored hit : scan(t, s, q, q8, k)) offer(pq, hit, k);
+            }
         }
 
-        List<Map.Entry<Entry, Double>> tmp = new ArrayList<>(pq);
-        tmp.sort((a, b) -> Double.compare(b.getValue(), a.getValue()));
+        List<Scored> tmp = new ArrayList<>(pq);
+        tmp.sort(Comparator.reverseOrder());
 
         List<Entry> out = new ArrayList<>();
-        for (var it : tmp) out.add(it.getKey());
+        for (Scored s : tmp) {
+            Entry e = t.entries[s.row];
+            if (e.vec == null) e.vec = decodeRow(t, s.row);
+            out.add(e);
+        }
         return out;
     }
 
-    private double cosine(double[] a, double[] b) {
-        if (a == null || b == null || a.length == 0 || b.length == 0) return 0.0;
-        int n = Math.min(a.length, b.length);
-        double dot = 0, na = 0, nb = 0;
-        for (int i = 0; i < n; i++) {
-            dot += a[i] * b[i];
-            na += a[i] * a[i];
-            nb += b[i] * b[i];
+    // ═══════════════════════════════════════════════════════════════════
+    // SCAN
+    // ═══════════════════════════════════════════════════════════════════
+
+    private static final class Scored implements Comparable<Scored> {
+        final int row;
+        final float score;
+
+        Scored(int row, float score) {
+            this.row = row;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(Scored o) {
+            int c = Float.compare(score, o.score);
+            return c != 0 ? c : Integer.compare(o.row, row);
+        }
+    }
+
+    private static void offer(PriorityQueue<Scored> pq, Scored s, int k) {
+        if (pq.size() < k) pq.offer(s);
+        else if (s.compareTo(pq.peek()) > 0) { pq.poll(); pq.offer(s); }
+    }
+
+    private static PriorityQueue<Scored> scan(Table t, Segment s, float[] q, byte[] q8, int k) {
+        PriorityQueue<Scored> pq = new PriorityQueue<>();
+        int dim = t.dim;
+        float worst = Float.NEGATIVE_INFINITY;
+        // Bulk-copy each row out of the mapping; per-element absolute gets
+        // cost a bounds check each and keep the loop from unrolling
+        FloatBuffer floats = q8 == null ? s.data.duplicate().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer() : null;
+        ByteBuffer bytes = s.data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        float[] frow = new float[dim];
+        byte[] brow = new byte[dim];
+        for (int r = 0; r < s.rows; r++) {
+            float score;
+            if (floats != null) {
+                floats.get(r * dim, frow);
+                score = dot(q, frow, dim);
+            } else {
+                // Rank by row scale × integer dot; the query scale is common
+                int off = r * t.stride;
+                bytes.get(off + 4, brow);
+                score = dot(q8, brow, dim) * bytes.getFloat(off);
+            }
+            if (pq.size() == k && score <= worst) continue;
+            offer(pq, new Scored(s.firstRow + r, score), k);
+            if (pq.size() == k) worst = pq.peek().score;
+        }
+        return pq;
+    }
+
+    private static float dot(float[] q, float[] row, int dim) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < dim; i += 4) {
+            s0 += q[i] * row[i];
+            s1 += q[i + 1] * row[i + 1];
+            s2 += q[i + 2] * row[i + 2];
+            s3 += q[i + 3] * row[i + 3];
+        }
+        for (; i < dim; i++) s0 += q[i] * row[i];
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static int dot(byte[] q, byte[] row, int dim) {
+        int sum = 0;
+        for (int i = 0; i < dim; i++) sum += q[i] * row[i];
+        return sum;
+    }
+
+    /**
+     * Split mapped segments into PARTITION-row slices for the scan
+     */
+    private static List<Segment> partitions(Table t) {
+        List<Segment> parts = new ArrayList<>();
+        for (Segment s : t.segments) {
+            for (int r = 0; r < s.rows; r += PARTITION) {
+                int n = Math.min(PARTITION, s.rows - r);
+                ByteBuffer slice = s.data.duplicate().position(r * t.stride).limit((r + n) * t.stride)
+                    .slice().order(ByteOrder.LITTLE_ENDIAN);
+                parts.add(new Segment(slice, s.firstRow + r, n));
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Query in float, normalized; dimensions beyond the store's are
+     * ignored and missing ones count as zero
+     */
+    private static float[] normalizedQuery(Table t, double[] v) {
+        float[] q = new float[t.dim];
+        int n = Math.min(t.dim, v.length);
+        double norm = 0;
+        for (int i = 0; i < n; i++) norm += v[i] * v[i];
+        if (norm == 0) return q;
+        double inv = 1.0 / Math.sqrt(norm);
+        for (int i = 0; i < n; i++) q[i] = (float) (v[i] * inv);
+        return q;
+    }
+
+    private static byte[] quantize(float[] q) {
+        float max = 0;
+        for (float f : q) max = Math.max(max, Math.abs(f));
+        byte[] out = new byte[q.length];
+        if (max == 0) return out;
+        for (int i = 0; i < q.length; i++) out[i] = (byte) Math.round(q[i] * 127 / max);
+        return out;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // ROWS
+    // ═══════════════════════════════════════════════════════════════════
+
+    private static void encodeRow(Table t, double[] v, ByteBuffer out) {
+        double norm = 0;
+        for (double d : v) norm += d * d;
+        double inv = norm == 0 ? 0 : 1.0 / Math.sqrt(norm);
+
+        if (t.encoding == Encoding.FLOAT32) {
+            for (double d : v) out.putFloat((float) (d * inv));
+            return;
+        }
+        double max = 0;
+        for (double d : v) max = Math.max(max, Math.abs(d * inv));
+        float scale = (float) (max / 127.0);
+        out.putFloat(scale);
+        for (double d : v) out.put(scale == 0 ? 0 : (byte) Math.round(d * inv / scale));
+    }
+
+    private static int segmentOf(Table t, int row) {
+        Segment[] segs = t.segments;
+        int lo = 0, hi = segs.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (segs[mid].firstRow <= row) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    private static float[] decode(Table t, int row) {
+        Segment s = t.segments[segmentOf(t, row)];
+        int off = (row - s.firstRow) * t.stride;
+        float[] v = new float[t.dim];
+        if (t.encoding == Encoding.FLOAT32) {
+            for (int i = 0; i < t.dim; i++) v[i] = s.data.getFloat(off + 4 * i);
+        } else {
+            float scale = s.data.getFloat(off);
+            for (int i = 0; i < t.dim; i++) v[i] = s.data.get(off + 4 + i) * scale;
+        }
+        return v;
+    }
+
+    private static double[] decodeRow(Table t, int row) {
+        float[] f = decode(t, row);
+        double[] v = new double[f.length];
+        for (int i = 0; i < f.length; i++) v[i] = f[i];
+        return v;
+    }
+
+    /**
+     * Map rows [first, first + count) after the existing segments, at most
+     * MAX_SEGMENT bytes per mapping. A last segment with room is re-mapped
+     * to cover the new rows, so appends don't pile up tiny mappings.
+     */
+    private static Segment[] mapRows(FileChannel ch, Table t, int first, int count, Segment[] existing)
+            throws IOException {
+        List<Segment> out = new ArrayList<>(Arrays.asList(existing));
+        int perSegment = (int) Math.max(1, MAX_SEGMENT / t.stride);
+        int end = first + count;
+        if (!out.isEmpty()) {
+            Segment last = out.get(out.size() - 1);
+            if (last.rows < perSegment) {
+                out.remove(out.size() - 1);
+                first = last.firstRow;
+            }
+        }
+        for (int r = first; r < end; r += perSegment) {
+            int n = Math.min(perSegment, end - r);
+            MappedByteBuffer m = ch.map(FileChannel.MapMode.READ_ONLY, HEADER + (long) r * t.stride, (long) n * t.stride);
+            m.order(ByteOrder.LITTLE_ENDIAN);
+            out.add(new Segment(m, r, n));
+        }
+        return out.toArray(new Segment[0]);
+    }
+
+    /**
+     * Start a fresh store: header only, no entries. Only reached when
+     * vectors.bin is absent or holds no complete header (see append).
+     */
+    private void writeHeader(Table t) throws IOException {
+        try (FileChannel ch = FileChannel.open(vectorFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(ch, t);
+        }
+        Files.deleteIfExists(entryFile);
+        Files.deleteIfExists(graphFile);
+    }
+
+    private static void writeHeader(FileChannel ch, Table t) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(t.dim).putInt(t.encoding.ordinal()).flip();
+        while (header.hasRemaining()) {
+            ch.write(header, header.position());
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════
+    // ENTRIES
+    // ═══════════════════════════════════════════════════════════════════
+
+    private static void writeEntry(DataOutputStream out, Entry e) throws IOException {
+        out.writeUTF(e.id);
+        out.writeUTF(e.path);
+        out.writeInt(e.chunkIndex);
+        byte[] text = e.text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(text.length);
+        out.write(text);
+    }
+
+    /**
+     * Read every complete entry, recording the byte offset where each ends
+     */
+    private void readEntries(List<Entry> out, List<Long> ends) throws IOException {
+        if (!Files.exists(entryFile)) return;
+        try (CountingInput counter = new CountingInput(new BufferedInputStream(Files.newInputStream(entryFile)));
+             DataInputStream in = new DataInputStream(counter)) {
+            while (true) {
+                Entry e = new Entry();
+                try {
+                    e.id = in.readUTF();
+                    e.path = in.readUTF();
+                    e.chunkIndex = in.readInt();
+                    byte[] text = new byte[in.readInt()];
+                    in.readFully(text);
+                    e.text = new String(text, StandardCharsets.UTF_8);
+                } catch (EOFException torn) {
+                    return;
+                }
+                e.row = out.size();
+                out.add(e);
+                ends.add(counter.count);
+            }
+        }
+    }
+
+    private static final class CountingInput extends FilterInputStream {
+        long count;
+
+        CountingInput(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+
+    /**
+     * One-time import of a legacy index.jsonl into the binary sidecars.
+     * Rows and entries go to *.tmp files, are forced to disk, then renamed
+     * into place with vectors.bin last: until that rename lands the import
+     * simply runs again, and index.jsonl is never touched.
+     */
+    private void importJsonl() throws IOException {
+        Path vectorTmp = vectorFile.resolveSibling(vectorFile.getFileName() + ".tmp");
+        Path entryTmp = entryFile.resolveSibling(entryFile.getFileName() + ".tmp");
+        Table t = null;
+        try (BufferedReader br = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8);
+             FileChannel vch = FileChannel.open(vectorTmp, StandardOpenOption.CREATE,
+                 StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             FileChannel ech = FileChannel.open(entryTmp, StandardOpenOption.CREATE,
+                 StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream entries = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(ech)));
+            ByteBuffer row = null;
+            long pos = HEADER;
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.isBlank()) continue;
+                JsonNode o = mapper.readTree(line);
+                Entry e = new Entry();
+                e.id = o.get("id").asText();
+                e.path = o.get("path").asText();
+                e.chunkIndex = o.get("chunkIndex").asInt();
+                e.text = o.get("text").asText();
+
+                JsonNode v = o.get("vec");
+                double[] arr = new double[v.size()];
+                for (int i = 0; i < v.size(); i++) arr[i] = v.get(i).asDouble();
+
+                if (t == null) {
+                    t = new Table(arr.length, preferred, new Segment[0], new Entry[0], 0);
+                    row = ByteBuffer.allocate(t.stride).order(ByteOrder.LITTLE_ENDIAN);
+                    writeHeader(vch, t);
+                }
+                if (arr.length != t.dim) {
+                    throw new IOException(indexFile + ": vector dim " + arr.length + " != " + t.dim);
+                }
+                row.clear();
+                encodeRow(t, arr, row);
+                row.flip();
+                while (row.hasRemaining()) {
+                    pos += vch.write(row, pos);
+                }
+                writeEntry(entries, e);
+            }
+            entries.flush();
+            vch.force(true);
+            ech.force(true);
+        }
+        if (t == null) {   // nothing to import
+            Files.deleteIfExists(vectorTmp);
+            Files.deleteIfExists(entryTmp);
+            return;
+        }
+        Files.deleteIfExists(graphFile);
+        move(entryTmp, entryFile);
+        move(vectorTmp, vectorFile);
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
         }
-        if (na == 0 || nb == 0) return 0.0;
-        return dot / (Math.sqrt(na) * Math.sqrt(nb));
     }
 }